@@ -2,30 +2,20 @@ package com.codevision.codevisionbackend.analysis;
 
 import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
 import com.codevision.codevisionbackend.analyze.scanner.AnalysisExclusions;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassVisitor;
-import org.objectweb.asm.MethodVisitor;
-import org.objectweb.asm.Opcodes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
- * Builds method-level and class-level call graphs using ASM without classloading analyzed code.
+ * Builds method-level and class-level call graphs from the method calls {@link BytecodeClasspath} reads with ASM,
+ * without classloading analyzed code.
  */
 @Component
 public class BytecodeCallGraphScanner {
@@ -33,24 +23,51 @@ public class BytecodeCallGraphScanner {
     private static final Logger log = LoggerFactory.getLogger(BytecodeCallGraphScanner.class);
 
     private final CompiledAnalysisProperties properties;
+    private final BytecodeJarCache jarCache;
 
     public BytecodeCallGraphScanner(CompiledAnalysisProperties properties) {
+        this(properties, null);
+    }
+
+    @Autowired
+    public BytecodeCallGraphScanner(CompiledAnalysisProperties properties, BytecodeJarCache jarCache) {
         this.properties = properties;
+        this.jarCache = jarCache;
     }
 
     public CallGraphResult scan(ClasspathBuilder.ClasspathDescriptor descriptor, List<String> acceptPackages) {
+        try (BytecodeClasspath classpath = BytecodeClasspath.read(
+                descriptor, acceptPackages, properties.resolveScanParallelism(), jarCache)) {
+            return scan(classpath);
+        }
+    }
+
+    /** Builds the call graph from classes already read, e.g. shared with {@link BytecodeEntityScanner}. */
+    public CallGraphResult scan(BytecodeClasspath classpath) {
+        List<String> acceptPackages = classpath.acceptPackages();
         Map<String, Set<String>> classEdges = new LinkedHashMap<>();
         List<GraphModel.MethodCallEdge> methodEdges = new ArrayList<>();
 
-        for (Path entry : descriptor.getClasspathEntries()) {
-            try {
-                if (Files.isDirectory(entry)) {
-                    scanDirectory(entry, acceptPackages, classEdges, methodEdges);
-                } else if (Files.isRegularFile(entry) && entry.toString().endsWith(".jar")) {
-                    scanJar(entry, acceptPackages, classEdges, methodEdges);
+        for (BytecodeClasspath.ClassData type : classpath.classes()) {
+            String callerClass = type.name();
+            if (!shouldInclude(callerClass, acceptPackages)) {
+                continue;
+            }
+            for (BytecodeClasspath.Invocation invocation : type.invocations()) {
+                String calleeClass = invocation.calleeClass();
+                if (!shouldInclude(calleeClass, acceptPackages)) {
+                    continue;
                 }
-            } catch (IOException ex) {
-                log.warn("Failed scanning {} for call graph: {}", entry, ex.getMessage());
+                var edge = new GraphModel.MethodCallEdge(
+                        callerClass,
+                        invocation.callerMethod(),
+                        invocation.callerDescriptor(),
+                        calleeClass,
+                        invocation.calleeMethod(),
+                        invocation.calleeDescriptor());
+                edge.setLineNumber(invocation.lineNumber());
+                methodEdges.add(edge);
+                classEdges.computeIfAbsent(callerClass, key -> new LinkedHashSet<>()).add(calleeClass);
             }
         }
         log.info(
@@ -60,105 +77,6 @@ public class BytecodeCallGraphScanner {
         return new CallGraphResult(methodEdges, classEdges);
     }
 
-    private void scanDirectory(
-            Path directory,
-            List<String> acceptPackages,
-            Map<String, Set<String>> classEdges,
-            List<GraphModel.MethodCallEdge> methodEdges)
-            throws IOException {
-        Files.walk(directory)
-                .filter(path -> path.toString().endsWith(".class"))
-                .forEach(classFile -> {
-                    try (InputStream inputStream = Files.newInputStream(classFile)) {
-                        parseClass(inputStream.readAllBytes(), acceptPackages, classEdges, methodEdges);
-                    } catch (IOException ex) {
-                        log.debug("Failed to parse class {}: {}", classFile, ex.getMessage());
-                    }
-                });
-    }
-
-    private void scanJar(
-            Path jarPath,
-            List<String> acceptPackages,
-            Map<String, Set<String>> classEdges,
-            List<GraphModel.MethodCallEdge> methodEdges)
-            throws IOException {
-        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
-            Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
-                    continue;
-                }
-                try (InputStream inputStream = jarFile.getInputStream(entry)) {
-                    parseClass(inputStream.readAllBytes(), acceptPackages, classEdges, methodEdges);
-                } catch (IOException ioException) {
-                    log.debug("Failed to parse {} from {}: {}", entry.getName(), jarPath, ioException.getMessage());
-                }
-            }
-        }
-    }
-
-    private void parseClass(
-            byte[] bytes,
-            List<String> acceptPackages,
-            Map<String, Set<String>> classEdges,
-            List<GraphModel.MethodCallEdge> methodEdges)
-            throws IOException {
-        ClassReader reader = new ClassReader(bytes);
-        reader.accept(new ClassVisitor(Opcodes.ASM9) {
-            private String currentClassName;
-
-            @Override
-            public void visit(
-                    int version,
-                    int access,
-                    String name,
-                    String signature,
-                    String superName,
-                    String[] interfaces) {
-                this.currentClassName = name.replace('/', '.');
-            }
-
-            @Override
-            public MethodVisitor visitMethod(
-                    int access,
-                    String name,
-                    String descriptor,
-                    String signature,
-                    String[] exceptions) {
-                return new MethodVisitor(Opcodes.ASM9) {
-                    private int currentLine = -1;
-
-                    @Override
-                    public void visitLineNumber(int line, org.objectweb.asm.Label start) {
-                        this.currentLine = line;
-                    }
-
-                    @Override
-                    public void visitMethodInsn(
-                            int opcode,
-                            String owner,
-                            String methodName,
-                            String methodDescriptor,
-                            boolean isInterface) {
-                        String callerClass = currentClassName;
-                        String calleeClass = owner.replace('/', '.');
-                        if (!shouldInclude(callerClass, acceptPackages)
-                                || !shouldInclude(calleeClass, acceptPackages)) {
-                            return;
-                        }
-                        var edge = new GraphModel.MethodCallEdge(
-                                callerClass, name, descriptor, calleeClass, methodName, methodDescriptor);
-                        edge.setLineNumber(currentLine);
-                        methodEdges.add(edge);
-                        classEdges.computeIfAbsent(callerClass, key -> new LinkedHashSet<>()).add(calleeClass);
-                    }
-                };
-            }
-        }, ClassReader.SKIP_FRAMES);
-    }
-
     private boolean shouldInclude(String className, List<String> acceptPackages) {
         if (className == null || className.startsWith("java.") || className.startsWith("jakarta.")) {
             return false;
@@ -0,0 +1,1004 @@
+package com.codevision.codevisionbackend.analysis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.RecordComponentVisitor;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The classes of a compiled classpath, read once with ASM and shared by {@link BytecodeEntityScanner} and
+ * {@link BytecodeCallGraphScanner}.
+ *
+ * <p>Every class in one of the accepted packages is read in full on up to {@code parallelism} threads: its header,
+ * its public fields and methods with their annotations, and the method calls in its code. Classpath entries are
+ * filtered by path before anything is decompressed. A class found in several entries is taken from the first one.
+ * Classes outside the accepted packages are read, without their code, only when a supertype or annotation refers to
+ * them.</p>
+ *
+ * <p>Supertypes, members and annotations are resolved the way ClassGraph reported them to the scanners: interfaces
+ * include those of superinterfaces and superclasses, fields and methods include the public members of supertypes,
+ * annotations include meta-annotations (and, on classes, {@code @Inherited} annotations of superclasses), and
+ * annotation parameters include the defaults of annotation types found on the classpath.</p>
+ *
+ * <p>When a {@link BytecodeJarCache} is given, the classes of a jar it has seen before are taken from the cache
+ * instead; a jar that misses is read in full, shadowed classes included, and stored. Directories are always read.</p>
+ *
+ * <p>Jar files stay open until the classpath is closed.</p>
+ */
+public final class BytecodeClasspath implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BytecodeClasspath.class);
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final List<String> CLASS_ROOTS = List.of("", "BOOT-INF/classes/", "WEB-INF/classes/");
+    private static final String META_ANNOTATION_PACKAGE = "java.lang.annotation.";
+    private static final String INHERITED = "java.lang.annotation.Inherited";
+    private static final Comparator<RawAnnotation> ANNOTATION_ORDER =
+            Comparator.comparing((RawAnnotation annotation) -> annotation.name)
+                    .thenComparing(BytecodeClasspath::compareParameters);
+
+    private final List<String> acceptPackages;
+    private final List<Source> sources;
+    private final Map<String, ClassData> classes;
+    private final Map<String, Optional<ClassData>> referenced = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> interfaces = new ConcurrentHashMap<>();
+
+    private BytecodeClasspath(List<String> acceptPackages, List<Source> sources, Map<String, ClassData> classes) {
+        this.acceptPackages = acceptPackages;
+        this.sources = sources;
+        this.classes = classes;
+    }
+
+    /**
+     * Reads the classes of {@code descriptor} that are in {@code acceptPackages}, or every class when no package is
+     * given.
+     *
+     * @param parallelism number of classes read at once
+     */
+    public static BytecodeClasspath read(
+            ClasspathBuilder.ClasspathDescriptor descriptor, List<String> acceptPackages, int parallelism) {
+        return read(descriptor, acceptPackages, parallelism, null);
+    }
+
+    /**
+     * Reads the classes of {@code descriptor} that are in {@code acceptPackages}, taking those of unchanged jars from
+     * {@code cache} when it is not {@code null}.
+     *
+     * @param parallelism number of classes read at once
+     */
+    public static BytecodeClasspath read(
+            ClasspathBuilder.ClasspathDescriptor descriptor,
+            List<String> acceptPackages,
+            int parallelism,
+            BytecodeJarCache cache) {
+        List<String> packages = acceptPackages == null ? List.of() : List.copyOf(acceptPackages);
+        boolean cached = cache != null && cache.isEnabled();
+        List<Source> sources = new ArrayList<>();
+        for (Path entry : descriptor.getClasspathEntries()) {
+            Source source = Source.open(entry);
+            if (source != null) {
+                sources.add(source);
+            }
+        }
+
+        Map<Source, List<ClassData>> hits = new LinkedHashMap<>();
+        List<Resource> toRead = new ArrayList<>();
+        Set<String> claimed = new HashSet<>();
+        for (Source source : sources) {
+            if (cached && source.jar != null) {
+                Optional<List<ClassData>> hit = cache.load(source.entry, packages);
+                if (hit.isPresent()) {
+                    hit.get().forEach(data -> data.location = source.location);
+                    hits.put(source, hit.get());
+                    hit.get().forEach(data -> claimed.add(data.name));
+                    continue;
+                }
+            }
+            boolean complete = cached && source.jar != null;
+            try {
+                for (String path : source.classFiles()) {
+                    String className = classNameOf(path);
+                    if (className != null
+                            && GraphModel.isUserPackage(className, packages)
+                            && (claimed.add(className) || complete)) {
+                        toRead.add(new Resource(source, path, className));
+                    }
+                }
+            } catch (IOException ex) {
+                log.warn("Failed listing classes of {}: {}", source.entry, ex.getMessage());
+            }
+        }
+
+        List<ClassData> read;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            read = pool.submit(() -> toRead.parallelStream()
+                    .map(resource -> parse(resource, true))
+                    .toList()).join();
+        } finally {
+            pool.shutdown();
+        }
+        Map<Source, List<ClassData>> bySource = new LinkedHashMap<>(hits);
+        for (int i = 0; i < toRead.size(); i++) {
+            if (read.get(i) != null) {
+                bySource.computeIfAbsent(toRead.get(i).source, key -> new ArrayList<>()).add(read.get(i));
+            }
+        }
+        if (cached) {
+            for (Source source : sources) {
+                if (source.jar != null && !hits.containsKey(source)) {
+                    cache.store(source.entry, packages, bySource.getOrDefault(source, List.of()));
+                }
+            }
+        }
+
+        Map<String, ClassData> classes = new TreeMap<>();
+        for (Source source : sources) {
+            bySource.getOrDefault(source, List.of()).forEach(data -> classes.putIfAbsent(data.name, data));
+        }
+        log.debug("Read {} classes from {} classpath entries, {} jars from cache",
+                classes.size(), sources.size(), hits.size());
+        return new BytecodeClasspath(packages, sources, Collections.unmodifiableMap(classes));
+    }
+
+    public List<String> acceptPackages() {
+        return acceptPackages;
+    }
+
+    /** Classes in the accepted packages, ordered by name. */
+    public Collection<ClassData> classes() {
+        return classes.values();
+    }
+
+    /** Any class on the classpath, read on first use when it is outside the accepted packages. */
+    public Optional<ClassData> find(String className) {
+        if (className == null) {
+            return Optional.empty();
+        }
+        ClassData data = classes.get(className);
+        if (data != null || GraphModel.isUserPackage(className, acceptPackages)) {
+            return Optional.ofNullable(data);
+        }
+        return referenced.computeIfAbsent(className, this::readReferenced);
+    }
+
+    /**
+     * Interfaces of a class: those it implements, their superinterfaces, then those of its superclasses, breadth
+     * first. For an interface, its superinterfaces.
+     */
+    public List<String> interfaces(ClassData type) {
+        List<String> cached = interfaces.get(type.name);
+        if (cached != null) {
+            return cached;
+        }
+        Set<String> all = new LinkedHashSet<>(reachableInterfaces(type));
+        for (ClassData superclass : superclasses(type)) {
+            all.addAll(reachableInterfaces(superclass));
+        }
+        List<String> resolved = List.copyOf(all);
+        interfaces.put(type.name, resolved);
+        return resolved;
+    }
+
+    /**
+     * Annotations of a class ordered by name: its own, the {@code @Inherited} annotations of its superclasses it
+     * does not declare itself, and the meta-annotations of its own annotations.
+     */
+    public List<AnnotationData> annotations(ClassData type) {
+        List<RawAnnotation> all = new ArrayList<>(type.annotations);
+        Set<String> names = type.annotations.stream().map(annotation -> annotation.name).collect(Collectors.toSet());
+        for (ClassData superclass : superclasses(type)) {
+            for (RawAnnotation annotation : superclass.annotations) {
+                if (isInherited(annotation.name) && names.add(annotation.name)) {
+                    all.add(annotation);
+                }
+            }
+        }
+        return withMetaAnnotations(type.annotations, all);
+    }
+
+    /**
+     * Public fields of a class and of its supertypes, the class first, then its interfaces, then its superclass. A
+     * field hides supertype fields of the same name.
+     */
+    public List<FieldData> fields(ClassData type) {
+        List<ClassData> order = new ArrayList<>();
+        fieldOrder(type, new HashSet<>(), order);
+        Set<String> names = new HashSet<>();
+        List<FieldData> fields = new ArrayList<>();
+        for (ClassData declaring : order) {
+            for (RawField field : declaring.fields) {
+                if (names.add(field.name)) {
+                    fields.add(new FieldData(
+                            field.name,
+                            renderType(field.signature != null ? field.signature : field.descriptor),
+                            field.signature != null ? renderType(field.signature) : null,
+                            withMetaAnnotations(field.annotations, new ArrayList<>(field.annotations))));
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Public methods of a class and of its supertypes, constructors excluded, the class first, then its
+     * superclasses, then its interfaces. A method hides supertype methods with the same name and descriptor.
+     */
+    public List<MethodData> methods(ClassData type) {
+        List<ClassData> order = new ArrayList<>();
+        methodOrder(type, new HashSet<>(), order);
+        Set<String> signatures = new HashSet<>();
+        List<MethodData> methods = new ArrayList<>();
+        for (ClassData declaring : order) {
+            for (RawMethod method : declaring.methods) {
+                if (signatures.add(method.name + method.descriptor)) {
+                    methods.add(new MethodData(
+                            method.name,
+                            method.descriptor,
+                            withMetaAnnotations(method.annotations, new ArrayList<>(method.annotations))));
+                }
+            }
+        }
+        return methods;
+    }
+
+    @Override
+    public void close() {
+        for (Source source : sources) {
+            source.close();
+        }
+    }
+
+    private List<ClassData> superclasses(ClassData type) {
+        List<ClassData> superclasses = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        seen.add(type.name);
+        String next = type.superclassName;
+        while (next != null && seen.add(next)) {
+            Optional<ClassData> superclass = find(next);
+            if (superclass.isEmpty()) {
+                break;
+            }
+            superclasses.add(superclass.get());
+            next = superclass.get().superclassName;
+        }
+        return superclasses;
+    }
+
+    private Set<String> reachableInterfaces(ClassData type) {
+        Set<String> reachable = new LinkedHashSet<>(type.interfaces);
+        ArrayDeque<String> queue = new ArrayDeque<>(type.interfaces);
+        while (!queue.isEmpty()) {
+            find(queue.poll()).ifPresent(iface -> iface.interfaces.forEach(superinterface -> {
+                if (reachable.add(superinterface)) {
+                    queue.add(superinterface);
+                }
+            }));
+        }
+        return reachable;
+    }
+
+    private void fieldOrder(ClassData type, Set<String> visited, List<ClassData> order) {
+        if (!visited.add(type.name)) {
+            return;
+        }
+        order.add(type);
+        for (String iface : interfaces(type)) {
+            find(iface).ifPresent(data -> fieldOrder(data, visited, order));
+        }
+        find(type.superclassName).ifPresent(data -> fieldOrder(data, visited, order));
+    }
+
+    private void methodOrder(ClassData type, Set<String> visited, List<ClassData> order) {
+        if (!visited.add(type.name)) {
+            return;
+        }
+        order.add(type);
+        if (!type.isInterface()) {
+            find(type.superclassName).ifPresent(data -> methodOrder(data, visited, order));
+        }
+        for (String iface : interfaces(type)) {
+            find(iface).ifPresent(data -> methodOrder(data, visited, order));
+        }
+    }
+
+    private boolean isInherited(String annotationName) {
+        return find(annotationName)
+                .map(type -> type.annotations.stream().anyMatch(meta -> meta.name.equals(INHERITED)))
+                .orElse(false);
+    }
+
+    /** Adds the meta-annotations of {@code direct}, transitively, to {@code all}, sorts and resolves them. */
+    private List<AnnotationData> withMetaAnnotations(List<RawAnnotation> direct, List<RawAnnotation> all) {
+        Set<String> visited = new HashSet<>();
+        for (RawAnnotation annotation : direct) {
+            addMetaAnnotations(annotation, all, visited);
+        }
+        all.sort(ANNOTATION_ORDER);
+        return all.stream().map(this::resolve).toList();
+    }
+
+    private void addMetaAnnotations(RawAnnotation annotation, List<RawAnnotation> all, Set<String> visited) {
+        Optional<ClassData> type = find(annotation.name);
+        if (type.isEmpty() || !visited.add(annotation.name)) {
+            return;
+        }
+        for (RawAnnotation meta : type.get().annotations) {
+            if (!meta.name.startsWith(META_ANNOTATION_PACKAGE)) {
+                all.add(meta);
+                addMetaAnnotations(meta, all, visited);
+            }
+        }
+    }
+
+    /**
+     * Resolves parameter values: defaults declared by the annotation type are added in declaration order, and
+     * arrays of strings or primitives get their element type once the annotation type is known.
+     */
+    private AnnotationData resolve(RawAnnotation annotation) {
+        Optional<ClassData> type = find(annotation.name);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (type.isPresent() && !type.get().defaults.isEmpty()) {
+            ClassData annotationType = type.get();
+            annotationType.members.forEach((member, descriptor) -> {
+                Object value = annotation.values.containsKey(member)
+                        ? annotation.values.get(member)
+                        : annotationType.defaults.get(member);
+                if (value != null) {
+                    parameters.put(member, convert(value, descriptor));
+                }
+            });
+        } else {
+            annotation.values.forEach((member, value) -> parameters.put(
+                    member, convert(value, type.map(data -> data.members.get(member)).orElse(null))));
+        }
+        return new AnnotationData(annotation.name, Collections.unmodifiableMap(parameters));
+    }
+
+    private Object convert(Object value, String descriptor) {
+        if (value instanceof RawAnnotation nested) {
+            return resolve(nested);
+        }
+        if (!(value instanceof Object[] array)) {
+            return value;
+        }
+        String elementDescriptor = descriptor != null && descriptor.startsWith("[") ? descriptor.substring(1) : null;
+        Object[] elements = new Object[array.length];
+        for (int i = 0; i < array.length; i++) {
+            elements[i] = convert(array[i], elementDescriptor);
+        }
+        if ("Ljava/lang/String;".equals(elementDescriptor)) {
+            return Arrays.copyOf(elements, elements.length, String[].class);
+        }
+        if (elementDescriptor != null && elementDescriptor.length() == 1) {
+            Class<?> componentType = primitiveType(elementDescriptor.charAt(0));
+            if (componentType != null) {
+                Object primitives = java.lang.reflect.Array.newInstance(componentType, elements.length);
+                for (int i = 0; i < elements.length; i++) {
+                    java.lang.reflect.Array.set(primitives, i, elements[i]);
+                }
+                return primitives;
+            }
+        }
+        return elements;
+    }
+
+    private Optional<ClassData> readReferenced(String className) {
+        String relative = className.replace('.', '/') + CLASS_SUFFIX;
+        for (Source source : sources) {
+            for (String root : CLASS_ROOTS) {
+                if (source.contains(root + relative)) {
+                    return Optional.ofNullable(parse(new Resource(source, root + relative, className), false));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static ClassData parse(Resource resource, boolean withCode) {
+        try (InputStream in = resource.source.open(resource.path)) {
+            ClassCollector collector = new ClassCollector(resource.source.location, withCode);
+            new ClassReader(in).accept(collector, withCode
+                    ? ClassReader.SKIP_FRAMES
+                    : ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            ClassData data = collector.data;
+            if (data == null || !data.name.equals(resource.className)) {
+                log.debug("Skipping {} in {}: it declares {}", resource.path, resource.source.entry,
+                        data != null ? data.name : null);
+                return null;
+            }
+            return data;
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Failed to parse {} from {}: {}", resource.path, resource.source.entry, ex.getMessage());
+            return null;
+        }
+    }
+
+    /** Class name for a class file path, or {@code null} when the file holds no class of its own. */
+    static String classNameOf(String path) {
+        if (!path.endsWith(CLASS_SUFFIX)) {
+            return null;
+        }
+        String relative = path;
+        for (String root : CLASS_ROOTS) {
+            if (!root.isEmpty() && relative.startsWith(root)) {
+                relative = relative.substring(root.length());
+                break;
+            }
+        }
+        if (relative.startsWith("META-INF/")) {
+            return null;
+        }
+        String name = relative.substring(0, relative.length() - CLASS_SUFFIX.length());
+        if (name.endsWith("module-info") || name.endsWith("package-info")) {
+            return null;
+        }
+        return name.replace('/', '.');
+    }
+
+    private static int compareParameters(RawAnnotation left, RawAnnotation right) {
+        List<Map.Entry<String, Object>> leftValues = List.copyOf(left.values.entrySet());
+        List<Map.Entry<String, Object>> rightValues = List.copyOf(right.values.entrySet());
+        for (int i = 0; i < Math.max(leftValues.size(), rightValues.size()); i++) {
+            if (i >= leftValues.size()) {
+                return -1;
+            }
+            if (i >= rightValues.size()) {
+                return 1;
+            }
+            int diff = leftValues.get(i).getKey().compareTo(rightValues.get(i).getKey());
+            if (diff == 0) {
+                diff = render(leftValues.get(i).getValue()).compareTo(render(rightValues.get(i).getValue()));
+            }
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    /** Renders an annotation parameter value as ClassGraph prints it inside an annotation. */
+    static String render(Object value) {
+        if (value instanceof String string) {
+            return '"' + escape(string) + '"';
+        }
+        if (value instanceof Character character) {
+            return "'" + escape(String.valueOf(character)) + "'";
+        }
+        if (value instanceof Object[] array) {
+            return Arrays.stream(array).map(BytecodeClasspath::render).collect(Collectors.joining(", ", "{", "}"));
+        }
+        if (value != null && value.getClass().isArray()) {
+            List<String> elements = new ArrayList<>();
+            for (int i = 0; i < java.lang.reflect.Array.getLength(value); i++) {
+                elements.add(render(java.lang.reflect.Array.get(value, i)));
+            }
+            return elements.stream().collect(Collectors.joining(", ", "{", "}"));
+        }
+        return String.valueOf(value);
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '"' -> escaped.append("\\\"");
+                case '\'' -> escaped.append("\\'");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Renders a field type signature or descriptor as Java source, e.g. {@code java.util.List<? extends T>[]}.
+     * Nested classes keep their binary {@code $} separator.
+     */
+    static String renderType(String signature) {
+        StringBuilder out = new StringBuilder();
+        renderType(signature, 0, out);
+        return out.toString();
+    }
+
+    private static int renderType(String signature, int position, StringBuilder out) {
+        char c = signature.charAt(position);
+        switch (c) {
+            case '[' -> {
+                int next = renderType(signature, position + 1, out);
+                out.append("[]");
+                return next;
+            }
+            case 'T' -> {
+                int end = signature.indexOf(';', position);
+                out.append(signature, position + 1, end);
+                return end + 1;
+            }
+            case 'L' -> {
+                int i = position + 1;
+                while (true) {
+                    int start = i;
+                    while (signature.charAt(i) != '<' && signature.charAt(i) != '.' && signature.charAt(i) != ';') {
+                        i++;
+                    }
+                    out.append(signature.substring(start, i).replace('/', '.'));
+                    if (signature.charAt(i) == '<') {
+                        out.append('<');
+                        i++;
+                        boolean first = true;
+                        while (signature.charAt(i) != '>') {
+                            if (!first) {
+                                out.append(", ");
+                            }
+                            first = false;
+                            char wildcard = signature.charAt(i);
+                            if (wildcard == '*') {
+                                out.append('?');
+                                i++;
+                            } else if (wildcard == '+' || wildcard == '-') {
+                                out.append(wildcard == '+' ? "? extends " : "? super ");
+                                i = renderType(signature, i + 1, out);
+                            } else {
+                                i = renderType(signature, i, out);
+                            }
+                        }
+                        out.append('>');
+                        i++;
+                    }
+                    if (signature.charAt(i) == '.') {
+                        out.append('$');
+                        i++;
+                    } else {
+                        return i + 1;
+                    }
+                }
+            }
+            default -> {
+                out.append(Type.getType(String.valueOf(c)).getClassName());
+                return position + 1;
+            }
+        }
+    }
+
+    private static Class<?> primitiveType(char descriptor) {
+        return switch (descriptor) {
+            case 'Z' -> boolean.class;
+            case 'B' -> byte.class;
+            case 'C' -> char.class;
+            case 'S' -> short.class;
+            case 'I' -> int.class;
+            case 'J' -> long.class;
+            case 'F' -> float.class;
+            case 'D' -> double.class;
+            default -> null;
+        };
+    }
+
+    private static String className(String internalName) {
+        return internalName == null ? null : internalName.replace('/', '.');
+    }
+
+    /** A class as read from its class file; supertype members and meta-annotations are not resolved yet. */
+    public static final class ClassData implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String location;
+        private String name;
+        private int access;
+        private String superclassName;
+        private List<String> interfaces = List.of();
+        private boolean anonymous;
+        private boolean record;
+        private final List<RawAnnotation> annotations = new ArrayList<>();
+        private final List<RawField> fields = new ArrayList<>();
+        private final List<RawMethod> methods = new ArrayList<>();
+        private final Map<String, String> members = new LinkedHashMap<>();
+        private final Map<String, Object> defaults = new LinkedHashMap<>();
+        private final List<Invocation> invocations = new ArrayList<>();
+
+        private ClassData(String location) {
+            this.location = location;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String packageName() {
+            int lastDot = name.lastIndexOf('.');
+            return lastDot < 0 ? "" : name.substring(0, lastDot);
+        }
+
+        public String simpleName() {
+            return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+        }
+
+        /** Superclass name, or {@code null} for {@code java.lang.Object} and interfaces. */
+        public String superclassName() {
+            return superclassName;
+        }
+
+        /** Path of the classpath entry the class was read from; directories end with a slash. */
+        public String jarOrDirectory() {
+            return location;
+        }
+
+        public boolean isAnnotation() {
+            return (access & Opcodes.ACC_ANNOTATION) != 0;
+        }
+
+        public boolean isInterface() {
+            return (access & Opcodes.ACC_INTERFACE) != 0 && !isAnnotation();
+        }
+
+        public boolean isEnum() {
+            return (access & Opcodes.ACC_ENUM) != 0;
+        }
+
+        public boolean isRecord() {
+            return record;
+        }
+
+        /** Whether the class is declared inside a method or initializer, as anonymous and local classes are. */
+        public boolean isAnonymousInnerClass() {
+            return anonymous;
+        }
+
+        /** Method calls made by the class's code, in code order. */
+        public List<Invocation> invocations() {
+            return invocations;
+        }
+    }
+
+    /** An annotation with its parameter values, defaults included. */
+    public record AnnotationData(String name, Map<String, Object> parameters) {
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder("@").append(name);
+            if (!parameters.isEmpty()) {
+                if (parameters.size() == 1 && parameters.containsKey("value")) {
+                    out.append('(').append(render(parameters.get("value"))).append(')');
+                } else {
+                    out.append(parameters.entrySet().stream()
+                            .map(entry -> entry.getKey() + "=" + render(entry.getValue()))
+                            .collect(Collectors.joining(", ", "(", ")")));
+                }
+            }
+            return out.toString();
+        }
+    }
+
+    /**
+     * A public field.
+     *
+     * @param type             the generic type when the field has a signature, else the erased type
+     * @param genericSignature the generic type, or {@code null} when the field has no signature
+     */
+    public record FieldData(String name, String type, String genericSignature, List<AnnotationData> annotations) {}
+
+    public record MethodData(String name, String descriptor, List<AnnotationData> annotations) {}
+
+    /** A method call site; class names are dotted, method descriptors are JVM descriptors. */
+    public record Invocation(
+            String callerMethod,
+            String callerDescriptor,
+            String calleeClass,
+            String calleeMethod,
+            String calleeDescriptor,
+            int lineNumber) implements Serializable {}
+
+    /** An enum constant used as an annotation value. */
+    public record EnumValue(String className, String constantName) implements Serializable {
+
+        @Override
+        public String toString() {
+            return className + "." + constantName;
+        }
+    }
+
+    /** A class literal used as an annotation value. */
+    public record ClassRef(String descriptor) implements Serializable {
+
+        public String className() {
+            return Type.getType(descriptor).getClassName();
+        }
+
+        @Override
+        public String toString() {
+            return className() + ".class";
+        }
+    }
+
+    private static final class RawAnnotation implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final Map<String, Object> values = new LinkedHashMap<>();
+
+        private RawAnnotation(String descriptor) {
+            this.name = Type.getType(descriptor).getClassName();
+        }
+
+        @Override
+        public String toString() {
+            return values.isEmpty()
+                    ? "@" + name
+                    : values.entrySet().stream()
+                            .map(entry -> entry.getKey() + "=" + render(entry.getValue()))
+                            .collect(Collectors.joining(", ", "@" + name + "(", ")"));
+        }
+    }
+
+    private record RawField(String name, String descriptor, String signature, List<RawAnnotation> annotations)
+            implements Serializable {}
+
+    private record RawMethod(String name, String descriptor, List<RawAnnotation> annotations)
+            implements Serializable {}
+
+    private record Resource(Source source, String path, String className) {}
+
+    /** A classpath entry: a directory of class files or a jar. */
+    private static final class Source {
+        private final Path entry;
+        private final String location;
+        private final ZipFile jar;
+
+        private Source(Path entry, String location, ZipFile jar) {
+            this.entry = entry;
+            this.location = location;
+            this.jar = jar;
+        }
+
+        static Source open(Path entry) {
+            Path absolute = entry.toAbsolutePath().normalize();
+            if (Files.isDirectory(absolute)) {
+                return new Source(absolute, absolute.toUri().getPath(), null);
+            }
+            if (!Files.isRegularFile(absolute)) {
+                return null;
+            }
+            try {
+                return new Source(absolute, absolute.toUri().getPath(), new ZipFile(absolute.toFile()));
+            } catch (IOException ex) {
+                log.warn("Failed opening classpath entry {}: {}", entry, ex.getMessage());
+                return null;
+            }
+        }
+
+        List<String> classFiles() throws IOException {
+            if (jar != null) {
+                return jar.stream()
+                        .filter(file -> !file.isDirectory() && file.getName().endsWith(CLASS_SUFFIX))
+                        .map(ZipEntry::getName)
+                        .toList();
+            }
+            try (var files = Files.walk(entry)) {
+                return files.filter(file -> file.toString().endsWith(CLASS_SUFFIX) && Files.isRegularFile(file))
+                        .map(file -> entry.relativize(file).toString().replace('\\', '/'))
+                        .sorted()
+                        .toList();
+            }
+        }
+
+        boolean contains(String path) {
+            return jar != null ? jar.getEntry(path) != null : Files.isRegularFile(entry.resolve(path));
+        }
+
+        InputStream open(String path) throws IOException {
+            if (jar == null) {
+                return Files.newInputStream(entry.resolve(path));
+            }
+            ZipEntry file = jar.getEntry(path);
+            if (file == null) {
+                throw new IOException("No entry " + path);
+            }
+            return jar.getInputStream(file);
+        }
+
+        void close() {
+            if (jar != null) {
+                try {
+                    jar.close();
+                } catch (IOException ex) {
+                    log.debug("Failed closing {}: {}", entry, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Collects a {@link ClassData}; method bodies are only visited when {@code withCode} is set. */
+    private static final class ClassCollector extends ClassVisitor {
+        private final String location;
+        private final boolean withCode;
+        private ClassData data;
+
+        private ClassCollector(String location, boolean withCode) {
+            super(Opcodes.ASM9);
+            this.location = location;
+            this.withCode = withCode;
+        }
+
+        @Override
+        public void visit(
+                int version, int access, String name, String signature, String superName, String[] interfaces) {
+            data = new ClassData(location);
+            data.name = className(name);
+            data.access = access;
+            data.superclassName = superName == null || superName.equals("java/lang/Object")
+                    ? null
+                    : className(superName);
+            data.interfaces = interfaces == null
+                    ? List.of()
+                    : Arrays.stream(interfaces).map(BytecodeClasspath::className).toList();
+        }
+
+        @Override
+        public void visitOuterClass(String owner, String name, String descriptor) {
+            data.anonymous = true;
+        }
+
+        @Override
+        public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature) {
+            data.record = true;
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            return annotationCollector(descriptor, data.annotations::add);
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            if ((access & Opcodes.ACC_PUBLIC) == 0) {
+                return null;
+            }
+            List<RawAnnotation> annotations = new ArrayList<>();
+            data.fields.add(new RawField(name, descriptor, signature, annotations));
+            return new FieldVisitor(Opcodes.ASM9) {
+                @Override
+                public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+                    return annotationCollector(annotationDescriptor, annotations::add);
+                }
+            };
+        }
+
+        @Override
+        public MethodVisitor visitMethod(
+                int access, String name, String descriptor, String signature, String[] exceptions) {
+            if (data.isAnnotation()) {
+                data.members.put(name, Type.getReturnType(descriptor).getDescriptor());
+            }
+            boolean visible = (access & Opcodes.ACC_PUBLIC) != 0 && !name.equals("<init>") && !name.equals("<clinit>");
+            List<RawAnnotation> annotations = new ArrayList<>();
+            if (visible) {
+                data.methods.add(new RawMethod(name, descriptor, annotations));
+            } else if (!withCode) {
+                return null;
+            }
+            return new MethodVisitor(Opcodes.ASM9) {
+                private int currentLine = -1;
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visibleAtRuntime) {
+                    return visible ? annotationCollector(annotationDescriptor, annotations::add) : null;
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotationDefault() {
+                    return new ValueCollector((member, value) -> data.defaults.put(name, value));
+                }
+
+                @Override
+                public void visitLineNumber(int line, Label start) {
+                    currentLine = line;
+                }
+
+                @Override
+                public void visitMethodInsn(
+                        int opcode, String owner, String methodName, String methodDescriptor, boolean isInterface) {
+                    if (withCode) {
+                        data.invocations.add(new Invocation(
+                                name, descriptor, className(owner), methodName, methodDescriptor, currentLine));
+                    }
+                }
+            };
+        }
+    }
+
+    private static AnnotationVisitor annotationCollector(
+            String descriptor, java.util.function.Consumer<RawAnnotation> sink) {
+        RawAnnotation annotation = new RawAnnotation(descriptor);
+        return new ValueCollector(annotation.values::put) {
+            @Override
+            public void visitEnd() {
+                sink.accept(annotation);
+            }
+        };
+    }
+
+    /** Collects annotation element values; arrays become {@code Object[]} until their annotation type is known. */
+    private static class ValueCollector extends AnnotationVisitor {
+        private final BiConsumer<String, Object> sink;
+
+        private ValueCollector(BiConsumer<String, Object> sink) {
+            super(Opcodes.ASM9);
+            this.sink = sink;
+        }
+
+        @Override
+        public void visit(String name, Object value) {
+            if (value instanceof Type type) {
+                sink.accept(name, new ClassRef(type.getDescriptor()));
+            } else if (value.getClass().isArray()) {
+                Object[] boxed = new Object[java.lang.reflect.Array.getLength(value)];
+                for (int i = 0; i < boxed.length; i++) {
+                    boxed[i] = java.lang.reflect.Array.get(value, i);
+                }
+                sink.accept(name, boxed);
+            } else {
+                sink.accept(name, value);
+            }
+        }
+
+        @Override
+        public void visitEnum(String name, String descriptor, String value) {
+            sink.accept(name, new EnumValue(Type.getType(descriptor).getClassName(), value));
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+            return annotationCollector(descriptor, nested -> sink.accept(name, nested));
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(String name) {
+            List<Object> elements = new ArrayList<>();
+            return new ValueCollector((ignored, value) -> elements.add(value)) {
+                @Override
+                public void visitEnd() {
+                    sink.accept(name, elements.toArray());
+                }
+            };
+        }
+    }
+}
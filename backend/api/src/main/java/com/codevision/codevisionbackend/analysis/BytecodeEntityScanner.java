@@ -11,13 +11,10 @@ import com.codevision.codevisionbackend.analysis.GraphModel.SequenceNode;
 import com.codevision.codevisionbackend.analysis.GraphModel.SequenceUsage;
 import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
 import com.codevision.codevisionbackend.analyze.scanner.AnalysisExclusions;
-import io.github.classgraph.AnnotationInfo;
-import io.github.classgraph.AnnotationParameterValue;
-import io.github.classgraph.ClassGraph;
-import io.github.classgraph.ClassInfo;
-import io.github.classgraph.FieldInfo;
-import io.github.classgraph.MethodInfo;
-import io.github.classgraph.ScanResult;
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.AnnotationData;
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.ClassData;
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.FieldData;
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.MethodData;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -31,10 +28,11 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
- * Scans compiled bytecode using ClassGraph to discover classes, endpoints, sequences, and field
+ * Scans compiled bytecode read by {@link BytecodeClasspath} to discover classes, endpoints, sequences, and field
  * relationships without classloading the analyzed project.
  */
 @Component
@@ -93,45 +91,47 @@ public class BytecodeEntityScanner {
     private static final String GENERATED_VALUE_LEGACY = "javax.persistence.GeneratedValue";
 
     private final CompiledAnalysisProperties properties;
+    private final BytecodeJarCache jarCache;
 
     public BytecodeEntityScanner(CompiledAnalysisProperties properties) {
+        this(properties, null);
+    }
+
+    @Autowired
+    public BytecodeEntityScanner(CompiledAnalysisProperties properties, BytecodeJarCache jarCache) {
         this.properties = properties;
+        this.jarCache = jarCache;
     }
 
     public GraphModel scan(ClasspathBuilder.ClasspathDescriptor descriptor, List<String> overridePackages) {
-        List<String> acceptPackages = effectivePackages(overridePackages);
+        try (BytecodeClasspath classpath = BytecodeClasspath.read(
+                descriptor, effectivePackages(overridePackages), properties.resolveScanParallelism(), jarCache)) {
+            return scan(classpath);
+        }
+    }
+
+    /** Scans classes already read, e.g. shared with {@link BytecodeCallGraphScanner}. */
+    public GraphModel scan(BytecodeClasspath classpath) {
+        List<String> acceptPackages = classpath.acceptPackages();
         GraphModel model = new GraphModel();
-        ClassGraph graph = new ClassGraph()
-                .overrideClasspath(descriptor.getClasspathString())
-                .enableClassInfo()
-                .enableFieldInfo()
-                .enableAnnotationInfo()
-                .enableMethodInfo()
-                .ignoreClassVisibility();
-
-        if (!acceptPackages.isEmpty()) {
-            graph = graph.acceptPackages(acceptPackages.toArray(String[]::new));
-        }
-
-        try (ScanResult scanResult = graph.scan()) {
-            for (ClassInfo classInfo : scanResult.getAllClasses()) {
-                if (classInfo.isAnnotation() || classInfo.isAnonymousInnerClass()) {
-                    continue;
-                }
-                String fqcn = classInfo.getName();
-                if (!GraphModel.isUserPackage(fqcn, acceptPackages)) {
-                    continue;
-                }
-                if (AnalysisExclusions.isMockClassName(fqcn)) {
-                    continue;
-                }
-                ClassNode node = toClassNode(classInfo);
-                model.addClass(node);
-                addInheritanceDependencies(model, node);
-                inspectFields(model, classInfo, node);
-                inspectClassSequences(model, classInfo);
-                inspectEndpoints(model, classInfo, node);
+        for (ClassData type : classpath.classes()) {
+            if (type.isAnnotation() || type.isAnonymousInnerClass()) {
+                continue;
+            }
+            String fqcn = type.name();
+            if (!GraphModel.isUserPackage(fqcn, acceptPackages)) {
+                continue;
             }
+            if (AnalysisExclusions.isMockClassName(fqcn)) {
+                continue;
+            }
+            List<AnnotationData> annotations = classpath.annotations(type);
+            ClassNode node = toClassNode(classpath, type, annotations);
+            model.addClass(node);
+            addInheritanceDependencies(model, node);
+            inspectFields(model, type, classpath.fields(type), node);
+            inspectClassSequences(model, annotations);
+            inspectEndpoints(model, type, annotations, classpath.methods(type), node);
         }
         log.info(
                 "Bytecode scanner discovered {} classes, {} endpoints, {} sequences",
@@ -148,42 +148,36 @@ public class BytecodeEntityScanner {
         return properties.getAcceptPackages();
     }
 
-    private ClassNode toClassNode(ClassInfo classInfo) {
+    private ClassNode toClassNode(BytecodeClasspath classpath, ClassData type, List<AnnotationData> annotationData) {
         ClassNode node = new ClassNode();
-        node.setName(classInfo.getName());
-        node.setPackageName(classInfo.getPackageName());
-        node.setSimpleName(classInfo.getSimpleName());
-        node.setJarOrDirectory(classInfo.getClasspathElementURI() != null
-                ? classInfo.getClasspathElementURI().getPath()
-                : null);
-        node.setKind(resolveKind(classInfo));
-        if (classInfo.getSuperclass() != null) {
-            node.setSuperClass(classInfo.getSuperclass().getName());
-        }
-        node.setInterfaces(classInfo.getInterfaces().stream()
-                .map(ClassInfo::getName)
-                .collect(Collectors.toCollection(ArrayList::new)));
-        List<String> annotations = classInfo.getAnnotationInfo().stream()
-                .map(AnnotationInfo::getName)
+        node.setName(type.name());
+        node.setPackageName(type.packageName());
+        node.setSimpleName(type.simpleName());
+        node.setJarOrDirectory(type.jarOrDirectory());
+        node.setKind(resolveKind(type));
+        node.setSuperClass(type.superclassName());
+        node.setInterfaces(new ArrayList<>(classpath.interfaces(type)));
+        List<String> annotations = annotationData.stream()
+                .map(AnnotationData::name)
                 .toList();
         node.setAnnotations(annotations);
         node.setStereotypes(resolveStereotypes(annotations));
         node.setSpringBean(node.getStereotypes().stream().anyMatch(st -> !st.equals("CONTROLLER")));
         if (annotations.stream().anyMatch(ENTITY_ANNOTATIONS::contains)) {
             node.setEntity(true);
-            node.setTableName(resolveTableName(classInfo).orElse(null));
+            node.setTableName(resolveTableName(annotationData).orElse(null));
         }
         return node;
     }
 
-    private NodeKind resolveKind(ClassInfo classInfo) {
-        if (classInfo.isInterface()) {
+    private NodeKind resolveKind(ClassData type) {
+        if (type.isInterface()) {
             return NodeKind.INTERFACE;
         }
-        if (classInfo.isEnum()) {
+        if (type.isEnum()) {
             return NodeKind.ENUM;
         }
-        if (classInfo.isRecord()) {
+        if (type.isRecord()) {
             return NodeKind.RECORD;
         }
         return NodeKind.CLASS;
@@ -203,9 +197,9 @@ public class BytecodeEntityScanner {
         return List.copyOf(resolved);
     }
 
-    private Optional<String> resolveTableName(ClassInfo classInfo) {
-        return classInfo.getAnnotationInfo().stream()
-                .filter(annotation -> TABLE_ANNOTATIONS.contains(annotation.getName()))
+    private Optional<String> resolveTableName(List<AnnotationData> annotations) {
+        return annotations.stream()
+                .filter(annotation -> TABLE_ANNOTATIONS.contains(annotation.name()))
                 .map(BytecodeEntityScanner::extractName)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
@@ -223,18 +217,17 @@ public class BytecodeEntityScanner {
         }
     }
 
-    private void inspectFields(GraphModel model, ClassInfo classInfo, ClassNode node) {
-        for (FieldInfo fieldInfo : classInfo.getFieldInfo()) {
+    private void inspectFields(GraphModel model, ClassData type, List<FieldData> fields, ClassNode node) {
+        for (FieldData field : fields) {
             FieldModel fieldModel = new FieldModel();
-            fieldModel.setName(fieldInfo.getName());
-            fieldModel.setType(fieldInfo.getTypeSignatureOrTypeDescriptor().toString());
-            List<String> annotations = fieldInfo.getAnnotationInfo().stream()
-                    .map(AnnotationInfo::getName)
+            fieldModel.setName(field.name());
+            fieldModel.setType(field.type());
+            List<String> annotations = field.annotations().stream()
+                    .map(AnnotationData::name)
                     .toList();
             fieldModel.setAnnotations(annotations);
-            fieldModel.setAnnotationDetails(extractAnnotationDetails(fieldInfo.getAnnotationInfo()));
-            fieldModel.setGenericSignature(
-                    fieldInfo.getTypeSignature() != null ? fieldInfo.getTypeSignature().toString() : null);
+            fieldModel.setAnnotationDetails(extractAnnotationDetails(field.annotations()));
+            fieldModel.setGenericSignature(field.genericSignature());
             boolean injected = annotations.stream().anyMatch(INJECTION_ANNOTATIONS::contains);
             fieldModel.setInjected(injected);
             boolean relationship = annotations.stream().anyMatch(RELATIONSHIP_ANNOTATIONS::contains);
@@ -250,36 +243,33 @@ public class BytecodeEntityScanner {
             }
 
             if (annotations.stream().anyMatch(ann -> ann.equals(GENERATED_VALUE) || ann.equals(GENERATED_VALUE_LEGACY))) {
-                extractGeneratedSequenceUsage(model, classInfo, fieldInfo);
+                extractGeneratedSequenceUsage(model, type, field);
             }
         }
     }
 
-    private void extractGeneratedSequenceUsage(GraphModel model, ClassInfo classInfo, FieldInfo fieldInfo) {
-        for (AnnotationInfo annotationInfo : fieldInfo.getAnnotationInfo()) {
-            if (!annotationInfo.getName().equals(GENERATED_VALUE)
-                    && !annotationInfo.getName().equals(GENERATED_VALUE_LEGACY)) {
+    private void extractGeneratedSequenceUsage(GraphModel model, ClassData type, FieldData field) {
+        for (AnnotationData annotation : field.annotations()) {
+            if (!annotation.name().equals(GENERATED_VALUE)
+                    && !annotation.name().equals(GENERATED_VALUE_LEGACY)) {
                 continue;
             }
-            AnnotationParameterValue generator = annotationInfo.getParameterValues().get("generator");
-            if (generator == null || generator.getValue() == null) {
+            Object generator = annotation.parameters().get("generator");
+            if (generator == null) {
                 continue;
             }
-            String generatorName = generator.getValue().toString();
-            model.addSequenceUsage(new SequenceUsage(classInfo.getName(), fieldInfo.getName(), generatorName));
+            String generatorName = generator.toString();
+            model.addSequenceUsage(new SequenceUsage(type.name(), field.name(), generatorName));
         }
     }
 
-    private List<Map<String, Object>> extractAnnotationDetails(Iterable<AnnotationInfo> annotationInfos) {
+    private List<Map<String, Object>> extractAnnotationDetails(Iterable<AnnotationData> annotations) {
         List<Map<String, Object>> details = new ArrayList<>();
-        for (AnnotationInfo info : annotationInfos) {
+        for (AnnotationData annotation : annotations) {
             Map<String, Object> detail = new java.util.LinkedHashMap<>();
-            detail.put("name", info.getName());
+            detail.put("name", annotation.name());
             Map<String, Object> params = new java.util.LinkedHashMap<>();
-            for (AnnotationParameterValue param : info.getParameterValues()) {
-                Object value = param.getValue();
-                params.put(param.getName(), value != null ? value.toString() : null);
-            }
+            annotation.parameters().forEach((name, value) -> params.put(name, value != null ? value.toString() : null));
             if (!params.isEmpty()) {
                 detail.put("parameters", params);
             }
@@ -301,29 +291,29 @@ public class BytecodeEntityScanner {
         return base;
     }
 
-    private void inspectClassSequences(GraphModel model, ClassInfo classInfo) {
-        for (AnnotationInfo annotationInfo : classInfo.getAnnotationInfo()) {
-            switch (annotationInfo.getName()) {
-                case SEQUENCE_GENERATOR, SEQUENCE_GENERATOR_LEGACY -> addSequence(model, annotationInfo);
-                case TABLE_GENERATOR, TABLE_GENERATOR_LEGACY -> addSequence(model, annotationInfo);
-                case GENERIC_GENERATOR -> addSequence(model, annotationInfo);
+    private void inspectClassSequences(GraphModel model, List<AnnotationData> annotations) {
+        for (AnnotationData annotation : annotations) {
+            switch (annotation.name()) {
+                case SEQUENCE_GENERATOR, SEQUENCE_GENERATOR_LEGACY -> addSequence(model, annotation);
+                case TABLE_GENERATOR, TABLE_GENERATOR_LEGACY -> addSequence(model, annotation);
+                case GENERIC_GENERATOR -> addSequence(model, annotation);
                 default -> {}
             }
         }
     }
 
-    private void addSequence(GraphModel model, AnnotationInfo annotationInfo) {
+    private void addSequence(GraphModel model, AnnotationData annotation) {
         SequenceNode node = new SequenceNode();
-        extractName(annotationInfo).ifPresent(node::setGeneratorName);
-        Object sequenceName = annotationInfo.getParameterValues().getValue("sequenceName");
+        extractName(annotation).ifPresent(node::setGeneratorName);
+        Object sequenceName = annotation.parameters().get("sequenceName");
         if (sequenceName != null) {
             node.setSequenceName(sequenceName.toString());
         }
-        Integer allocationSize = extractInteger(annotationInfo, "allocationSize");
+        Integer allocationSize = extractInteger(annotation, "allocationSize");
         if (allocationSize != null) {
             node.setAllocationSize(allocationSize);
         }
-        Integer initialValue = extractInteger(annotationInfo, "initialValue");
+        Integer initialValue = extractInteger(annotation, "initialValue");
         if (initialValue != null) {
             node.setInitialValue(initialValue);
         }
@@ -332,42 +322,47 @@ public class BytecodeEntityScanner {
         }
     }
 
-    private Integer extractInteger(AnnotationInfo annotationInfo, String key) {
-        Object value = annotationInfo.getParameterValues().getValue(key);
+    private Integer extractInteger(AnnotationData annotation, String key) {
+        Object value = annotation.parameters().get(key);
         if (value instanceof Number number) {
             return number.intValue();
         }
         return null;
     }
 
-    private static Optional<String> extractName(AnnotationInfo annotationInfo) {
-        AnnotationParameterValue value = annotationInfo.getParameterValues().get("name");
-        if (value == null || value.getValue() == null) {
+    private static Optional<String> extractName(AnnotationData annotation) {
+        Object value = annotation.parameters().get("name");
+        if (value == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(value.getValue().toString()).filter(str -> !str.isBlank());
+        return Optional.ofNullable(value.toString()).filter(str -> !str.isBlank());
     }
 
-    private void inspectEndpoints(GraphModel model, ClassInfo classInfo, ClassNode node) {
-        List<String> classMappings = extractRequestMappingPaths(classInfo.getAnnotationInfo());
-        String classProduces = extractSingle(classInfo.getAnnotationInfo(), "produces").orElse(null);
-        String classConsumes = extractSingle(classInfo.getAnnotationInfo(), "consumes").orElse(null);
-
-        for (MethodInfo methodInfo : classInfo.getMethodInfo()) {
-            List<String> methodMappings = extractRequestMappingPaths(methodInfo.getAnnotationInfo());
-            String httpMethod = determineHttpMethod(methodInfo);
+    private void inspectEndpoints(
+            GraphModel model,
+            ClassData type,
+            List<AnnotationData> classAnnotations,
+            List<MethodData> methods,
+            ClassNode node) {
+        List<String> classMappings = extractRequestMappingPaths(classAnnotations);
+        String classProduces = extractSingle(classAnnotations, "produces").orElse(null);
+        String classConsumes = extractSingle(classAnnotations, "consumes").orElse(null);
+
+        for (MethodData method : methods) {
+            List<String> methodMappings = extractRequestMappingPaths(method.annotations());
+            String httpMethod = determineHttpMethod(method);
             if (!methodMappings.isEmpty() || httpMethod != null) {
                 List<String> combinedMappings = combineMappings(classMappings, methodMappings);
                 if (combinedMappings.isEmpty()) {
                     combinedMappings = classMappings.isEmpty() ? List.of("/") : classMappings;
                 }
-                String produces = extractSingle(methodInfo.getAnnotationInfo(), "produces").orElse(classProduces);
-                String consumes = extractSingle(methodInfo.getAnnotationInfo(), "consumes").orElse(classConsumes);
+                String produces = extractSingle(method.annotations(), "produces").orElse(classProduces);
+                String consumes = extractSingle(method.annotations(), "consumes").orElse(classConsumes);
                 for (String mapping : combinedMappings) {
                     EndpointNode endpoint = new EndpointNode();
                     endpoint.setType(EndpointType.HTTP);
-                    endpoint.setControllerClass(classInfo.getName());
-                    endpoint.setControllerMethod(methodInfo.getName());
+                    endpoint.setControllerClass(type.name());
+                    endpoint.setControllerMethod(method.name());
                     endpoint.setHttpMethod(httpMethod != null ? httpMethod : "ANY");
                     endpoint.setPath(mapping);
                     endpoint.setProduces(produces);
@@ -378,50 +373,50 @@ public class BytecodeEntityScanner {
                 continue;
             }
 
-            if (methodInfo.getAnnotationInfo().stream().anyMatch(info -> info.getName().equals(KAFKA_LISTENER))) {
+            if (method.annotations().stream().anyMatch(info -> info.name().equals(KAFKA_LISTENER))) {
                 EndpointNode endpointNode = new EndpointNode();
                 endpointNode.setType(EndpointType.KAFKA);
-                endpointNode.setControllerClass(classInfo.getName());
-                endpointNode.setControllerMethod(methodInfo.getName());
-                endpointNode.setPath(resolveKafkaTopics(methodInfo.getAnnotationInfo()));
+                endpointNode.setControllerClass(type.name());
+                endpointNode.setControllerMethod(method.name());
+                endpointNode.setPath(resolveKafkaTopics(method.annotations()));
                 endpointNode.setFramework("SPRING_KAFKA");
                 model.addEndpoint(endpointNode);
                 continue;
             }
 
-            if (methodInfo.getAnnotationInfo().stream().anyMatch(info -> info.getName().equals(SCHEDULED))) {
+            if (method.annotations().stream().anyMatch(info -> info.name().equals(SCHEDULED))) {
                 EndpointNode endpointNode = new EndpointNode();
                 endpointNode.setType(EndpointType.SCHEDULED);
-                endpointNode.setControllerClass(classInfo.getName());
-                endpointNode.setControllerMethod(methodInfo.getName());
-                endpointNode.setPath(resolveSchedule(methodInfo.getAnnotationInfo()));
+                endpointNode.setControllerClass(type.name());
+                endpointNode.setControllerMethod(method.name());
+                endpointNode.setPath(resolveSchedule(method.annotations()));
                 endpointNode.setFramework("SPRING_SCHEDULER");
                 model.addEndpoint(endpointNode);
             }
         }
 
-        boolean hasBeanMethod = classInfo.getMethodInfo().stream()
-                .flatMap(method -> method.getAnnotationInfo().stream())
-                .anyMatch(annotation -> annotation.getName().equals(BEAN_ANNOTATION));
+        boolean hasBeanMethod = methods.stream()
+                .flatMap(method -> method.annotations().stream())
+                .anyMatch(annotation -> annotation.name().equals(BEAN_ANNOTATION));
         if (hasBeanMethod) {
             node.getStereotypes().add("BEAN_FACTORY");
         }
     }
 
-    private List<String> extractRequestMappingPaths(Collection<AnnotationInfo> annotations) {
+    private List<String> extractRequestMappingPaths(Collection<AnnotationData> annotations) {
         List<String> paths = new ArrayList<>();
-        for (AnnotationInfo annotationInfo : annotations) {
-            if (REQUEST_MAPPING.contains(annotationInfo.getName()) || MAPPING_TO_METHOD.containsKey(annotationInfo.getName())) {
-                paths.addAll(extractPaths(annotationInfo));
+        for (AnnotationData annotation : annotations) {
+            if (REQUEST_MAPPING.contains(annotation.name()) || MAPPING_TO_METHOD.containsKey(annotation.name())) {
+                paths.addAll(extractPaths(annotation));
             }
         }
         return paths;
     }
 
-    private List<String> extractPaths(AnnotationInfo annotationInfo) {
+    private List<String> extractPaths(AnnotationData annotation) {
         List<String> values = new ArrayList<>();
-        Object valueAttr = annotationInfo.getParameterValues().getValue("value");
-        Object pathAttr = annotationInfo.getParameterValues().getValue("path");
+        Object valueAttr = annotation.parameters().get("value");
+        Object pathAttr = annotation.parameters().get("path");
         values.addAll(convertToList(valueAttr));
         values.addAll(convertToList(pathAttr));
         if (values.isEmpty()) {
@@ -455,14 +450,14 @@ public class BytecodeEntityScanner {
         return List.of(attribute.toString());
     }
 
-    private String determineHttpMethod(MethodInfo methodInfo) {
-        for (AnnotationInfo annotationInfo : methodInfo.getAnnotationInfo()) {
-            String httpMethod = MAPPING_TO_METHOD.get(annotationInfo.getName());
+    private String determineHttpMethod(MethodData method) {
+        for (AnnotationData annotation : method.annotations()) {
+            String httpMethod = MAPPING_TO_METHOD.get(annotation.name());
             if (httpMethod != null) {
                 return httpMethod;
             }
-            if (REQUEST_MAPPING.contains(annotationInfo.getName())) {
-                Object methodAttr = annotationInfo.getParameterValues().getValue("method");
+            if (REQUEST_MAPPING.contains(annotation.name())) {
+                Object methodAttr = annotation.parameters().get("method");
                 if (methodAttr instanceof Object[] array && array.length > 0) {
                     return array[0].toString().replace("RequestMethod.", "");
                 }
@@ -489,9 +484,9 @@ public class BytecodeEntityScanner {
         return combined;
     }
 
-    private Optional<String> extractSingle(Collection<AnnotationInfo> annotations, String attribute) {
-        for (AnnotationInfo annotationInfo : annotations) {
-            Object value = annotationInfo.getParameterValues().getValue(attribute);
+    private Optional<String> extractSingle(Collection<AnnotationData> annotations, String attribute) {
+        for (AnnotationData annotation : annotations) {
+            Object value = annotation.parameters().get(attribute);
             if (value instanceof String str && !str.isBlank()) {
                 return Optional.of(str);
             }
@@ -499,16 +494,16 @@ public class BytecodeEntityScanner {
         return Optional.empty();
     }
 
-    private String resolveKafkaTopics(Collection<AnnotationInfo> annotations) {
-        for (AnnotationInfo annotationInfo : annotations) {
-            if (!annotationInfo.getName().equals(KAFKA_LISTENER)) {
+    private String resolveKafkaTopics(Collection<AnnotationData> annotations) {
+        for (AnnotationData annotation : annotations) {
+            if (!annotation.name().equals(KAFKA_LISTENER)) {
                 continue;
             }
-            List<String> topics = convertToList(annotationInfo.getParameterValues().getValue("topics"));
+            List<String> topics = convertToList(annotation.parameters().get("topics"));
             if (!topics.isEmpty()) {
                 return "topics=" + String.join(",", topics);
             }
-            Object topicPattern = annotationInfo.getParameterValues().getValue("topicPattern");
+            Object topicPattern = annotation.parameters().get("topicPattern");
             if (topicPattern != null) {
                 return "topicPattern=" + topicPattern;
             }
@@ -516,20 +511,20 @@ public class BytecodeEntityScanner {
         return "kafka-listener";
     }
 
-    private String resolveSchedule(Collection<AnnotationInfo> annotations) {
-        for (AnnotationInfo annotationInfo : annotations) {
-            if (!annotationInfo.getName().equals(SCHEDULED)) {
+    private String resolveSchedule(Collection<AnnotationData> annotations) {
+        for (AnnotationData annotation : annotations) {
+            if (!annotation.name().equals(SCHEDULED)) {
                 continue;
             }
-            Object cron = annotationInfo.getParameterValues().getValue("cron");
+            Object cron = annotation.parameters().get("cron");
             if (cron != null) {
                 return "cron=" + cron;
             }
-            Object fixedDelay = annotationInfo.getParameterValues().getValue("fixedDelayString");
+            Object fixedDelay = annotation.parameters().get("fixedDelayString");
             if (fixedDelay != null) {
                 return "fixedDelay=" + fixedDelay;
             }
-            Object fixedRate = annotationInfo.getParameterValues().getValue("fixedRateString");
+            Object fixedRate = annotation.parameters().get("fixedRateString");
             if (fixedRate != null) {
                 return "fixedRate=" + fixedRate;
             }
@@ -0,0 +1,259 @@
+package com.codevision.codevisionbackend.analysis;
+
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.ClassData;
+import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * On-disk store of the classes {@link BytecodeClasspath} read from dependency jars, so a jar that did not change
+ * between runs is not decompressed and visited again.
+ *
+ * <p>Entries are keyed by the SHA-256 of the jar's content and the accepted packages, and live below
+ * {@code analysis.bytecodeCache.root}. Jar digests are remembered per path, size and modification time for the life
+ * of the process, so an unchanged jar is hashed once. Directories of class files are never cached. A corrupt, unreadable
+ * or outdated entry counts as a miss and is rewritten.</p>
+ *
+ * <p>Entries are touched when read. At most every ten minutes, storing an entry prunes the cache: entries unused for
+ * {@code analysis.bytecodeCache.maxAgeDays} are deleted, then the least recently used ones until the cache fits in
+ * {@code analysis.bytecodeCache.maxSizeMb}. A limit of zero or less is not enforced.</p>
+ */
+@Component
+public class BytecodeJarCache {
+
+    private static final Logger log = LoggerFactory.getLogger(BytecodeJarCache.class);
+
+    /** Bumped whenever {@link ClassData} or the classes it holds change shape. */
+    private static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".bin.gz";
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "java.lang.*;java.util.*;" + BytecodeClasspath.class.getName() + "*;!*");
+
+    private final boolean enabled;
+    private final Path root;
+    private final long maxAgeMillis;
+    private final long maxBytes;
+    private final Map<Path, JarDigest> digests = new ConcurrentHashMap<>();
+    private final AtomicLong lastPrune = new AtomicLong();
+
+    public BytecodeJarCache(CompiledAnalysisProperties properties) {
+        CompiledAnalysisProperties.BytecodeCacheProperties cache = properties.getBytecodeCache();
+        this.enabled = cache.isEnabled();
+        this.root = Path.of(cache.getRoot()).toAbsolutePath().normalize();
+        this.maxAgeMillis = TimeUnit.DAYS.toMillis(Math.max(0, cache.getMaxAgeDays()));
+        this.maxBytes = Math.max(0, cache.getMaxSizeMb()) * 1024 * 1024;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Classes previously stored for {@code jar} under the same accepted packages, or empty on a miss. */
+    public Optional<List<ClassData>> load(Path jar, List<String> acceptPackages) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = keyOf(jar, acceptPackages);
+        if (key == null) {
+            return Optional.empty();
+        }
+        Path file = fileFor(key);
+        try (ObjectInputStream in = new ObjectInputStream(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+            in.setObjectInputFilter(FILTER);
+            if (in.readInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            int count = in.readInt();
+            List<ClassData> classes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                classes.add((ClassData) in.readObject());
+            }
+            touch(file);
+            return Optional.of(classes);
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            log.debug("Ignoring unreadable bytecode cache entry {} for {}: {}", file, jar, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** Stores the classes read from {@code jar}; failures are logged and leave the cache unchanged. */
+    public void store(Path jar, List<String> acceptPackages, List<ClassData> classes) {
+        if (!enabled) {
+            return;
+        }
+        String key = keyOf(jar, acceptPackages);
+        if (key == null) {
+            return;
+        }
+        Path file = fileFor(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = Files.createTempFile(file.getParent(), key, ".tmp");
+            try {
+                try (ObjectOutputStream out = new ObjectOutputStream(
+                        new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary))))) {
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeInt(classes.size());
+                    for (ClassData data : classes) {
+                        out.writeObject(data);
+                    }
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to cache bytecode of {}: {}", jar, ex.getMessage());
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long last = lastPrune.get();
+        if (now - last >= PRUNE_INTERVAL_MILLIS && lastPrune.compareAndSet(last, now)) {
+            prune();
+        }
+    }
+
+    /**
+     * Deletes the entries unused for longer than the maximum age, then the least recently used ones until the rest
+     * fit in the maximum size. Entries that cannot be listed or deleted are left in place.
+     */
+    void prune() {
+        if (!enabled || (maxAgeMillis <= 0 && maxBytes <= 0) || !Files.isDirectory(root)) {
+            return;
+        }
+        List<CachedEntry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(file -> file.getFileName().toString().endsWith(ENTRY_SUFFIX)).forEach(file -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    entries.add(new CachedEntry(file, attributes.lastModifiedTime().toMillis(), attributes.size()));
+                } catch (IOException ex) {
+                    // Removed by a concurrent prune or rewrite
+                }
+            });
+        } catch (IOException | UncheckedIOException ex) {
+            log.debug("Failed to list bytecode cache {}: {}", root, ex.getMessage());
+            return;
+        }
+        entries.sort(Comparator.comparingLong(CachedEntry::lastUsed));
+
+        long cutoff = maxAgeMillis > 0 ? System.currentTimeMillis() - maxAgeMillis : Long.MIN_VALUE;
+        long total = entries.stream().mapToLong(CachedEntry::size).sum();
+        int removed = 0;
+        long freed = 0;
+        for (CachedEntry entry : entries) {
+            if (entry.lastUsed() >= cutoff && (maxBytes <= 0 || total <= maxBytes)) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(entry.file());
+                total -= entry.size();
+                freed += entry.size();
+                removed++;
+            } catch (IOException ex) {
+                log.debug("Failed to delete bytecode cache entry {}: {}", entry.file(), ex.getMessage());
+            }
+        }
+        if (removed > 0) {
+            log.info("Pruned {} bytecode cache entries ({} bytes) from {}", removed, freed, root);
+        }
+    }
+
+    /** Cache key of {@code jar} read with {@code acceptPackages}, or {@code null} when the jar cannot be hashed. */
+    String keyOf(Path jar, List<String> acceptPackages) {
+        String digest = digestOf(jar);
+        if (digest == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(digest).append('\n').append(FORMAT_VERSION);
+        for (String acceptPackage : new TreeSet<>(acceptPackages)) {
+            key.append('\n').append(acceptPackage);
+        }
+        return HexFormat.of().formatHex(sha256().digest(key.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String digestOf(Path jar) {
+        Path absolute = jar.toAbsolutePath().normalize();
+        try {
+            long size = Files.size(absolute);
+            FileTime modified = Files.getLastModifiedTime(absolute);
+            JarDigest known = digests.get(absolute);
+            if (known != null && known.size() == size && known.modified().equals(modified)) {
+                return known.digest();
+            }
+            MessageDigest sha256 = sha256();
+            try (InputStream in = Files.newInputStream(absolute)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    sha256.update(buffer, 0, read);
+                }
+            }
+            String digest = HexFormat.of().formatHex(sha256.digest());
+            digests.put(absolute, new JarDigest(size, modified, digest));
+            return digest;
+        } catch (IOException ex) {
+            log.debug("Failed to hash {}: {}", jar, ex.getMessage());
+            return null;
+        }
+    }
+
+    private Path fileFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key + ENTRY_SUFFIX);
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ex) {
+            log.debug("Failed to touch bytecode cache entry {}", file, ex);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record JarDigest(long size, FileTime modified, String digest) {}
+
+    private record CachedEntry(Path file, long lastUsed, long size) {}
+}
@@ -42,6 +42,7 @@ public class CompiledAnalysisService {
     private final BuildMetadataExtractor buildMetadataExtractor;
     private final CompiledAnalysisProperties properties;
     private final CompiledAnalysisRunRepository runRepository;
+    private final BytecodeJarCache jarCache;
     private final Path outputRoot;
 
     public CompiledAnalysisService(
@@ -56,7 +57,8 @@ public class CompiledAnalysisService {
             JavaSourceScanner javaSourceScanner,
             BuildMetadataExtractor buildMetadataExtractor,
             CompiledAnalysisProperties properties,
-            CompiledAnalysisRunRepository runRepository) {
+            CompiledAnalysisRunRepository runRepository,
+            BytecodeJarCache jarCache) {
         this.classpathBuilder = classpathBuilder;
         this.bytecodeEntityScanner = bytecodeEntityScanner;
         this.callGraphScanner = callGraphScanner;
@@ -69,6 +71,7 @@ public class CompiledAnalysisService {
         this.buildMetadataExtractor = buildMetadataExtractor;
         this.properties = properties;
         this.runRepository = runRepository;
+        this.jarCache = jarCache;
         this.outputRoot = Path.of(properties.getOutput().getRoot()).toAbsolutePath().normalize();
         try {
             Files.createDirectories(this.outputRoot);
@@ -104,11 +107,13 @@ public class CompiledAnalysisService {
             ClasspathBuilder.ClasspathDescriptor classpath =
                     classpathBuilder.buildForModules(repoPath, moduleRoots, includeDependencies);
             GraphModel sourceGraph = buildSourceGraph(repoPath, moduleRoots, acceptPackages);
-            GraphModel bytecodeModel = bytecodeEntityScanner.scan(classpath, acceptPackages);
-            GraphModel graphModel = graphMerger.merge(sourceGraph, bytecodeModel);
-
-            BytecodeCallGraphScanner.CallGraphResult callGraphResult =
-                    callGraphScanner.scan(classpath, acceptPackages);
+            GraphModel graphModel;
+            BytecodeCallGraphScanner.CallGraphResult callGraphResult;
+            try (BytecodeClasspath bytecode = BytecodeClasspath.read(
+                    classpath, acceptPackages, properties.resolveScanParallelism(), jarCache)) {
+                graphModel = graphMerger.merge(sourceGraph, bytecodeEntityScanner.scan(bytecode));
+                callGraphResult = callGraphScanner.scan(bytecode);
+            }
             callGraphResult.methodEdges().forEach(graphModel::addMethodCallEdge);
             callGraphResult.classAdjacency().forEach((caller, callees) -> callees.forEach(callee -> graphModel.addDependency(
                     new DependencyEdge(DependencyKind.CALL, caller, callee, "call"))));
@@ -126,7 +131,8 @@ public class CompiledAnalysisService {
             DiagramWriter.DiagramArtifacts diagramArtifacts =
                     diagramWriter.writeDiagrams(graphModel, outputDir, properties);
             AnalysisOutputPaths outputs = exportWriter.writeAll(graphModel, outputDir, diagramArtifacts);
-            persistService.persist(graphModel);
+            persistService.persist(
+                    PersistService.projectKey(run.getProjectId(), run.getRepoPath()), run.getId(), graphModel);
 
             run.setCompletedAt(Instant.now());
             run.setStatus(CompiledAnalysisRunStatus.SUCCEEDED);
@@ -1,178 +1,366 @@
 package com.codevision.codevisionbackend.analysis;
 
-import com.codevision.codevisionbackend.analysis.GraphModel.DependencyEdge;
+import com.codevision.codevisionbackend.analysis.GraphModel.ClassNode;
 import com.codevision.codevisionbackend.analysis.GraphModel.DependencyKind;
-import com.codevision.codevisionbackend.analysis.GraphModel.EndpointNode;
-import com.codevision.codevisionbackend.analysis.GraphModel.SequenceNode;
-import com.codevision.codevisionbackend.analysis.GraphModel.SequenceUsage;
 import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
-import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityFieldId;
-import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityFieldRecord;
-import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityFieldRepository;
-import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityRecord;
-import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityRepository;
-import com.codevision.codevisionbackend.analysis.persistence.ClassDependencyId;
-import com.codevision.codevisionbackend.analysis.persistence.ClassDependencyRecord;
-import com.codevision.codevisionbackend.analysis.persistence.ClassDependencyRepository;
-import com.codevision.codevisionbackend.analysis.persistence.CompiledEndpointRecord;
-import com.codevision.codevisionbackend.analysis.persistence.CompiledEndpointRepository;
-import com.codevision.codevisionbackend.analysis.persistence.EntitySequenceUsageId;
-import com.codevision.codevisionbackend.analysis.persistence.EntitySequenceUsageRecord;
-import com.codevision.codevisionbackend.analysis.persistence.EntitySequenceUsageRepository;
-import com.codevision.codevisionbackend.analysis.persistence.SequenceRecord;
-import com.codevision.codevisionbackend.analysis.persistence.SequenceRecordRepository;
+import com.codevision.codevisionbackend.graph.persistence.PostgresCopyWriter;
 import jakarta.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.stereotype.Service;
 
 /**
  * Persists the compiled analysis summary into Postgres tables for UI queries.
+ *
+ * <p>Rows are scoped by a project key, so runs for different projects never touch each other's rows. Each run is
+ * compared against the rows stored for its project by natural key and a {@code content_hash} over the row's
+ * columns: only new rows are inserted, changed rows updated and vanished rows deleted, and each of them is stamped
+ * with the run that wrote it. Inserts are streamed through {@code COPY} on PostgreSQL and batched elsewhere, or
+ * everywhere when {@code analysis.persistence.copyEnabled=false}. Rows with the same natural key are written once,
+ * the first one winning.</p>
  */
 @Service
 public class PersistService {
 
-    private final AnalysisEntityRepository entityRepository;
-    private final AnalysisEntityFieldRepository fieldRepository;
-    private final SequenceRecordRepository sequenceRepository;
-    private final EntitySequenceUsageRepository entitySequenceUsageRepository;
-    private final ClassDependencyRepository classDependencyRepository;
-    private final CompiledEndpointRepository endpointRepository;
+    private static final Logger log = LoggerFactory.getLogger(PersistService.class);
+
+    private final JdbcTemplate jdbcTemplate;
     private final CompiledAnalysisProperties properties;
 
-    public PersistService(
-            AnalysisEntityRepository entityRepository,
-            AnalysisEntityFieldRepository fieldRepository,
-            SequenceRecordRepository sequenceRepository,
-            EntitySequenceUsageRepository entitySequenceUsageRepository,
-            ClassDependencyRepository classDependencyRepository,
-            CompiledEndpointRepository endpointRepository,
-            CompiledAnalysisProperties properties) {
-        this.entityRepository = entityRepository;
-        this.fieldRepository = fieldRepository;
-        this.sequenceRepository = sequenceRepository;
-        this.entitySequenceUsageRepository = entitySequenceUsageRepository;
-        this.classDependencyRepository = classDependencyRepository;
-        this.endpointRepository = endpointRepository;
+    public PersistService(JdbcTemplate jdbcTemplate, CompiledAnalysisProperties properties) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
         this.properties = properties;
     }
 
+    /** Key under which the rows of a run are stored: the project, or the repository when the run has none. */
+    public static String projectKey(Long projectId, String repoPath) {
+        return projectId != null ? "project:" + projectId : "repo:" + repoPath;
+    }
+
+    /**
+     * Brings the rows stored under {@code projectKey} in line with {@code model}.
+     *
+     * @param runId run stamped on the rows this call inserts or updates
+     * @return counts of the rows written per operation, over all tables
+     */
     @Transactional
-    public void persist(GraphModel model) {
-        entitySequenceUsageRepository.deleteAllInBatch();
-        fieldRepository.deleteAllInBatch();
-        classDependencyRepository.deleteAllInBatch();
-        endpointRepository.deleteAllInBatch();
-        sequenceRepository.deleteAllInBatch();
-        entityRepository.deleteAllInBatch();
-
-        Map<String, AnalysisEntityRecord> entities = persistEntities(model);
-        persistFields(model, entities);
-        Map<String, SequenceRecord> sequences = persistSequences(model);
-        persistSequenceUsage(model, entities, sequences);
-        persistDependencies(model);
-        persistEndpoints(model);
-    }
-
-    private Map<String, AnalysisEntityRecord> persistEntities(GraphModel model) {
-        List<AnalysisEntityRecord> entities = model.sortedClasses().stream()
-                .map(node -> {
-                    AnalysisEntityRecord record = new AnalysisEntityRecord();
-                    record.setClassName(node.getName());
-                    record.setPackageName(node.getPackageName());
-                    record.setJarOrDir(node.getJarOrDirectory());
-                    record.setTableName(node.getTableName());
-                    record.setOrigin(node.getOrigin());
-                    record.setSccId(node.getSccId());
-                    record.setInCycle(node.isInCycle());
-                    return record;
-                })
+    public ChangeSummary persist(String projectKey, UUID runId, GraphModel model) {
+        Objects.requireNonNull(projectKey, "projectKey must not be null");
+        Objects.requireNonNull(model, "model must not be null");
+
+        List<TableChanges> changes = new ArrayList<>();
+        changes.add(apply(Table.ENTITY, projectKey, runId, entityRows(model)));
+        changes.add(apply(Table.SEQUENCE, projectKey, runId, sequenceRows(model)));
+        Map<String, Long> entityIds = ids("SELECT class_name, id FROM entity WHERE project_key = ?", projectKey);
+        Map<String, Long> sequenceIds =
+                ids("SELECT generator_name, id FROM sequence WHERE project_key = ?", projectKey);
+        changes.add(apply(Table.ENTITY_FIELD, projectKey, runId, fieldRows(model, entityIds)));
+        changes.add(apply(Table.SEQUENCE_USAGE, projectKey, runId, sequenceUsageRows(model, entityIds, sequenceIds)));
+        changes.add(apply(Table.CLASS_DEP, projectKey, runId, dependencyRows(model)));
+        changes.add(apply(Table.ENDPOINT, projectKey, runId, endpointRows(model)));
+
+        ChangeSummary summary = new ChangeSummary(
+                changes.stream().mapToInt(change -> change.inserted().size()).sum(),
+                changes.stream().mapToInt(change -> change.updated().size()).sum(),
+                changes.stream().mapToInt(change -> change.deleted().size()).sum(),
+                changes.stream().mapToInt(TableChanges::unchanged).sum());
+        log.info("Persisted compiled analysis for {}: {}", projectKey, summary);
+        return summary;
+    }
+
+    /** Rows written by {@link #persist}, over all tables. */
+    public record ChangeSummary(int inserted, int updated, int deleted, int unchanged) {}
+
+    /**
+     * Column layout of the compiled-analysis tables. Rows are identified within a project by their key columns;
+     * every statement lists the key columns, then the value columns.
+     */
+    private enum Table {
+        ENTITY("entity", List.of("class_name"),
+                List.of("package_name", "jar_or_dir", "table_name", "origin", "scc_id", "in_cycle"), false),
+        SEQUENCE("sequence", List.of("generator_name"),
+                List.of("sequence_name", "allocation_size", "initial_value"), false),
+        ENTITY_FIELD("entity_field", List.of("entity_id", "name"), List.of("type", "is_join"), false),
+        SEQUENCE_USAGE("entity_uses_sequence", List.of("entity_id", "field_name"), List.of("sequence_id"), false),
+        CLASS_DEP("class_dep", List.of("caller", "callee"), List.of("package_filter"), false),
+        ENDPOINT("compiled_endpoint",
+                List.of("endpoint_type", "http_method", "path", "controller_class", "controller_method", "framework"),
+                List.of(), true);
+
+        private final String name;
+        private final int keyCount;
+        private final String selectSql;
+        private final String insertSql;
+        private final String copySql;
+        private final String updateSql;
+        private final String deleteSql;
+
+        /** @param nullableKey whether key columns may be {@code NULL}, which needs a null-safe comparison */
+        Table(String name, List<String> keys, List<String> values, boolean nullableKey) {
+            this.name = name;
+            this.keyCount = keys.size();
+            String comparison = nullableKey ? " IS NOT DISTINCT FROM ?" : " = ?";
+            String keyMatch = keys.stream().map(key -> key + comparison).collect(Collectors.joining(" AND "));
+            List<String> columns = new ArrayList<>(keys);
+            columns.addAll(values);
+            String columnList = "project_key, run_id, " + String.join(", ", columns) + ", content_hash";
+            String assignments = values.stream().map(value -> value + " = ?, ").collect(Collectors.joining());
+            this.selectSql = "SELECT " + String.join(", ", keys) + ", content_hash FROM " + name
+                    + " WHERE project_key = ?";
+            this.insertSql = "INSERT INTO " + name + " (" + columnList + ") VALUES (?, ?, "
+                    + "?, ".repeat(columns.size()) + "?)";
+            this.copySql = "COPY " + name + " (" + columnList + ") FROM STDIN WITH (FORMAT csv)";
+            this.updateSql = "UPDATE " + name + " SET " + assignments + "content_hash = ?, run_id = ?"
+                    + " WHERE project_key = ? AND " + keyMatch;
+            this.deleteSql = "DELETE FROM " + name + " WHERE project_key = ? AND " + keyMatch;
+        }
+    }
+
+    /** One table row: its key and value columns, and a hash over both. */
+    private record Row(Object[] key, Object[] values, String contentHash) {
+
+        Row(Object[] key, Object[] values) {
+            this(key, values, hash(key, values));
+        }
+
+        String keyString() {
+            return PersistService.keyString(key);
+        }
+    }
+
+    private record TableChanges(List<Row> inserted, List<Row> updated, List<Object[]> deleted, int unchanged) {}
+
+    private TableChanges apply(Table table, String projectKey, UUID runId, Collection<Row> rows) {
+        Map<String, Row> incoming = new LinkedHashMap<>();
+        rows.forEach(row -> incoming.putIfAbsent(row.keyString(), row));
+        TableChanges changes = diff(table, projectKey, incoming);
+        int batchSize = Math.max(1, properties.getPersistence().getBatchSize());
+
+        batch(table.deleteSql, changes.deleted(), batchSize, key -> concat(new Object[] {projectKey}, key));
+        batch(table.updateSql, changes.updated(), batchSize, row -> concat(
+                row.values(), new Object[] {row.contentHash(), runId, projectKey}, row.key()));
+        if (!changes.inserted().isEmpty()) {
+            boolean copied = properties.getPersistence().isCopyEnabled()
+                    && copy(table, projectKey, runId, changes.inserted());
+            if (!copied) {
+                batch(table.insertSql, changes.inserted(), batchSize, row -> insertValues(projectKey, runId, row));
+            }
+        }
+        log.debug("{} changes for {}: {} inserts, {} updates, {} deletes, {} unchanged",
+                table.name, projectKey, changes.inserted().size(), changes.updated().size(),
+                changes.deleted().size(), changes.unchanged());
+        return changes;
+    }
+
+    private TableChanges diff(Table table, String projectKey, Map<String, Row> incoming) {
+        Map<String, Object[]> storedKeys = new HashMap<>();
+        Map<String, String> storedHashes = new HashMap<>();
+        jdbcTemplate.query(table.selectSql, (RowCallbackHandler) rs -> {
+            Object[] key = new Object[table.keyCount];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = rs.getObject(i + 1);
+            }
+            String keyString = keyString(key);
+            storedKeys.put(keyString, key);
+            storedHashes.put(keyString, rs.getString(table.keyCount + 1));
+        }, projectKey);
+
+        List<Row> inserted = new ArrayList<>();
+        List<Row> updated = new ArrayList<>();
+        int unchanged = 0;
+        for (Map.Entry<String, Row> entry : incoming.entrySet()) {
+            if (!storedKeys.containsKey(entry.getKey())) {
+                inserted.add(entry.getValue());
+            } else if (!entry.getValue().contentHash().equals(storedHashes.get(entry.getKey()))) {
+                updated.add(entry.getValue());
+            } else {
+                unchanged++;
+            }
+        }
+        List<Object[]> deleted = storedKeys.entrySet().stream()
+                .filter(entry -> !incoming.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
                 .toList();
-        entityRepository.saveAll(entities);
-        return entities.stream().collect(Collectors.toMap(AnalysisEntityRecord::getClassName, record -> record));
-    }
-
-    private void persistFields(GraphModel model, Map<String, AnalysisEntityRecord> entities) {
-        List<AnalysisEntityFieldRecord> fields = model.sortedClasses().stream()
-                .flatMap(node -> node.getFields().stream()
-                        .map(field -> {
-                            AnalysisEntityRecord entity = entities.get(node.getName());
-                            if (entity == null) {
-                                return null;
-                            }
-                            AnalysisEntityFieldRecord record = new AnalysisEntityFieldRecord();
-                            record.setId(new AnalysisEntityFieldId(entity.getId(), field.getName()));
-                            record.setEntity(entity);
-                            record.setType(field.getType());
-                            record.setJoinField(field.isRelationship());
-                            return record;
+        return new TableChanges(inserted, updated, deleted, unchanged);
+    }
+
+    private <T> void batch(String sql, List<T> items, int batchSize, Function<T, Object[]> args) {
+        for (int i = 0; i < items.size(); i += batchSize) {
+            List<T> batch = items.subList(i, Math.min(i + batchSize, items.size()));
+            jdbcTemplate.batchUpdate(sql, batch, batch.size(), (ps, item) -> {
+                Object[] values = args.apply(item);
+                for (int c = 0; c < values.length; c++) {
+                    StatementCreatorUtils.setParameterValue(ps, c + 1, SqlTypeValue.TYPE_UNKNOWN, values[c]);
+                }
+            });
+        }
+    }
+
+    /**
+     * Streams rows through {@code COPY} on the transaction's connection.
+     *
+     * @return {@code false} when the connection is not PostgreSQL and nothing was written
+     */
+    private boolean copy(Table table, String projectKey, UUID runId, List<Row> rows) {
+        Boolean copied = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            PostgresCopyWriter writer = new PostgresCopyWriter(connection.unwrap(PGConnection.class).getCopyAPI());
+            long count = writer.copy(table.copySql, rows, row -> {
+                Object[] values = insertValues(projectKey, runId, row);
+                String[] columns = new String[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    columns[i] = values[i] != null ? values[i].toString() : null;
+                }
+                return columns;
+            });
+            log.debug("Copied {} {} rows for {}", count, table.name, projectKey);
+            return true;
+        });
+        return Boolean.TRUE.equals(copied);
+    }
+
+    private Map<String, Long> ids(String sql, String projectKey) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> ids.put(rs.getString(1), rs.getLong(2)), projectKey);
+        return ids;
+    }
+
+    private List<Row> entityRows(GraphModel model) {
+        return model.sortedClasses().stream()
+                .map(node -> new Row(
+                        new Object[] {node.getName()},
+                        new Object[] {
+                            node.getPackageName(),
+                            node.getJarOrDirectory(),
+                            node.getTableName(),
+                            node.getOrigin() != null ? node.getOrigin().name() : null,
+                            node.getSccId(),
+                            node.isInCycle()
                         }))
-                .filter(Objects::nonNull)
                 .toList();
-        fieldRepository.saveAll(fields);
-    }
-
-    private Map<String, SequenceRecord> persistSequences(GraphModel model) {
-        List<SequenceRecord> sequences = model.getSequences().values().stream()
-                .map(node -> {
-                    SequenceRecord record = new SequenceRecord();
-                    record.setGeneratorName(node.getGeneratorName());
-                    record.setSequenceName(node.getSequenceName());
-                    record.setAllocationSize(node.getAllocationSize());
-                    record.setInitialValue(node.getInitialValue());
-                    return record;
-                })
+    }
+
+    private List<Row> fieldRows(GraphModel model, Map<String, Long> entityIds) {
+        List<Row> rows = new ArrayList<>();
+        for (ClassNode node : model.sortedClasses()) {
+            Long entityId = entityIds.get(node.getName());
+            if (entityId == null) {
+                continue;
+            }
+            node.getFields().forEach(field -> rows.add(new Row(
+                    new Object[] {entityId, field.getName()},
+                    new Object[] {field.getType(), field.isRelationship()})));
+        }
+        return rows;
+    }
+
+    private List<Row> sequenceRows(GraphModel model) {
+        return model.getSequences().values().stream()
+                .map(node -> new Row(
+                        new Object[] {node.getGeneratorName()},
+                        new Object[] {node.getSequenceName(), node.getAllocationSize(), node.getInitialValue()}))
                 .toList();
-        sequenceRepository.saveAll(sequences);
-        return sequences.stream().collect(Collectors.toMap(SequenceRecord::getGeneratorName, record -> record));
-    }
-
-    private void persistSequenceUsage(
-            GraphModel model, Map<String, AnalysisEntityRecord> entities, Map<String, SequenceRecord> sequences) {
-        List<EntitySequenceUsageRecord> usages = model.getSequenceUsages().stream()
-                .map(usage -> {
-                    AnalysisEntityRecord entity = entities.get(usage.getClassName());
-                    SequenceRecord sequence = sequences.get(usage.getGeneratorName());
-                    if (entity == null || sequence == null) {
-                        return null;
-                    }
-                    EntitySequenceUsageRecord record = new EntitySequenceUsageRecord();
-                    record.setId(new EntitySequenceUsageId(entity.getId(), usage.getFieldName()));
-                    record.setEntity(entity);
-                    record.setSequence(sequence);
-                    return record;
-                })
-                .filter(Objects::nonNull)
+    }
+
+    private List<Row> sequenceUsageRows(
+            GraphModel model, Map<String, Long> entityIds, Map<String, Long> sequenceIds) {
+        return model.getSequenceUsages().stream()
+                .filter(usage -> entityIds.containsKey(usage.getClassName())
+                        && sequenceIds.containsKey(usage.getGeneratorName()))
+                .map(usage -> new Row(
+                        new Object[] {entityIds.get(usage.getClassName()), usage.getFieldName()},
+                        new Object[] {sequenceIds.get(usage.getGeneratorName())}))
                 .toList();
-        entitySequenceUsageRepository.saveAll(usages);
     }
 
-    private void persistDependencies(GraphModel model) {
+    private List<Row> dependencyRows(GraphModel model) {
         String packageFilter = String.join(",", properties.getAcceptPackages());
-        List<ClassDependencyRecord> dependencies = model.getDependencyEdges().stream()
+        return model.getDependencyEdges().stream()
                 .filter(edge -> edge.getKind() == DependencyKind.CALL)
-                .map(edge -> new ClassDependencyRecord(
-                        new ClassDependencyId(edge.getFromClass(), edge.getToClass()), packageFilter))
+                .map(edge -> new Row(
+                        new Object[] {edge.getFromClass(), edge.getToClass()},
+                        new Object[] {packageFilter}))
                 .toList();
-        classDependencyRepository.saveAll(dependencies);
-    }
-
-    private void persistEndpoints(GraphModel model) {
-        List<CompiledEndpointRecord> records = model.getEndpoints().stream()
-                .map(endpoint -> {
-                    CompiledEndpointRecord record = new CompiledEndpointRecord();
-                    record.setType(endpoint.getType());
-                    record.setHttpMethod(endpoint.getHttpMethod());
-                    record.setPath(endpoint.getPath());
-                    record.setControllerClass(endpoint.getControllerClass());
-                    record.setControllerMethod(endpoint.getControllerMethod());
-                    record.setFramework(endpoint.getFramework());
-                    return record;
-                })
+    }
+
+    private List<Row> endpointRows(GraphModel model) {
+        return model.getEndpoints().stream()
+                .map(endpoint -> new Row(
+                        new Object[] {
+                            endpoint.getType() != null ? endpoint.getType().name() : null,
+                            endpoint.getHttpMethod(),
+                            endpoint.getPath(),
+                            endpoint.getControllerClass(),
+                            endpoint.getControllerMethod(),
+                            endpoint.getFramework()
+                        },
+                        new Object[0]))
                 .toList();
-        endpointRepository.saveAll(records);
+    }
+
+    private static Object[] insertValues(String projectKey, UUID runId, Row row) {
+        return concat(new Object[] {projectKey, runId}, row.key(), row.values(), new Object[] {row.contentHash()});
+    }
+
+    private static Object[] concat(Object[]... parts) {
+        return Arrays.stream(parts).flatMap(Arrays::stream).toArray();
+    }
+
+    /**
+     * Identity of a key within its table. Numbers are rendered the same whether they come from the model or, as
+     * {@code BIGINT}, from the database.
+     */
+    private static String keyString(Object[] key) {
+        return IntStream.range(0, key.length)
+                .mapToObj(i -> key[i] == null ? "\u0000" : key[i].toString())
+                .collect(Collectors.joining("\u001f"));
+    }
+
+    private static String hash(Object[] key, Object[] values) {
+        MessageDigest digest = sha256();
+        for (Object[] columns : List.of(key, values)) {
+            for (Object column : columns) {
+                if (column == null) {
+                    digest.update((byte) 1);
+                } else {
+                    digest.update((byte) 0);
+                    digest.update(column.toString().getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0x1f);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -14,10 +14,14 @@ public class CompiledAnalysisProperties {
     private List<String> acceptPackages = new ArrayList<>();
     private boolean includeDependencies = true;
     private int maxCallDepth = Integer.MAX_VALUE;
+    /** Classes read at once by the bytecode scanners; zero or less uses every available processor. */
+    private int scanParallelism;
     private CompileProperties compile = new CompileProperties();
     private OutputProperties output = new OutputProperties();
     private SafetyProperties safety = new SafetyProperties();
     private FiltersProperties filters = new FiltersProperties();
+    private BytecodeCacheProperties bytecodeCache = new BytecodeCacheProperties();
+    private PersistenceProperties persistence = new PersistenceProperties();
 
     public List<String> getAcceptPackages() {
         return acceptPackages;
@@ -43,6 +47,18 @@ public class CompiledAnalysisProperties {
         this.maxCallDepth = maxCallDepth < 0 ? Integer.MAX_VALUE : maxCallDepth;
     }
 
+    public int getScanParallelism() {
+        return scanParallelism;
+    }
+
+    public void setScanParallelism(int scanParallelism) {
+        this.scanParallelism = scanParallelism;
+    }
+
+    public int resolveScanParallelism() {
+        return scanParallelism > 0 ? scanParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
     public CompileProperties getCompile() {
         return compile;
     }
@@ -75,6 +91,22 @@ public class CompiledAnalysisProperties {
         this.filters = filters;
     }
 
+    public BytecodeCacheProperties getBytecodeCache() {
+        return bytecodeCache;
+    }
+
+    public void setBytecodeCache(BytecodeCacheProperties bytecodeCache) {
+        this.bytecodeCache = bytecodeCache;
+    }
+
+    public PersistenceProperties getPersistence() {
+        return persistence;
+    }
+
+    public void setPersistence(PersistenceProperties persistence) {
+        this.persistence = persistence;
+    }
+
     public static class CompileProperties {
         private boolean auto = true;
         private String mvnExecutable = "mvn";
@@ -158,4 +190,64 @@ public class CompiledAnalysisProperties {
             this.excludeJars = excludeJars == null ? new ArrayList<>() : new ArrayList<>(excludeJars);
         }
     }
+
+    public static class BytecodeCacheProperties {
+        private boolean enabled = true;
+        private String root = "./data/compiled/bytecode-cache";
+        private long maxAgeDays = 30;
+        private long maxSizeMb = 2048;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getRoot() {
+            return root;
+        }
+
+        public void setRoot(String root) {
+            this.root = root;
+        }
+
+        public long getMaxAgeDays() {
+            return maxAgeDays;
+        }
+
+        public void setMaxAgeDays(long maxAgeDays) {
+            this.maxAgeDays = maxAgeDays;
+        }
+
+        public long getMaxSizeMb() {
+            return maxSizeMb;
+        }
+
+        public void setMaxSizeMb(long maxSizeMb) {
+            this.maxSizeMb = maxSizeMb;
+        }
+    }
+
+    public static class PersistenceProperties {
+        private int batchSize = 500;
+        private boolean copyEnabled = true;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public boolean isCopyEnabled() {
+            return copyEnabled;
+        }
+
+        public void setCopyEnabled(boolean copyEnabled) {
+            this.copyEnabled = copyEnabled;
+        }
+    }
 }
@@ -1,9 +1,11 @@
 package com.codevision.codevisionbackend.analysis.multilang;
 
+import com.codevision.codevisionbackend.config.AnalysisPipelineProperties;
 import com.codevision.codevisionbackend.config.AnalysisSafetyProperties;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -14,8 +16,10 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Orchestrator that walks a directory tree, parses every supported source file
@@ -25,26 +29,64 @@ import java.util.List;
  * <p>Directory traversal uses a visited-set for cycle detection (symlink loops)
  * and a time-based deadline to avoid runaway scans. Both are
  * configuration-driven via {@code application.yml}.</p>
+ *
+ * <p>The walk only collects the supported files. They are then split into
+ * fixed-size chunks, and each chunk is parsed with one
+ * {@link TreeSitterBridge#parseAll(List)} call and analysed into its own
+ * {@link KnowledgeGraph} shard. With {@code analysis.pipeline.parsing.parallelism}
+ * above one, chunks run on a fork-join pool of that size, capped at
+ * {@link TreeSitterBridge#maxConcurrentParses()} so that no more threads run
+ * than there are tree-sitter workers to serve them. Shards are merged into
+ * the result in file order once every chunk is done, so the graph is the same
+ * as a sequential scan and no thread contends on the shared copy-on-write
+ * indices.</p>
  */
 @Component
 public class MultiLanguageSourceScanner {
 
     private static final Logger log = LoggerFactory.getLogger(MultiLanguageSourceScanner.class);
+    private static final int FILES_PER_SHARD = 64;
 
     private final TreeSitterBridge bridge;
     private final List<LanguageAnalyzer> analyzers;
     private final LanguageRegistry registry;
     private final long maxRuntimeSeconds;
+    private final int parallelism;
 
     public MultiLanguageSourceScanner(
             TreeSitterBridge bridge,
             List<LanguageAnalyzer> analyzers,
             LanguageRegistry registry,
             AnalysisSafetyProperties safetyProperties) {
+        this(bridge, analyzers, registry, safetyProperties, 1);
+    }
+
+    @Autowired
+    public MultiLanguageSourceScanner(
+            TreeSitterBridge bridge,
+            List<LanguageAnalyzer> analyzers,
+            LanguageRegistry registry,
+            AnalysisSafetyProperties safetyProperties,
+            AnalysisPipelineProperties pipelineProperties) {
+        this(bridge, analyzers, registry, safetyProperties,
+                pipelineProperties.getParsing().resolveParallelism());
+    }
+
+    /**
+     * @param parallelism number of file chunks scanned concurrently; one or less
+     *                    scans on the calling thread
+     */
+    public MultiLanguageSourceScanner(
+            TreeSitterBridge bridge,
+            List<LanguageAnalyzer> analyzers,
+            LanguageRegistry registry,
+            AnalysisSafetyProperties safetyProperties,
+            int parallelism) {
         this.bridge = bridge;
         this.analyzers = analyzers;
         this.registry = registry;
         this.maxRuntimeSeconds = safetyProperties.maxRuntimeSeconds();
+        this.parallelism = Math.max(1, parallelism);
     }
 
     /**
@@ -56,8 +98,55 @@ public class MultiLanguageSourceScanner {
      * @throws UncheckedIOException if the directory cannot be read
      */
     public KnowledgeGraph scanDirectory(Path directory) {
-        var graph = new KnowledgeGraph();
         var deadline = Instant.now().plusSeconds(maxRuntimeSeconds);
+        var files = collectFiles(directory, deadline);
+
+        var chunks = new ArrayList<List<Path>>();
+        for (int from = 0; from < files.size(); from += FILES_PER_SHARD) {
+            chunks.add(files.subList(from, Math.min(files.size(), from + FILES_PER_SHARD)));
+        }
+
+        var graph = new KnowledgeGraph();
+        int threads = Math.min(parallelism, bridge.maxConcurrentParses());
+        if (threads <= 1 || chunks.size() < 2) {
+            chunks.forEach(chunk -> scanChunk(chunk, graph, deadline));
+            return graph;
+        }
+
+        var pool = new ForkJoinPool(threads);
+        try {
+            var shards = pool.submit(() -> chunks.parallelStream()
+                    .map(chunk -> {
+                        var shard = new KnowledgeGraph();
+                        scanChunk(chunk, shard, deadline);
+                        return shard;
+                    })
+                    .toList()).join();
+            shards.forEach(graph::merge);
+        } finally {
+            pool.shutdown();
+        }
+        log.debug("Scanned {} files in {} shards with parallelism {}", files.size(), chunks.size(), threads);
+        return graph;
+    }
+
+    /**
+     * Parses and analyses a single source file.
+     *
+     * @param file the file to scan
+     * @return knowledge graph containing any discovered nodes/edges
+     */
+    public KnowledgeGraph scanFile(Path file) {
+        var graph = new KnowledgeGraph();
+        if (bridge.isSupported(file.getFileName().toString())) {
+            scanChunk(List.of(file), graph, Instant.MAX);
+        }
+        return graph;
+    }
+
+    /** Walks {@code directory} and returns the supported files in visit order. */
+    private List<Path> collectFiles(Path directory, Instant deadline) {
+        var files = new ArrayList<Path>();
         var visited = new HashSet<Path>();
 
         try {
@@ -80,12 +169,14 @@ public class MultiLanguageSourceScanner {
                 }
 
                 @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
                     if (Instant.now().isAfter(deadline)) {
                         log.warn("Scan deadline reached; aborting directory walk");
                         return FileVisitResult.TERMINATE;
                     }
-                    parseAndAnalyze(file, graph);
+                    if (bridge.isSupported(file.getFileName().toString())) {
+                        files.add(file);
+                    }
                     return FileVisitResult.CONTINUE;
                 }
 
@@ -98,51 +189,45 @@ public class MultiLanguageSourceScanner {
         } catch (IOException e) {
             throw new UncheckedIOException("Failed to walk directory: " + directory, e);
         }
-
-        return graph;
+        return files;
     }
 
-    /**
-     * Parses and analyses a single source file.
-     *
-     * @param file the file to scan
-     * @return knowledge graph containing any discovered nodes/edges
-     */
-    public KnowledgeGraph scanFile(Path file) {
-        var graph = new KnowledgeGraph();
-        parseAndAnalyze(file, graph);
-        return graph;
+    /** Reads, parses and analyses {@code chunk} into {@code graph}, stopping at the deadline. */
+    private void scanChunk(List<Path> chunk, KnowledgeGraph graph, Instant deadline) {
+        if (Instant.now().isAfter(deadline)) {
+            log.warn("Scan deadline reached; skipping {} files", chunk.size());
+            return;
+        }
+        var sources = new ArrayList<TreeSitterBridge.SourceFile>(chunk.size());
+        for (var file : chunk) {
+            try {
+                sources.add(new TreeSitterBridge.SourceFile(file.getFileName().toString(), Files.readString(file)));
+            } catch (IOException e) {
+                log.warn("Failed to read file: {}", file, e);
+            }
+        }
+        for (var treeOpt : bridge.parseAll(sources)) {
+            treeOpt.ifPresent(tree -> analyze(tree, graph));
+        }
     }
 
-    private void parseAndAnalyze(Path file, KnowledgeGraph graph) {
-        var filename = file.getFileName().toString();
-        if (!bridge.isSupported(filename)) {
-            return;
+    private void analyze(ParsedTree tree, KnowledgeGraph graph) {
+        boolean handled = false;
+        for (var analyzer : analyzers) {
+            if (!(analyzer instanceof GenericTreeSitterAnalyzer)
+                    && tree.languageName().equals(analyzer.languageName())) {
+                analyzer.analyze(tree, graph);
+                handled = true;
+            }
         }
-        try {
-            var sourceCode = Files.readString(file);
-            var treeOpt = bridge.parse(sourceCode, filename);
-            treeOpt.ifPresent(tree -> {
-                boolean handled = false;
-                for (var analyzer : analyzers) {
-                    if (!(analyzer instanceof GenericTreeSitterAnalyzer)
-                            && tree.languageName().equals(analyzer.languageName())) {
-                        analyzer.analyze(tree, graph);
-                        handled = true;
-                    }
+        // Fallback: if no dedicated analyzer matched, use the generic one
+        if (!handled) {
+            for (var analyzer : analyzers) {
+                if (analyzer instanceof GenericTreeSitterAnalyzer generic) {
+                    generic.analyzeGeneric(tree, graph);
+                    break;
                 }
-                // Fallback: if no dedicated analyzer matched, use the generic one
-                if (!handled) {
-                    for (var analyzer : analyzers) {
-                        if (analyzer instanceof GenericTreeSitterAnalyzer generic) {
-                            generic.analyzeGeneric(tree, graph);
-                            break;
-                        }
-                    }
-                }
-            });
-        } catch (IOException e) {
-            log.warn("Failed to read file: {}", file, e);
+            }
         }
     }
 }
@@ -2,6 +2,7 @@ package com.codevision.codevisionbackend.analysis.multilang;
 
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +41,42 @@ public class TreeSitterBridge {
         return Optional.of(new ParsedTree(filename, lang.name(), sourceCode, rootNodes));
     }
 
+    /**
+     * Parses many files at once. Files in an unsupported language map to an
+     * empty result; the remaining files are handed to
+     * {@link #parseWithGrammar(List)} together, so implementations backed by an
+     * external parser can serve the whole batch in few round trips.
+     *
+     * @param files the files to parse
+     * @return one result per file, in the same order
+     */
+    public List<Optional<ParsedTree>> parseAll(List<SourceFile> files) {
+        List<Optional<ParsedTree>> results = new ArrayList<>(files.size());
+        List<GrammarRequest> requests = new ArrayList<>();
+        List<LanguageDefinition> languages = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            var file = files.get(i);
+            results.add(Optional.empty());
+            var langOpt = registry.detect(file.filename());
+            if (langOpt.isPresent()) {
+                requests.add(new GrammarRequest(file.sourceCode(), langOpt.get().treeSitterLanguage()));
+                languages.add(langOpt.get());
+                positions.add(i);
+            }
+        }
+        if (requests.isEmpty()) {
+            return results;
+        }
+        var parsed = parseWithGrammar(requests);
+        for (int i = 0; i < requests.size(); i++) {
+            var file = files.get(positions.get(i));
+            results.set(positions.get(i), Optional.of(new ParsedTree(
+                    file.filename(), languages.get(i).name(), file.sourceCode(), parsed.get(i))));
+        }
+        return results;
+    }
+
     /**
      * Returns whether the given filename has a recognised language extension.
      *
@@ -50,6 +87,17 @@ public class TreeSitterBridge {
         return registry.detect(filename).isPresent();
     }
 
+    /**
+     * Returns how many {@link #parseAll(List)} calls can usefully run at once.
+     * Callers that parse concurrently should use at most this many threads.
+     * The placeholder parser has no shared resources, so it imposes no limit.
+     *
+     * @return the maximum number of concurrent parse calls
+     */
+    public int maxConcurrentParses() {
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * Low-level parse using a specific tree-sitter grammar.
      *
@@ -77,4 +125,35 @@ public class TreeSitterBridge {
         );
         return List.of(root);
     }
+
+    /**
+     * Batch variant of {@link #parseWithGrammar(String, String)}. The default
+     * implementation parses each request on its own.
+     *
+     * @param requests the sources to parse with their grammar names
+     * @return one list of root-level AST nodes per request, in the same order
+     */
+    protected List<List<ParsedNode>> parseWithGrammar(List<GrammarRequest> requests) {
+        List<List<ParsedNode>> results = new ArrayList<>(requests.size());
+        for (var request : requests) {
+            results.add(parseWithGrammar(request.source(), request.language()));
+        }
+        return results;
+    }
+
+    /**
+     * A file to parse with {@link #parseAll(List)}.
+     *
+     * @param filename   the filename (or path) used for language detection
+     * @param sourceCode the full source text
+     */
+    public record SourceFile(String filename, String sourceCode) {}
+
+    /**
+     * A source text paired with the tree-sitter grammar to parse it with.
+     *
+     * @param source   the source text to parse
+     * @param language the tree-sitter grammar name
+     */
+    public record GrammarRequest(String source, String language) {}
 }
@@ -48,7 +48,21 @@ public final class TreeSitterJsonMapper {
             return List.of();
         }
 
-        var rootArray = OBJECT_MAPPER.readTree(json);
+        return parseTree(OBJECT_MAPPER.readTree(json));
+    }
+
+    /**
+     * Maps an already-parsed JSON array of node objects, as returned per file
+     * by the worker protocol, into root-level {@link ParsedNode} records.
+     *
+     * @param rootArray the JSON array (or an error object)
+     * @return list of parsed nodes
+     * @throws IOException if the JSON is an error object or not an array
+     */
+    public static List<ParsedNode> parseTree(JsonNode rootArray) throws IOException {
+        if (rootArray == null || rootArray.isNull() || rootArray.isMissingNode()) {
+            return List.of();
+        }
 
         // Check if the output is an error object (has "error" field)
         if (rootArray.isObject() && rootArray.has("error")) {
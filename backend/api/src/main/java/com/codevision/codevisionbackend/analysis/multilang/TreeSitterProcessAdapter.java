@@ -1,7 +1,9 @@
 package com.codevision.codevisionbackend.analysis.multilang;
 
 import com.codevision.codevisionbackend.config.TreeSitterProperties;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Primary;
@@ -9,14 +11,17 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Production tree-sitter adapter that shells out to a Node.js script to perform
- * real AST parsing. Annotated {@code @Primary} so that Spring injects this
+ * Production tree-sitter adapter that sends sources to a pool of long-lived
+ * Node.js workers ({@link TreeSitterWorkerPool}) to perform real AST parsing,
+ * batching many files into each round trip. Annotated {@code @Primary} so that Spring injects this
  * instead of the placeholder {@link TreeSitterBridge}.
  *
  * <p>If Node.js or the tree-sitter grammars are not available, this adapter
@@ -31,6 +36,7 @@ public class TreeSitterProcessAdapter extends TreeSitterBridge {
 
     private final TreeSitterProperties properties;
     private volatile boolean available;
+    private TreeSitterWorkerPool workerPool;
 
     public TreeSitterProcessAdapter(LanguageRegistry registry,
                                     TreeSitterProperties properties) {
@@ -82,73 +88,106 @@ public class TreeSitterProcessAdapter extends TreeSitterBridge {
         return available;
     }
 
+    /**
+     * One parse call per worker when Node.js is available; further callers
+     * would only queue for a worker.
+     */
+    @Override
+    public int maxConcurrentParses() {
+        return available ? Math.max(1, properties.poolSize()) : super.maxConcurrentParses();
+    }
+
     @Override
     protected List<ParsedNode> parseWithGrammar(String source, String language) {
-        if (!available) {
-            return super.parseWithGrammar(source, language);
-        }
+        return parseWithGrammar(List.of(new GrammarRequest(source, language))).get(0);
+    }
 
-        // Validate language against allowlist pattern
-        if (!language.matches("[a-z_]+")) {
-            log.warn("Invalid tree-sitter language name: {}", language);
-            return super.parseWithGrammar(source, language);
+    /**
+     * Parses the requests on the worker pool, at most
+     * {@link TreeSitterProperties#batchSize()} files per round trip. Any file
+     * the workers cannot parse falls back to the placeholder from the superclass.
+     */
+    @Override
+    protected List<List<ParsedNode>> parseWithGrammar(List<GrammarRequest> requests) {
+        List<List<ParsedNode>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<GrammarRequest> pending = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            var language = requests.get(i).language();
+            // Validate language against allowlist pattern
+            if (available && language.matches("[a-z_]+")) {
+                pending.add(requests.get(i));
+                positions.add(i);
+            } else if (available) {
+                log.warn("Invalid tree-sitter language name: {}", language);
+            }
         }
 
-        Path tempFile = null;
-        try {
-            tempFile = Files.createTempFile("ts-parse-", "-" + language);
-            Files.writeString(tempFile, source);
-
-            var scriptPath = Path.of(properties.scriptPath()).toAbsolutePath().toString();
-            var pb = new ProcessBuilder(
-                    properties.nodePath(),
-                    scriptPath,
-                    tempFile.toAbsolutePath().toString(),
-                    language
-            );
-            pb.redirectErrorStream(false);
-
-            var process = pb.start();
-
-            // Read stdout before waitFor to prevent pipe buffer deadlock
-            var stdout = readBounded(process.getInputStream());
-            var stderr = readBounded(process.getErrorStream());
-
-            boolean finished = process.waitFor(properties.timeoutSeconds(), TimeUnit.SECONDS);
-            if (!finished) {
-                process.destroyForcibly();
-                log.warn("Tree-sitter parse timed out after {}s for language {}",
-                        properties.timeoutSeconds(), language);
-                return super.parseWithGrammar(source, language);
+        var pool = pending.isEmpty() ? null : pool();
+        int batchSize = Math.max(1, properties.batchSize());
+        for (int from = 0; pool != null && from < pending.size(); from += batchSize) {
+            if (!pool.isHealthy()) {
+                log.warn("Tree-sitter workers keep failing; using placeholder parsing");
+                break;
             }
+            var batch = pending.subList(from, Math.min(pending.size(), from + batchSize));
+            try {
+                var parsed = pool.parse(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    results.set(positions.get(from + i), toNodes(parsed.get(i), batch.get(i).language()));
+                }
+            } catch (IOException e) {
+                log.warn("Tree-sitter batch of {} files failed: {}", batch.size(), e.getMessage());
+            }
+        }
 
-            if (process.exitValue() != 0) {
-                log.warn("Tree-sitter parse failed (exit={}) for language {}: {}",
-                        process.exitValue(), language,
-                        truncate(stdout + " " + stderr, 500));
-                return super.parseWithGrammar(source, language);
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                var request = requests.get(i);
+                results.set(i, super.parseWithGrammar(request.source(), request.language()));
             }
+        }
+        return results;
+    }
 
-            return TreeSitterJsonMapper.parse(stdout);
+    @PreDestroy
+    void shutdown() {
+        synchronized (this) {
+            if (workerPool != null) {
+                workerPool.close();
+                workerPool = null;
+            }
+        }
+    }
 
+    private static List<ParsedNode> toNodes(JsonNode nodes, String language) {
+        if (nodes == null) {
+            return null;
+        }
+        try {
+            return TreeSitterJsonMapper.parseTree(nodes);
         } catch (IOException e) {
-            log.warn("Tree-sitter parse I/O error for language {}: {}", language, e.getMessage());
-            return super.parseWithGrammar(source, language);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Tree-sitter parse interrupted for language {}", language);
-            return super.parseWithGrammar(source, language);
-        } finally {
-            if (tempFile != null) {
-                try {
-                    Files.deleteIfExists(tempFile);
-                } catch (IOException e) {
-                    log.debug("Failed to delete temp file {}: {}", tempFile, e.getMessage());
-                }
-            }
+            log.warn("Unreadable tree-sitter output for language {}: {}", language, e.getMessage());
+            return null;
         }
     }
 
+    /** The worker pool, started on first use. */
+    private synchronized TreeSitterWorkerPool pool() {
+        if (workerPool == null) {
+            var scriptPath = Path.of(properties.scriptPath()).toAbsolutePath().toString();
+            workerPool = new TreeSitterWorkerPool(
+                    List.of(properties.nodePath(), scriptPath, "--worker"),
+                    properties.poolSize(),
+                    Duration.ofSeconds(properties.timeoutSeconds()),
+                    Duration.ofSeconds(properties.healthCheckIntervalSeconds()),
+                    Duration.ofSeconds(properties.recoveryCooldownSeconds()));
+            log.info("Tree-sitter bridge: started worker pool (size={}, batchSize={})",
+                    properties.poolSize(), properties.batchSize());
+        }
+        return workerPool;
+    }
+
     /**
      * Reads up to {@link #OUTPUT_BYTES_LIMIT} from an input stream, preventing
      * unbounded memory consumption from large process outputs.
@@ -157,11 +196,4 @@ public class TreeSitterProcessAdapter extends TreeSitterBridge {
         var bytes = inputStream.readNBytes(OUTPUT_BYTES_LIMIT);
         return new String(bytes);
     }
-
-    private static String truncate(String value, int maxLength) {
-        if (value.length() <= maxLength) {
-            return value;
-        }
-        return value.substring(0, maxLength) + "...[truncated]";
-    }
 }
@@ -0,0 +1,339 @@
+package com.codevision.codevisionbackend.analysis.multilang;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of long-lived Node.js workers running {@code tree-sitter-parse.js --worker}.
+ *
+ * <p>Requests and responses are length-prefixed JSON frames (4-byte big-endian
+ * length, then UTF-8 JSON) over the worker's stdin and stdout, and one request
+ * can carry many files. Workers start lazily up to the pool size. A worker
+ * that crashes, times out or answers out of protocol is killed and replaced
+ * on the next request. Idle workers are pinged on a fixed interval. The
+ * timeout applies per file, so a round trip may take {@code timeout} times the
+ * number of files it carries.</p>
+ *
+ * <p>After repeated consecutive failures the pool reports itself unhealthy so
+ * callers can stop routing work to it. Once the recovery cool-down has passed
+ * since the last failure, the next health check recycles the idle workers and
+ * lets one more request through: a success makes the pool healthy again, a
+ * failure reopens the cool-down.</p>
+ */
+final class TreeSitterWorkerPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeSitterWorkerPool.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int FRAME_BYTES_LIMIT = 50 * 1024 * 1024; // 50 MB
+    private static final long PING_TIMEOUT_MILLIS = 5_000;
+    private static final long BORROW_POLL_MILLIS = 250;
+
+    private final List<String> command;
+    private final int size;
+    private final long timeoutMillis;
+    private final int failureLimit;
+    private final long recoveryCooldownNanos;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final ExecutorService io;
+    private final ScheduledExecutorService healthChecker;
+    private volatile long lastFailureNanos;
+    private volatile boolean closed;
+
+    TreeSitterWorkerPool(List<String> command, int size, Duration timeout, Duration healthCheckInterval) {
+        this(command, size, timeout, healthCheckInterval, Duration.ofSeconds(60));
+    }
+
+    /**
+     * @param timeout             how long a worker may take per file in a request
+     * @param healthCheckInterval how often idle workers are pinged; zero disables pinging
+     * @param recoveryCooldown    how long an unhealthy pool waits after its last
+     *                            failure before it tries its workers again
+     */
+    TreeSitterWorkerPool(List<String> command, int size, Duration timeout, Duration healthCheckInterval,
+                         Duration recoveryCooldown) {
+        this.command = List.copyOf(command);
+        this.size = Math.max(1, size);
+        this.timeoutMillis = Math.max(1, timeout.toMillis());
+        this.failureLimit = this.size * 3;
+        this.recoveryCooldownNanos = Math.max(0, recoveryCooldown.toNanos());
+        this.io = Executors.newCachedThreadPool(daemonThreads("tree-sitter-io"));
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(daemonThreads("tree-sitter-health"));
+        long interval = healthCheckInterval.toMillis();
+        if (interval > 0) {
+            healthChecker.scheduleWithFixedDelay(this::checkIdleWorkers, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Parses {@code requests} in a single round trip on one worker.
+     *
+     * @return one entry per request, in order: the JSON node array on success,
+     *         or {@code null} when the worker reported an error for that file
+     * @throws IOException when no worker could serve the batch
+     */
+    List<JsonNode> parse(List<TreeSitterBridge.GrammarRequest> requests) throws IOException {
+        ObjectNode message = OBJECT_MAPPER.createObjectNode();
+        ArrayNode files = message.putArray("files");
+        for (var request : requests) {
+            files.addObject().put("language", request.language()).put("source", request.source());
+        }
+        JsonNode response = call(message, timeoutMillis * Math.max(1, requests.size()));
+        JsonNode results = response.path("results");
+        if (!results.isArray() || results.size() != requests.size()) {
+            throw new IOException("tree-sitter worker returned " + results.size()
+                    + " results for " + requests.size() + " files");
+        }
+        List<JsonNode> nodes = new ArrayList<>(requests.size());
+        for (JsonNode result : results) {
+            JsonNode parsed = result.get("nodes");
+            if (parsed == null) {
+                log.debug("tree-sitter worker failed a file: {}", result.path("error").asText());
+            }
+            nodes.add(parsed);
+        }
+        return nodes;
+    }
+
+    /**
+     * Whether the pool is still usable: not closed and not failing every request.
+     * An unhealthy pool whose recovery cool-down has passed recycles its idle
+     * workers and reports healthy for one more attempt.
+     */
+    boolean isHealthy() {
+        if (closed) {
+            return false;
+        }
+        int failures = consecutiveFailures.get();
+        if (failures < failureLimit) {
+            return true;
+        }
+        if (System.nanoTime() - lastFailureNanos < recoveryCooldownNanos) {
+            return false;
+        }
+        // Half-open: a single further failure trips the limit again
+        if (consecutiveFailures.compareAndSet(failures, failureLimit - 1)) {
+            log.info("Tree-sitter workers cooled down after {} failures; restarting them", failures);
+            Worker worker;
+            while ((worker = idle.poll()) != null) {
+                discard(worker);
+            }
+        }
+        return true;
+    }
+
+    /** Number of worker processes currently running. */
+    int liveWorkers() {
+        return live.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        healthChecker.shutdownNow();
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            discard(worker);
+        }
+        io.shutdownNow();
+    }
+
+    private JsonNode call(ObjectNode message, long timeout) throws IOException {
+        Worker worker = borrow();
+        try {
+            JsonNode response = worker.roundTrip(message, timeout);
+            consecutiveFailures.set(0);
+            release(worker);
+            return response;
+        } catch (IOException e) {
+            recordFailure();
+            log.warn("tree-sitter worker failed, restarting it: {}", e.getMessage());
+            discard(worker);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes an idle worker, starts one while below the pool size, or waits for
+     * one to be released. The wait is unbounded because every borrowed worker
+     * comes back, or is discarded, within its round-trip timeout.
+     */
+    private Worker borrow() throws IOException {
+        Worker worker = idle.poll();
+        while (worker == null) {
+            if (closed) {
+                throw new IOException("tree-sitter worker pool is closed");
+            }
+            int current = live.get();
+            if (current < size && live.compareAndSet(current, current + 1)) {
+                try {
+                    return start();
+                } catch (IOException e) {
+                    live.decrementAndGet();
+                    recordFailure();
+                    throw e;
+                }
+            }
+            try {
+                // Short polls so a slot freed by a discarded worker is noticed
+                worker = idle.poll(BORROW_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for a tree-sitter worker", e);
+            }
+        }
+        if (!worker.process.isAlive()) {
+            discard(worker);
+            return borrow();
+        }
+        return worker;
+    }
+
+    private void release(Worker worker) {
+        if (closed) {
+            discard(worker);
+        } else {
+            idle.offer(worker);
+        }
+    }
+
+    private void recordFailure() {
+        lastFailureNanos = System.nanoTime();
+        consecutiveFailures.incrementAndGet();
+    }
+
+    private void discard(Worker worker) {
+        worker.process.destroyForcibly();
+        live.decrementAndGet();
+    }
+
+    private Worker start() throws IOException {
+        Process process = new ProcessBuilder(command).start();
+        Worker worker = new Worker(process);
+        io.submit(() -> drainStderr(process));
+        log.debug("Started tree-sitter worker pid={}", process.pid());
+        return worker;
+    }
+
+    /** Pings every worker that is idle right now and replaces those that do not answer. */
+    private void checkIdleWorkers() {
+        List<Worker> snapshot = new ArrayList<>();
+        idle.drainTo(snapshot);
+        for (Worker worker : snapshot) {
+            try {
+                ObjectNode ping = OBJECT_MAPPER.createObjectNode().put("ping", true);
+                if (!worker.roundTrip(ping, PING_TIMEOUT_MILLIS).path("pong").asBoolean()) {
+                    throw new IOException("unexpected ping response");
+                }
+                release(worker);
+            } catch (IOException e) {
+                log.warn("tree-sitter worker failed health check, restarting it: {}", e.getMessage());
+                discard(worker);
+            }
+        }
+    }
+
+    private static void drainStderr(Process process) {
+        try (var reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                log.debug("tree-sitter worker pid={}: {}", process.pid(), line);
+            }
+        } catch (IOException e) {
+            // Stream closes when the worker exits
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** One worker process; used by a single caller at a time. */
+    private final class Worker {
+
+        private final Process process;
+        private final DataOutputStream stdin;
+        private final DataInputStream stdout;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.stdin = new DataOutputStream(process.getOutputStream());
+            this.stdout = new DataInputStream(process.getInputStream());
+        }
+
+        private JsonNode roundTrip(ObjectNode message, long timeout) throws IOException {
+            long id = requestIds.incrementAndGet();
+            message.put("id", id);
+            byte[] payload = OBJECT_MAPPER.writeValueAsBytes(message);
+            stdin.writeInt(payload.length);
+            stdin.write(payload);
+            stdin.flush();
+
+            Future<byte[]> frame = io.submit(this::readFrame);
+            byte[] bytes;
+            try {
+                bytes = frame.get(timeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                frame.cancel(true);
+                throw new IOException("tree-sitter worker timed out after " + timeout + " ms");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException io ? io : new IOException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for tree-sitter worker", e);
+            }
+
+            JsonNode response = OBJECT_MAPPER.readTree(bytes);
+            if (response.path("id").asLong(-1) != id) {
+                throw new IOException("tree-sitter worker answered request " + response.path("id")
+                        + " instead of " + id + ": " + response.path("error").asText(""));
+            }
+            return response;
+        }
+
+        private byte[] readFrame() throws IOException {
+            int length = stdout.readInt();
+            if (length < 0 || length > FRAME_BYTES_LIMIT) {
+                throw new IOException("tree-sitter worker frame of " + length + " bytes exceeds limit");
+            }
+            byte[] bytes = new byte[length];
+            stdout.readFully(bytes);
+            return bytes;
+        }
+    }
+}
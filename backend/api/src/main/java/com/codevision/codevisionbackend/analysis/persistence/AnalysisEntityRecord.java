@@ -9,16 +9,28 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.util.UUID;
 
 @Entity
-@Table(name = "entity")
+@Table(
+        name = "entity",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uq_entity_project_class",
+                columnNames = {"project_key", "class_name"}))
 public class AnalysisEntityRecord {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "class_name", nullable = false, unique = true)
+    @Column(name = "project_key", nullable = false)
+    private String projectKey;
+
+    @Column(name = "run_id")
+    private UUID runId;
+
+    @Column(name = "class_name", nullable = false)
     private String className;
 
     @Column(name = "package_name", nullable = false)
@@ -99,4 +111,20 @@ public class AnalysisEntityRecord {
     public void setInCycle(boolean inCycle) {
         this.inCycle = inCycle;
     }
+
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public void setRunId(UUID runId) {
+        this.runId = runId;
+    }
 }
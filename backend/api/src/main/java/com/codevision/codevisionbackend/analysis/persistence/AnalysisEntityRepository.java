@@ -1,11 +1,17 @@
 package com.codevision.codevisionbackend.analysis.persistence;
 
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface AnalysisEntityRepository extends JpaRepository<AnalysisEntityRecord, Long> {
-    AnalysisEntityRecord findByClassName(String className);
+    Optional<AnalysisEntityRecord> findByProjectKeyAndClassName(String projectKey, String className);
 
     Page<AnalysisEntityRecord> findByPackageNameStartingWithIgnoreCase(String packageName, Pageable pageable);
+
+    Page<AnalysisEntityRecord> findByProjectKey(String projectKey, Pageable pageable);
+
+    Page<AnalysisEntityRecord> findByProjectKeyAndPackageNameStartingWithIgnoreCase(
+            String projectKey, String packageName, Pageable pageable);
 }
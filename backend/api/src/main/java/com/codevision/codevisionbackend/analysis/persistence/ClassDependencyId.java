@@ -8,6 +8,9 @@ import java.util.Objects;
 @Embeddable
 public class ClassDependencyId implements Serializable {
 
+    @Column(name = "project_key")
+    private String projectKey;
+
     @Column(name = "caller")
     private String caller;
 
@@ -16,11 +19,20 @@ public class ClassDependencyId implements Serializable {
 
     public ClassDependencyId() {}
 
-    public ClassDependencyId(String caller, String callee) {
+    public ClassDependencyId(String projectKey, String caller, String callee) {
+        this.projectKey = projectKey;
         this.caller = caller;
         this.callee = callee;
     }
 
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
     public String getCaller() {
         return caller;
     }
@@ -42,11 +54,12 @@ public class ClassDependencyId implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ClassDependencyId that = (ClassDependencyId) o;
-        return Objects.equals(caller, that.caller) && Objects.equals(callee, that.callee);
+        return Objects.equals(projectKey, that.projectKey)
+                && Objects.equals(caller, that.caller) && Objects.equals(callee, that.callee);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(caller, callee);
+        return Objects.hash(projectKey, caller, callee);
     }
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import java.util.UUID;
 
 @Entity
 @Table(name = "class_dep")
@@ -12,6 +13,9 @@ public class ClassDependencyRecord {
     @EmbeddedId
     private ClassDependencyId id;
 
+    @Column(name = "run_id")
+    private UUID runId;
+
     @Column(name = "package_filter")
     private String packageFilter;
 
@@ -37,4 +41,12 @@ public class ClassDependencyRecord {
     public void setPackageFilter(String packageFilter) {
         this.packageFilter = packageFilter;
     }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public void setRunId(UUID runId) {
+        this.runId = runId;
+    }
 }
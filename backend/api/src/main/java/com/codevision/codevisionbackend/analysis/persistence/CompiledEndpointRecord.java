@@ -9,6 +9,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import java.util.UUID;
 
 @Entity
 @Table(name = "compiled_endpoint")
@@ -18,6 +19,12 @@ public class CompiledEndpointRecord {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "project_key", nullable = false)
+    private String projectKey;
+
+    @Column(name = "run_id")
+    private UUID runId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "endpoint_type", nullable = false)
     private EndpointType type;
@@ -88,4 +95,20 @@ public class CompiledEndpointRecord {
     public void setFramework(String framework) {
         this.framework = framework;
     }
+
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public void setRunId(UUID runId) {
+        this.runId = runId;
+    }
 }
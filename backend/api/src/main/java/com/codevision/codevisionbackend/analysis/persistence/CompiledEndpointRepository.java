@@ -1,5 +1,9 @@
 package com.codevision.codevisionbackend.analysis.persistence;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface CompiledEndpointRepository extends JpaRepository<CompiledEndpointRecord, Long> {}
+public interface CompiledEndpointRepository extends JpaRepository<CompiledEndpointRecord, Long> {
+    Page<CompiledEndpointRecord> findByProjectKey(String projectKey, Pageable pageable);
+}
@@ -1,5 +1,6 @@
 package com.codevision.codevisionbackend.analysis.persistence;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -7,6 +8,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MapsId;
 import jakarta.persistence.Table;
+import java.util.UUID;
 
 @Entity
 @Table(name = "entity_uses_sequence")
@@ -20,6 +22,12 @@ public class EntitySequenceUsageRecord {
     @JoinColumn(name = "entity_id")
     private AnalysisEntityRecord entity;
 
+    @Column(name = "project_key", nullable = false)
+    private String projectKey;
+
+    @Column(name = "run_id")
+    private UUID runId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sequence_id")
     private SequenceRecord sequence;
@@ -47,4 +55,20 @@ public class EntitySequenceUsageRecord {
     public void setSequence(SequenceRecord sequence) {
         this.sequence = sequence;
     }
+
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public void setRunId(UUID runId) {
+        this.runId = runId;
+    }
 }
@@ -6,16 +6,28 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.util.UUID;
 
 @Entity
-@Table(name = "sequence")
+@Table(
+        name = "sequence",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uq_sequence_project_generator",
+                columnNames = {"project_key", "generator_name"}))
 public class SequenceRecord {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "generator_name", nullable = false, unique = true)
+    @Column(name = "project_key", nullable = false)
+    private String projectKey;
+
+    @Column(name = "run_id")
+    private UUID runId;
+
+    @Column(name = "generator_name", nullable = false)
     private String generatorName;
 
     @Column(name = "sequence_name")
@@ -62,4 +74,20 @@ public class SequenceRecord {
     public void setInitialValue(Integer initialValue) {
         this.initialValue = initialValue;
     }
+
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public void setRunId(UUID runId) {
+        this.runId = runId;
+    }
 }
@@ -1,8 +1,12 @@
 package com.codevision.codevisionbackend.analysis.persistence;
 
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface SequenceRecordRepository extends JpaRepository<SequenceRecord, Long> {
-    Optional<SequenceRecord> findByGeneratorName(String generatorName);
+    Optional<SequenceRecord> findByProjectKeyAndGeneratorName(String projectKey, String generatorName);
+
+    Page<SequenceRecord> findByProjectKey(String projectKey, Pageable pageable);
 }
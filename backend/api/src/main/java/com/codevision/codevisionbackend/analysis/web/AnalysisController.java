@@ -4,6 +4,7 @@ import com.codevision.codevisionbackend.analysis.CompiledAnalysisResult;
 import com.codevision.codevisionbackend.analysis.CompiledAnalysisService;
 import com.codevision.codevisionbackend.analysis.CompiledAnalysisService.CompiledAnalysisParameters;
 import com.codevision.codevisionbackend.analysis.ExportedFile;
+import com.codevision.codevisionbackend.analysis.PersistService;
 import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityRecord;
 import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityRepository;
 import com.codevision.codevisionbackend.analysis.persistence.CompiledEndpointRecord;
@@ -25,6 +26,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -106,11 +108,22 @@ public class AnalysisController {
     public ResponseEntity<PageResponse<EntitySummary>> listEntities(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "25") int size,
-            @RequestParam(required = false) String packageFilter) {
+            @RequestParam(required = false) String packageFilter,
+            @RequestParam(required = false) Long projectId) {
         var pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by("className"));
-        var pageResult = (packageFilter == null || packageFilter.isBlank())
-                ? analysisEntityRepository.findAll(pageable)
-                : analysisEntityRepository.findByPackageNameStartingWithIgnoreCase(packageFilter, pageable);
+        boolean allPackages = packageFilter == null || packageFilter.isBlank();
+        Page<AnalysisEntityRecord> pageResult;
+        if (projectId == null) {
+            pageResult = allPackages
+                    ? analysisEntityRepository.findAll(pageable)
+                    : analysisEntityRepository.findByPackageNameStartingWithIgnoreCase(packageFilter, pageable);
+        } else {
+            String projectKey = PersistService.projectKey(projectId, null);
+            pageResult = allPackages
+                    ? analysisEntityRepository.findByProjectKey(projectKey, pageable)
+                    : analysisEntityRepository.findByProjectKeyAndPackageNameStartingWithIgnoreCase(
+                            projectKey, packageFilter, pageable);
+        }
         List<EntitySummary> summaries = pageResult.stream()
                 .map(this::toEntitySummary)
                 .toList();
@@ -119,9 +132,13 @@ public class AnalysisController {
 
     @GetMapping("/sequences")
     public ResponseEntity<PageResponse<SequenceSummary>> listSequences(
-            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "25") int size) {
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "25") int size,
+            @RequestParam(required = false) Long projectId) {
         var pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by("generatorName"));
-        var pageResult = sequenceRecordRepository.findAll(pageable);
+        var pageResult = projectId == null
+                ? sequenceRecordRepository.findAll(pageable)
+                : sequenceRecordRepository.findByProjectKey(PersistService.projectKey(projectId, null), pageable);
         List<SequenceSummary> summaries = pageResult.stream()
                 .map(this::toSequenceSummary)
                 .toList();
@@ -130,9 +147,13 @@ public class AnalysisController {
 
     @GetMapping("/endpoints")
     public ResponseEntity<PageResponse<EndpointSummary>> listEndpoints(
-            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "25") int size) {
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "25") int size,
+            @RequestParam(required = false) Long projectId) {
         var pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by("path"));
-        var pageResult = compiledEndpointRepository.findAll(pageable);
+        var pageResult = projectId == null
+                ? compiledEndpointRepository.findAll(pageable)
+                : compiledEndpointRepository.findByProjectKey(PersistService.projectKey(projectId, null), pageable);
         List<EndpointSummary> summaries = pageResult.stream()
                 .map(this::toEndpointSummary)
                 .toList();
@@ -8,7 +8,7 @@ import com.codevision.codevisionbackend.analysis.GraphModel;
 import com.codevision.codevisionbackend.analysis.GraphModel.ClassNode;
 import com.codevision.codevisionbackend.analysis.GraphModel.FieldModel;
 import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
- 
+import com.codevision.codevisionbackend.config.AnalysisPipelineProperties;
 import com.codevision.codevisionbackend.analyze.GherkinFeatureSummary;
 import com.codevision.codevisionbackend.analyze.diagram.DiagramBuilderService;
 import com.codevision.codevisionbackend.analyze.diagram.DiagramGenerationResult;
@@ -29,8 +29,10 @@ import com.codevision.codevisionbackend.analyze.scanner.JavaSourceScanner;
 import com.codevision.codevisionbackend.analyze.scanner.JpaEntityScanner;
 import com.codevision.codevisionbackend.analyze.scanner.LogStatementRecord;
 import com.codevision.codevisionbackend.analyze.scanner.LoggerScanner;
+import com.codevision.codevisionbackend.analyze.scanner.ParsedSourceCache;
 import com.codevision.codevisionbackend.analyze.scanner.PiiPciFindingRecord;
 import com.codevision.codevisionbackend.analyze.scanner.PiiPciInspector;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex;
 import com.codevision.codevisionbackend.analyze.scanner.YamlScanner;
 import com.codevision.codevisionbackend.analyze.scanner.DbAnalysisResult;
 import com.codevision.codevisionbackend.git.GitCloneService;
@@ -79,6 +81,8 @@ import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -87,6 +91,8 @@ public class AnalysisService {
 
     private static final Logger log = LoggerFactory.getLogger(AnalysisService.class);
     private static final String ROOT_MODULE_KEY = "/";
+    /** Non-Java inputs of endpoint detection besides OpenAPI specs: web.xml servlet mappings, WSDL and XSD. */
+    private static final Set<String> ENDPOINT_DESCRIPTOR_EXTENSIONS = Set.of(".xml", ".wsdl", ".xsd");
 
     private final GitCloneService gitCloneService;
     private final BuildMetadataExtractor buildMetadataExtractor;
@@ -114,6 +120,8 @@ public class AnalysisService {
     private final ClasspathBuilder classpathBuilder;
     private final BytecodeEntityScanner bytecodeEntityScanner;
     private final CompiledAnalysisProperties compiledAnalysisProperties;
+    private final AnalysisPipelineProperties pipelineProperties;
+    private final TaskExecutor stageExecutor;
 
     public AnalysisService(
             GitCloneService gitCloneService,
@@ -141,7 +149,9 @@ public class AnalysisService {
             ObjectMapper objectMapper,
             ClasspathBuilder classpathBuilder,
             BytecodeEntityScanner bytecodeEntityScanner,
-            CompiledAnalysisProperties compiledAnalysisProperties) {
+            CompiledAnalysisProperties compiledAnalysisProperties,
+            AnalysisPipelineProperties pipelineProperties,
+            @Qualifier("analysisStageExecutor") TaskExecutor stageExecutor) {
         this.gitCloneService = gitCloneService;
         this.buildMetadataExtractor = buildMetadataExtractor;
         this.javaSourceScanner = javaSourceScanner;
@@ -168,6 +178,8 @@ public class AnalysisService {
         this.classpathBuilder = classpathBuilder;
         this.bytecodeEntityScanner = bytecodeEntityScanner;
         this.compiledAnalysisProperties = compiledAnalysisProperties;
+        this.pipelineProperties = pipelineProperties;
+        this.stageExecutor = stageExecutor;
     }
 
     @Transactional
@@ -182,17 +194,22 @@ public class AnalysisService {
         GitCloneService.CloneResult cloneResult = gitCloneService.cloneRepository(repoUrl, normalizedBranch);
         try {
             log.debug("Repository {} cloned to {}", repoUrl, cloneResult.directory());
-            BuildMetadata buildMetadata = buildMetadataExtractor.extract(cloneResult.directory());
+            RepositoryFileIndex fileIndex = RepositoryFileIndex.build(cloneResult.directory());
+            BuildMetadata buildMetadata = buildMetadataExtractor.extract(cloneResult.directory(), fileIndex);
             List<ModuleDescriptor> moduleDescriptors = describeModules(cloneResult.directory(), buildMetadata.moduleRoots());
             boolean rootHasSources = hasMainSources(cloneResult.directory());
             Map<String, String> moduleFingerprints =
                     computeModuleFingerprints(cloneResult.directory(), moduleDescriptors, cloneResult.commitHash());
+            Map<String, String> fileFingerprints =
+                    computeFileFingerprints(cloneResult.directory(), cloneResult.commitHash());
             Project persistedProject = projectService.overwriteProject(
                     repoUrl, cloneResult.branchName(), cloneResult.projectName(), buildMetadata.buildInfo());
 
             ParsedDataResponse previousSnapshotData = null;
             Map<String, String> previousFingerprints = Map.of();
+            Map<String, String> previousFileFingerprints = Map.of();
             Long previousSnapshotId = null;
+            boolean previousSecurityScanned = false;
             Optional<ProjectSnapshot> previousSnapshot =
                     persistedProject.getId() == null
                             ? Optional.empty()
@@ -200,8 +217,11 @@ public class AnalysisService {
             if (previousSnapshot.isPresent()) {
                 previousSnapshotData = projectSnapshotService.hydrateSnapshot(previousSnapshot.get());
                 previousFingerprints = projectSnapshotService.readModuleFingerprints(previousSnapshot.get());
+                previousFileFingerprints = projectSnapshotService.readFileFingerprints(previousSnapshot.get());
                 previousSnapshotId = previousSnapshot.get().getId();
+                previousSecurityScanned = Boolean.TRUE.equals(previousSnapshot.get().getSecurityScanned());
                 if (includeSecurity
+                        && previousSecurityScanned
                         && cloneResult.commitHash() != null
                         && cloneResult.commitHash().equals(previousSnapshot.get().getCommitHash())
                         && previousSnapshotData != null) {
@@ -221,86 +241,159 @@ public class AnalysisService {
                 }
             }
 
-            Set<String> changedModules =
-                    determineChangedModules(previousFingerprints, moduleFingerprints, rootHasSources);
+            // Snapshots that carry per-file fingerprints are diffed file by file; older ones fall back to modules.
+            IncrementalFileScope fileScope =
+                    previousSnapshotData != null && !previousFileFingerprints.isEmpty() && !fileFingerprints.isEmpty()
+                            ? IncrementalFileScope.plan(
+                                    previousFileFingerprints,
+                                    fileFingerprints,
+                                    fileIndex,
+                                    typesByFile(previousSnapshotData))
+                            : null;
+            if (fileScope != null) {
+                log.info(
+                        "Incremental analysis for {}: {} changed files, re-parsing {} Java sources",
+                        repoUrl,
+                        fileScope.changedFiles().size(),
+                        fileScope.rescannedJavaFiles().size());
+            }
+            Set<String> changedModules = fileScope != null
+                    ? Set.of()
+                    : determineChangedModules(previousFingerprints, moduleFingerprints, rootHasSources);
             ModuleIndex moduleIndex = new ModuleIndex(moduleDescriptors);
             List<Path> modulesToScan = filterModulesWithSources(selectModulesToScan(moduleDescriptors, changedModules));
             boolean scanAllModules = modulesToScan.isEmpty();
             boolean hasSubModules = moduleDescriptors.stream().anyMatch(descriptor -> descriptor.depth() > 0);
-            List<Path> effectiveModuleRoots = scanAllModules
-                    ? moduleDescriptors.stream()
-                            .filter(descriptor -> !hasSubModules || descriptor.depth() > 0 || rootHasSources)
-                            .filter(descriptor -> hasMainSources(descriptor.absolutePath()))
-                            .map(ModuleDescriptor::absolutePath)
-                            .toList()
-                    : modulesToScan;
+            List<Path> allSourceRoots = moduleDescriptors.stream()
+                    .filter(descriptor -> !hasSubModules || descriptor.depth() > 0 || rootHasSources)
+                    .filter(descriptor -> hasMainSources(descriptor.absolutePath()))
+                    .map(ModuleDescriptor::absolutePath)
+                    .toList();
+            List<Path> effectiveModuleRoots = scanAllModules ? allSourceRoots : modulesToScan;
+            // Findings are only reused from a snapshot whose security pass ran; otherwise every file is scanned again.
+            boolean reuseSecurityFindings = includeSecurity && previousSecurityScanned;
             List<Path> piiScanRoots = includeSecurity
-                    ? (scanAllModules ? List.of(cloneResult.directory()) : modulesToScan)
+                    ? (scanAllModules || !reuseSecurityFindings ? List.of(cloneResult.directory()) : modulesToScan)
                     : List.of();
-            ReusedData reusedData =
-                    reusePreviousData(previousSnapshotData, moduleDescriptors, moduleIndex, changedModules);
-
-            List<ClassMetadataRecord> newClassRecords =
-                    javaSourceScanner.scan(cloneResult.directory(), effectiveModuleRoots);
-            List<ClassMetadataRecord> classRecords = mergeLists(reusedData.classMetadata(), newClassRecords);
-            classRecords = classRecords.stream()
-                    .filter(record -> record.sourceSet() != SourceSet.TEST)
-                    .filter(record -> !AnalysisExclusions.isExcludedPath(record.relativePath()))
-                    .filter(record -> !AnalysisExclusions.isMockClassName(record.className()))
+            List<Path> logScanRoots = reuseSecurityFindings ? effectiveModuleRoots : allSourceRoots;
+            ReusedData reusedData = fileScope != null
+                    ? reusePreviousFileData(previousSnapshotData, fileScope)
+                    : reusePreviousData(previousSnapshotData, moduleDescriptors, moduleIndex, changedModules);
+            RepositoryFileIndex javaScanIndex = fileScope != null ? fileScope.javaScanIndex() : fileIndex;
+            RepositoryFileIndex piiScanIndex =
+                    fileScope != null && reuseSecurityFindings ? fileScope.changedFileIndex() : fileIndex;
+            RepositoryFileIndex logScanIndex = reuseSecurityFindings ? javaScanIndex : fileIndex;
+            Path repoDir = cloneResult.directory();
+            List<Path> allModuleRoots = moduleDescriptors.stream()
+                    .map(ModuleDescriptor::absolutePath)
                     .toList();
-            replaceClassMetadata(persistedProject, classRecords);
-
-            List<DbEntityRecord> entityRecords =
-                    jpaEntityScanner.scan(cloneResult.directory(), effectiveModuleRoots);
-            List<DbEntityRecord> bytecodeEntities =
-                    scanBytecodeEntities(cloneResult.directory(), moduleDescriptors);
-            List<DbEntityRecord> mergedEntities =
-                    mergeEntityRecords(entityRecords, bytecodeEntities);
-            DbAnalysisResult dbAnalysisResult =
-                    daoAnalysisService.analyze(cloneResult.directory(), effectiveModuleRoots, mergedEntities);
-            replaceDbEntities(persistedProject, dbAnalysisResult.entities());
-            replaceDaoOperations(persistedProject, dbAnalysisResult.operationsByClass());
-
-            MetadataDump metadataDump = yamlScanner.scan(cloneResult.directory());
-            List<ApiEndpointRecord> apiEndpoints =
-                    apiScanner.scan(cloneResult.directory(), effectiveModuleRoots, metadataDump);
-            replaceApiEndpoints(persistedProject, apiEndpoints);
-
-            List<ImageAssetRecord> imageAssets = assetScanner.scan(cloneResult.directory());
-            replaceAssetImages(persistedProject, imageAssets);
-
-            List<PiiPciFindingRecord> piiFindings = includeSecurity
-                    ? mergeLists(reusedData.piiFindings(), piiPciInspector.scan(cloneResult.directory(), piiScanRoots))
-                    : List.of();
-            if (!piiFindings.isEmpty()) {
-                piiFindings = piiFindings.stream()
-                        .filter(record -> !AnalysisExclusions.isExcludedPath(record.filePath()))
-                        .toList();
-            }
-            replacePiiPciFindings(persistedProject, piiFindings);
 
-            List<LogStatementRecord> logStatements = includeSecurity
-                    ? mergeLists(reusedData.logStatements(), loggerScanner.scan(cloneResult.directory(), effectiveModuleRoots))
-                    : List.of();
-            if (!logStatements.isEmpty()) {
-                logStatements = logStatements.stream()
-                        .filter(record -> !AnalysisExclusions.isExcludedPath(record.filePath()))
-                        .filter(record -> !AnalysisExclusions.isMockClassName(record.className()))
-                        .toList();
+            List<ClassMetadataRecord> classRecords;
+            DbAnalysisResult dbAnalysisResult;
+            MetadataDump metadataDump;
+            List<ApiEndpointRecord> apiEndpoints;
+            List<ImageAssetRecord> imageAssets;
+            List<PiiPciFindingRecord> piiFindings;
+            List<LogStatementRecord> logStatements;
+            List<GherkinFeatureSummary> gherkinFeatures;
+            DiagramGenerationResult diagramGeneration;
+            try (ParsedSourceCache parsedSources = new ParsedSourceCache(
+                            pipelineProperties.getParseCache().getMaxSourceBytes(),
+                            pipelineProperties.getParsing().resolveParallelism());
+                    AnalysisStagePipeline pipeline = new AnalysisStagePipeline(stageExecutor)) {
+                AnalysisStagePipeline.Stage<List<ClassMetadataRecord>> classStage = pipeline.stage(
+                        "classes",
+                        () -> filterClassRecords(mergeLists(
+                                reusedData.classMetadata(),
+                                javaSourceScanner.scan(repoDir, effectiveModuleRoots, javaScanIndex, parsedSources))));
+                AnalysisStagePipeline.Stage<List<DbEntityRecord>> entityStage = pipeline.stage(
+                        "entities",
+                        () -> mergeEntityRecords(
+                                jpaEntityScanner.scan(repoDir, effectiveModuleRoots, fileIndex, parsedSources),
+                                scanBytecodeEntities(repoDir, moduleDescriptors)));
+                AnalysisStagePipeline.Stage<DbAnalysisResult> daoStage = pipeline.stage(
+                        "dao",
+                        () -> mergeDbAnalysis(
+                                reusedData,
+                                daoAnalysisService.analyze(
+                                        repoDir,
+                                        effectiveModuleRoots,
+                                        entityStage.join(),
+                                        javaScanIndex,
+                                        parsedSources)),
+                        entityStage);
+                AnalysisStagePipeline.Stage<MetadataDump> yamlStage =
+                        pipeline.stage("metadata", () -> yamlScanner.scan(repoDir, fileIndex));
+                AnalysisStagePipeline.Stage<List<ApiEndpointRecord>> apiStage = pipeline.stage(
+                        "endpoints",
+                        () -> {
+                            MetadataDump metadata = yamlStage.join();
+                            if (!canReuseEndpoints(fileScope, metadata)) {
+                                return apiScanner.scan(
+                                        repoDir, effectiveModuleRoots, metadata, fileIndex, parsedSources);
+                            }
+                            return mergeLists(
+                                    reusedData.apiEndpoints(),
+                                    apiScanner.scan(
+                                            repoDir, effectiveModuleRoots, metadata, javaScanIndex, parsedSources));
+                        },
+                        yamlStage);
+                AnalysisStagePipeline.Stage<List<ImageAssetRecord>> assetStage =
+                        pipeline.stage("assets", () -> assetScanner.scan(repoDir, fileIndex));
+                AnalysisStagePipeline.Stage<List<PiiPciFindingRecord>> piiStage = pipeline.stage(
+                        "pii",
+                        () -> includeSecurity
+                                ? filterPiiFindings(mergeLists(
+                                        reuseSecurityFindings ? reusedData.piiFindings() : List.of(),
+                                        piiPciInspector.scan(repoDir, piiScanRoots, piiScanIndex)))
+                                : List.of());
+                AnalysisStagePipeline.Stage<List<LogStatementRecord>> logStage = pipeline.stage(
+                        "logs",
+                        () -> includeSecurity
+                                ? filterLogStatements(mergeLists(
+                                        reuseSecurityFindings ? reusedData.logStatements() : List.of(),
+                                        loggerScanner.scan(repoDir, logScanRoots, logScanIndex, parsedSources)))
+                                : List.of());
+                AnalysisStagePipeline.Stage<List<GherkinFeatureSummary>> gherkinStage =
+                        pipeline.stage("gherkin", () -> gherkinScanner.scan(repoDir, fileIndex));
+                // Diagram generation attaches symbol solvers to the shared parsed units, so it also waits for the
+                // logger stage, the only other reader of those units that it does not already depend on.
+                AnalysisStagePipeline.Stage<DiagramGenerationResult> diagramStage = pipeline.stage(
+                        "diagrams",
+                        () -> diagramBuilderService.generate(
+                                repoDir,
+                                classStage.join(),
+                                apiStage.join(),
+                                daoStage.join(),
+                                allModuleRoots,
+                                fileIndex,
+                                parsedSources),
+                        classStage,
+                        apiStage,
+                        daoStage,
+                        logStage);
+
+                // Persistence stays on this thread so it joins the surrounding transaction.
+                classRecords = classStage.join();
+                replaceClassMetadata(persistedProject, classRecords);
+                dbAnalysisResult = daoStage.join();
+                replaceDbEntities(persistedProject, dbAnalysisResult.entities());
+                replaceDaoOperations(persistedProject, dbAnalysisResult.operationsByClass());
+                metadataDump = yamlStage.join();
+                apiEndpoints = apiStage.join();
+                replaceApiEndpoints(persistedProject, apiEndpoints);
+                imageAssets = assetStage.join();
+                replaceAssetImages(persistedProject, imageAssets);
+                piiFindings = piiStage.join();
+                replacePiiPciFindings(persistedProject, piiFindings);
+                logStatements = logStage.join();
+                replaceLogStatements(persistedProject, logStatements);
+                gherkinFeatures = gherkinStage.join();
+                diagramGeneration = diagramStage.join();
+                pipeline.logTimings(repoUrl);
+                logParseCacheStats(parsedSources);
             }
-            replaceLogStatements(persistedProject, logStatements);
-
-            List<GherkinFeatureSummary> gherkinFeatures = gherkinScanner.scan(cloneResult.directory());
             DbAnalysisSummary dbAnalysisSummary = toDbAnalysisSummary(dbAnalysisResult);
-            DiagramGenerationResult diagramGeneration =
-                    diagramBuilderService.generate(
-                            cloneResult.directory(),
-                            classRecords,
-                            apiEndpoints,
-                            dbAnalysisResult,
-                            moduleDescriptors.stream()
-                                    .map(ModuleDescriptor::absolutePath)
-                                    .toList());
             List<Diagram> persistedDiagrams =
                     diagramService.replaceProjectDiagrams(persistedProject, diagramGeneration.diagrams());
             List<DiagramSummary> diagramSummaries = persistedDiagrams.stream()
@@ -325,7 +418,12 @@ public class AnalysisService {
             ProjectSnapshot snapshot = projectSnapshotService.saveSnapshot(
                     persistedProject,
                     parsedData,
-                    new SnapshotMetadata(cloneResult.branchName(), cloneResult.commitHash(), moduleFingerprints));
+                    new SnapshotMetadata(
+                            cloneResult.branchName(),
+                            cloneResult.commitHash(),
+                            moduleFingerprints,
+                            fileFingerprints,
+                            includeSecurity));
 
             log.info(
                     "Completed analysis for {} ({}) with projectId={} snapshotId={}",
@@ -345,6 +443,89 @@ public class AnalysisService {
         }
     }
 
+    private List<ClassMetadataRecord> filterClassRecords(List<ClassMetadataRecord> classRecords) {
+        return classRecords.stream()
+                .filter(record -> record.sourceSet() != SourceSet.TEST)
+                .filter(record -> !AnalysisExclusions.isExcludedPath(record.relativePath()))
+                .filter(record -> !AnalysisExclusions.isMockClassName(record.className()))
+                .toList();
+    }
+
+    private List<PiiPciFindingRecord> filterPiiFindings(List<PiiPciFindingRecord> findings) {
+        if (findings.isEmpty()) {
+            return findings;
+        }
+        return findings.stream()
+                .filter(record -> !AnalysisExclusions.isExcludedPath(record.filePath()))
+                .toList();
+    }
+
+    private List<LogStatementRecord> filterLogStatements(List<LogStatementRecord> logStatements) {
+        if (logStatements.isEmpty()) {
+            return logStatements;
+        }
+        return logStatements.stream()
+                .filter(record -> !AnalysisExclusions.isExcludedPath(record.filePath()))
+                .filter(record -> !AnalysisExclusions.isMockClassName(record.className()))
+                .toList();
+    }
+
+    /**
+     * Endpoints are only reused per file when none of their non-Java inputs moved: OpenAPI operations are matched
+     * against every controller, and web.xml, WSDL and XSD files shape endpoints outside the changed sources.
+     */
+    private boolean canReuseEndpoints(IncrementalFileScope fileScope, MetadataDump metadata) {
+        return fileScope != null
+                && (metadata == null || metadata.openApiSpecs().isEmpty())
+                && !fileScope.hasChangedFileWithExtension(ENDPOINT_DESCRIPTOR_EXTENSIONS);
+    }
+
+    private DbAnalysisResult mergeDbAnalysis(ReusedData reusedData, DbAnalysisResult fresh) {
+        if (reusedData.daoOperations().isEmpty() && reusedData.classesByEntity().isEmpty()) {
+            return fresh;
+        }
+        // Repository operations are attributed from their callers, so a rescanned repository may only see the
+        // calls made by rescanned classes; union with the reused operations instead of replacing them.
+        Map<String, List<DaoOperationRecord>> operations = new LinkedHashMap<>(reusedData.daoOperations());
+        fresh.operationsByClass().forEach((className, records) -> operations.merge(
+                className,
+                records,
+                (reused, scanned) -> {
+                    Map<String, DaoOperationRecord> byOperation = new LinkedHashMap<>();
+                    scanned.forEach(record -> byOperation.put(operationKey(record), record));
+                    reused.forEach(record -> byOperation.putIfAbsent(operationKey(record), record));
+                    return byOperation.values().stream()
+                            .sorted((left, right) -> left.methodName().compareToIgnoreCase(right.methodName()))
+                            .toList();
+                }));
+        Map<String, Set<String>> classesByEntity = new LinkedHashMap<>();
+        reusedData.classesByEntity().forEach((entity, classes) ->
+                classesByEntity.computeIfAbsent(entity, key -> new LinkedHashSet<>()).addAll(classes));
+        fresh.classesByEntity().forEach((entity, classes) ->
+                classesByEntity.computeIfAbsent(entity, key -> new LinkedHashSet<>()).addAll(classes));
+        Map<String, List<String>> classesByEntityView = new LinkedHashMap<>();
+        classesByEntity.forEach((entity, classes) ->
+                classesByEntityView.put(entity, classes.stream().sorted().toList()));
+        return new DbAnalysisResult(fresh.entities(), classesByEntityView, operations);
+    }
+
+    private String operationKey(DaoOperationRecord record) {
+        return record.methodName() + '|' + record.operationType();
+    }
+
+    private void logParseCacheStats(ParsedSourceCache parsedSources) {
+        ParsedSourceCache.Stats stats = parsedSources.stats();
+        log.info(
+                "Parsed source cache: hits={} misses={} evictions={} failures={} retained={} ({} bytes), hitRatio={}",
+                stats.hits(),
+                stats.misses(),
+                stats.evictions(),
+                stats.failures(),
+                stats.entries(),
+                stats.weightBytes(),
+                String.format("%.2f", stats.hitRatio()));
+    }
+
     private void replaceClassMetadata(Project project, List<ClassMetadataRecord> classRecords) {
         classMetadataRepository.deleteByProject(project);
         log.debug("Cleared existing class metadata for projectId={}", project.getId());
@@ -732,6 +913,34 @@ public class AnalysisService {
         }
     }
 
+    /**
+     * Git blob id of every file in the analysed commit, keyed by repository-relative path. Blob ids change exactly
+     * when file content changes, so they serve as per-file fingerprints without hashing the working tree.
+     */
+    private Map<String, String> computeFileFingerprints(Path repoRoot, String commitHash) {
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        try (Git git = Git.open(repoRoot.toFile()); RevWalk revWalk = new RevWalk(git.getRepository())) {
+            ObjectId headId = commitHash != null
+                    ? git.getRepository().resolve(commitHash)
+                    : git.getRepository().resolve(Constants.HEAD);
+            if (headId == null) {
+                return Map.of();
+            }
+            RevTree tree = revWalk.parseCommit(headId).getTree();
+            try (TreeWalk treeWalk = new TreeWalk(git.getRepository())) {
+                treeWalk.addTree(tree);
+                treeWalk.setRecursive(true);
+                while (treeWalk.next()) {
+                    fingerprints.put(treeWalk.getPathString(), treeWalk.getObjectId(0).name());
+                }
+            }
+            return fingerprints;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to compute file fingerprints: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
     private Set<String> determineChangedModules(
             Map<String, String> previous,
             Map<String, String> current,
@@ -1025,7 +1234,73 @@ public class AnalysisService {
                         .filter(entry -> reusableModules.contains(moduleIndex.detect(entry.filePath())))
                         .map(this::fromFinding)
                         .toList();
-        return new ReusedData(classRecords, logRecords, piiRecords);
+        return new ReusedData(classRecords, logRecords, piiRecords, List.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * Carries over everything the previous snapshot attributed to Java sources and files that the file scope
+     * leaves untouched. Endpoints and DAO operations are attributed to files through their declaring class.
+     */
+    private ReusedData reusePreviousFileData(ParsedDataResponse previous, IncrementalFileScope fileScope) {
+        Map<String, String> fileByClass = new LinkedHashMap<>();
+        previous.classes().stream()
+                .filter(summary -> summary.fullyQualifiedName() != null && summary.relativePath() != null)
+                .forEach(summary -> fileByClass.putIfAbsent(summary.fullyQualifiedName(), summary.relativePath()));
+        Set<String> reusableClasses = fileByClass.entrySet().stream()
+                .filter(entry -> fileScope.reusesJavaResults(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+
+        List<ClassMetadataRecord> classRecords = previous.classes().stream()
+                .filter(summary -> fileScope.reusesJavaResults(summary.relativePath()))
+                .map(this::fromSummary)
+                .toList();
+        List<ApiEndpointRecord> endpoints = previous.apiEndpoints().stream()
+                .filter(summary -> reusableClasses.contains(summary.controllerClass()))
+                .map(this::fromEndpoint)
+                .toList();
+        List<LogStatementRecord> logRecords = previous.loggerInsights().stream()
+                .filter(entry -> fileScope.reusesJavaResults(entry.filePath()))
+                .map(this::fromInsight)
+                .toList();
+        List<PiiPciFindingRecord> piiRecords = previous.piiPciScan().stream()
+                .filter(entry -> fileScope.isUnchanged(entry.filePath()))
+                .map(this::fromFinding)
+                .toList();
+
+        Map<String, List<DaoOperationRecord>> daoOperations = new LinkedHashMap<>();
+        previous.dbAnalysis().operationsByClass().forEach((className, details) -> {
+            if (reusableClasses.contains(className) && details != null) {
+                daoOperations.put(className, details.stream()
+                        .map(detail -> new DaoOperationRecord(
+                                className,
+                                detail.methodName(),
+                                detail.operationType(),
+                                detail.target(),
+                                detail.querySnippet()))
+                        .toList());
+            }
+        });
+        Map<String, List<String>> classesByEntity = new LinkedHashMap<>();
+        previous.dbAnalysis().classesByEntity().forEach((entity, classes) -> {
+            List<String> retained = classes == null
+                    ? List.of()
+                    : classes.stream().filter(reusableClasses::contains).toList();
+            if (!retained.isEmpty()) {
+                classesByEntity.put(entity, retained);
+            }
+        });
+        return new ReusedData(classRecords, logRecords, piiRecords, endpoints, daoOperations, classesByEntity);
+    }
+
+    private Map<String, Set<String>> typesByFile(ParsedDataResponse previous) {
+        Map<String, Set<String>> types = new LinkedHashMap<>();
+        previous.classes().stream()
+                .filter(summary -> summary.relativePath() != null && summary.className() != null)
+                .forEach(summary -> types
+                        .computeIfAbsent(summary.relativePath().replace('\\', '/'), key -> new LinkedHashSet<>())
+                        .add(summary.className()));
+        return types;
     }
 
     private <T> List<T> mergeLists(List<T> reused, List<T> fresh) {
@@ -1073,6 +1348,19 @@ public class AnalysisService {
                 summary.pciRisk());
     }
 
+    private ApiEndpointRecord fromEndpoint(ApiEndpointSummary summary) {
+        return new ApiEndpointRecord(
+                summary.protocol(),
+                summary.httpMethod(),
+                summary.pathOrOperation(),
+                summary.controllerClass(),
+                summary.controllerMethod(),
+                summary.specArtifacts().stream()
+                        .map(artifact -> new ApiEndpointRecord.ApiSpecArtifactRecord(
+                                artifact.type(), artifact.name(), artifact.reference()))
+                        .toList());
+    }
+
     private PiiPciFindingRecord fromFinding(PiiPciFindingSummary summary) {
         return new PiiPciFindingRecord(
                 summary.filePath(),
@@ -1086,10 +1374,13 @@ public class AnalysisService {
     private record ReusedData(
             List<ClassMetadataRecord> classMetadata,
             List<LogStatementRecord> logStatements,
-            List<PiiPciFindingRecord> piiFindings) {
+            List<PiiPciFindingRecord> piiFindings,
+            List<ApiEndpointRecord> apiEndpoints,
+            Map<String, List<DaoOperationRecord>> daoOperations,
+            Map<String, List<String>> classesByEntity) {
 
         private static ReusedData empty() {
-            return new ReusedData(List.of(), List.of(), List.of());
+            return new ReusedData(List.of(), List.of(), List.of(), List.of(), Map.of(), Map.of());
         }
     }
 
@@ -0,0 +1,133 @@
+package com.codevision.codevisionbackend.analyze;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the stages of one analysis as a dependency graph. A stage is submitted to the executor as soon as every
+ * stage it depends on has completed, so independent stages run concurrently and the wall-clock time of the
+ * pipeline approaches its critical path rather than the sum of all stages.
+ *
+ * <p>Stages never block on each other inside the executor; dependencies are expressed through future
+ * composition, so a small pool cannot deadlock. Closing the pipeline waits for every submitted stage to settle,
+ * which keeps the cloned working tree alive until no stage can still be reading it.</p>
+ */
+final class AnalysisStagePipeline implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisStagePipeline.class);
+
+    private final Executor executor;
+    private final List<Stage<?>> stages = new ArrayList<>();
+    private final Map<String, Long> timingsMillis = new ConcurrentHashMap<>();
+    private final long startedAtNanos = System.nanoTime();
+
+    AnalysisStagePipeline(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Registers a stage that starts once all {@code dependencies} have completed successfully. When a dependency
+     * fails the stage is skipped and completes with the same failure.
+     */
+    <T> Stage<T> stage(String name, Supplier<T> work, Stage<?>... dependencies) {
+        CompletableFuture<?>[] upstream = new CompletableFuture<?>[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            upstream[i] = dependencies[i].future;
+        }
+        CompletableFuture<T> future = CompletableFuture.allOf(upstream)
+                .thenApplyAsync(ignored -> timed(name, work), executor);
+        Stage<T> stage = new Stage<>(name, future);
+        stages.add(stage);
+        return stage;
+    }
+
+    /** Elapsed milliseconds of every completed stage, in registration order. */
+    Map<String, Long> timings() {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        for (Stage<?> stage : stages) {
+            Long elapsed = timingsMillis.get(stage.name);
+            if (elapsed != null) {
+                ordered.put(stage.name, elapsed);
+            }
+        }
+        return ordered;
+    }
+
+    /** Logs per-stage timings together with the pipeline's wall-clock time and the summed stage time. */
+    void logTimings(String label) {
+        Map<String, Long> timings = timings();
+        long wallMillis = (System.nanoTime() - startedAtNanos) / 1_000_000L;
+        long summedMillis = timings.values().stream().mapToLong(Long::longValue).sum();
+        log.info("Analysis stages for {} finished in {} ms (sum of stages {} ms): {}",
+                label, wallMillis, summedMillis, timings);
+    }
+
+    @Override
+    public void close() {
+        for (Stage<?> stage : stages) {
+            try {
+                stage.future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | RuntimeException e) {
+                // The failure is surfaced by Stage#join on the caller's path.
+            }
+        }
+    }
+
+    private <T> T timed(String name, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+            timingsMillis.put(name, elapsedMillis);
+            log.debug("Analysis stage {} completed in {} ms", name, elapsedMillis);
+        }
+    }
+
+    static final class Stage<T> {
+
+        private final String name;
+        private final CompletableFuture<T> future;
+
+        private Stage(String name, CompletableFuture<T> future) {
+            this.name = name;
+            this.future = future;
+        }
+
+        String name() {
+            return name;
+        }
+
+        /**
+         * Waits for the stage and returns its result, rethrowing the stage's own exception unchanged when it is
+         * unchecked.
+         */
+        T join() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Analysis stage " + name + " failed", cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.codevision.codevisionbackend.analyze;
+
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex.IndexedFile;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * File-level change scope of an incremental analysis. The per-file blob fingerprints recorded with the previous
+ * snapshot are compared with the current tree to decide which files have to be scanned again: every added or
+ * modified file, plus the Java sources coupled to a changed or deleted Java source through a type reference in
+ * either direction. Results attributed to any other file are carried over from the previous snapshot.
+ *
+ * <p>Coupling is detected textually by matching the simple type names declared in a file against identifiers in
+ * the others. That is far cheaper than parsing and errs towards rescanning. Both directions matter because
+ * scanners resolve across files: a controller inherits request mappings from its interface, and repository
+ * operations are attributed from the classes that call them.</p>
+ */
+final class IncrementalFileScope {
+
+    private static final String JAVA_EXTENSION = ".java";
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
+
+    private final RepositoryFileIndex fileIndex;
+    private final Map<String, String> currentFingerprints;
+    private final Set<String> changedFiles;
+    private final Set<String> rescannedJavaFiles;
+
+    private IncrementalFileScope(
+            RepositoryFileIndex fileIndex,
+            Map<String, String> currentFingerprints,
+            Set<String> changedFiles,
+            Set<String> rescannedJavaFiles) {
+        this.fileIndex = fileIndex;
+        this.currentFingerprints = Map.copyOf(currentFingerprints);
+        this.changedFiles = Set.copyOf(changedFiles);
+        this.rescannedJavaFiles = Set.copyOf(rescannedJavaFiles);
+    }
+
+    /**
+     * Plans the rescan of {@code fileIndex}.
+     *
+     * @param previousFingerprints blob ids recorded with the previous snapshot, keyed by relative path
+     * @param currentFingerprints  blob ids of the analysed commit, keyed by relative path
+     * @param previousTypesByFile  simple names of the types the previous snapshot found in each Java source
+     */
+    static IncrementalFileScope plan(
+            Map<String, String> previousFingerprints,
+            Map<String, String> currentFingerprints,
+            RepositoryFileIndex fileIndex,
+            Map<String, Set<String>> previousTypesByFile) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (IndexedFile file : fileIndex.files()) {
+            String current = currentFingerprints.get(file.relativePath());
+            if (current == null || !current.equals(previousFingerprints.get(file.relativePath()))) {
+                changed.add(file.relativePath());
+            }
+        }
+
+        List<IndexedFile> javaFiles = fileIndex.withExtension(JAVA_EXTENSION);
+        Map<String, Set<String>> filesByType = new HashMap<>();
+        for (IndexedFile file : javaFiles) {
+            for (String type : declaredTypes(file.relativePath(), previousTypesByFile)) {
+                filesByType.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(file.relativePath());
+            }
+        }
+
+        Set<String> touchedTypes = new LinkedHashSet<>();
+        Set<String> rescanned = new LinkedHashSet<>();
+        for (IndexedFile file : javaFiles) {
+            if (changed.contains(file.relativePath())) {
+                rescanned.add(file.relativePath());
+                touchedTypes.addAll(declaredTypes(file.relativePath(), previousTypesByFile));
+            }
+        }
+        previousFingerprints.keySet().stream()
+                .filter(path -> path.endsWith(JAVA_EXTENSION) && !currentFingerprints.containsKey(path))
+                .forEach(path -> touchedTypes.addAll(declaredTypes(path, previousTypesByFile)));
+
+        Set<String> dependencies = new LinkedHashSet<>();
+        for (IndexedFile file : javaFiles) {
+            String content = read(file);
+            if (rescanned.contains(file.relativePath())) {
+                if (content != null) {
+                    forEachIdentifier(content, identifier ->
+                            dependencies.addAll(filesByType.getOrDefault(identifier, Set.of())));
+                }
+            } else if (content == null || mentionsAny(content, touchedTypes)) {
+                dependencies.add(file.relativePath());
+            }
+        }
+        rescanned.addAll(dependencies);
+        return new IncrementalFileScope(fileIndex, currentFingerprints, changed, rescanned);
+    }
+
+    /** Relative paths of files that were added or modified since the previous snapshot. */
+    Set<String> changedFiles() {
+        return changedFiles;
+    }
+
+    /** Relative paths of the Java sources that are parsed again: changed sources plus their coupled sources. */
+    Set<String> rescannedJavaFiles() {
+        return rescannedJavaFiles;
+    }
+
+    /**
+     * Whether results the previous snapshot derived from Java source {@code relativePath} can be reused: the file
+     * still exists unchanged and is not coupled to a changed source.
+     */
+    boolean reusesJavaResults(String relativePath) {
+        String normalized = normalize(relativePath);
+        return normalized != null
+                && currentFingerprints.containsKey(normalized)
+                && !changedFiles.contains(normalized)
+                && !rescannedJavaFiles.contains(normalized);
+    }
+
+    /** Whether {@code relativePath} still exists with the content it had in the previous snapshot. */
+    boolean isUnchanged(String relativePath) {
+        String normalized = normalize(relativePath);
+        return normalized != null
+                && currentFingerprints.containsKey(normalized)
+                && !changedFiles.contains(normalized);
+    }
+
+    /** Whether any added or modified file has one of the given lower-cased extensions. */
+    boolean hasChangedFileWithExtension(Collection<String> extensions) {
+        return changedFiles.stream()
+                .map(path -> path.toLowerCase(Locale.ROOT))
+                .anyMatch(path -> extensions.stream().anyMatch(path::endsWith));
+    }
+
+    /** The file index with every Java source removed except those that have to be parsed again. */
+    RepositoryFileIndex javaScanIndex() {
+        return fileIndex.restrictTo(file ->
+                !JAVA_EXTENSION.equals(file.extension()) || rescannedJavaFiles.contains(file.relativePath()));
+    }
+
+    /** The file index restricted to added and modified files. */
+    RepositoryFileIndex changedFileIndex() {
+        return fileIndex.restrictTo(file -> changedFiles.contains(file.relativePath()));
+    }
+
+    private static Set<String> declaredTypes(String relativePath, Map<String, Set<String>> previousTypesByFile) {
+        Set<String> types = new LinkedHashSet<>(previousTypesByFile.getOrDefault(relativePath, Set.of()));
+        int slash = relativePath.lastIndexOf('/');
+        String fileName = relativePath.substring(slash + 1);
+        if (fileName.endsWith(JAVA_EXTENSION)) {
+            types.add(fileName.substring(0, fileName.length() - JAVA_EXTENSION.length()));
+        }
+        return types;
+    }
+
+    private static boolean mentionsAny(String content, Set<String> types) {
+        if (types.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = IDENTIFIER.matcher(content);
+        while (matcher.find()) {
+            if (types.contains(matcher.group())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void forEachIdentifier(String content, Consumer<String> action) {
+        Matcher matcher = IDENTIFIER.matcher(content);
+        while (matcher.find()) {
+            action.accept(matcher.group());
+        }
+    }
+
+    private static String read(IndexedFile file) {
+        try {
+            // Identifiers are ASCII, so a single-byte decoding is enough and never fails on odd encodings.
+            return Files.readString(file.path(), StandardCharsets.ISO_8859_1);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String normalize(String relativePath) {
+        return relativePath == null ? null : relativePath.replace('\\', '/');
+    }
+}
@@ -3,9 +3,7 @@ package com.codevision.codevisionbackend.analyze.diagram;
 import com.codevision.codevisionbackend.analyze.diagram.CallGraph.GraphNode;
 import com.codevision.codevisionbackend.analyze.scanner.ClassMetadataRecord;
 import com.codevision.codevisionbackend.analyze.scanner.AnalysisExclusions;
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseProblemException;
-import com.github.javaparser.ParserConfiguration;
+import com.codevision.codevisionbackend.analyze.scanner.ParsedSourceCache;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
@@ -29,7 +27,6 @@ import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.IntersectionType;
 import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.ast.type.UnionType;
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -41,23 +38,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 @Component
 public class CallGraphBuilder {
 
-    private static final Logger log = LoggerFactory.getLogger(CallGraphBuilder.class);
-    private final JavaParser javaParser;
-
-    public CallGraphBuilder() {
-        ParserConfiguration configuration = new ParserConfiguration()
-                .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
-        this.javaParser = new JavaParser(configuration);
+    public CallGraph build(Path repoRoot, List<ClassMetadataRecord> classRecords) {
+        return build(repoRoot, classRecords, new ParsedSourceCache());
     }
 
-    public CallGraph build(Path repoRoot, List<ClassMetadataRecord> classRecords) {
+    public CallGraph build(Path repoRoot, List<ClassMetadataRecord> classRecords, ParsedSourceCache parsedSources) {
         if (repoRoot == null || classRecords == null || classRecords.isEmpty()) {
             return new CallGraph.Builder().build();
         }
@@ -89,7 +79,7 @@ public class CallGraphBuilder {
 
         byPath.forEach((relativePath, recordsInFile) -> {
             Path sourceFile = repoRoot.resolve(relativePath).normalize();
-            Optional<CompilationUnit> unit = parse(sourceFile);
+            Optional<CompilationUnit> unit = parse(sourceFile, parsedSources);
             if (unit.isEmpty()) {
                 return;
             }
@@ -146,19 +136,11 @@ public class CallGraphBuilder {
         return builder.build();
     }
 
-    private Optional<CompilationUnit> parse(Path sourceFile) {
+    private Optional<CompilationUnit> parse(Path sourceFile, ParsedSourceCache parsedSources) {
         if (sourceFile == null || !Files.exists(sourceFile)) {
             return Optional.empty();
         }
-        try {
-            return javaParser.parse(sourceFile).getResult();
-        } catch (IOException e) {
-            log.debug("Failed to read {}: {}", sourceFile, e.getMessage());
-            return Optional.empty();
-        } catch (ParseProblemException e) {
-            log.debug("Failed to parse {}: {}", sourceFile, e.getMessage());
-            return Optional.empty();
-        }
+        return parsedSources.parse(sourceFile);
     }
 
     private Map<String, String> buildExplicitImportMap(CompilationUnit unit) {
@@ -1,11 +1,9 @@
 package com.codevision.codevisionbackend.analyze.diagram;
 
-import com.codevision.codevisionbackend.analyze.scanner.AnalysisExclusions;
 import com.codevision.codevisionbackend.analyze.scanner.ApiEndpointRecord;
 import com.codevision.codevisionbackend.analyze.scanner.ClassMetadataRecord;
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseProblemException;
-import com.github.javaparser.ParserConfiguration;
+import com.codevision.codevisionbackend.analyze.scanner.ParsedSourceCache;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.CallableDeclaration;
@@ -49,8 +47,6 @@ import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
-import java.io.IOException;
-import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
@@ -67,15 +63,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 final class ControlFlowSequenceBuilder {
 
-    private static final Logger log = LoggerFactory.getLogger(ControlFlowSequenceBuilder.class);
-    private static final int MAX_STATEMENT_DEPTH = Integer.MAX_VALUE;
-
     private final SourceIndex sourceIndex;
     private final int maxDepth;
 
@@ -83,8 +73,10 @@ final class ControlFlowSequenceBuilder {
             Path repoRoot,
             List<Path> moduleRoots,
             List<ClassMetadataRecord> classRecords,
-            int maxDepth) {
-        this.sourceIndex = new SourceIndex(repoRoot, moduleRoots, classRecords);
+            int maxDepth,
+            RepositoryFileIndex fileIndex,
+            ParsedSourceCache parsedSources) {
+        this.sourceIndex = new SourceIndex(repoRoot, moduleRoots, classRecords, fileIndex, parsedSources);
         this.maxDepth = maxDepth;
     }
 
@@ -509,10 +501,16 @@ final class ControlFlowSequenceBuilder {
         private final Map<String, String> classBySimpleName = new LinkedHashMap<>();
         private final Map<String, List<String>> implementersByType = new LinkedHashMap<>();
         private final Set<String> knownClasses = new LinkedHashSet<>();
-        private final JavaParser parser;
+        private final ParsedSourceCache parsedSources;
+        private final JavaSymbolSolver symbolSolver;
         private final TypeSolver typeSolver;
 
-        private SourceIndex(Path repoRoot, List<Path> moduleRoots, List<ClassMetadataRecord> classRecords) {
+        private SourceIndex(
+                Path repoRoot,
+                List<Path> moduleRoots,
+                List<ClassMetadataRecord> classRecords,
+                RepositoryFileIndex fileIndex,
+                ParsedSourceCache parsedSources) {
             CombinedTypeSolver solver = new CombinedTypeSolver();
             solver.add(new ReflectionTypeSolver(false));
             List<Path> sourceRoots = resolveSourceRoots(repoRoot, moduleRoots);
@@ -520,10 +518,8 @@ final class ControlFlowSequenceBuilder {
                 solver.add(new JavaParserTypeSolver(root));
             }
             this.typeSolver = solver;
-            ParserConfiguration configuration = new ParserConfiguration()
-                    .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE)
-                    .setSymbolResolver(new JavaSymbolSolver(solver));
-            this.parser = new JavaParser(configuration);
+            this.symbolSolver = new JavaSymbolSolver(solver);
+            this.parsedSources = parsedSources;
 
             if (classRecords != null) {
                 for (ClassMetadataRecord record : classRecords) {
@@ -535,7 +531,10 @@ final class ControlFlowSequenceBuilder {
                     }
                 }
             }
-            indexSourceFiles(sourceRoots);
+            List<Path> indexedModules = moduleRoots == null || moduleRoots.isEmpty()
+                    ? (repoRoot == null ? List.of() : List.of(repoRoot))
+                    : moduleRoots;
+            fileIndex.analyzableJavaSources(indexedModules).forEach(this::parseAndIndex);
         }
 
         private List<Path> resolveSourceRoots(Path repoRoot, List<Path> moduleRoots) {
@@ -549,37 +548,18 @@ final class ControlFlowSequenceBuilder {
                     .toList();
         }
 
-        private void indexSourceFiles(List<Path> sourceRoots) {
-            Set<Path> visited = new HashSet<>();
-            for (Path root : sourceRoots) {
-                if (root == null || !Files.isDirectory(root) || !visited.add(root)) {
-                    continue;
-                }
-                try (Stream<Path> paths = Files.walk(root, MAX_STATEMENT_DEPTH, FileVisitOption.FOLLOW_LINKS)) {
-                    paths.filter(Files::isRegularFile)
-                            .filter(path -> path.toString().endsWith(".java"))
-                            .filter(path -> !AnalysisExclusions.isExcludedPath(path))
-                            .forEach(this::parseAndIndex);
-                } catch (IOException ex) {
-                    log.warn("Failed walking {}: {}", root, ex.getMessage());
-                }
-            }
-        }
-
         private void parseAndIndex(Path sourceFile) {
-            try {
-                Optional<CompilationUnit> unit = parser.parse(sourceFile).getResult();
-                if (unit.isEmpty()) {
-                    return;
-                }
-                String packageName = unit.get().getPackageDeclaration()
-                        .map(pkg -> pkg.getName().asString())
-                        .orElse("");
-                for (TypeDeclaration<?> type : unit.get().getTypes()) {
-                    indexType(type, packageName);
-                }
-            } catch (IOException | ParseProblemException ex) {
-                log.debug("Failed parsing {}: {}", sourceFile, ex.getMessage());
+            Optional<CompilationUnit> unit = parsedSources.parse(sourceFile);
+            if (unit.isEmpty()) {
+                return;
+            }
+            // Shared units are parsed without a resolver; attach this index's solver before resolving calls.
+            symbolSolver.inject(unit.get());
+            String packageName = unit.get().getPackageDeclaration()
+                    .map(pkg -> pkg.getName().asString())
+                    .orElse("");
+            for (TypeDeclaration<?> type : unit.get().getTypes()) {
+                indexType(type, packageName);
             }
         }
 
@@ -4,6 +4,8 @@ import com.codevision.codevisionbackend.analyze.scanner.ApiEndpointRecord;
 import com.codevision.codevisionbackend.analyze.scanner.ClassMetadataRecord;
 import com.codevision.codevisionbackend.analyze.scanner.DbAnalysisResult;
 import com.codevision.codevisionbackend.analyze.scanner.DbEntityRecord;
+import com.codevision.codevisionbackend.analyze.scanner.ParsedSourceCache;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex;
 import com.codevision.codevisionbackend.project.diagram.DiagramType;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -42,9 +44,27 @@ public class DiagramBuilderService {
             List<ApiEndpointRecord> apiEndpoints,
             DbAnalysisResult dbAnalysisResult,
             List<Path> moduleRoots) {
-        CallGraph graph = callGraphBuilder.build(repoRoot, classRecords);
-        ControlFlowSequenceBuilder sequenceBuilder =
-                new ControlFlowSequenceBuilder(repoRoot, moduleRoots, classRecords, MAX_SEQUENCE_DEPTH);
+        return generate(
+                repoRoot,
+                classRecords,
+                apiEndpoints,
+                dbAnalysisResult,
+                moduleRoots,
+                RepositoryFileIndex.build(repoRoot),
+                new ParsedSourceCache());
+    }
+
+    public DiagramGenerationResult generate(
+            Path repoRoot,
+            List<ClassMetadataRecord> classRecords,
+            List<ApiEndpointRecord> apiEndpoints,
+            DbAnalysisResult dbAnalysisResult,
+            List<Path> moduleRoots,
+            RepositoryFileIndex fileIndex,
+            ParsedSourceCache parsedSources) {
+        CallGraph graph = callGraphBuilder.build(repoRoot, classRecords, parsedSources);
+        ControlFlowSequenceBuilder sequenceBuilder = new ControlFlowSequenceBuilder(
+                repoRoot, moduleRoots, classRecords, MAX_SEQUENCE_DEPTH, fileIndex, parsedSources);
         List<ApiEndpointRecord> limitedEndpoints = selectEndpoints(apiEndpoints, MAX_ENDPOINTS);
         List<DiagramDefinition> diagrams = new ArrayList<>();
         Map<String, List<String>> callFlows = buildCallFlows(apiEndpoints, sequenceBuilder, MAX_ENDPOINTS * 2);
@@ -4,9 +4,6 @@ import com.codevision.codevisionbackend.analyze.MetadataDump;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseProblemException;
-import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -22,20 +19,16 @@ import com.github.javaparser.ast.expr.NormalAnnotationExpr;
 import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
-import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.xml.parsers.DocumentBuilder;
@@ -62,145 +55,102 @@ public class ApiScanner {
     private static final String SERVLET_BASE_CLASS = "HttpServlet";
     private static final Set<String> IGNORED_DIRECTORIES =
             Set.of(".git", "target", "build", "node_modules", ".idea", ".gradle");
-    private static final ParserConfiguration JAVA_PARSER_CONFIGURATION = new ParserConfiguration()
-            .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
 
-    private final JavaParser javaParser;
     private final ObjectMapper yamlMapper;
 
     public ApiScanner() {
-        this.javaParser = new JavaParser(JAVA_PARSER_CONFIGURATION);
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
     }
 
     public List<ApiEndpointRecord> scan(
             Path repoRoot, List<Path> moduleRoots, MetadataDump metadataDump) {
+        return scan(repoRoot, moduleRoots, metadataDump, RepositoryFileIndex.build(repoRoot), new ParsedSourceCache());
+    }
+
+    public List<ApiEndpointRecord> scan(
+            Path repoRoot,
+            List<Path> moduleRoots,
+            MetadataDump metadataDump,
+            RepositoryFileIndex fileIndex,
+            ParsedSourceCache parsedSources) {
         if (repoRoot == null || moduleRoots == null || moduleRoots.isEmpty()) {
             return List.of();
         }
 
-        Map<String, Map<String, List<SpringMapping>>> interfaceMappings = new HashMap<>();
-        Set<Path> visitedSources = new HashSet<>();
         Map<String, List<OpenApiOperation>> openApiOperations = buildOpenApiOperationIndex(metadataDump);
+        List<Path> sourceFiles = fileIndex.mainJavaSources(moduleRoots).stream()
+                .map(RepositoryFileIndex.IndexedFile::path)
+                .toList();
 
-        for (Path moduleRoot : moduleRoots) {
-            Path sourceRoot = moduleRoot.resolve("src/main/java").toAbsolutePath().normalize();
-            if (!Files.isDirectory(sourceRoot) || !visitedSources.add(sourceRoot)) {
-                continue;
-            }
-            collectInterfaceMappings(sourceRoot, interfaceMappings);
+        Map<String, Map<String, List<SpringMapping>>> interfaceMappings = new HashMap<>();
+        for (InterfaceMethodMapping mapping :
+                parsedSources.collectEach(sourceFiles, (sourceFile, unit) -> collectInterfaceMappings(unit))) {
+            interfaceMappings.computeIfAbsent(mapping.interfaceName(), key -> new HashMap<>())
+                    .computeIfAbsent(mapping.methodName(), key -> new ArrayList<>())
+                    .addAll(mapping.mappings());
         }
 
         Map<String, List<String>> servletMappings = collectServletMappings(moduleRoots);
-        List<ApiEndpointRecord> endpoints = new ArrayList<>();
-        for (Path moduleRoot : moduleRoots) {
-            Path sourceRoot = moduleRoot.resolve("src/main/java").toAbsolutePath().normalize();
-            if (!Files.isDirectory(sourceRoot)) {
-                continue;
-            }
-            scanModule(
-                    repoRoot,
-                    sourceRoot,
-                    interfaceMappings,
-                    servletMappings,
-                    metadataDump,
-                    openApiOperations,
-                    endpoints);
-        }
+        List<ApiEndpointRecord> endpoints = new ArrayList<>(parsedSources.collectEach(
+                sourceFiles,
+                (sourceFile, unit) -> {
+                    List<ApiEndpointRecord> collector = new ArrayList<>();
+                    parseClass(
+                            repoRoot,
+                            unit,
+                            interfaceMappings,
+                            servletMappings,
+                            metadataDump,
+                            openApiOperations,
+                            collector);
+                    return collector;
+                }));
         endpoints.addAll(buildOpenApiOnlyEndpoints(openApiOperations));
         return endpoints;
     }
 
-    private void collectInterfaceMappings(Path sourceRoot, Map<String, Map<String, List<SpringMapping>>> interfaceMappings) {
-        try (var paths = Files.walk(sourceRoot, Integer.MAX_VALUE, FileVisitOption.FOLLOW_LINKS)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".java"))
-                    .forEach(path -> parseInterfaceMappings(path, interfaceMappings));
-        } catch (IOException e) {
-            log.warn("Failed traversing {} for interface mappings: {}", sourceRoot, e.getMessage());
-        }
-    }
-
-    private void parseInterfaceMappings(Path sourceFile, Map<String, Map<String, List<SpringMapping>>> interfaceMappings) {
-        try {
-            Optional<CompilationUnit> unitOpt = javaParser.parse(sourceFile).getResult();
-            if (unitOpt.isEmpty()) {
-                return;
+    private List<InterfaceMethodMapping> collectInterfaceMappings(CompilationUnit unit) {
+        List<InterfaceMethodMapping> collected = new ArrayList<>();
+        for (TypeDeclaration<?> type : unit.getTypes()) {
+            if (!(type instanceof ClassOrInterfaceDeclaration declaration) || !declaration.isInterface()) {
+                continue;
             }
-            CompilationUnit unit = unitOpt.get();
-            for (TypeDeclaration<?> type : unit.getTypes()) {
-                if (!(type instanceof ClassOrInterfaceDeclaration declaration) || !declaration.isInterface()) {
-                    continue;
-                }
-                String simpleName = declaration.getName().asString();
-                Map<String, List<SpringMapping>> methodMappings = interfaceMappings.computeIfAbsent(
-                        simpleName, key -> new HashMap<>());
-
-                for (MethodDeclaration method : declaration.getMethods()) {
-                    List<SpringMapping> mappings = collectSpringMappings(method, true);
-                    if (!mappings.isEmpty()) {
-                        methodMappings.computeIfAbsent(method.getName().asString(), key -> new ArrayList<>())
-                                .addAll(mappings);
-                    }
+            String simpleName = declaration.getName().asString();
+            for (MethodDeclaration method : declaration.getMethods()) {
+                List<SpringMapping> mappings = collectSpringMappings(method, true);
+                if (!mappings.isEmpty()) {
+                    collected.add(new InterfaceMethodMapping(simpleName, method.getName().asString(), mappings));
                 }
             }
-        } catch (IOException | ParseProblemException ex) {
-            log.debug("Failed parsing interface {}: {}", sourceFile, ex.getMessage());
-        }
-    }
-
-    private void scanModule(
-            Path repoRoot,
-            Path sourceRoot,
-            Map<String, Map<String, List<SpringMapping>>> interfaceMappings,
-            Map<String, List<String>> servletMappings,
-            MetadataDump metadataDump,
-            Map<String, List<OpenApiOperation>> openApiOperations,
-            List<ApiEndpointRecord> collector) {
-        try (var paths = Files.walk(sourceRoot, Integer.MAX_VALUE, FileVisitOption.FOLLOW_LINKS)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".java"))
-                    .forEach(path -> parseClass(
-                            repoRoot, path, interfaceMappings, servletMappings, metadataDump, openApiOperations, collector));
-        } catch (IOException e) {
-            log.warn("Failed traversing {} for API scanning: {}", sourceRoot, e.getMessage());
         }
+        return collected;
     }
 
     private void parseClass(
             Path repoRoot,
-            Path sourceFile,
+            CompilationUnit unit,
             Map<String, Map<String, List<SpringMapping>>> interfaceMappings,
             Map<String, List<String>> servletMappings,
             MetadataDump metadataDump,
             Map<String, List<OpenApiOperation>> openApiOperations,
             List<ApiEndpointRecord> collector) {
-        try {
-            Optional<CompilationUnit> unitOpt = javaParser.parse(sourceFile).getResult();
-            if (unitOpt.isEmpty()) {
-                return;
-            }
-            CompilationUnit unit = unitOpt.get();
-            String packageName = unit.getPackageDeclaration()
-                    .map(pkg -> pkg.getName().asString())
-                    .orElse("");
+        String packageName = unit.getPackageDeclaration()
+                .map(pkg -> pkg.getName().asString())
+                .orElse("");
 
-            for (TypeDeclaration<?> type : unit.getTypes()) {
-                if (!(type instanceof ClassOrInterfaceDeclaration declaration) || declaration.isInterface()) {
-                    continue;
-                }
-                processType(
-                        repoRoot,
-                        packageName,
-                        declaration,
-                        interfaceMappings,
-                        servletMappings,
-                        metadataDump,
-                        openApiOperations,
-                        collector);
+        for (TypeDeclaration<?> type : unit.getTypes()) {
+            if (!(type instanceof ClassOrInterfaceDeclaration declaration) || declaration.isInterface()) {
+                continue;
             }
-        } catch (IOException | ParseProblemException ex) {
-            log.debug("Failed parsing class {}: {}", sourceFile, ex.getMessage());
+            processType(
+                    repoRoot,
+                    packageName,
+                    declaration,
+                    interfaceMappings,
+                    servletMappings,
+                    metadataDump,
+                    openApiOperations,
+                    collector);
         }
     }
 
@@ -808,7 +758,7 @@ public class ApiScanner {
         private final String httpMethod;
         private final String path;
         private final String specFile;
-        private boolean consumed;
+        private volatile boolean consumed;
 
         private OpenApiOperation(String operationId, String httpMethod, String path, String specFile) {
             this.operationId = operationId;
@@ -827,4 +777,6 @@ public class ApiScanner {
     }
 
     private record SpringMapping(String httpMethod, String path) {}
+
+    private record InterfaceMethodMapping(String interfaceName, String methodName, List<SpringMapping> mappings) {}
 }
@@ -1,7 +1,6 @@
 package com.codevision.codevisionbackend.analyze.scanner;
 
 import com.codevision.codevisionbackend.analyze.BuildInfo;
-import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
@@ -14,7 +13,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
-import java.util.stream.Stream;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Plugin;
@@ -29,9 +27,12 @@ public class BuildMetadataExtractor {
 
     private static final Logger log = LoggerFactory.getLogger(BuildMetadataExtractor.class);
     private static final String DEFAULT_JAVA_VERSION = "unknown";
-    private static final int MAX_POM_SCAN_DEPTH = Integer.MAX_VALUE;
 
     public BuildMetadata extract(Path repoRoot) {
+        return extract(repoRoot, RepositoryFileIndex.build(repoRoot));
+    }
+
+    public BuildMetadata extract(Path repoRoot, RepositoryFileIndex fileIndex) {
         Path normalizedRoot = repoRoot.toAbsolutePath().normalize();
         Set<Path> moduleRoots = new LinkedHashSet<>();
         moduleRoots.add(normalizedRoot);
@@ -39,7 +40,7 @@ public class BuildMetadataExtractor {
         Path rootPom = normalizedRoot.resolve("pom.xml");
         if (!Files.exists(rootPom)) {
             log.info("No pom.xml found at {}. Attempting nested module detection.", rootPom);
-            discoverNestedModules(normalizedRoot, moduleRoots);
+            discoverNestedModules(fileIndex, moduleRoots);
             BuildInfo inferred = inferBuildInfoFromModules(moduleRoots);
             return new BuildMetadata(inferred, List.copyOf(moduleRoots));
         }
@@ -87,27 +88,20 @@ public class BuildMetadataExtractor {
         return BuildInfo.empty();
     }
 
-    private void discoverNestedModules(Path root, Set<Path> moduleRoots) {
-        try (Stream<Path> stream = Files.walk(root, MAX_POM_SCAN_DEPTH)) {
-            stream.filter(path -> path.getFileName().toString().equals("pom.xml"))
-                    .forEach(pom -> {
-                        String normalized = pom.toString();
-                        if (normalized.contains(File.separator + "target" + File.separator)
-                                || normalized.contains(File.separator + ".git" + File.separator)) {
-                            return;
-                        }
-                        Path moduleDir = pom.getParent();
-                        if (moduleDir == null) {
-                            return;
-                        }
-                        moduleRoots.add(moduleDir);
-                        Model childModel = readModelQuietly(pom);
-                        if (childModel != null) {
-                            collectModules(moduleDir, childModel, moduleRoots, new LinkedHashSet<>());
-                        }
-                    });
-        } catch (IOException e) {
-            log.warn("Failed to walk repository {} for nested pom.xml files", root, e);
+    private void discoverNestedModules(RepositoryFileIndex fileIndex, Set<Path> moduleRoots) {
+        for (RepositoryFileIndex.IndexedFile pom : fileIndex.named("pom.xml")) {
+            if (pom.isBelowDirectory("target")) {
+                continue;
+            }
+            Path moduleDir = pom.path().getParent();
+            if (moduleDir == null) {
+                continue;
+            }
+            moduleRoots.add(moduleDir);
+            Model childModel = readModelQuietly(pom.path());
+            if (childModel != null) {
+                collectModules(moduleDir, childModel, moduleRoots, new LinkedHashSet<>());
+            }
         }
     }
 
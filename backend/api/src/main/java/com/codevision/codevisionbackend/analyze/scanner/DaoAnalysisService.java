@@ -5,6 +5,15 @@ import java.util.List;
 
 public interface DaoAnalysisService {
 
-    DbAnalysisResult analyze(Path repoRoot, List<Path> moduleRoots, List<DbEntityRecord> entities);
-}
+    default DbAnalysisResult analyze(Path repoRoot, List<Path> moduleRoots, List<DbEntityRecord> entities) {
+        return analyze(
+                repoRoot, moduleRoots, entities, RepositoryFileIndex.build(repoRoot), new ParsedSourceCache());
+    }
 
+    DbAnalysisResult analyze(
+            Path repoRoot,
+            List<Path> moduleRoots,
+            List<DbEntityRecord> entities,
+            RepositoryFileIndex fileIndex,
+            ParsedSourceCache parsedSources);
+}
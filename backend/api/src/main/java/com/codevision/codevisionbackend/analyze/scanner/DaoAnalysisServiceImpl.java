@@ -2,9 +2,6 @@ package com.codevision.codevisionbackend.analyze.scanner;
 
 import com.codevision.codevisionbackend.analysis.ClasspathBuilder;
 import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseProblemException;
-import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
@@ -20,9 +17,6 @@ import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.ast.expr.VariableDeclarationExpr;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
-import java.io.IOException;
-import java.nio.file.FileVisitOption;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -33,7 +27,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -84,9 +77,7 @@ public class DaoAnalysisServiceImpl implements DaoAnalysisService {
             "criteria",
             "query",
             "hibernate");
-    private static final int MAX_WALK_DEPTH = Integer.MAX_VALUE;
 
-    private final JavaParser javaParser;
     private final ClasspathBuilder classpathBuilder;
     private final CompiledAnalysisProperties compiledAnalysisProperties;
     private final BytecodeDaoScanner bytecodeDaoScanner;
@@ -100,16 +91,18 @@ public class DaoAnalysisServiceImpl implements DaoAnalysisService {
             ClasspathBuilder classpathBuilder,
             CompiledAnalysisProperties compiledAnalysisProperties,
             BytecodeDaoScanner bytecodeDaoScanner) {
-        ParserConfiguration configuration = new ParserConfiguration()
-                .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
-        this.javaParser = new JavaParser(configuration);
         this.classpathBuilder = classpathBuilder;
         this.compiledAnalysisProperties = compiledAnalysisProperties;
         this.bytecodeDaoScanner = bytecodeDaoScanner;
     }
 
     @Override
-    public DbAnalysisResult analyze(Path repoRoot, List<Path> moduleRoots, List<DbEntityRecord> entities) {
+    public DbAnalysisResult analyze(
+            Path repoRoot,
+            List<Path> moduleRoots,
+            List<DbEntityRecord> entities,
+            RepositoryFileIndex fileIndex,
+            ParsedSourceCache parsedSources) {
         if (moduleRoots == null || moduleRoots.isEmpty()) {
             return new DbAnalysisResult(List.of(), Map.of(), Map.of());
         }
@@ -127,24 +120,16 @@ public class DaoAnalysisServiceImpl implements DaoAnalysisService {
         Map<String, Set<String>> usedRepositoryMethods = new HashMap<>();
         Map<String, Set<String>> classesByEntity = new HashMap<>();
         Map<String, List<DaoOperationRecord>> operationsByClass = new HashMap<>();
-        Set<Path> visitedSourceRoots = new HashSet<>();
+        List<Path> sourceFiles = fileIndex.analyzableJavaSources(moduleRoots);
 
-        for (Path moduleRoot : moduleRoots) {
-            Path sourceRoot = moduleRoot.resolve("src/main/java").toAbsolutePath().normalize();
-            if (!Files.isDirectory(sourceRoot) || !visitedSourceRoots.add(sourceRoot)) {
-                continue;
-            }
-            indexRepositoryInterfaces(sourceRoot, entityBySimpleName, repositoryIndex);
+        for (Path sourceFile : sourceFiles) {
+            indexRepositoryInterface(sourceFile, parsedSources, entityBySimpleName, repositoryIndex);
         }
 
-        visitedSourceRoots.clear();
-        for (Path moduleRoot : moduleRoots) {
-            Path sourceRoot = moduleRoot.resolve("src/main/java").toAbsolutePath().normalize();
-            if (!Files.isDirectory(sourceRoot) || !visitedSourceRoots.add(sourceRoot)) {
-                continue;
-            }
-            traverseSourceRoot(
-                    sourceRoot,
+        for (Path sourceFile : sourceFiles) {
+            parseSource(
+                    sourceFile,
+                    parsedSources,
                     entityBySimpleName,
                     repositoryIndex,
                     usedRepositoryMethods,
@@ -176,29 +161,6 @@ public class DaoAnalysisServiceImpl implements DaoAnalysisService {
         return new DbAnalysisResult(entities == null ? List.of() : entities, classesByEntityView, operationsView);
     }
 
-    private void traverseSourceRoot(
-            Path sourceRoot,
-            Map<String, DbEntityRecord> entities,
-            Map<String, RepositoryDescriptor> repositoryIndex,
-            Map<String, Set<String>> usedRepositoryMethods,
-            Map<String, Set<String>> classesByEntity,
-            Map<String, List<DaoOperationRecord>> operationsByClass) {
-        try (Stream<Path> paths = Files.walk(sourceRoot, MAX_WALK_DEPTH, FileVisitOption.FOLLOW_LINKS)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".java"))
-                    .filter(path -> !AnalysisExclusions.isExcludedPath(path))
-                    .forEach(path -> parseSource(
-                            path,
-                            entities,
-                            repositoryIndex,
-                            usedRepositoryMethods,
-                            classesByEntity,
-                            operationsByClass));
-        } catch (IOException e) {
-            log.warn("Failed traversing {} for DAO analysis: {}", sourceRoot, e.getMessage());
-        }
-    }
-
     private void mergeBytecodeOperations(
             Path repoRoot,
             List<Path> moduleRoots,
@@ -238,103 +200,83 @@ public class DaoAnalysisServiceImpl implements DaoAnalysisService {
 
     private void parseSource(
             Path sourceFile,
+            ParsedSourceCache parsedSources,
             Map<String, DbEntityRecord> entities,
             Map<String, RepositoryDescriptor> repositoryIndex,
             Map<String, Set<String>> usedRepositoryMethods,
             Map<String, Set<String>> classesByEntity,
             Map<String, List<DaoOperationRecord>> operationsByClass) {
-        try {
-            Optional<CompilationUnit> unitOpt = javaParser.parse(sourceFile).getResult();
-            if (unitOpt.isEmpty()) {
-                return;
-            }
-            CompilationUnit unit = unitOpt.get();
-            String packageName = unit.getPackageDeclaration()
-                    .map(pkg -> pkg.getName().asString())
-                    .orElse("");
-
-            for (TypeDeclaration<?> declaration : unit.getTypes()) {
-                if (!(declaration instanceof ClassOrInterfaceDeclaration classDeclaration)) {
-                    continue;
-                }
-                if (AnalysisExclusions.isMockClassName(classDeclaration.getNameAsString())) {
-                    continue;
-                }
-                if (classDeclaration.isInterface()) {
-                    continue;
-                }
-                collectRepositoryUsage(classDeclaration, repositoryIndex, usedRepositoryMethods);
-                processDaoClass(classDeclaration, packageName, entities, classesByEntity, operationsByClass);
-            }
-        } catch (IOException | ParseProblemException ex) {
-            log.debug("Failed parsing {} for repository metadata: {}", sourceFile, ex.getMessage());
+        Optional<CompilationUnit> unitOpt = parsedSources.parse(sourceFile);
+        if (unitOpt.isEmpty()) {
+            return;
         }
-    }
+        CompilationUnit unit = unitOpt.get();
+        String packageName = unit.getPackageDeclaration()
+                .map(pkg -> pkg.getName().asString())
+                .orElse("");
 
-    private void indexRepositoryInterfaces(
-            Path sourceRoot,
-            Map<String, DbEntityRecord> entities,
-            Map<String, RepositoryDescriptor> repositoryIndex) {
-        try (Stream<Path> paths = Files.walk(sourceRoot, MAX_WALK_DEPTH, FileVisitOption.FOLLOW_LINKS)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".java"))
-                    .filter(path -> !AnalysisExclusions.isExcludedPath(path))
-                    .forEach(path -> indexRepositoryInterface(path, entities, repositoryIndex));
-        } catch (IOException e) {
-            log.warn("Failed traversing {} for repository index: {}", sourceRoot, e.getMessage());
+        for (TypeDeclaration<?> declaration : unit.getTypes()) {
+            if (!(declaration instanceof ClassOrInterfaceDeclaration classDeclaration)) {
+                continue;
+            }
+            if (AnalysisExclusions.isMockClassName(classDeclaration.getNameAsString())) {
+                continue;
+            }
+            if (classDeclaration.isInterface()) {
+                continue;
+            }
+            collectRepositoryUsage(classDeclaration, repositoryIndex, usedRepositoryMethods);
+            processDaoClass(classDeclaration, packageName, entities, classesByEntity, operationsByClass);
         }
     }
 
     private void indexRepositoryInterface(
             Path sourceFile,
+            ParsedSourceCache parsedSources,
             Map<String, DbEntityRecord> entities,
             Map<String, RepositoryDescriptor> repositoryIndex) {
-        try {
-            Optional<CompilationUnit> unitOpt = javaParser.parse(sourceFile).getResult();
-            if (unitOpt.isEmpty()) {
-                return;
+        Optional<CompilationUnit> unitOpt = parsedSources.parse(sourceFile);
+        if (unitOpt.isEmpty()) {
+            return;
+        }
+        CompilationUnit unit = unitOpt.get();
+        String packageName = unit.getPackageDeclaration()
+                .map(pkg -> pkg.getName().asString())
+                .orElse("");
+        for (TypeDeclaration<?> declaration : unit.getTypes()) {
+            if (!(declaration instanceof ClassOrInterfaceDeclaration classDeclaration)
+                    || !classDeclaration.isInterface()) {
+                continue;
             }
-            CompilationUnit unit = unitOpt.get();
-            String packageName = unit.getPackageDeclaration()
-                    .map(pkg -> pkg.getName().asString())
-                    .orElse("");
-            for (TypeDeclaration<?> declaration : unit.getTypes()) {
-                if (!(declaration instanceof ClassOrInterfaceDeclaration classDeclaration)
-                        || !classDeclaration.isInterface()) {
-                    continue;
-                }
-                Optional<ClassOrInterfaceType> repositoryBase = classDeclaration.getExtendedTypes().stream()
-                        .filter(type -> isRepositoryBase(type.getName().getIdentifier()))
-                        .findFirst();
-                if (repositoryBase.isEmpty()) {
-                    continue;
-                }
-                String repositoryName = classDeclaration.getNameAsString();
-                String repositoryFqn = classDeclaration.getFullyQualifiedName()
-                        .orElseGet(() -> composeFqn(packageName, repositoryName));
+            Optional<ClassOrInterfaceType> repositoryBase = classDeclaration.getExtendedTypes().stream()
+                    .filter(type -> isRepositoryBase(type.getName().getIdentifier()))
+                    .findFirst();
+            if (repositoryBase.isEmpty()) {
+                continue;
+            }
+            String repositoryName = classDeclaration.getNameAsString();
+            String repositoryFqn = classDeclaration.getFullyQualifiedName()
+                    .orElseGet(() -> composeFqn(packageName, repositoryName));
 
-                String entityType = resolveEntityType(repositoryBase.get());
-                if (entityType == null) {
-                    log.debug("Unable to resolve entity type for repository {}", repositoryFqn);
-                    continue;
-                }
-                String entitySimpleName = simpleName(entityType);
-                DbEntityRecord entityRecord = entities.get(entitySimpleName);
-                Map<String, String> declaredQueries = new HashMap<>();
-                for (MethodDeclaration method : classDeclaration.getMethods()) {
-                    extractQuery(method).ifPresent(query -> declaredQueries.put(method.getNameAsString(), query));
-                }
-                repositoryIndex.putIfAbsent(
-                        repositoryName,
-                        new RepositoryDescriptor(
-                                repositoryFqn,
-                                repositoryName,
-                                entityRecord,
-                                entitySimpleName,
-                                declaredQueries));
-            }
-        } catch (IOException | ParseProblemException ex) {
-            log.debug("Failed parsing {} for repository index: {}", sourceFile, ex.getMessage());
+            String entityType = resolveEntityType(repositoryBase.get());
+            if (entityType == null) {
+                log.debug("Unable to resolve entity type for repository {}", repositoryFqn);
+                continue;
+            }
+            String entitySimpleName = simpleName(entityType);
+            DbEntityRecord entityRecord = entities.get(entitySimpleName);
+            Map<String, String> declaredQueries = new HashMap<>();
+            for (MethodDeclaration method : classDeclaration.getMethods()) {
+                extractQuery(method).ifPresent(query -> declaredQueries.put(method.getNameAsString(), query));
+            }
+            repositoryIndex.putIfAbsent(
+                    repositoryName,
+                    new RepositoryDescriptor(
+                            repositoryFqn,
+                            repositoryName,
+                            entityRecord,
+                            entitySimpleName,
+                            declaredQueries));
         }
     }
 
@@ -2,19 +2,14 @@ package com.codevision.codevisionbackend.analyze.scanner;
 
 import com.codevision.codevisionbackend.analyze.GherkinFeatureSummary;
 import com.codevision.codevisionbackend.analyze.GherkinScenarioSummary;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex.IndexedFile;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
-import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -23,50 +18,22 @@ import org.springframework.stereotype.Component;
 public class GherkinScanner {
 
     private static final Logger log = LoggerFactory.getLogger(GherkinScanner.class);
-    private static final Set<String> IGNORED_DIRECTORIES =
-            Set.of(".git", "target", "build", "node_modules", ".idea", ".gradle", ".github");
     private static final List<String> STEP_PREFIXES = List.of("given", "when", "then", "and", "but");
 
     public List<GherkinFeatureSummary> scan(Path repoRoot) {
+        return scan(repoRoot, RepositoryFileIndex.build(repoRoot));
+    }
+
+    public List<GherkinFeatureSummary> scan(Path repoRoot, RepositoryFileIndex fileIndex) {
         if (repoRoot == null || !Files.exists(repoRoot)) {
             return List.of();
         }
         List<GherkinFeatureSummary> features = new ArrayList<>();
-        FileVisitor<Path> visitor = new SimpleFileVisitor<>() {
-
-            private final Set<Path> visitedDirectories = new HashSet<>();
-
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-                Path dirName = dir.getFileName();
-                if (dirName != null && IGNORED_DIRECTORIES.contains(dirName.toString())) {
-                    return FileVisitResult.SKIP_SUBTREE;
-                }
-                Path normalized = dir.toAbsolutePath().normalize();
-                if (!visitedDirectories.add(normalized)) {
-                    return FileVisitResult.SKIP_SUBTREE;
-                }
-                return FileVisitResult.CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                if (!attrs.isRegularFile()) {
-                    return FileVisitResult.CONTINUE;
-                }
-                String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
-                if (!fileName.endsWith(".feature")) {
-                    return FileVisitResult.CONTINUE;
-                }
-                parseFeature(repoRoot, file).ifPresent(features::add);
-                return FileVisitResult.CONTINUE;
+        for (IndexedFile file : fileIndex.withExtension(".feature")) {
+            if (file.inBuildOutput() || file.isBelowDirectory(".github")) {
+                continue;
             }
-        };
-
-        try {
-            Files.walkFileTree(repoRoot, visitor);
-        } catch (IOException e) {
-            log.warn("Failed walking feature files under {}: {}", repoRoot, e.getMessage());
+            parseFeature(repoRoot, file.path()).ifPresent(features::add);
         }
         return features;
     }
@@ -4,9 +4,6 @@ import com.codevision.codevisionbackend.analysis.DocumentationExtractor;
 import com.codevision.codevisionbackend.analysis.MetricsCalculator;
 import com.codevision.codevisionbackend.analyze.scanner.ClassMetadataRecord.MethodMetrics;
 import com.codevision.codevisionbackend.analyze.scanner.ClassMetadataRecord.SourceSet;
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseProblemException;
-import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.EnumDeclaration;
@@ -15,9 +12,6 @@ import com.github.javaparser.ast.body.RecordDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
-import java.io.IOException;
-import java.nio.file.FileVisitOption;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,18 +19,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JavaSourceScanner {
 
-    private static final Logger log = LoggerFactory.getLogger(JavaSourceScanner.class);
     private static final Set<String> CONTROLLER_ANNOTATIONS = Set.of(
             "RestController",
             "Controller",
@@ -50,7 +40,6 @@ public class JavaSourceScanner {
     private static final Set<String> ENTITY_ANNOTATIONS = Set.of("Entity", "Document");
     private static final Set<String> CONFIG_ANNOTATIONS = Set.of("Configuration");
 
-    private final JavaParser javaParser;
     private final MetricsCalculator metricsCalculator;
     private final DocumentationExtractor documentationExtractor;
 
@@ -59,58 +48,22 @@ public class JavaSourceScanner {
     }
 
     public JavaSourceScanner(MetricsCalculator metricsCalculator, DocumentationExtractor documentationExtractor) {
-        ParserConfiguration configuration = new ParserConfiguration()
-                .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
-        this.javaParser = new JavaParser(configuration);
         this.metricsCalculator = metricsCalculator;
         this.documentationExtractor = documentationExtractor;
     }
 
     public List<ClassMetadataRecord> scan(Path repoRoot, List<Path> moduleRoots) {
-        List<ClassMetadataRecord> records = new ArrayList<>();
-        Path normalizedRoot = repoRoot.toAbsolutePath().normalize();
-        Set<Path> visitedRoots = new HashSet<>();
-
-        for (Path moduleRoot : moduleRoots) {
-            Path normalizedModule = moduleRoot.toAbsolutePath().normalize();
-            if (!Files.isDirectory(normalizedModule) || !visitedRoots.add(normalizedModule)) {
-                continue;
-            }
-            collectFromSourceSet(normalizedRoot, normalizedModule.resolve("src/main/java"), SourceSet.MAIN, records);
-        }
-
-        return records;
+        return scan(repoRoot, moduleRoots, RepositoryFileIndex.build(repoRoot), new ParsedSourceCache());
     }
 
-    private void collectFromSourceSet(
-            Path repoRoot, Path sourceRoot, SourceSet sourceSet, List<ClassMetadataRecord> collector) {
-        if (!Files.isDirectory(sourceRoot)) {
-            return;
-        }
-
-        try (Stream<Path> paths = Files.walk(sourceRoot, Integer.MAX_VALUE, FileVisitOption.FOLLOW_LINKS)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".java"))
-                    .filter(path -> !AnalysisExclusions.isExcludedPath(path))
-                    .forEach(path -> parseJavaFile(repoRoot, sourceSet, path, collector));
-        } catch (IOException e) {
-            log.warn("Failed traversing source set {}: {}", sourceRoot, e.getMessage());
-        }
-    }
-
-    private void parseJavaFile(
-            Path repoRoot, SourceSet sourceSet, Path sourceFile, List<ClassMetadataRecord> collector) {
-        try {
-            Optional<CompilationUnit> compilationUnit = javaParser.parse(sourceFile).getResult();
-            if (compilationUnit.isEmpty()) {
-                return;
-            }
-            processCompilationUnit(repoRoot, sourceSet, sourceFile, compilationUnit.get(), collector);
-        } catch (IOException e) {
-            log.warn("Failed to read {}: {}", sourceFile, e.getMessage());
-        } catch (ParseProblemException e) {
-            log.warn("Failed to parse {}: {}", sourceFile, e.getMessage());
-        }
+    public List<ClassMetadataRecord> scan(
+            Path repoRoot, List<Path> moduleRoots, RepositoryFileIndex fileIndex, ParsedSourceCache parsedSources) {
+        Path normalizedRoot = repoRoot.toAbsolutePath().normalize();
+        return parsedSources.collectEach(fileIndex.analyzableJavaSources(moduleRoots), (sourceFile, unit) -> {
+            List<ClassMetadataRecord> records = new ArrayList<>();
+            processCompilationUnit(normalizedRoot, SourceSet.MAIN, sourceFile, unit, records);
+            return records;
+        });
     }
 
     private void processCompilationUnit(
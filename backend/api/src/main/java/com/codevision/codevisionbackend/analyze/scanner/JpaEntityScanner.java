@@ -1,8 +1,5 @@
 package com.codevision.codevisionbackend.analyze.scanner;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseProblemException;
-import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
@@ -14,27 +11,19 @@ import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.Type;
-import java.io.IOException;
-import java.nio.file.FileVisitOption;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JpaEntityScanner {
 
-    private static final Logger log = LoggerFactory.getLogger(JpaEntityScanner.class);
     private static final Set<String> RELATIONSHIP_ANNOTATIONS = Set.of(
             "onetomany", "manytoone", "manytomany", "onetoone");
     private static final Map<String, String> RELATIONSHIP_LABELS = Map.of(
@@ -46,71 +35,45 @@ public class JpaEntityScanner {
     private static final String TABLE_ANNOTATION = "table";
     private static final String COLUMN_ANNOTATION = "column";
     private static final Set<String> PRIMARY_KEY_ANNOTATIONS = Set.of("id", "embeddedid");
-    private static final int MAX_WALK_DEPTH = Integer.MAX_VALUE;
 
-    private final JavaParser javaParser;
-
-    public JpaEntityScanner() {
-        ParserConfiguration configuration = new ParserConfiguration()
-                .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
-        this.javaParser = new JavaParser(configuration);
+    public List<DbEntityRecord> scan(Path repoRoot, List<Path> moduleRoots) {
+        return scan(repoRoot, moduleRoots, RepositoryFileIndex.build(repoRoot), new ParsedSourceCache());
     }
 
-    public List<DbEntityRecord> scan(Path repoRoot, List<Path> moduleRoots) {
+    public List<DbEntityRecord> scan(
+            Path repoRoot, List<Path> moduleRoots, RepositoryFileIndex fileIndex, ParsedSourceCache parsedSources) {
         if (repoRoot == null || moduleRoots == null || moduleRoots.isEmpty()) {
             return List.of();
         }
 
-        Set<Path> visitedSourceRoots = new HashSet<>();
         List<DbEntityRecord> entities = new ArrayList<>();
-
-        for (Path moduleRoot : moduleRoots) {
-            Path sourceRoot = moduleRoot.resolve("src/main/java").toAbsolutePath().normalize();
-            if (!Files.isDirectory(sourceRoot) || !visitedSourceRoots.add(sourceRoot)) {
-                continue;
-            }
-            traverseSourceRoot(sourceRoot, entities);
+        for (Path sourceFile : fileIndex.analyzableJavaSources(moduleRoots)) {
+            parseSource(sourceFile, parsedSources, entities);
         }
-
         return entities;
     }
 
-    private void traverseSourceRoot(Path sourceRoot, List<DbEntityRecord> collector) {
-        try (Stream<Path> paths = Files.walk(sourceRoot, MAX_WALK_DEPTH, FileVisitOption.FOLLOW_LINKS)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".java"))
-                    .filter(path -> !AnalysisExclusions.isExcludedPath(path))
-                    .forEach(path -> parseSource(path, collector));
-        } catch (IOException e) {
-            log.warn("Failed traversing {} for entity scanning: {}", sourceRoot, e.getMessage());
+    private void parseSource(Path sourceFile, ParsedSourceCache parsedSources, List<DbEntityRecord> collector) {
+        Optional<CompilationUnit> unitOpt = parsedSources.parse(sourceFile);
+        if (unitOpt.isEmpty()) {
+            return;
         }
-    }
-
-    private void parseSource(Path sourceFile, List<DbEntityRecord> collector) {
-        try {
-            Optional<CompilationUnit> unitOpt = javaParser.parse(sourceFile).getResult();
-            if (unitOpt.isEmpty()) {
-                return;
+        CompilationUnit unit = unitOpt.get();
+        String packageName = unit.getPackageDeclaration()
+                .map(pkg -> pkg.getName().asString())
+                .orElse("");
+        for (TypeDeclaration<?> declaration : unit.getTypes()) {
+            if (!(declaration instanceof ClassOrInterfaceDeclaration classDeclaration)
+                    || classDeclaration.isInterface()) {
+                continue;
             }
-            CompilationUnit unit = unitOpt.get();
-            String packageName = unit.getPackageDeclaration()
-                    .map(pkg -> pkg.getName().asString())
-                    .orElse("");
-            for (TypeDeclaration<?> declaration : unit.getTypes()) {
-                if (!(declaration instanceof ClassOrInterfaceDeclaration classDeclaration)
-                        || classDeclaration.isInterface()) {
-                    continue;
-                }
-                if (!hasAnnotation(classDeclaration, ENTITY_ANNOTATION)) {
-                    continue;
-                }
-                if (AnalysisExclusions.isMockClassName(classDeclaration.getNameAsString())) {
-                    continue;
-                }
-                collector.add(toRecord(packageName, classDeclaration));
+            if (!hasAnnotation(classDeclaration, ENTITY_ANNOTATION)) {
+                continue;
+            }
+            if (AnalysisExclusions.isMockClassName(classDeclaration.getNameAsString())) {
+                continue;
             }
-        } catch (IOException | ParseProblemException ex) {
-            log.debug("Failed parsing {} for entity metadata: {}", sourceFile, ex.getMessage());
+            collector.add(toRecord(packageName, classDeclaration));
         }
     }
 
@@ -0,0 +1,154 @@
+package com.codevision.codevisionbackend.analyze.scanner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton that finds every occurrence of a fixed set of keywords in a single pass over the text,
+ * ignoring case.
+ *
+ * <p>Keywords and text are compared after folding each character with {@link Character#toLowerCase(char)}.
+ * Transitions on ASCII characters are precomputed into a dense table, upper case included, so the common case
+ * costs one array read per character. Other characters follow failure links through a sparse map.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+final class KeywordAutomaton {
+
+    private static final int ASCII = 128;
+
+    private final int keywordCount;
+    private final int[] asciiNext;
+    private final Map<Long, Integer> wideNext;
+    private final int[] fail;
+    private final int[][] outputs;
+
+    private KeywordAutomaton(
+            int keywordCount, int[] asciiNext, Map<Long, Integer> wideNext, int[] fail, int[][] outputs) {
+        this.keywordCount = keywordCount;
+        this.asciiNext = asciiNext;
+        this.wideNext = wideNext;
+        this.fail = fail;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Builds the automaton. Keywords are identified by their position in {@code keywords}; empty keywords never
+     * match.
+     */
+    static KeywordAutomaton of(List<String> keywords) {
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<BitSet> terminal = new ArrayList<>();
+        children.add(new HashMap<>());
+        terminal.add(new BitSet());
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            if (keyword == null || keyword.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new HashMap<>());
+                    terminal.add(new BitSet());
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminal.get(state).set(k);
+        }
+
+        int states = children.size();
+        int[] fail = new int[states];
+        int[] asciiNext = new int[states * ASCII];
+        Map<Long, Integer> wideNext = new HashMap<>();
+        int[][] outputs = new int[states][];
+
+        // Breadth-first, so a state's failure target is complete before the state itself
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            if (state != 0) {
+                terminal.get(state).or(terminal.get(fail[state]));
+            }
+            outputs[state] = terminal.get(state).stream().toArray();
+            for (int c = 0; c < ASCII; c++) {
+                Integer child = children.get(state).get((char) c);
+                asciiNext[state * ASCII + c] = child != null
+                        ? child
+                        : state == 0 ? 0 : asciiNext[fail[state] * ASCII + c];
+            }
+            for (var edge : children.get(state).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+                if (c >= ASCII) {
+                    wideNext.put(key(state, c), child);
+                }
+                fail[child] = state == 0 ? 0 : next(asciiNext, wideNext, fail, fail[state], c);
+                queue.add(child);
+            }
+        }
+        for (int state = 0; state < states; state++) {
+            for (char c = 'A'; c <= 'Z'; c++) {
+                asciiNext[state * ASCII + c] = asciiNext[state * ASCII + fold(c)];
+            }
+        }
+        return new KeywordAutomaton(keywords.size(), asciiNext, Map.copyOf(wideNext), fail, outputs);
+    }
+
+    int keywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * Sets the bit of every keyword that occurs in {@code text} between {@code start} (inclusive) and {@code end}
+     * (exclusive). Bits already set in {@code found} are left alone.
+     */
+    void match(CharSequence text, int start, int end, BitSet found) {
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            state = c < ASCII
+                    ? asciiNext[state * ASCII + c]
+                    : next(asciiNext, wideNext, fail, state, fold(c));
+            for (int keyword : outputs[state]) {
+                found.set(keyword);
+            }
+        }
+    }
+
+    static char fold(char c) {
+        if (c < ASCII) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static int next(int[] asciiNext, Map<Long, Integer> wideNext, int[] fail, int state, char folded) {
+        if (folded < ASCII) {
+            return asciiNext[state * ASCII + folded];
+        }
+        while (true) {
+            Integer next = wideNext.get(key(state, folded));
+            if (next != null) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private static long key(int state, char c) {
+        return ((long) state << 16) | c;
+    }
+}
@@ -1,92 +1,55 @@
 package com.codevision.codevisionbackend.analyze.scanner;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseProblemException;
-import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
-import java.io.IOException;
-import java.nio.file.FileVisitOption;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 @Component
 public class LoggerScanner {
 
-    private static final Logger log = LoggerFactory.getLogger(LoggerScanner.class);
     private static final Set<String> LOG_METHODS = Set.of("trace", "debug", "info", "warn", "error");
     private static final Set<String> LOGGER_IDENTIFIERS = Set.of("log", "logger");
 
-    private final JavaParser javaParser;
     private final PiiPciInspector piiPciInspector;
 
     public LoggerScanner(PiiPciInspector piiPciInspector) {
-        ParserConfiguration configuration = new ParserConfiguration()
-                .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
-        this.javaParser = new JavaParser(configuration);
         this.piiPciInspector = piiPciInspector;
     }
 
     public List<LogStatementRecord> scan(Path repoRoot, List<Path> moduleRoots) {
+        return scan(repoRoot, moduleRoots, RepositoryFileIndex.build(repoRoot), new ParsedSourceCache());
+    }
+
+    public List<LogStatementRecord> scan(
+            Path repoRoot, List<Path> moduleRoots, RepositoryFileIndex fileIndex, ParsedSourceCache parsedSources) {
         List<LogStatementRecord> records = new ArrayList<>();
         if (repoRoot == null || moduleRoots == null || moduleRoots.isEmpty()) {
             return List.of();
         }
 
         Path normalizedRoot = repoRoot.toAbsolutePath().normalize();
-        Set<Path> visitedModules = new HashSet<>();
-
-        for (Path moduleRoot : moduleRoots) {
-            Path normalizedModule = moduleRoot.toAbsolutePath().normalize();
-            if (!Files.isDirectory(normalizedModule) || !visitedModules.add(normalizedModule)) {
-                continue;
-            }
-            scanSourceSet(normalizedRoot, normalizedModule.resolve("src/main/java"), records);
+        for (Path sourceFile : fileIndex.analyzableJavaSources(moduleRoots)) {
+            parseFile(normalizedRoot, sourceFile, parsedSources, records);
         }
-
         return List.copyOf(records);
     }
 
-    private void scanSourceSet(Path repoRoot, Path sourceRoot, List<LogStatementRecord> collector) {
-        if (!Files.isDirectory(sourceRoot)) {
+    private void parseFile(
+            Path repoRoot, Path sourceFile, ParsedSourceCache parsedSources, List<LogStatementRecord> collector) {
+        Optional<CompilationUnit> unit = parsedSources.parse(sourceFile);
+        if (unit.isEmpty()) {
             return;
         }
-
-        try (Stream<Path> paths = Files.walk(sourceRoot, Integer.MAX_VALUE, FileVisitOption.FOLLOW_LINKS)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".java"))
-                    .filter(path -> !AnalysisExclusions.isExcludedPath(path))
-                    .forEach(path -> parseFile(repoRoot, path, collector));
-        } catch (IOException e) {
-            log.warn("Failed to traverse source set {}: {}", sourceRoot, e.getMessage());
-        }
-    }
-
-    private void parseFile(Path repoRoot, Path sourceFile, List<LogStatementRecord> collector) {
-        try {
-            Optional<CompilationUnit> unit = javaParser.parse(sourceFile).getResult();
-            if (unit.isEmpty()) {
-                return;
-            }
-            processCompilationUnit(repoRoot, sourceFile, unit.get(), collector);
-        } catch (IOException e) {
-            log.warn("Failed to read {}: {}", sourceFile, e.getMessage());
-        } catch (ParseProblemException e) {
-            log.debug("Skipping unparsable file {}: {}", sourceFile, e.getMessage());
-        }
+        processCompilationUnit(repoRoot, sourceFile, unit.get(), collector);
     }
 
     private void processCompilationUnit(
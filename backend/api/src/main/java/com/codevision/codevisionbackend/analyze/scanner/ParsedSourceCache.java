@@ -0,0 +1,249 @@
+package com.codevision.codevisionbackend.analyze.scanner;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-analysis repository of parsed Java compilation units shared by every JavaParser based scanner, so a
+ * source file is parsed once per analysis run instead of once per scanner.
+ *
+ * <p>Entries are weighed by the size of their source file and evicted in least-recently-used order once the
+ * configured budget is exceeded. An evicted file is simply parsed again on its next lookup, so the budget only
+ * trades memory for repeated parses and never changes scan results.</p>
+ *
+ * <p>{@link JavaParser} is not thread-safe, so every thread parses with its own parser instance. Scanners that
+ * opt into {@link #collectEach(List, BiFunction)} get per-file fork-join parallelism bounded by the configured
+ * level, with results merged back in input order so output stays deterministic.</p>
+ */
+public final class ParsedSourceCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ParsedSourceCache.class);
+
+    /** Default budget, expressed in bytes of source text retained as parsed trees. */
+    public static final long DEFAULT_MAX_WEIGHT_BYTES = 64L * 1024 * 1024;
+
+    private static final ParserConfiguration PARSER_CONFIGURATION = new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
+
+    private final long maxWeightBytes;
+    private final int parallelism;
+    private final ThreadLocal<JavaParser> parsers =
+            ThreadLocal.withInitial(() -> new JavaParser(PARSER_CONFIGURATION));
+    private final LinkedHashMap<Path, CachedUnit> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Path, CompletableFuture<CachedUnit>> inFlight = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private long currentWeightBytes;
+    private ForkJoinPool parsingPool;
+
+    public ParsedSourceCache() {
+        this(DEFAULT_MAX_WEIGHT_BYTES);
+    }
+
+    public ParsedSourceCache(long maxWeightBytes) {
+        this(maxWeightBytes, 1);
+    }
+
+    /**
+     * @param maxWeightBytes maximum bytes of source text whose parsed trees are retained; zero or a negative
+     *                       value disables retention so every lookup parses the file again
+     * @param parallelism    number of files {@link #collectEach(List, BiFunction)} parses concurrently; one or
+     *                       less processes files sequentially on the calling thread
+     */
+    public ParsedSourceCache(long maxWeightBytes, int parallelism) {
+        this.maxWeightBytes = Math.max(0L, maxWeightBytes);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the parsed compilation unit for {@code sourceFile}, parsing it on first access. Unreadable or
+     * unparsable files resolve to an empty result and are remembered as such. Concurrent lookups of a file that
+     * is still being parsed wait for that parse instead of starting their own.
+     */
+    public Optional<CompilationUnit> parse(Path sourceFile) {
+        if (sourceFile == null) {
+            return Optional.empty();
+        }
+        Path key = sourceFile.toAbsolutePath().normalize();
+        CompletableFuture<CachedUnit> pending;
+        CompletableFuture<CachedUnit> owned = null;
+        synchronized (entries) {
+            CachedUnit cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached.unit();
+            }
+            pending = inFlight.get(key);
+            if (pending == null) {
+                owned = new CompletableFuture<>();
+                inFlight.put(key, owned);
+            }
+        }
+        if (owned == null) {
+            hits.increment();
+            return pending.join().unit();
+        }
+        misses.increment();
+        try {
+            CachedUnit parsed = parseUncached(key);
+            store(key, parsed);
+            owned.complete(parsed);
+            return parsed.unit();
+        } catch (RuntimeException | Error e) {
+            owned.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (entries) {
+                inFlight.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Parses each of {@code sourceFiles} and hands every successfully parsed unit to {@code processor}, running
+     * up to {@link #parallelism()} files at once. The per-file results are concatenated in the order of
+     * {@code sourceFiles}, whatever order the files finished in. {@code processor} must not mutate state shared
+     * between files.
+     */
+    public <R> List<R> collectEach(
+            List<Path> sourceFiles, BiFunction<Path, CompilationUnit, List<R>> processor) {
+        if (sourceFiles == null || sourceFiles.isEmpty()) {
+            return List.of();
+        }
+        List<List<R>> perFile = parallelism <= 1 || sourceFiles.size() < 2
+                ? sourceFiles.stream().map(file -> processFile(file, processor)).toList()
+                : parsingPool().submit(() -> sourceFiles.parallelStream()
+                        .map(file -> processFile(file, processor))
+                        .toList()).join();
+        List<R> merged = new ArrayList<>();
+        perFile.forEach(merged::addAll);
+        return merged;
+    }
+
+    /** Releases the worker threads used by {@link #collectEach(List, BiFunction)}. */
+    @Override
+    public void close() {
+        ForkJoinPool pool;
+        synchronized (this) {
+            pool = parsingPool;
+            parsingPool = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(
+                    hits.sum(),
+                    misses.sum(),
+                    evictions.sum(),
+                    failures.sum(),
+                    entries.size(),
+                    currentWeightBytes);
+        }
+    }
+
+    private CachedUnit parseUncached(Path sourceFile) {
+        long weight = weigh(sourceFile);
+        try {
+            Optional<CompilationUnit> unit = parsers.get().parse(sourceFile).getResult();
+            if (unit.isEmpty()) {
+                failures.increment();
+            }
+            return new CachedUnit(unit, weight);
+        } catch (IOException e) {
+            failures.increment();
+            log.warn("Failed to read {}: {}", sourceFile, e.getMessage());
+        } catch (ParseProblemException e) {
+            failures.increment();
+            log.debug("Failed to parse {}: {}", sourceFile, e.getMessage());
+        }
+        return new CachedUnit(Optional.empty(), 1L);
+    }
+
+    private void store(Path key, CachedUnit unit) {
+        if (unit.weight() > maxWeightBytes) {
+            return;
+        }
+        synchronized (entries) {
+            CachedUnit previous = entries.put(key, unit);
+            if (previous != null) {
+                currentWeightBytes -= previous.weight();
+            }
+            currentWeightBytes += unit.weight();
+            Iterator<Map.Entry<Path, CachedUnit>> eldest = entries.entrySet().iterator();
+            while (currentWeightBytes > maxWeightBytes && eldest.hasNext()) {
+                Map.Entry<Path, CachedUnit> candidate = eldest.next();
+                if (candidate.getKey().equals(key)) {
+                    continue;
+                }
+                currentWeightBytes -= candidate.getValue().weight();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private <R> List<R> processFile(Path sourceFile, BiFunction<Path, CompilationUnit, List<R>> processor) {
+        Optional<CompilationUnit> unit = parse(sourceFile);
+        if (unit.isEmpty()) {
+            return List.of();
+        }
+        List<R> results = processor.apply(sourceFile, unit.get());
+        return results == null ? List.of() : results;
+    }
+
+    private synchronized ForkJoinPool parsingPool() {
+        if (parsingPool == null) {
+            parsingPool = new ForkJoinPool(parallelism);
+        }
+        return parsingPool;
+    }
+
+    private long weigh(Path sourceFile) {
+        try {
+            return Math.max(1L, Files.size(sourceFile));
+        } catch (IOException e) {
+            return 1L;
+        }
+    }
+
+    private record CachedUnit(Optional<CompilationUnit> unit, long weight) {}
+
+    /**
+     * Point-in-time counters describing how effective the cache was for an analysis run.
+     */
+    public record Stats(long hits, long misses, long evictions, long failures, int entries, long weightBytes) {
+
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
@@ -1,26 +1,44 @@
 package com.codevision.codevisionbackend.analyze.scanner;
 
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex.IndexedFile;
 import com.codevision.codevisionbackend.config.SecurityScanProperties;
 import com.codevision.codevisionbackend.config.SecurityScanProperties.Rule;
-import java.io.BufferedReader;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+/**
+ * Flags lines of text files that match the configured PII/PCI rules.
+ *
+ * <p>Rules are compiled into one {@link KeywordAutomaton} holding every rule keyword plus, for regex-only rules,
+ * a literal the expression cannot match without. A line is read once by the automaton, and only rules whose
+ * keyword or literal occurred on it, plus regex rules without such a literal, are evaluated further. Ignore
+ * patterns are tested against a file's path once and against a line only when a rule matched it.</p>
+ *
+ * <p>Files are decoded through a reused buffer sized up to {@value #READ_BUFFER_BYTES} bytes and inspected on up
+ * to {@code security.scan.parallelism} threads of a pool shared by every scan; findings keep the order of the file
+ * index.</p>
+ */
 @Component
 public class PiiPciInspector {
 
@@ -40,13 +58,44 @@ public class PiiPciInspector {
             ".json",
             ".csv",
             ".md");
+    private static final int READ_BUFFER_BYTES = 1024 * 1024;
+    private static final int MIN_BUFFER_BYTES = 8 * 1024;
+    private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[a-zA-Z]*x");
 
     private final List<CompiledRule> rules;
     private final List<Pattern> ignorePatterns;
+    private final KeywordAutomaton anchors;
+    private final int[][] rulesByAnchor;
+    private final BitSet unanchoredRules;
+    private final int parallelism;
+    private ForkJoinPool scanPool;
 
     public PiiPciInspector(SecurityScanProperties properties) {
         this.rules = compileRules(properties.getRules());
         this.ignorePatterns = compileIgnorePatterns(properties.getIgnorePatterns());
+        this.parallelism = Math.max(1, properties.resolveParallelism());
+
+        List<String> anchorTexts = new ArrayList<>();
+        List<List<Integer>> anchorRules = new ArrayList<>();
+        this.unanchoredRules = new BitSet(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            String anchor = rules.get(i).anchor();
+            if (anchor == null) {
+                unanchoredRules.set(i);
+                continue;
+            }
+            int index = anchorTexts.indexOf(anchor);
+            if (index < 0) {
+                index = anchorTexts.size();
+                anchorTexts.add(anchor);
+                anchorRules.add(new ArrayList<>());
+            }
+            anchorRules.get(index).add(i);
+        }
+        this.anchors = KeywordAutomaton.of(anchorTexts);
+        this.rulesByAnchor = anchorRules.stream()
+                .map(indices -> indices.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
     }
 
     public List<PiiPciFindingRecord> scan(Path repoRoot) {
@@ -54,40 +103,37 @@ public class PiiPciInspector {
     }
 
     public List<PiiPciFindingRecord> scan(Path repoRoot, List<Path> includeRoots) {
+        return scan(repoRoot, includeRoots, RepositoryFileIndex.build(repoRoot));
+    }
+
+    public List<PiiPciFindingRecord> scan(Path repoRoot, List<Path> includeRoots, RepositoryFileIndex fileIndex) {
         if (rules.isEmpty() || repoRoot == null) {
             return List.of();
         }
         Path normalizedRoot = repoRoot.toAbsolutePath().normalize();
-        List<Path> targets = includeRoots == null || includeRoots.isEmpty() ? List.of(normalizedRoot) : includeRoots;
-        List<PiiPciFindingRecord> findings = new ArrayList<>();
-        Set<Path> visited = new HashSet<>();
-        for (Path target : targets) {
-            if (target == null) {
-                continue;
-            }
-            Path normalizedTarget = target.toAbsolutePath().normalize();
-            if (!Files.exists(normalizedTarget) || !visited.add(normalizedTarget)) {
-                continue;
-            }
-            walkTarget(normalizedRoot, normalizedTarget, findings);
+        List<Path> files = fileIndex.under(includeRoots).stream()
+                .filter(file -> TEXT_FILE_EXTENSIONS.contains(file.extension()))
+                .map(IndexedFile::path)
+                .toList();
+        List<List<PiiPciFindingRecord>> perFile;
+        if (parallelism <= 1 || files.size() < 2) {
+            perFile = files.stream().map(file -> scanFile(normalizedRoot, file)).toList();
+        } else {
+            perFile = scanPool().submit(() -> files.parallelStream()
+                    .map(file -> scanFile(normalizedRoot, file))
+                    .toList()).join();
         }
+        List<PiiPciFindingRecord> findings = new ArrayList<>();
+        perFile.forEach(findings::addAll);
         return List.copyOf(findings);
     }
 
-    private void walkTarget(Path repoRoot, Path targetRoot, List<PiiPciFindingRecord> findings) {
-        try {
-            Files.walkFileTree(targetRoot, new SimpleFileVisitor<>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                    if (!attrs.isRegularFile() || !isTextCandidate(file)) {
-                        return FileVisitResult.CONTINUE;
-                    }
-                    scanFile(repoRoot, file, findings);
-                    return FileVisitResult.CONTINUE;
-                }
-            });
-        } catch (IOException e) {
-            log.warn("Failed to traverse {} for PII/PCI scanning: {}", targetRoot, e.getMessage());
+    /** Releases the worker threads shared by {@link #scan(Path)} calls. */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (scanPool != null) {
+            scanPool.shutdown();
+            scanPool = null;
         }
     }
 
@@ -95,72 +141,108 @@ public class PiiPciInspector {
         if (!StringUtils.hasText(text) || rules.isEmpty()) {
             return RiskAssessment.none();
         }
-        String candidate = text;
+        BitSet matched = new BitSet(rules.size());
+        matchRules(text, 0, text.length(), new BitSet(rulesByAnchor.length), matched);
         boolean pii = false;
         boolean pci = false;
-        for (CompiledRule rule : rules) {
-            if (rule.matches(candidate)) {
-                if (rule.isPci()) {
-                    pci = true;
-                }
-                if (rule.isPii()) {
-                    pii = true;
-                }
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            CompiledRule rule = rules.get(i);
+            if (rule.isPci()) {
+                pci = true;
+            }
+            if (rule.isPii()) {
+                pii = true;
             }
         }
         return new RiskAssessment(pii, pci);
     }
 
-    private void scanFile(Path repoRoot, Path file, List<PiiPciFindingRecord> findings) {
+    private synchronized ForkJoinPool scanPool() {
+        if (scanPool == null) {
+            scanPool = new ForkJoinPool(parallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("pii-pci-scan-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return scanPool;
+    }
+
+    private List<PiiPciFindingRecord> scanFile(Path repoRoot, Path file) {
         Path normalizedFile = file.toAbsolutePath().normalize();
         String relativePath = relativize(repoRoot, normalizedFile);
+        FileScan scan = new FileScan(relativePath);
 
-        try (BufferedReader reader = Files.newBufferedReader(normalizedFile, StandardCharsets.UTF_8)) {
-            String line;
-            int lineNumber = 0;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                evaluateLine(relativePath, line, lineNumber, findings);
+        try (FileChannel channel = FileChannel.open(normalizedFile, StandardOpenOption.READ)) {
+            int bufferSize = (int) Math.min(READ_BUFFER_BYTES, Math.max(MIN_BUFFER_BYTES, channel.size()));
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+            ByteBuffer bytes = ByteBuffer.allocate(bufferSize);
+            CharBuffer chars = CharBuffer.allocate(bufferSize);
+            boolean endOfInput = false;
+            while (true) {
+                if (!endOfInput && bytes.hasRemaining()) {
+                    endOfInput = channel.read(bytes) < 0;
+                }
+                bytes.flip();
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                bytes.compact();
+                if (result.isError()) {
+                    result.throwException();
+                }
+                boolean drained = endOfInput && result.isUnderflow();
+                chars.flip();
+                scan.lines(chars, drained);
+                chars.compact();
+                if (drained) {
+                    break;
+                }
+                if (!chars.hasRemaining()) {
+                    // A single line longer than the buffer
+                    chars = CharBuffer.allocate(chars.capacity() * 2).put(chars.flip());
+                }
             }
         } catch (IOException e) {
             log.warn("Failed to inspect {}: {}", relativePath, e.getMessage());
         }
+        return scan.findings;
     }
 
-    private void evaluateLine(
-            String relativePath, String line, int lineNumber, List<PiiPciFindingRecord> findings) {
-        if (!StringUtils.hasText(line)) {
-            return;
+    /**
+     * Sets in {@code matched} the index of every rule that matches {@code text} between {@code start} and
+     * {@code end}: the automaton picks the candidates, and regex rules among them are confirmed by their pattern.
+     */
+    private void matchRules(CharSequence text, int start, int end, BitSet anchorHits, BitSet matched) {
+        anchorHits.clear();
+        matched.clear();
+        anchors.match(text, start, end, anchorHits);
+        matched.or(unanchoredRules);
+        for (int a = anchorHits.nextSetBit(0); a >= 0; a = anchorHits.nextSetBit(a + 1)) {
+            for (int rule : rulesByAnchor[a]) {
+                matched.set(rule);
+            }
         }
-        String candidate = line;
-        for (CompiledRule rule : rules) {
-            if (!rule.matches(candidate)) {
+        CharSequence candidate = null;
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            Pattern pattern = rules.get(i).pattern();
+            if (pattern == null) {
                 continue;
             }
-            boolean ignored = isIgnored(relativePath, candidate);
-            String snippet = truncateSnippet(candidate);
-            findings.add(new PiiPciFindingRecord(
-                    relativePath, lineNumber, snippet, rule.type(), rule.severity(), ignored));
+            if (candidate == null) {
+                candidate = start == 0 && end == text.length() ? text : text.subSequence(start, end);
+            }
+            if (!pattern.matcher(candidate).find()) {
+                matched.clear(i);
+            }
         }
     }
 
-    private boolean isIgnored(String relativePath, String line) {
-        if (ignorePatterns.isEmpty()) {
+    private boolean isIgnored(CharSequence value) {
+        if (value == null) {
             return false;
         }
         for (Pattern pattern : ignorePatterns) {
-            if ((relativePath != null && pattern.matcher(relativePath).find())
-                    || (line != null && pattern.matcher(line).find())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean isTextCandidate(Path file) {
-        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
-        for (String extension : TEXT_FILE_EXTENSIONS) {
-            if (fileName.endsWith(extension)) {
+            if (pattern.matcher(value).find()) {
                 return true;
             }
         }
@@ -197,7 +279,8 @@ public class PiiPciInspector {
             String severity = StringUtils.hasText(rule.getSeverity())
                     ? rule.getSeverity().toUpperCase(Locale.ROOT)
                     : "LOW";
-            compiled.add(new CompiledRule(keyword, pattern, type, severity));
+            String anchor = keyword != null ? keyword : requiredLiteral(rule.getRegex());
+            compiled.add(new CompiledRule(pattern, anchor, type, severity));
         }
         return List.copyOf(compiled);
     }
@@ -228,6 +311,113 @@ public class PiiPciInspector {
         }
     }
 
+    /**
+     * Longest run of literal characters that every match of {@code regex} must contain, lower-cased, or
+     * {@code null} when none can be derived. Deliberately conservative: groups, character classes, escapes other
+     * than escaped punctuation and top-level alternation all end a run, and quantifiers that allow zero
+     * repetitions remove the character they apply to. An escape ends the run together with everything it
+     * consumes, such as the digits of {@code \x41}, {@code \u00e9} or {@code \0101}, the control letter of
+     * {@code \cA} and the name in {@code \k<name>}.
+     */
+    static String requiredLiteral(String regex) {
+        if (regex == null || COMMENTS_FLAG.matcher(regex).find() || regex.contains("\\Q")) {
+            return null;
+        }
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        int depth = 0;
+        int classDepth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                char escaped = i + 1 < regex.length() ? regex.charAt(++i) : '\\';
+                if (!Character.isLetterOrDigit(escaped)) {
+                    if (depth == 0 && classDepth == 0) {
+                        run.append(escaped);
+                        continue;
+                    }
+                } else {
+                    i = escapeEnd(regex, i);
+                }
+            } else if (c == '[') {
+                classDepth++;
+            } else if (classDepth > 0) {
+                if (c == ']') {
+                    classDepth--;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth = Math.max(0, depth - 1);
+            } else if (c == '|' && depth == 0) {
+                return null;
+            } else if (c == '?' || c == '*' || c == '{') {
+                if (depth == 0 && run.length() > 0) {
+                    run.setLength(run.length() - 1);
+                }
+                if (c == '{') {
+                    int close = regex.indexOf('}', i);
+                    i = close < 0 ? regex.length() : close;
+                }
+            } else if (depth == 0 && c != '+' && c != '.' && c != '^' && c != '$') {
+                run.append(c);
+                continue;
+            }
+            if (run.length() > best.length()) {
+                best = run.toString();
+            }
+            run.setLength(0);
+        }
+        if (run.length() > best.length()) {
+            best = run.toString();
+        }
+        return best.isEmpty() ? null : best.toLowerCase(Locale.ROOT);
+    }
+
+    /** Index of the last character of the escape sequence whose first letter or digit is at {@code start}. */
+    private static int escapeEnd(String regex, int start) {
+        int last = regex.length() - 1;
+        int end = switch (regex.charAt(start)) {
+            case 'x' -> start + 1 <= last && regex.charAt(start + 1) == '{'
+                    ? closingIndex(regex, start + 1, '}')
+                    : start + 2;
+            case 'u' -> start + 4;
+            case 'c' -> start + 1;
+            case 'k' -> closingIndex(regex, start + 1, '>');
+            case 'p', 'P', 'N' -> start + 1 <= last && regex.charAt(start + 1) == '{'
+                    ? closingIndex(regex, start + 1, '}')
+                    : start + 1;
+            case '0' -> {
+                int digits = start + 3 <= last && regex.charAt(start + 1) <= '3' ? 3 : 2;
+                int end0 = start;
+                while (end0 < start + digits && end0 < last && isOctal(regex.charAt(end0 + 1))) {
+                    end0++;
+                }
+                yield end0;
+            }
+            default -> {
+                int endDigits = start;
+                if (Character.isDigit(regex.charAt(start))) {
+                    // Back reference: Java may read any following digits as part of the group number
+                    while (endDigits < last && Character.isDigit(regex.charAt(endDigits + 1))) {
+                        endDigits++;
+                    }
+                }
+                yield endDigits;
+            }
+        };
+        return Math.min(end, last);
+    }
+
+    private static int closingIndex(String regex, int from, char closing) {
+        int close = regex.indexOf(closing, from);
+        return close < 0 ? regex.length() - 1 : close;
+    }
+
+    private static boolean isOctal(char c) {
+        return c >= '0' && c <= '7';
+    }
+
     private String truncateSnippet(String value) {
         if (value == null) {
             return "";
@@ -252,32 +442,103 @@ public class PiiPciInspector {
         }
     }
 
+    /** Line splitting and per-line rule evaluation for one file; confined to the thread scanning it. */
+    private final class FileScan {
+
+        private final String relativePath;
+        private final boolean pathIgnored;
+        private final BitSet anchorHits = new BitSet(rulesByAnchor.length);
+        private final BitSet matched = new BitSet(rules.size());
+        private final List<PiiPciFindingRecord> findings = new ArrayList<>();
+        private int lineNumber;
+
+        private FileScan(String relativePath) {
+            this.relativePath = relativePath;
+            this.pathIgnored = isIgnored(relativePath);
+        }
+
+        /**
+         * Evaluates the complete lines between the buffer's position and limit, splitting on {@code \n},
+         * {@code \r} or {@code \r\n} like {@link java.io.BufferedReader#readLine()}, and leaves the position at
+         * the first unconsumed character. At the end of input the trailing unterminated line is evaluated too.
+         */
+        private void lines(CharBuffer chars, boolean endOfInput) {
+            int limit = chars.limit();
+            int lineStart = 0;
+            int i = 0;
+            while (i < limit) {
+                char c = chars.get(i);
+                if (c != '\n' && c != '\r') {
+                    i++;
+                    continue;
+                }
+                if (c == '\r' && i + 1 == limit && !endOfInput) {
+                    // The matching \n may be in the next chunk
+                    break;
+                }
+                evaluate(chars, lineStart, i, ++lineNumber);
+                i += c == '\r' && i + 1 < limit && chars.get(i + 1) == '\n' ? 2 : 1;
+                lineStart = i;
+            }
+            if (endOfInput && lineStart < limit) {
+                evaluate(chars, lineStart, limit, ++lineNumber);
+                lineStart = limit;
+            }
+            chars.position(lineStart);
+        }
+
+        private void evaluate(CharBuffer chars, int start, int end, int number) {
+            if (!hasText(chars, start, end)) {
+                return;
+            }
+            matchRules(chars, start, end, anchorHits, matched);
+            if (matched.isEmpty()) {
+                return;
+            }
+            CharSequence line = chars.subSequence(start, end);
+            boolean ignored = pathIgnored || isIgnored(line);
+            String snippet = truncateSnippet(line.toString());
+            for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+                CompiledRule rule = rules.get(i);
+                findings.add(new PiiPciFindingRecord(
+                        relativePath, number, snippet, rule.type(), rule.severity(), ignored));
+            }
+        }
+
+        private static boolean hasText(CharBuffer chars, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (!Character.isWhitespace(chars.get(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     private static final class CompiledRule {
 
-        private final String keyword;
         private final Pattern pattern;
+        private final String anchor;
         private final String type;
         private final String severity;
 
-        private CompiledRule(String keyword, Pattern pattern, String type, String severity) {
-            this.keyword = keyword;
+        /**
+         * @param anchor text that occurs in every line the rule matches: the keyword, or a literal required by the
+         *               pattern; {@code null} when the pattern has to run on every line
+         */
+        private CompiledRule(Pattern pattern, String anchor, String type, String severity) {
             this.pattern = pattern;
+            this.anchor = anchor;
             this.type = type;
             this.severity = severity;
         }
 
-        private boolean matches(String candidate) {
-            if (candidate == null) {
-                return false;
-            }
-            String content = candidate;
-            if (keyword != null && !content.toLowerCase(Locale.ROOT).contains(keyword)) {
-                return false;
-            }
-            if (pattern != null) {
-                return pattern.matcher(content).find();
-            }
-            return true;
+        private Pattern pattern() {
+            return pattern;
+        }
+
+        private String anchor() {
+            return anchor;
         }
 
         private String type() {
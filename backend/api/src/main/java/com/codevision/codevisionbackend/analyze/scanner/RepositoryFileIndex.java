@@ -0,0 +1,303 @@
+package com.codevision.codevisionbackend.analyze.scanner;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable listing of the files in a cloned repository, gathered by a single directory walk and shared by every
+ * scanner of an analysis run so the tree is traversed once instead of once per scanner.
+ *
+ * <p>Each file is classified by extension and source set while indexing, and {@link AnalysisExclusions} is
+ * evaluated exactly once per file. Scanners ask the index for pre-filtered, immutable views instead of walking
+ * the repository themselves.</p>
+ */
+public final class RepositoryFileIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryFileIndex.class);
+
+    /** Directories that never hold analysable content and are pruned from the walk. */
+    private static final Set<String> PRUNED_DIRECTORIES = Set.of(".git", "node_modules", ".idea", ".gradle");
+
+    /**
+     * Build output directories. They are indexed rather than pruned because {@code build} and {@code target}
+     * are legitimate package names below a Java source root; repository-wide scanners skip them via
+     * {@link IndexedFile#inBuildOutput()}.
+     */
+    private static final Set<String> BUILD_OUTPUT_DIRECTORIES = Set.of("target", "build");
+
+    private static final String MAIN_JAVA_ROOT = "src/main/java";
+    private static final String JAVA_EXTENSION = ".java";
+
+    private final Path root;
+    private final List<IndexedFile> files;
+    private final Map<String, List<IndexedFile>> filesByExtension;
+    private final Map<Path, List<IndexedFile>> javaFilesBySourceRoot;
+
+    private RepositoryFileIndex(Path root, List<IndexedFile> files) {
+        this.root = root;
+        this.files = List.copyOf(files);
+        Map<String, List<IndexedFile>> byExtension = new HashMap<>();
+        Map<Path, List<IndexedFile>> bySourceRoot = new HashMap<>();
+        for (IndexedFile file : this.files) {
+            byExtension.computeIfAbsent(file.extension(), key -> new ArrayList<>()).add(file);
+            if (JAVA_EXTENSION.equals(file.extension()) && file.mainSourceRoot() != null) {
+                bySourceRoot.computeIfAbsent(file.mainSourceRoot(), key -> new ArrayList<>()).add(file);
+            }
+        }
+        this.filesByExtension = freeze(byExtension);
+        this.javaFilesBySourceRoot = freeze(bySourceRoot);
+    }
+
+    /**
+     * Walks {@code repoRoot} once and indexes every regular file outside the pruned directories. Symbolic links
+     * are not followed: the clone is untrusted, and a committed link could otherwise point the scanners at files
+     * outside the repository. A missing root yields an empty index.
+     */
+    public static RepositoryFileIndex build(Path repoRoot) {
+        if (repoRoot == null) {
+            return new RepositoryFileIndex(null, List.of());
+        }
+        Path normalizedRoot = repoRoot.toAbsolutePath().normalize();
+        if (!Files.isDirectory(normalizedRoot)) {
+            return new RepositoryFileIndex(normalizedRoot, List.of());
+        }
+        List<IndexedFile> collected = new ArrayList<>();
+        try {
+            Files.walkFileTree(
+                    normalizedRoot,
+                    new SimpleFileVisitor<>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                            Path name = dir.getFileName();
+                            if (!dir.equals(normalizedRoot)
+                                    && name != null
+                                    && PRUNED_DIRECTORIES.contains(name.toString())) {
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            if (attrs.isRegularFile()) {
+                                collected.add(classify(normalizedRoot, file, attrs.size()));
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                            log.debug("Skipping unreadable path {}: {}", file, exc.getMessage());
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Failed indexing repository {}: {}", normalizedRoot, e.getMessage());
+        }
+        collected.sort(Comparator.comparing(IndexedFile::relativePath));
+        log.debug("Indexed {} files under {}", collected.size(), normalizedRoot);
+        return new RepositoryFileIndex(normalizedRoot, collected);
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /** Every indexed file, ordered by repository-relative path. */
+    public List<IndexedFile> files() {
+        return files;
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * A view of this index holding only the files accepted by {@code keep}. Incremental runs hand such a view to
+     * the scanners so that only changed files are read and parsed while the rest of the tree is still described.
+     */
+    public RepositoryFileIndex restrictTo(Predicate<IndexedFile> keep) {
+        if (keep == null) {
+            return this;
+        }
+        return new RepositoryFileIndex(root, files.stream().filter(keep).toList());
+    }
+
+    /** Files whose lower-cased extension (including the leading dot) is {@code extension}. */
+    public List<IndexedFile> withExtension(String extension) {
+        if (extension == null) {
+            return List.of();
+        }
+        return filesByExtension.getOrDefault(extension.toLowerCase(Locale.ROOT), List.of());
+    }
+
+    /** Files matching any of {@code extensions}, ordered by repository-relative path. */
+    public List<IndexedFile> withExtensions(Collection<String> extensions) {
+        if (extensions == null || extensions.isEmpty()) {
+            return List.of();
+        }
+        Set<String> wanted = new LinkedHashSet<>();
+        extensions.forEach(extension -> wanted.add(extension.toLowerCase(Locale.ROOT)));
+        return files.stream().filter(file -> wanted.contains(file.extension())).toList();
+    }
+
+    /** Files whose name equals {@code fileName}, compared case-sensitively. */
+    public List<IndexedFile> named(String fileName) {
+        if (fileName == null) {
+            return List.of();
+        }
+        return files.stream().filter(file -> file.fileName().equals(fileName)).toList();
+    }
+
+    /** Files located under any of {@code roots}; each file is returned once even when roots overlap. */
+    public List<IndexedFile> under(Collection<Path> roots) {
+        if (roots == null || roots.isEmpty()) {
+            return files;
+        }
+        List<Path> normalizedRoots = roots.stream()
+                .filter(Objects::nonNull)
+                .map(path -> path.toAbsolutePath().normalize())
+                .distinct()
+                .toList();
+        if (normalizedRoots.contains(root)) {
+            return files;
+        }
+        return files.stream()
+                .filter(file -> normalizedRoots.stream().anyMatch(file.path()::startsWith))
+                .toList();
+    }
+
+    /**
+     * All {@code .java} files below {@code <module>/src/main/java} of the given modules, in module order and
+     * without duplicates, including files that {@link AnalysisExclusions} marks as test or mock sources.
+     */
+    public List<IndexedFile> mainJavaSources(Collection<Path> moduleRoots) {
+        if (moduleRoots == null || moduleRoots.isEmpty()) {
+            return List.of();
+        }
+        Set<Path> sourceRoots = new LinkedHashSet<>();
+        for (Path moduleRoot : moduleRoots) {
+            if (moduleRoot != null) {
+                sourceRoots.add(moduleRoot.toAbsolutePath().normalize().resolve(MAIN_JAVA_ROOT));
+            }
+        }
+        List<IndexedFile> sources = new ArrayList<>();
+        for (Path sourceRoot : sourceRoots) {
+            sources.addAll(javaFilesBySourceRoot.getOrDefault(sourceRoot, List.of()));
+        }
+        return List.copyOf(sources);
+    }
+
+    /** Same as {@link #mainJavaSources(Collection)} with test and mock sources already removed. */
+    public List<Path> analyzableJavaSources(Collection<Path> moduleRoots) {
+        return mainJavaSources(moduleRoots).stream()
+                .filter(file -> !file.excluded())
+                .map(IndexedFile::path)
+                .toList();
+    }
+
+    private static IndexedFile classify(Path root, Path file, long size) {
+        String relativePath = relativize(root, file);
+        String fileName = file.getFileName().toString();
+        int lastDot = fileName.lastIndexOf('.');
+        String extension = lastDot > 0 ? fileName.substring(lastDot).toLowerCase(Locale.ROOT) : "";
+        SourceSet sourceSet = AnalysisExclusions.isTestPath("/" + relativePath)
+                ? SourceSet.TEST
+                : relativePath.contains("src/main/") ? SourceSet.MAIN : SourceSet.OTHER;
+        return new IndexedFile(
+                file,
+                relativePath,
+                fileName,
+                extension,
+                size,
+                sourceSet,
+                AnalysisExclusions.isExcludedPath(file),
+                hasDirectoryNamed(relativePath, BUILD_OUTPUT_DIRECTORIES),
+                mainSourceRoot(root, relativePath));
+    }
+
+    private static boolean hasDirectoryNamed(String relativePath, Set<String> directoryNames) {
+        String[] segments = relativePath.split("/");
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (directoryNames.contains(segments[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path mainSourceRoot(Path root, String relativePath) {
+        String candidate = "/" + relativePath;
+        int index = candidate.indexOf("/" + MAIN_JAVA_ROOT + "/");
+        if (index < 0) {
+            return null;
+        }
+        String prefix = candidate.substring(1, index + MAIN_JAVA_ROOT.length() + 1);
+        return root.resolve(prefix).normalize();
+    }
+
+    private static String relativize(Path root, Path file) {
+        try {
+            return root.relativize(file).toString().replace('\\', '/');
+        } catch (IllegalArgumentException ex) {
+            return file.getFileName().toString();
+        }
+    }
+
+    private static <K> Map<K, List<IndexedFile>> freeze(Map<K, List<IndexedFile>> source) {
+        Map<K, List<IndexedFile>> frozen = new HashMap<>();
+        source.forEach((key, value) -> frozen.put(key, List.copyOf(value)));
+        return Map.copyOf(frozen);
+    }
+
+    /** Coarse source-set classification derived from conventional Maven/Gradle layout. */
+    public enum SourceSet {
+        MAIN,
+        TEST,
+        OTHER
+    }
+
+    /**
+     * A single indexed file.
+     *
+     * @param path           absolute path as reached by the walk
+     * @param relativePath   path relative to the repository root using {@code /} separators
+     * @param extension      lower-cased extension including the leading dot, or empty
+     * @param excluded       whether {@link AnalysisExclusions#isExcludedPath(Path)} rejects the file
+     * @param inBuildOutput  whether the file sits below a {@code target} or {@code build} directory
+     * @param mainSourceRoot the enclosing {@code src/main/java} directory, or {@code null}
+     */
+    public record IndexedFile(
+            Path path,
+            String relativePath,
+            String fileName,
+            String extension,
+            long size,
+            SourceSet sourceSet,
+            boolean excluded,
+            boolean inBuildOutput,
+            Path mainSourceRoot) {
+
+        /** Whether any directory between the repository root and this file is named {@code directoryName}. */
+        public boolean isBelowDirectory(String directoryName) {
+            return hasDirectoryNamed(relativePath, Set.of(directoryName));
+        }
+    }
+}
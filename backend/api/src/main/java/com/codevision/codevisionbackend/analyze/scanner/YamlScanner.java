@@ -1,15 +1,11 @@
 package com.codevision.codevisionbackend.analyze.scanner;
 
 import com.codevision.codevisionbackend.analyze.MetadataDump;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex.IndexedFile;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -21,8 +17,7 @@ import org.springframework.stereotype.Component;
 public class YamlScanner {
 
     private static final Logger log = LoggerFactory.getLogger(YamlScanner.class);
-    private static final Set<String> IGNORED_DIRECTORIES =
-            Set.of(".git", "target", "build", "node_modules", ".idea", ".gradle");
+    private static final Set<String> SPEC_EXTENSIONS = Set.of(".yml", ".yaml", ".wsdl", ".xsd");
 
     private final WsdlInspector wsdlInspector;
 
@@ -31,7 +26,11 @@ public class YamlScanner {
     }
 
     public MetadataDump scan(Path repoRoot) {
-        if (!Files.exists(repoRoot)) {
+        return scan(repoRoot, RepositoryFileIndex.build(repoRoot));
+    }
+
+    public MetadataDump scan(Path repoRoot, RepositoryFileIndex fileIndex) {
+        if (repoRoot == null || !Files.exists(repoRoot)) {
             return MetadataDump.empty();
         }
 
@@ -40,55 +39,28 @@ public class YamlScanner {
         List<MetadataDump.SpecDocument> xsdDocuments = new ArrayList<>();
         List<MetadataDump.SoapServiceSummary> soapServices = new ArrayList<>();
 
-        FileVisitor<Path> visitor = new SimpleFileVisitor<>() {
-
-            private final Set<Path> visitedDirectories = new HashSet<>();
-
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-                Path dirName = dir.getFileName();
-                if (dirName != null && IGNORED_DIRECTORIES.contains(dirName.toString())) {
-                    return FileVisitResult.SKIP_SUBTREE;
-                }
-                Path normalized = dir.toAbsolutePath().normalize();
-                if (!visitedDirectories.add(normalized)) {
-                    return FileVisitResult.SKIP_SUBTREE;
-                }
-                return FileVisitResult.CONTINUE;
+        for (IndexedFile file : fileIndex.withExtensions(SPEC_EXTENSIONS)) {
+            if (file.inBuildOutput()) {
+                continue;
             }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                if (!attrs.isRegularFile()) {
-                    return FileVisitResult.CONTINUE;
-                }
-
-                String filename = file.getFileName().toString();
-                String normalized = filename.toLowerCase(Locale.ROOT);
-                try {
-                    if (isOpenApiFile(normalized)) {
-                        readFile(file).ifPresent(content -> openApiSpecs.add(
-                                new MetadataDump.OpenApiSpec(filename, content)));
-                    } else if (normalized.endsWith(".wsdl")) {
-                        readFile(file).ifPresent(content -> {
-                            wsdlDocuments.add(new MetadataDump.SpecDocument(filename, content));
-                            soapServices.addAll(wsdlInspector.inspect(content, filename));
-                        });
-                    } else if (normalized.endsWith(".xsd")) {
-                        readFile(file)
-                                .ifPresent(content -> xsdDocuments.add(new MetadataDump.SpecDocument(filename, content)));
-                    }
-                } catch (Exception ex) {
-                    log.debug("Failed processing file {}: {}", file, ex.getMessage());
+            String filename = file.fileName();
+            String normalized = filename.toLowerCase(Locale.ROOT);
+            try {
+                if (isOpenApiFile(normalized)) {
+                    readFile(file.path()).ifPresent(content -> openApiSpecs.add(
+                            new MetadataDump.OpenApiSpec(filename, content)));
+                } else if (normalized.endsWith(".wsdl")) {
+                    readFile(file.path()).ifPresent(content -> {
+                        wsdlDocuments.add(new MetadataDump.SpecDocument(filename, content));
+                        soapServices.addAll(wsdlInspector.inspect(content, filename));
+                    });
+                } else if (normalized.endsWith(".xsd")) {
+                    readFile(file.path())
+                            .ifPresent(content -> xsdDocuments.add(new MetadataDump.SpecDocument(filename, content)));
                 }
-                return FileVisitResult.CONTINUE;
+            } catch (Exception ex) {
+                log.debug("Failed processing file {}: {}", file.path(), ex.getMessage());
             }
-        };
-
-        try {
-            Files.walkFileTree(repoRoot, visitor);
-        } catch (IOException e) {
-            log.warn("Failed walking YAML/XML files at {}: {}", repoRoot, e.getMessage());
         }
 
         if (openApiSpecs.isEmpty() && wsdlDocuments.isEmpty() && xsdDocuments.isEmpty() && soapServices.isEmpty()) {
@@ -28,11 +28,15 @@ import com.codevision.codevisionbackend.api.model.ProjectPiiPciResponse;
 import com.codevision.codevisionbackend.api.model.ProjectSnapshotSummary;
 import com.codevision.codevisionbackend.api.model.ProjectSnapshotsResponse;
 import com.codevision.codevisionbackend.api.model.SnapshotClassRef;
+import com.codevision.codevisionbackend.api.model.SnapshotDaoOperationRef;
 import com.codevision.codevisionbackend.api.model.SnapshotDbEntityRef;
+import com.codevision.codevisionbackend.api.model.SnapshotDiagramRef;
 import com.codevision.codevisionbackend.api.model.SnapshotDiff;
 import com.codevision.codevisionbackend.api.model.SnapshotEndpointRef;
 import com.codevision.codevisionbackend.project.SnapshotDiff.ClassRef;
+import com.codevision.codevisionbackend.project.SnapshotDiff.DaoOperationRef;
 import com.codevision.codevisionbackend.project.SnapshotDiff.DbEntityRef;
+import com.codevision.codevisionbackend.project.SnapshotDiff.DiagramRef;
 import com.codevision.codevisionbackend.project.SnapshotDiff.EndpointRef;
 import java.net.URI;
 import java.util.Collections;
@@ -362,6 +366,15 @@ public class ApiModelMapper {
         snapshotDiff.setRemovedEndpoints(mapEndpointRefs(diff.removedEndpoints()));
         snapshotDiff.setAddedEntities(mapEntityRefs(diff.addedEntities()));
         snapshotDiff.setRemovedEntities(mapEntityRefs(diff.removedEntities()));
+        snapshotDiff.setAddedDaoOperations(mapDaoOperationRefs(diff.addedDaoOperations()));
+        snapshotDiff.setRemovedDaoOperations(mapDaoOperationRefs(diff.removedDaoOperations()));
+        snapshotDiff.setChangedDaoOperations(mapDaoOperationRefs(diff.changedDaoOperations()));
+        snapshotDiff.setAddedDiagrams(mapDiagramRefs(diff.addedDiagrams()));
+        snapshotDiff.setRemovedDiagrams(mapDiagramRefs(diff.removedDiagrams()));
+        snapshotDiff.setChangedDiagrams(mapDiagramRefs(diff.changedDiagrams()));
+        snapshotDiff.setAddedCallFlows(diff.addedCallFlows());
+        snapshotDiff.setRemovedCallFlows(diff.removedCallFlows());
+        snapshotDiff.setChangedCallFlows(diff.changedCallFlows());
         return snapshotDiff;
     }
 
@@ -399,6 +412,30 @@ public class ApiModelMapper {
                 .toList();
     }
 
+    private List<SnapshotDaoOperationRef> mapDaoOperationRefs(List<DaoOperationRef> refs) {
+        if (refs == null) {
+            return List.of();
+        }
+        return refs.stream()
+                .map(ref -> new SnapshotDaoOperationRef()
+                        .repositoryClass(ref.repositoryClass())
+                        .methodName(ref.methodName())
+                        .operationType(ref.operationType())
+                        .target(ref.target()))
+                .toList();
+    }
+
+    private List<SnapshotDiagramRef> mapDiagramRefs(List<DiagramRef> refs) {
+        if (refs == null) {
+            return List.of();
+        }
+        return refs.stream()
+                .map(ref -> new SnapshotDiagramRef()
+                        .diagramType(ref.diagramType())
+                        .title(ref.title()))
+                .toList();
+    }
+
     public ProjectMetadataResponse toProjectMetadataResponse(Long projectId, ParsedDataResponse snapshot) {
         if (snapshot == null) {
             return null;
@@ -0,0 +1,96 @@
+package com.codevision.codevisionbackend.config;
+
+import com.codevision.codevisionbackend.analyze.scanner.ParsedSourceCache;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning knobs for the source analysis pipeline run by {@code AnalysisService}.
+ */
+@ConfigurationProperties(prefix = "analysis.pipeline")
+public class AnalysisPipelineProperties {
+
+    private ParseCacheProperties parseCache = new ParseCacheProperties();
+    private ParsingProperties parsing = new ParsingProperties();
+    private StageProperties stages = new StageProperties();
+
+    public ParseCacheProperties getParseCache() {
+        return parseCache;
+    }
+
+    public void setParseCache(ParseCacheProperties parseCache) {
+        this.parseCache = parseCache == null ? new ParseCacheProperties() : parseCache;
+    }
+
+    public ParsingProperties getParsing() {
+        return parsing;
+    }
+
+    public void setParsing(ParsingProperties parsing) {
+        this.parsing = parsing == null ? new ParsingProperties() : parsing;
+    }
+
+    public StageProperties getStages() {
+        return stages;
+    }
+
+    public void setStages(StageProperties stages) {
+        this.stages = stages == null ? new StageProperties() : stages;
+    }
+
+    public static class ParseCacheProperties {
+        private long maxSourceBytes = ParsedSourceCache.DEFAULT_MAX_WEIGHT_BYTES;
+
+        public long getMaxSourceBytes() {
+            return maxSourceBytes;
+        }
+
+        public void setMaxSourceBytes(long maxSourceBytes) {
+            this.maxSourceBytes = maxSourceBytes;
+        }
+    }
+
+    /**
+     * Per-file parsing parallelism used by scanners that parse sources in fork-join mode. One keeps parsing
+     * sequential; zero or a negative value uses every available processor.
+     */
+    public static class ParsingProperties {
+        private int parallelism;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public int resolveParallelism() {
+            return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+
+    /**
+     * Sizing of the {@code analysisStageExecutor} pool that runs independent analysis stages concurrently. It is
+     * shared by all running analyses and kept apart from {@code analysisJobExecutor}, which only runs whole jobs.
+     */
+    public static class StageProperties {
+        private int parallelism = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+        private int queueCapacity = 256;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
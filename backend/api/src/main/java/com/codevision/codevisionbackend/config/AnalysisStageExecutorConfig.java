@@ -0,0 +1,33 @@
+package com.codevision.codevisionbackend.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AnalysisStageExecutorConfig {
+
+    private final AnalysisPipelineProperties properties;
+
+    public AnalysisStageExecutorConfig(AnalysisPipelineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(name = "analysisStageExecutor")
+    public ThreadPoolTaskExecutor analysisStageExecutor() {
+        AnalysisPipelineProperties.StageProperties stages = properties.getStages();
+        int parallelism = Math.max(1, stages.getParallelism());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("analysis-stage-");
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(Math.max(0, stages.getQueueCapacity()));
+        // A saturated pool degrades to running the stage on the thread that completed its last dependency.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.context.annotation.Configuration;
     SecurityScanProperties.class,
     DiagramStorageProperties.class,
     AnalysisJobExecutorProperties.class,
+    AnalysisPipelineProperties.class,
     CompiledAnalysisProperties.class,
     PdfExportProperties.class,
     SvgExportProperties.class,
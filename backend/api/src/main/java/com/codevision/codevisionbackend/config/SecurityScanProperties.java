@@ -12,6 +12,15 @@ public class SecurityScanProperties {
     private List<Rule> rules = new ArrayList<>();
     private List<String> ignorePatterns = new ArrayList<>();
 
+    /**
+     * Number of files inspected concurrently; zero or a negative value uses every available processor.
+     */
+    private int parallelism;
+
+    public int resolveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
     @Data
     public static class Rule {
 
@@ -4,15 +4,30 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
  * Type-safe configuration properties for tree-sitter integration.
+ *
+ * <p>{@code poolSize} long-lived Node.js workers serve parse requests; each
+ * round trip carries up to {@code batchSize} files and may take
+ * {@code timeoutSeconds} per file. Idle workers are pinged every
+ * {@code healthCheckIntervalSeconds} and replaced when they stop answering.
+ * When the workers keep failing, parsing falls back to placeholders for
+ * {@code recoveryCooldownSeconds} before the workers are restarted.</p>
  */
 @ConfigurationProperties(prefix = "codevision.tree-sitter")
 public record TreeSitterProperties(
         boolean enabled,
         String nodePath,
         String scriptPath,
-        int timeoutSeconds
+        int timeoutSeconds,
+        int poolSize,
+        int batchSize,
+        int healthCheckIntervalSeconds,
+        int recoveryCooldownSeconds
 ) {
     public TreeSitterProperties() {
         this(true, "node", "scripts/tree-sitter-parse.js", 30);
     }
+
+    public TreeSitterProperties(boolean enabled, String nodePath, String scriptPath, int timeoutSeconds) {
+        this(enabled, nodePath, scriptPath, timeoutSeconds, 2, 32, 30, 60);
+    }
 }
@@ -0,0 +1,247 @@
+package com.codevision.codevisionbackend.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Frozen, primitive view of a {@link KnowledgeGraph} for graph algorithms.
+ *
+ * <p>Nodes get dense {@code int} ids {@code 0..nodeCount()-1}; adjacency is
+ * stored in compressed-sparse-row form. For node {@code v} the out-neighbours
+ * are {@code outTargets()[outOffsets()[v] .. outOffsets()[v + 1])}, and the
+ * in-neighbours are read the same way from {@link #inOffsets()} and
+ * {@link #inSources()}. Directed adjacency is de-duplicated, sorted per node
+ * and keeps self-loops. Edges with a {@code null} endpoint, or an endpoint
+ * that is not a node of the graph, are dropped.</p>
+ *
+ * <p>The undirected, weighted view used by community detection and closeness
+ * is built lazily on first use. There, the weight of a pair is the number of
+ * directed edges between the two nodes, and self-loops are excluded.</p>
+ *
+ * <p>The arrays returned by the accessors are shared and must be treated as
+ * read-only. Instances are immutable and safe to share between threads.</p>
+ */
+public final class CompactGraph {
+
+    private final String[] ids;
+    private final Map<String, Integer> indexById;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final long[] rawPairs;
+    private volatile WeightedAdjacency undirected;
+
+    private CompactGraph(String[] ids, Map<String, Integer> indexById, long[] rawPairs) {
+        this.ids = ids;
+        this.indexById = indexById;
+        this.rawPairs = rawPairs;
+
+        long[] directed = Arrays.copyOf(rawPairs, rawPairs.length);
+        Arrays.sort(directed);
+        int distinct = dedupe(directed);
+        int n = ids.length;
+
+        this.outOffsets = new int[n + 1];
+        this.outTargets = new int[distinct];
+        this.inOffsets = new int[n + 1];
+        this.inSources = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            outOffsets[source(directed[i]) + 1]++;
+            inOffsets[target(directed[i]) + 1]++;
+        }
+        prefixSum(outOffsets);
+        prefixSum(inOffsets);
+        int[] inCursor = Arrays.copyOf(inOffsets, n);
+        for (int i = 0; i < distinct; i++) {
+            // directed is sorted by (source, target), so targets land sorted per source
+            outTargets[i] = target(directed[i]);
+            inSources[inCursor[target(directed[i])]++] = source(directed[i]);
+        }
+    }
+
+    /**
+     * Builds the compact view of {@code graph}. Prefer {@link KnowledgeGraph#compact()},
+     * which caches the result until the graph is next modified.
+     *
+     * @param graph the graph to freeze
+     * @return the compact view
+     */
+    public static CompactGraph of(KnowledgeGraph graph) {
+        var nodes = graph.getNodes().keySet();
+        String[] ids = nodes.toArray(new String[0]);
+        Map<String, Integer> indexById = new HashMap<>(Math.max(16, ids.length * 4 / 3 + 1));
+        for (int i = 0; i < ids.length; i++) {
+            indexById.put(ids[i], i);
+        }
+
+        var edges = graph.getEdges();
+        long[] pairs = new long[edges.size()];
+        int count = 0;
+        for (KgEdge edge : edges) {
+            if (edge.sourceNodeId() == null || edge.targetNodeId() == null) {
+                continue;
+            }
+            Integer source = indexById.get(edge.sourceNodeId());
+            Integer target = indexById.get(edge.targetNodeId());
+            if (source != null && target != null) {
+                pairs[count++] = pair(source, target);
+            }
+        }
+        return new CompactGraph(ids, indexById, Arrays.copyOf(pairs, count));
+    }
+
+    /** Number of nodes. */
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    /** Number of distinct directed edges, self-loops included. */
+    public int edgeCount() {
+        return outTargets.length;
+    }
+
+    /** The node id for dense index {@code node}. */
+    public String id(int node) {
+        return ids[node];
+    }
+
+    /** The dense index of {@code id}, or {@code -1} when it is not a node. */
+    public int indexOf(String id) {
+        Integer index = id == null ? null : indexById.get(id);
+        return index == null ? -1 : index;
+    }
+
+    public int[] outOffsets() {
+        return outOffsets;
+    }
+
+    public int[] outTargets() {
+        return outTargets;
+    }
+
+    public int[] inOffsets() {
+        return inOffsets;
+    }
+
+    public int[] inSources() {
+        return inSources;
+    }
+
+    /** Number of distinct out-neighbours of {@code node}. */
+    public int outDegree(int node) {
+        return outOffsets[node + 1] - outOffsets[node];
+    }
+
+    /** Number of distinct in-neighbours of {@code node}. */
+    public int inDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    /**
+     * Undirected adjacency where each pair is weighted by the number of
+     * directed edges joining it, self-loops excluded. Built on first call.
+     */
+    public WeightedAdjacency undirected() {
+        WeightedAdjacency result = undirected;
+        if (result == null) {
+            synchronized (this) {
+                result = undirected;
+                if (result == null) {
+                    result = buildUndirected();
+                    undirected = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Maps per-node values back to node ids.
+     *
+     * @param values one value per dense index
+     * @return a mutable map from node id to value
+     */
+    public Map<String, Double> toMap(double[] values) {
+        Map<String, Double> result = new HashMap<>(Math.max(16, ids.length * 4 / 3 + 1));
+        for (int i = 0; i < ids.length; i++) {
+            result.put(ids[i], values[i]);
+        }
+        return result;
+    }
+
+    /** Undirected CSR adjacency with per-neighbour weights. */
+    public record WeightedAdjacency(int[] offsets, int[] neighbors, double[] weights) {
+
+        /** Sum of the weights incident to {@code node}. */
+        public double degree(int node) {
+            double degree = 0;
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                degree += weights[i];
+            }
+            return degree;
+        }
+    }
+
+    private WeightedAdjacency buildUndirected() {
+        long[] both = new long[rawPairs.length * 2];
+        int count = 0;
+        for (long raw : rawPairs) {
+            int source = source(raw);
+            int target = target(raw);
+            if (source != target) {
+                both[count++] = pair(source, target);
+                both[count++] = pair(target, source);
+            }
+        }
+        both = Arrays.copyOf(both, count);
+        Arrays.sort(both);
+
+        int n = ids.length;
+        int[] offsets = new int[n + 1];
+        int[] neighbors = new int[count];
+        double[] weights = new double[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size > 0 && both[i] == both[i - 1]) {
+                weights[size - 1] += 1.0;
+                continue;
+            }
+            neighbors[size] = target(both[i]);
+            weights[size] = 1.0;
+            offsets[source(both[i]) + 1]++;
+            size++;
+        }
+        prefixSum(offsets);
+        return new WeightedAdjacency(offsets, Arrays.copyOf(neighbors, size), Arrays.copyOf(weights, size));
+    }
+
+    private static long pair(int source, int target) {
+        return ((long) source << 32) | (target & 0xffffffffL);
+    }
+
+    private static int source(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    private static int target(long pair) {
+        return (int) pair;
+    }
+
+    private static int dedupe(long[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size;
+    }
+
+    private static void prefixSum(int[] offsets) {
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+    }
+}
@@ -52,30 +52,30 @@ public final class GraphModelAdapter {
             return new KnowledgeGraph();
         }
 
-        KnowledgeGraph kg = new KnowledgeGraph();
+        KnowledgeGraphBuilder builder = new KnowledgeGraphBuilder();
 
         // Convert ClassNodes
         for (Map.Entry<String, ClassNode> entry : model.getClasses().entrySet()) {
             ClassNode cn = entry.getValue();
-            kg.addNode(convertClassNode(cn));
+            builder.withNode(convertClassNode(cn));
         }
 
         // Convert EndpointNodes
         for (EndpointNode ep : model.getEndpoints()) {
-            kg.addNode(convertEndpointNode(ep));
+            builder.withNode(convertEndpointNode(ep));
         }
 
         // Convert DependencyEdges
         for (DependencyEdge dep : model.getDependencyEdges()) {
-            kg.addEdge(convertDependencyEdge(dep));
+            builder.withEdge(convertDependencyEdge(dep));
         }
 
         // Convert MethodCallEdges
         for (MethodCallEdge mce : model.getMethodCallEdges()) {
-            kg.addEdge(convertMethodCallEdge(mce));
+            builder.withEdge(convertMethodCallEdge(mce));
         }
 
-        return kg;
+        return builder.build();
     }
 
     // ── Knowledge Graph -> Legacy ────────────────────────────────────────
@@ -2,12 +2,18 @@ package com.codevision.codevisionbackend.graph;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Thread-safe, mutable container that accumulates {@link KgNode nodes} and
@@ -16,27 +22,86 @@ import java.util.concurrent.CopyOnWriteArrayList;
  *
  * <p>This is deliberately <em>not</em> a record because it holds mutable state
  * that is built up incrementally as scanners produce results.</p>
+ *
+ * <p>A graph can also be <em>frozen</em> ({@link #freeze()},
+ * {@link KnowledgeGraphBuilder#buildFrozen()}). A frozen graph has the same
+ * query API, backed by plain hash maps and array lists, and rejects every
+ * mutation with {@link UnsupportedOperationException}. Bulk paths
+ * ({@link KnowledgeGraphBuilder}, {@link #merge}, the Jackson setters) group
+ * the incoming elements per index key first, so each copy-on-write list is
+ * copied once per batch rather than once per edge.</p>
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class KnowledgeGraph {
 
+    /** Whether this graph is read-only; see {@link #freeze()}. */
+    private final boolean frozen;
+
     /** Primary node store keyed by {@link KgNode#id()}. */
-    private final Map<String, KgNode> nodes = new ConcurrentHashMap<>();
+    private final Map<String, KgNode> nodes;
 
     /** Ordered list of all edges in insertion order. */
-    private final List<KgEdge> edges = new CopyOnWriteArrayList<>();
+    private final List<KgEdge> edges;
 
     /** Forward adjacency index: source node id -> outgoing edges. */
-    private final Map<String, List<KgEdge>> outEdges = new ConcurrentHashMap<>();
+    private final Map<String, List<KgEdge>> outEdges;
 
     /** Reverse adjacency index: target node id -> incoming edges. */
-    private final Map<String, List<KgEdge>> inEdges = new ConcurrentHashMap<>();
+    private final Map<String, List<KgEdge>> inEdges;
 
     /** Type index for nodes: node type -> set of node ids. */
-    private final Map<KgNodeType, Set<String>> nodesByType = new ConcurrentHashMap<>();
+    private final Map<KgNodeType, Set<String>> nodesByType;
 
     /** Type index for edges: edge type -> edges of that type. */
-    private final Map<KgEdgeType, List<KgEdge>> edgesByType = new ConcurrentHashMap<>();
+    private final Map<KgEdgeType, List<KgEdge>> edgesByType;
+
+    /** Bumped on every mutation so a cached {@link CompactGraph} can be recognised as stale. */
+    private final AtomicLong version = new AtomicLong();
+
+    /** Frozen primitive view for algorithms, tagged with the version it was built from. */
+    private volatile CachedCompact compact;
+
+    /**
+     * Creates an empty, mutable graph.
+     */
+    public KnowledgeGraph() {
+        this.frozen = false;
+        this.nodes = new ConcurrentHashMap<>();
+        this.edges = new CopyOnWriteArrayList<>();
+        this.outEdges = new ConcurrentHashMap<>();
+        this.inEdges = new ConcurrentHashMap<>();
+        this.nodesByType = new ConcurrentHashMap<>();
+        this.edgesByType = new ConcurrentHashMap<>();
+    }
+
+    /** Creates a frozen graph over fully built, read-only indices. */
+    private KnowledgeGraph(Indices indices) {
+        this.frozen = true;
+        this.nodes = Collections.unmodifiableMap(indices.nodes);
+        this.edges = Collections.unmodifiableList(indices.edges);
+        this.outEdges = unmodifiableLists(indices.outEdges);
+        this.inEdges = unmodifiableLists(indices.inEdges);
+        Map<KgNodeType, Set<String>> byType = new HashMap<>();
+        indices.nodesByType.forEach((type, ids) -> byType.put(type, Collections.unmodifiableSet(ids)));
+        this.nodesByType = Collections.unmodifiableMap(byType);
+        this.edgesByType = unmodifiableLists(indices.edgesByType);
+    }
+
+    /**
+     * Builds a graph from {@code nodes} and {@code edges} in one pass, with the
+     * same result as adding each in order. Used by {@link KnowledgeGraphBuilder}.
+     */
+    static KnowledgeGraph of(Collection<KgNode> nodes, List<KgEdge> edges, boolean frozen) {
+        Indices indices = new Indices();
+        nodes.forEach(indices::add);
+        edges.forEach(indices::add);
+        if (frozen) {
+            return new KnowledgeGraph(indices);
+        }
+        KnowledgeGraph graph = new KnowledgeGraph();
+        graph.append(indices);
+        return graph;
+    }
 
     // ── Accessors (for Jackson serialization) ────────────────────────────
 
@@ -66,7 +131,9 @@ public class KnowledgeGraph {
      */
     public void setNodes(Map<String, KgNode> incoming) {
         if (incoming == null) return;
-        incoming.values().forEach(this::addNode);
+        Indices indices = new Indices();
+        incoming.values().forEach(indices::add);
+        append(indices);
     }
 
     /**
@@ -75,7 +142,9 @@ public class KnowledgeGraph {
      */
     public void setEdges(List<KgEdge> incoming) {
         if (incoming == null) return;
-        incoming.forEach(this::addEdge);
+        Indices indices = new Indices();
+        incoming.forEach(indices::add);
+        append(indices);
     }
 
     // ── Mutation ─────────────────────────────────────────────────────────
@@ -87,10 +156,12 @@ public class KnowledgeGraph {
      * @param node the node to add; must not be {@code null}
      */
     public void addNode(KgNode node) {
+        checkMutable();
         if (node == null || node.id() == null) {
             return;
         }
         nodes.put(node.id(), node);
+        version.incrementAndGet();
         nodesByType
                 .computeIfAbsent(node.type(), k -> ConcurrentHashMap.newKeySet())
                 .add(node.id());
@@ -102,10 +173,12 @@ public class KnowledgeGraph {
      * @param edge the edge to add; must not be {@code null}
      */
     public void addEdge(KgEdge edge) {
+        checkMutable();
         if (edge == null || edge.id() == null) {
             return;
         }
         edges.add(edge);
+        version.incrementAndGet();
 
         if (edge.sourceNodeId() != null) {
             outEdges
@@ -122,6 +195,72 @@ public class KnowledgeGraph {
                 .add(edge);
     }
 
+    /**
+     * Adds every node and edge of {@code shard} to this graph, as if each had
+     * been passed to {@link #addNode} and {@link #addEdge} in the shard's order,
+     * but appending to each index list in one step. Use it to combine graphs
+     * built independently, without paying one copy-on-write copy per edge.
+     *
+     * @param shard the graph to fold in; left unchanged
+     */
+    public void merge(KnowledgeGraph shard) {
+        if (shard == null || shard == this) {
+            return;
+        }
+        Indices indices = new Indices();
+        shard.nodes.values().forEach(indices::add);
+        shard.edges.forEach(indices::add);
+        append(indices);
+    }
+
+    /**
+     * Returns a frozen copy of this graph, or this graph if it is already
+     * frozen. Later changes to this graph do not affect the copy.
+     *
+     * @return a read-only graph with the same nodes and edges
+     */
+    public KnowledgeGraph freeze() {
+        if (frozen) {
+            return this;
+        }
+        return of(nodes.values(), List.copyOf(edges), true);
+    }
+
+    /**
+     * Returns whether this graph is frozen and rejects mutation.
+     *
+     * @return {@code true} for a frozen graph
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Knowledge graph is frozen");
+        }
+    }
+
+    /** Appends pre-grouped elements with one {@code addAll} per index entry. */
+    private void append(Indices indices) {
+        checkMutable();
+        nodes.putAll(indices.nodes);
+        indices.nodesByType.forEach((type, ids) -> nodesByType
+                .computeIfAbsent(type, k -> ConcurrentHashMap.newKeySet())
+                .addAll(ids));
+        edges.addAll(indices.edges);
+        indices.outEdges.forEach((id, list) -> outEdges
+                .computeIfAbsent(id, k -> new CopyOnWriteArrayList<>())
+                .addAll(list));
+        indices.inEdges.forEach((id, list) -> inEdges
+                .computeIfAbsent(id, k -> new CopyOnWriteArrayList<>())
+                .addAll(list));
+        indices.edgesByType.forEach((type, list) -> edgesByType
+                .computeIfAbsent(type, k -> new CopyOnWriteArrayList<>())
+                .addAll(list));
+        version.incrementAndGet();
+    }
+
     // ── Query ────────────────────────────────────────────────────────────
 
     /**
@@ -192,6 +331,26 @@ public class KnowledgeGraph {
         return edgesByType.getOrDefault(type, List.of());
     }
 
+    /**
+     * Returns the compact, int-indexed view of this graph, building it on
+     * first use and reusing it until the next {@link #addNode} or
+     * {@link #addEdge}.
+     *
+     * @return compact view of the current nodes and edges
+     */
+    public CompactGraph compact() {
+        long current = version.get();
+        CachedCompact cached = compact;
+        if (cached != null && cached.version() == current) {
+            return cached.graph();
+        }
+        CompactGraph built = CompactGraph.of(this);
+        compact = new CachedCompact(current, built);
+        return built;
+    }
+
+    private record CachedCompact(long version, CompactGraph graph) {}
+
     /**
      * Builds a simple forward adjacency map (source node id to set of target
      * node ids) from all edges currently in the graph.
@@ -210,4 +369,47 @@ public class KnowledgeGraph {
         }
         return adjacency;
     }
+
+    private static <K> Map<K, List<KgEdge>> unmodifiableLists(Map<K, List<KgEdge>> index) {
+        Map<K, List<KgEdge>> result = new HashMap<>(Math.max(16, index.size() * 4 / 3 + 1));
+        index.forEach((key, list) -> result.put(key, Collections.unmodifiableList(list)));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Single-threaded, append-only staging area that mirrors the graph's
+     * indices with plain collections, following the same rules as
+     * {@link #addNode} and {@link #addEdge}.
+     */
+    private static final class Indices {
+
+        private final Map<String, KgNode> nodes = new LinkedHashMap<>();
+        private final List<KgEdge> edges = new ArrayList<>();
+        private final Map<String, List<KgEdge>> outEdges = new HashMap<>();
+        private final Map<String, List<KgEdge>> inEdges = new HashMap<>();
+        private final Map<KgNodeType, Set<String>> nodesByType = new HashMap<>();
+        private final Map<KgEdgeType, List<KgEdge>> edgesByType = new HashMap<>();
+
+        private void add(KgNode node) {
+            if (node == null || node.id() == null) {
+                return;
+            }
+            nodes.put(node.id(), node);
+            nodesByType.computeIfAbsent(node.type(), k -> new HashSet<>()).add(node.id());
+        }
+
+        private void add(KgEdge edge) {
+            if (edge == null || edge.id() == null) {
+                return;
+            }
+            edges.add(edge);
+            if (edge.sourceNodeId() != null) {
+                outEdges.computeIfAbsent(edge.sourceNodeId(), k -> new ArrayList<>()).add(edge);
+            }
+            if (edge.targetNodeId() != null) {
+                inEdges.computeIfAbsent(edge.targetNodeId(), k -> new ArrayList<>()).add(edge);
+            }
+            edgesByType.computeIfAbsent(edge.type(), k -> new ArrayList<>()).add(edge);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.codevision.codevisionbackend.graph;
 import com.codevision.codevisionbackend.analysis.GraphModel;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,6 +17,12 @@ import java.util.List;
  *         .build();
  * }</pre>
  *
+ * <p>The builder is the write-optimised phase of a graph: it only appends to
+ * plain lists, and {@link #build()} or {@link #buildFrozen()} then indexes
+ * everything in a single pass. Prefer it over repeated
+ * {@link KnowledgeGraph#addEdge} calls when loading large graphs. It is not
+ * thread-safe.</p>
+ *
  * <p>The builder also supports conversion from the legacy {@link GraphModel}
  * via {@link #fromGraphModel(GraphModel)}.</p>
  */
@@ -50,20 +57,48 @@ public class KnowledgeGraphBuilder {
         return this;
     }
 
+    /**
+     * Queues several nodes for addition when {@link #build()} is called.
+     *
+     * @param nodes the nodes to add; {@code null} elements are skipped
+     * @return this builder for chaining
+     */
+    public KnowledgeGraphBuilder withNodes(Collection<KgNode> nodes) {
+        nodes.forEach(this::withNode);
+        return this;
+    }
+
+    /**
+     * Queues several edges for addition when {@link #build()} is called.
+     *
+     * @param edges the edges to add; {@code null} elements are skipped
+     * @return this builder for chaining
+     */
+    public KnowledgeGraphBuilder withEdges(Collection<KgEdge> edges) {
+        edges.forEach(this::withEdge);
+        return this;
+    }
+
     /**
      * Materialises the {@link KnowledgeGraph} from all queued nodes and edges.
+     * The result is mutable, exactly as if every node and then every edge had
+     * been added to an empty graph in queue order.
      *
      * @return a fully-populated knowledge graph
      */
     public KnowledgeGraph build() {
-        KnowledgeGraph graph = new KnowledgeGraph();
-        for (KgNode node : pendingNodes) {
-            graph.addNode(node);
-        }
-        for (KgEdge edge : pendingEdges) {
-            graph.addEdge(edge);
-        }
-        return graph;
+        return KnowledgeGraph.of(pendingNodes, pendingEdges, false);
+    }
+
+    /**
+     * Materialises a frozen {@link KnowledgeGraph}: same contents as
+     * {@link #build()}, backed by read-optimised indices, and rejecting
+     * further mutation.
+     *
+     * @return a read-only knowledge graph
+     */
+    public KnowledgeGraph buildFrozen() {
+        return KnowledgeGraph.of(pendingNodes, pendingEdges, true);
     }
 
     /**
@@ -0,0 +1,120 @@
+package com.codevision.codevisionbackend.graph.algorithm;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * What the orchestrator hands an algorithm besides the graph and its
+ * artifacts.
+ *
+ * <p>{@link #previousResult()} is the algorithm's own result on an earlier
+ * version of the same project's graph, if one is known. Iterative algorithms
+ * may start from it instead of from scratch; the others ignore it.</p>
+ *
+ * <p>The context also carries the run's budgets. Algorithms call
+ * {@link #checkpoint()} in their outer loops, which throws once the
+ * orchestrator has aborted the run, so an aborted algorithm stops within one
+ * loop step instead of running to completion. Work handed to other threads
+ * goes through {@link #measure(Supplier)}, so the allocation budget covers
+ * every thread the algorithm uses, not only the one it was started on.</p>
+ */
+public final class AlgorithmContext {
+
+    /** No previous result and no budgets. */
+    public static final AlgorithmContext NONE = new AlgorithmContext(null);
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final Object previousResult;
+    private final Map<Thread, Long> activeThreads = new ConcurrentHashMap<>();
+    private final LongAdder finishedBytes = new LongAdder();
+    private volatile String abortReason;
+
+    private AlgorithmContext(Object previousResult) {
+        this.previousResult = previousResult;
+    }
+
+    /**
+     * @param previousResult the algorithm's result on an earlier version of the graph; may be {@code null}
+     */
+    public static AlgorithmContext warmStart(Object previousResult) {
+        return new AlgorithmContext(previousResult);
+    }
+
+    /** The algorithm's earlier result as it was reported, or {@code null}. */
+    public Object previousResult() {
+        return previousResult;
+    }
+
+    /**
+     * Returns normally while the run may continue.
+     *
+     * @throws CancellationException once the run has been aborted, with the reason as message
+     */
+    public void checkpoint() {
+        String reason = abortReason;
+        if (reason != null) {
+            throw new CancellationException(reason);
+        }
+    }
+
+    /**
+     * Runs {@code work} on the calling thread and counts what it allocates
+     * towards this run. Nested calls on the same thread are counted once.
+     */
+    public <T> T measure(Supplier<T> work) {
+        checkpoint();
+        if (this == NONE || THREADS == null) {
+            return work.get();
+        }
+        Thread current = Thread.currentThread();
+        long start = THREADS.getCurrentThreadAllocatedBytes();
+        if (activeThreads.putIfAbsent(current, start) != null) {
+            return work.get();
+        }
+        try {
+            return work.get();
+        } finally {
+            long end = THREADS.getCurrentThreadAllocatedBytes();
+            activeThreads.remove(current);
+            finishedBytes.add(end - start);
+        }
+    }
+
+    /** Bytes allocated so far by every thread inside {@link #measure(Supplier)}, or -1 where the JVM cannot tell. */
+    long allocatedBytes() {
+        if (THREADS == null) {
+            return -1;
+        }
+        long total = finishedBytes.sum();
+        for (var active : activeThreads.entrySet()) {
+            long now = THREADS.getThreadAllocatedBytes(active.getKey().threadId());
+            if (now >= active.getValue()) {
+                total += now - active.getValue();
+            }
+        }
+        return total;
+    }
+
+    /** Makes every later {@link #checkpoint()} throw. */
+    void abort(String reason) {
+        if (this != NONE) {
+            abortReason = reason;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+}
@@ -1,18 +1,86 @@
 package com.codevision.codevisionbackend.graph.algorithm;
 
+import com.codevision.codevisionbackend.graph.CompactGraph;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 
 /**
  * Computes betweenness centrality for all nodes using Brandes' algorithm.
  * Betweenness measures how often a node lies on shortest paths between
  * other nodes — high betweenness indicates bridge/bottleneck nodes.
+ *
+ * <p>Runs on the graph's {@link CompactGraph}: the per-source BFS state lives
+ * in primitive arrays, and predecessors are recovered from the in-adjacency
+ * instead of being stored in lists. Sources are dealt round-robin to up to
+ * {@code parallelism} workers on the shared
+ * {@link GraphAlgorithmExecutors#computePool() compute pool}. Each worker owns
+ * one partial score array and one set of BFS scratch arrays, and the partial
+ * arrays are summed in worker order, so the result does not depend on thread
+ * scheduling.</p>
+ *
+ * <p>Pivot sampling trades accuracy for time on large graphs. Only {@code k}
+ * sources, drawn with a fixed seed, are expanded, and their dependencies are
+ * scaled by {@code n / k}, which keeps the estimate unbiased. {@code k} is the
+ * larger of {@code graph.algorithms.betweenness.sampleSize} and the pivot count
+ * that the Hoeffding bound requires for {@code errorBound}. With that count,
+ * every node's score is within {@code errorBound * n * (n - 2)} of the exact
+ * value with probability {@value #SAMPLING_CONFIDENCE}. When neither is set,
+ * or {@code k} reaches {@code n}, the exact algorithm runs.</p>
  */
 @Component
 public class BetweennessCentralityAlgorithm implements GraphAlgorithm<Map<String, Double>> {
 
+    private static final Logger log = LoggerFactory.getLogger(BetweennessCentralityAlgorithm.class);
+
+    static final double SAMPLING_CONFIDENCE = 0.9;
+    private static final long SAMPLING_SEED = 42L;
+    private static final int MIN_SOURCES_PER_WORKER = 16;
+
+    private final int parallelism;
+    private final int sampleSize;
+    private final double errorBound;
+    private final GraphAlgorithmExecutors executors;
+
+    public BetweennessCentralityAlgorithm() {
+        this(1, 0, 0.0);
+    }
+
+    /**
+     * @param parallelism number of threads; zero or a negative value uses every available processor
+     * @param sampleSize  minimum number of pivots to sample; zero or less disables fixed-size sampling
+     * @param errorBound  normalised absolute error to guarantee by sampling; zero or less disables it
+     */
+    public BetweennessCentralityAlgorithm(int parallelism, int sampleSize, double errorBound) {
+        this(parallelism, sampleSize, errorBound, GraphAlgorithmExecutors.standalone());
+    }
+
+    @Autowired
+    public BetweennessCentralityAlgorithm(
+            @Value("${graph.algorithms.betweenness.parallelism:0}") int parallelism,
+            @Value("${graph.algorithms.betweenness.sampleSize:0}") int sampleSize,
+            @Value("${graph.algorithms.betweenness.errorBound:0}") double errorBound,
+            GraphAlgorithmExecutors executors) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.sampleSize = Math.max(0, sampleSize);
+        this.errorBound = Math.max(0.0, errorBound);
+        this.executors = executors;
+    }
+
     @Override
     public String name() {
         return "betweenness-centrality";
@@ -20,75 +88,166 @@ public class BetweennessCentralityAlgorithm implements GraphAlgorithm<Map<String
 
     @Override
     public Map<String, Double> execute(KnowledgeGraph graph) {
-        var nodeIds = new ArrayList<>(graph.getNodes().keySet());
-        if (nodeIds.isEmpty()) {
+        return execute(graph, null, AlgorithmContext.NONE);
+    }
+
+    /** Checks {@code context} before every source, on every worker. */
+    @Override
+    public Map<String, Double> execute(KnowledgeGraph graph, GraphArtifacts artifacts, AlgorithmContext context) {
+        CompactGraph compact = graph.compact();
+        int n = compact.nodeCount();
+        if (n == 0) {
             return Map.of();
         }
 
-        Map<String, Double> betweenness = new HashMap<>();
-        for (var id : nodeIds) {
-            betweenness.put(id, 0.0);
+        int pivots = pivotCount(n);
+        int[] sources = pivots < n ? samplePivots(n, pivots) : IntStream.range(0, n).toArray();
+        double scale = pivots < n ? (double) n / pivots : 1.0;
+        if (pivots < n) {
+            log.debug("Approximating betweenness from {} of {} sources", pivots, n);
+        }
+
+        int workers = Math.min(parallelism, Math.max(1, sources.length / MIN_SOURCES_PER_WORKER));
+        List<double[]> partials = workers <= 1
+                ? List.of(accumulate(compact, sources, 0, 1, context))
+                : accumulateInParallel(compact, sources, workers, context);
+
+        double[] betweenness = partials.get(0);
+        for (int w = 1; w < partials.size(); w++) {
+            double[] partial = partials.get(w);
+            for (int v = 0; v < n; v++) {
+                betweenness[v] += partial[v];
+            }
+        }
+        if (scale != 1.0) {
+            for (int v = 0; v < n; v++) {
+                betweenness[v] *= scale;
+            }
         }
+        return compact.toMap(betweenness);
+    }
 
-        // Build adjacency map
-        Map<String, Set<String>> adjacency = graph.buildAdjacencyMap();
+    /** Number of sources to expand: {@code n} for the exact algorithm, fewer when sampling. */
+    int pivotCount(int n) {
+        long pivots = sampleSize;
+        if (errorBound > 0.0) {
+            double bound = Math.log(2.0 * n / (1.0 - SAMPLING_CONFIDENCE)) / (2.0 * errorBound * errorBound);
+            pivots = Math.max(pivots, (long) Math.ceil(bound));
+        }
+        return pivots <= 0 || pivots >= n ? n : (int) pivots;
+    }
 
-        // Brandes' algorithm
-        for (var source : nodeIds) {
-            Deque<String> stack = new ArrayDeque<>();
-            Map<String, List<String>> predecessors = new HashMap<>();
-            Map<String, Integer> sigma = new HashMap<>();
-            Map<String, Integer> dist = new HashMap<>();
+    /** Draws {@code k} distinct sources with a fixed seed, via a partial Fisher-Yates shuffle. */
+    private static int[] samplePivots(int n, int k) {
+        int[] nodes = IntStream.range(0, n).toArray();
+        Random random = new Random(SAMPLING_SEED);
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int tmp = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = tmp;
+        }
+        int[] pivots = Arrays.copyOf(nodes, k);
+        Arrays.sort(pivots);
+        return pivots;
+    }
 
-            for (var id : nodeIds) {
-                predecessors.put(id, new ArrayList<>());
-                sigma.put(id, 0);
-                dist.put(id, -1);
+    /** Runs one worker per stride on the compute pool and returns their partial scores in worker order. */
+    private List<double[]> accumulateInParallel(
+            CompactGraph compact, int[] sources, int workers, AlgorithmContext context) {
+        List<Callable<double[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int first = w;
+            tasks.add(() -> context.measure(() -> accumulate(compact, sources, first, workers, context)));
+        }
+        List<double[]> partials = new ArrayList<>(workers);
+        for (Future<double[]> future : executors.computePool().invokeAll(tasks)) {
+            try {
+                partials.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Betweenness worker failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted computing betweenness");
             }
+        }
+        return partials;
+    }
+
+    /**
+     * Runs Brandes from every {@code stride}-th source starting at {@code sources[first]} and returns the summed
+     * dependencies.
+     */
+    private static double[] accumulate(
+            CompactGraph compact, int[] sources, int first, int stride, AlgorithmContext context) {
+        int n = compact.nodeCount();
+        int[] outOffsets = compact.outOffsets();
+        int[] outTargets = compact.outTargets();
+        int[] inOffsets = compact.inOffsets();
+        int[] inSources = compact.inSources();
 
-            sigma.put(source, 1);
-            dist.put(source, 0);
-            Deque<String> queue = new ArrayDeque<>();
-            queue.add(source);
+        double[] betweenness = new double[n];
+        int[] dist = new int[n];
+        double[] sigma = new double[n];
+        double[] delta = new double[n];
+        // BFS queue; after the BFS it holds the nodes in non-decreasing distance order
+        int[] order = new int[n];
+        Arrays.fill(dist, -1);
+
+        for (int s = first; s < sources.length; s += stride) {
+            context.checkpoint();
+            int source = sources[s];
+            sigma[source] = 1.0;
+            dist[source] = 0;
+            order[0] = source;
+            int head = 0;
+            int tail = 1;
 
             // BFS
-            while (!queue.isEmpty()) {
-                var v = queue.poll();
-                stack.push(v);
-                int dv = dist.get(v);
-                for (var w : adjacency.getOrDefault(v, Set.of())) {
-                    if (dist.get(w) == null || dist.get(w) < 0) {
-                        dist.put(w, dv + 1);
-                        queue.add(w);
+            while (head < tail) {
+                int v = order[head++];
+                int dv = dist[v];
+                for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                    int w = outTargets[i];
+                    if (dist[w] < 0) {
+                        dist[w] = dv + 1;
+                        order[tail++] = w;
                     }
-                    if (dist.get(w) != null && dist.get(w) == dv + 1) {
-                        sigma.merge(w, sigma.get(v), Integer::sum);
-                        predecessors.get(w).add(v);
+                    if (dist[w] == dv + 1) {
+                        sigma[w] += sigma[v];
                     }
                 }
             }
 
-            // Back-propagation
-            Map<String, Double> delta = new HashMap<>();
-            for (var id : nodeIds) {
-                delta.put(id, 0.0);
-            }
-
-            while (!stack.isEmpty()) {
-                var w = stack.pop();
-                for (var v : predecessors.get(w)) {
-                    int sigmaW = sigma.getOrDefault(w, 1);
-                    if (sigmaW > 0) {
-                        double d = (double) sigma.get(v) / sigmaW * (1.0 + delta.get(w));
-                        delta.merge(v, d, Double::sum);
+            // Back-propagation in order of non-increasing distance
+            for (int k = tail - 1; k >= 0; k--) {
+                int w = order[k];
+                double sigmaW = sigma[w];
+                if (sigmaW > 0) {
+                    double coefficient = (1.0 + delta[w]) / sigmaW;
+                    for (int i = inOffsets[w]; i < inOffsets[w + 1]; i++) {
+                        int v = inSources[i];
+                        if (dist[v] >= 0 && dist[v] == dist[w] - 1) {
+                            delta[v] += sigma[v] * coefficient;
+                        }
                     }
                 }
-                if (!w.equals(source)) {
-                    betweenness.merge(w, delta.get(w), Double::sum);
+                if (w != source) {
+                    betweenness[w] += delta[w];
                 }
             }
-        }
 
+            // Reset only the nodes this BFS reached
+            for (int k = 0; k < tail; k++) {
+                int w = order[k];
+                dist[w] = -1;
+                sigma[w] = 0.0;
+                delta[w] = 0.0;
+            }
+        }
         return betweenness;
     }
 }
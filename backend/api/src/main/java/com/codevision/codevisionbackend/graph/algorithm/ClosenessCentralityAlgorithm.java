@@ -1,11 +1,13 @@
 package com.codevision.codevisionbackend.graph.algorithm;
 
+import com.codevision.codevisionbackend.graph.CompactGraph;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
-import java.util.*;
+import java.util.Arrays;
+import java.util.Map;
 
 /**
  * Computes closeness centrality for all nodes in the knowledge graph.
@@ -22,7 +24,8 @@ import java.util.*;
  * and N is the total number of nodes in the graph.</p>
  *
  * <p>The graph is treated as undirected: each directed edge creates adjacency
- * in both directions.</p>
+ * in both directions. BFS runs over {@link CompactGraph#undirected()} with
+ * reusable primitive distance and queue arrays.</p>
  */
 @Component
 public class ClosenessCentralityAlgorithm implements GraphAlgorithm<Map<String, Double>> {
@@ -46,96 +49,67 @@ public class ClosenessCentralityAlgorithm implements GraphAlgorithm<Map<String,
 
     @Override
     public Map<String, Double> execute(KnowledgeGraph graph) {
-        var nodeIds = new ArrayList<>(graph.getNodes().keySet());
-        if (nodeIds.isEmpty()) {
+        return execute(graph, null, AlgorithmContext.NONE);
+    }
+
+    /** Checks {@code context} before every source's BFS. */
+    @Override
+    public Map<String, Double> execute(KnowledgeGraph graph, GraphArtifacts artifacts, AlgorithmContext context) {
+        CompactGraph compact = graph.compact();
+        int n = compact.nodeCount();
+        if (n == 0) {
             return Map.of();
         }
 
-        int n = nodeIds.size();
-
-        // Build undirected adjacency from all edges
-        var adjacency = new HashMap<String, Set<String>>();
-        for (var edge : graph.getEdges()) {
-            var src = edge.sourceNodeId();
-            var tgt = edge.targetNodeId();
-            if (src != null && tgt != null && !src.equals(tgt)) {
-                adjacency.computeIfAbsent(src, k -> new HashSet<>()).add(tgt);
-                adjacency.computeIfAbsent(tgt, k -> new HashSet<>()).add(src);
-            }
-        }
+        // Undirected adjacency from all edges, self-loops excluded
+        CompactGraph.WeightedAdjacency adjacency = compact.undirected();
+        int[] offsets = adjacency.offsets();
+        int[] neighbors = adjacency.neighbors();
 
         var deadline = Instant.now().plusSeconds(maxRuntimeSeconds);
-        var result = new HashMap<String, Double>();
+        double[] result = new double[n];
+        int[] distances = new int[n];
+        int[] queue = new int[n];
 
-        for (var nodeId : nodeIds) {
+        for (int source = 0; source < n; source++) {
             if (Instant.now().isAfter(deadline)) {
-                // Fill remaining nodes with 0.0 on timeout
-                for (var remaining : nodeIds) {
-                    result.putIfAbsent(remaining, 0.0);
-                }
+                // Remaining nodes keep 0.0 on timeout
                 break;
             }
+            context.checkpoint();
 
-            if (n == 1) {
-                result.put(nodeId, 0.0);
-                continue;
-            }
-
-            var neighbors = adjacency.getOrDefault(nodeId, Set.of());
-            if (neighbors.isEmpty()) {
-                result.put(nodeId, 0.0);
+            if (n == 1 || offsets[source] == offsets[source + 1]) {
                 continue;
             }
 
             // BFS from this node
-            var distances = bfs(nodeId, adjacency);
-
+            Arrays.fill(distances, -1);
+            distances[source] = 0;
+            queue[0] = source;
+            int head = 0;
+            int tail = 1;
             long sumDistances = 0;
-            int reachable = 0;
-            for (var dist : distances.values()) {
-                if (dist > 0) {
-                    sumDistances += dist;
-                    reachable++;
+            while (head < tail) {
+                int current = queue[head++];
+                int next = distances[current] + 1;
+                for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                    int neighbor = neighbors[i];
+                    if (distances[neighbor] < 0) {
+                        distances[neighbor] = next;
+                        sumDistances += next;
+                        queue[tail++] = neighbor;
+                    }
                 }
             }
+            int reachable = tail - 1;
 
-            if (reachable == 0 || sumDistances == 0) {
-                result.put(nodeId, 0.0);
-            } else {
+            if (reachable > 0 && sumDistances > 0) {
                 // Wasserman-Faust normalization
-                double closeness = ((double) reachable / (n - 1))
+                result[source] = ((double) reachable / (n - 1))
                         * ((double) reachable / sumDistances);
-                result.put(nodeId, closeness);
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * Performs BFS from the source node and returns distances to all reachable nodes.
-     */
-    private Map<String, Integer> bfs(String source, Map<String, Set<String>> adjacency) {
-        var distances = new HashMap<String, Integer>();
-        var visited = new HashSet<String>();
-        var queue = new ArrayDeque<String>();
-
-        distances.put(source, 0);
-        visited.add(source);
-        queue.add(source);
-
-        while (!queue.isEmpty()) {
-            var current = queue.poll();
-            int currentDist = distances.get(current);
-
-            for (var neighbor : adjacency.getOrDefault(current, Set.of())) {
-                if (visited.add(neighbor)) {
-                    distances.put(neighbor, currentDist + 1);
-                    queue.add(neighbor);
-                }
             }
         }
 
-        return distances;
+        return compact.toMap(result);
     }
 }
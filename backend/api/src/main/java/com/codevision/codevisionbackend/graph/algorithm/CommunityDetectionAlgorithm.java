@@ -1,5 +1,6 @@
 package com.codevision.codevisionbackend.graph.algorithm;
 
+import com.codevision.codevisionbackend.graph.CompactGraph;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -26,6 +27,9 @@ import java.util.*;
  *
  * <p>The {@code resolution} parameter (γ) controls granularity: higher values
  * produce more, smaller communities. Default is 1.0 (standard modularity).</p>
+ *
+ * <p>Runs over the undirected, weighted view of the graph's
+ * {@link CompactGraph}, with communities held in primitive arrays.</p>
  */
 @Component
 public class CommunityDetectionAlgorithm implements GraphAlgorithm<Map<String, Integer>> {
@@ -63,67 +67,47 @@ public class CommunityDetectionAlgorithm implements GraphAlgorithm<Map<String, I
 
     @Override
     public Map<String, Integer> execute(KnowledgeGraph graph) {
-        var nodeIds = new ArrayList<>(graph.getNodes().keySet());
-        if (nodeIds.isEmpty()) {
-            return Map.of();
-        }
+        return execute(graph, null, AlgorithmContext.NONE);
+    }
 
-        // Build undirected weighted adjacency from all edges
-        var adjacency = new HashMap<String, Map<String, Double>>();
-        for (var edge : graph.getEdges()) {
-            var src = edge.sourceNodeId();
-            var tgt = edge.targetNodeId();
-            if (src != null && tgt != null && !src.equals(tgt)) {
-                adjacency.computeIfAbsent(src, k -> new HashMap<>())
-                        .merge(tgt, 1.0, Double::sum);
-                adjacency.computeIfAbsent(tgt, k -> new HashMap<>())
-                        .merge(src, 1.0, Double::sum);
-            }
+    /** Checks {@code context} before every local-moving pass and every community refined. */
+    @Override
+    public Map<String, Integer> execute(KnowledgeGraph graph, GraphArtifacts artifacts, AlgorithmContext context) {
+        CompactGraph compact = graph.compact();
+        int n = compact.nodeCount();
+        if (n == 0) {
+            return Map.of();
         }
 
-        // Total edge weight (each undirected edge counted once for 2m)
-        double totalWeight = 0;
-        for (var neighbors : adjacency.values()) {
-            for (var w : neighbors.values()) {
-                totalWeight += w;
-            }
+        // Undirected weighted adjacency from all edges, self-loops excluded
+        CompactGraph.WeightedAdjacency adjacency = compact.undirected();
+        double[] degree = new double[n];
+        double twoM = 0;
+        for (int v = 0; v < n; v++) {
+            degree[v] = adjacency.degree(v);
+            // totalWeight is 2m because each edge is counted from both endpoints
+            twoM += degree[v];
         }
-        // totalWeight is 2m because each edge is counted from both endpoints
-        double twoM = totalWeight;
         if (twoM == 0) {
             // No edges — each node is its own community
             var result = new HashMap<String, Integer>();
-            for (int i = 0; i < nodeIds.size(); i++) {
-                result.put(nodeIds.get(i), i);
+            for (int v = 0; v < n; v++) {
+                result.put(compact.id(v), v);
             }
             return result;
         }
 
-        // Initialize: each node in its own community
-        var community = new HashMap<String, Integer>();
-        for (int i = 0; i < nodeIds.size(); i++) {
-            community.put(nodeIds.get(i), i);
-        }
-
-        // Pre-compute community degree sums for O(1) lookup
-        var communityDegreeCache = new HashMap<Integer, Double>();
-        for (var nodeId : nodeIds) {
-            int comm = community.get(nodeId);
-            communityDegreeCache.merge(comm, nodeDegree(nodeId, adjacency), Double::sum);
-        }
-
+        var state = new Partition(adjacency, degree, twoM, n);
         var deadline = Instant.now().plusSeconds(maxRuntimeSeconds);
 
         for (int outerIter = 0; outerIter < maxOuterIterations && Instant.now().isBefore(deadline); outerIter++) {
-            boolean improved = false;
-
             // ── Phase 1: Local Moving ──────────────────────────────────
-            improved = localMoving(nodeIds, adjacency, community, communityDegreeCache, twoM, deadline);
+            boolean improved = localMoving(state, deadline, context);
 
             // ── Phase 2: Refinement ────────────────────────────────────
             // Within each community, initialise singletons and run local moves
             // on the sub-partition to find sub-communities
-            improved |= refinement(nodeIds, adjacency, community, communityDegreeCache, twoM, deadline);
+            improved |= refinement(state, deadline, context);
 
             if (!improved) {
                 break;
@@ -131,7 +115,55 @@ public class CommunityDetectionAlgorithm implements GraphAlgorithm<Map<String, I
         }
 
         // Normalize community IDs to be contiguous starting from 0
-        return normalizeCommunityIds(community);
+        var mapping = new HashMap<Integer, Integer>();
+        var result = new HashMap<String, Integer>();
+        for (int v = 0; v < n; v++) {
+            int normalized = mapping.computeIfAbsent(state.community[v], k -> mapping.size());
+            result.put(compact.id(v), normalized);
+        }
+        return result;
+    }
+
+    /**
+     * Mutable partition state over dense node indices. Community ids grow as
+     * refinement splits communities, so the per-community arrays are resized
+     * on demand. {@code weightTo} and {@code touched} are scratch buffers for
+     * summing a node's edge weight per neighbouring community.
+     */
+    private static final class Partition {
+        final CompactGraph.WeightedAdjacency adjacency;
+        final double[] degree;
+        final double twoM;
+        final int[] community;
+        double[] communityDegree;
+        double[] weightTo;
+        int[] touched;
+        int nextCommunity;
+
+        Partition(CompactGraph.WeightedAdjacency adjacency, double[] degree, double twoM, int n) {
+            this.adjacency = adjacency;
+            this.degree = degree;
+            this.twoM = twoM;
+            this.community = new int[n];
+            this.communityDegree = new double[Math.max(n, 1) * 2];
+            this.weightTo = new double[communityDegree.length];
+            this.touched = new int[n];
+            // Initialize: each node in its own community, with cached degree sums
+            for (int v = 0; v < n; v++) {
+                community[v] = v;
+                communityDegree[v] = degree[v];
+            }
+            this.nextCommunity = n;
+        }
+
+        int newCommunity() {
+            int id = nextCommunity++;
+            if (id >= communityDegree.length) {
+                communityDegree = Arrays.copyOf(communityDegree, communityDegree.length * 2);
+                weightTo = Arrays.copyOf(weightTo, communityDegree.length);
+            }
+            return id;
+        }
     }
 
     /**
@@ -139,53 +171,33 @@ public class CommunityDetectionAlgorithm implements GraphAlgorithm<Map<String, I
      * Accept the move that maximises modularity gain. Uses cached community
      * degree sums for O(1) lookups.
      */
-    private boolean localMoving(List<String> nodeIds,
-                                Map<String, Map<String, Double>> adjacency,
-                                Map<String, Integer> community,
-                                Map<Integer, Double> communityDegreeCache,
-                                double twoM,
-                                Instant deadline) {
+    private boolean localMoving(Partition state, Instant deadline, AlgorithmContext context) {
+        int n = state.community.length;
+        int[] offsets = state.adjacency.offsets();
         boolean anyChange = false;
 
+        int[] shuffled = new int[n];
         for (int iter = 0; iter < maxLocalMovingIterations && Instant.now().isBefore(deadline); iter++) {
+            context.checkpoint();
             boolean changed = false;
 
-            var shuffled = new ArrayList<>(nodeIds);
-            Collections.shuffle(shuffled, new Random(iter * 37L));
-
-            for (var nodeId : shuffled) {
-                var neighbors = adjacency.getOrDefault(nodeId, Map.of());
-                if (neighbors.isEmpty()) continue;
-
-                int currentComm = community.get(nodeId);
-                double ki = nodeDegree(nodeId, adjacency);
-
-                // Compute gain for moving to each neighboring community
-                double bestGain = 0.0;
-                int bestComm = currentComm;
-
-                // Collect candidate communities from neighbors
-                var candidateComms = new HashSet<Integer>();
-                for (var neighbor : neighbors.keySet()) {
-                    candidateComms.add(community.get(neighbor));
-                }
+            for (int v = 0; v < n; v++) {
+                shuffled[v] = v;
+            }
+            shuffle(shuffled, new Random(iter * 37L));
 
-                for (int candComm : candidateComms) {
-                    if (candComm == currentComm) continue;
+            for (int nodeId : shuffled) {
+                if (offsets[nodeId] == offsets[nodeId + 1]) continue;
 
-                    double gain = modularityGain(nodeId, candComm, currentComm,
-                            adjacency, community, communityDegreeCache, ki, twoM);
-                    if (gain > bestGain) {
-                        bestGain = gain;
-                        bestComm = candComm;
-                    }
-                }
+                int currentComm = state.community[nodeId];
+                int bestComm = bestMove(nodeId, currentComm, state.community, state.communityDegree, state);
 
                 if (bestComm != currentComm) {
                     // Update cache: remove ki from old community, add to new
-                    communityDegreeCache.merge(currentComm, -ki, Double::sum);
-                    communityDegreeCache.merge(bestComm, ki, Double::sum);
-                    community.put(nodeId, bestComm);
+                    double ki = state.degree[nodeId];
+                    state.communityDegree[currentComm] -= ki;
+                    state.communityDegree[bestComm] += ki;
+                    state.community[nodeId] = bestComm;
                     changed = true;
                     anyChange = true;
                 }
@@ -203,72 +215,47 @@ public class CommunityDetectionAlgorithm implements GraphAlgorithm<Map<String, I
      * sub-partition. If sub-communities emerge, update the main partition.
      * This prevents poorly-connected communities.
      */
-    private boolean refinement(List<String> nodeIds,
-                               Map<String, Map<String, Double>> adjacency,
-                               Map<String, Integer> community,
-                               Map<Integer, Double> communityDegreeCache,
-                               double twoM,
-                               Instant deadline) {
+    private boolean refinement(Partition state, Instant deadline, AlgorithmContext context) {
+        int n = state.community.length;
         boolean anyChange = false;
 
         // Group nodes by community
-        var commMembers = new HashMap<Integer, List<String>>();
-        for (var nodeId : nodeIds) {
-            commMembers.computeIfAbsent(community.get(nodeId), k -> new ArrayList<>())
-                    .add(nodeId);
+        var commMembers = new LinkedHashMap<Integer, List<Integer>>();
+        for (int v = 0; v < n; v++) {
+            commMembers.computeIfAbsent(state.community[v], k -> new ArrayList<>()).add(v);
         }
 
-        int nextCommId = community.values().stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+        // Sub-community of each node while its community is refined; -1 outside it
+        int[] subCommunity = new int[n];
+        Arrays.fill(subCommunity, -1);
 
-        for (var entry : commMembers.entrySet()) {
+        for (var members : commMembers.values()) {
             if (Instant.now().isAfter(deadline)) break;
+            context.checkpoint();
 
-            var members = entry.getValue();
             if (members.size() <= 2) continue; // Too small to refine
 
             // Initialise each node in its own singleton sub-community
-            var subCommunity = new HashMap<String, Integer>();
-            var subDegreeCache = new HashMap<Integer, Double>();
-            int subId = 0;
-            for (var nodeId : members) {
-                subCommunity.put(nodeId, subId);
-                subDegreeCache.put(subId, nodeDegree(nodeId, adjacency));
-                subId++;
+            double[] subDegree = new double[members.size()];
+            for (int i = 0; i < members.size(); i++) {
+                int nodeId = members.get(i);
+                subCommunity[nodeId] = i;
+                subDegree[i] = state.degree[nodeId];
             }
 
             // Run local moves within this sub-partition
             boolean subChanged = false;
             for (int subIter = 0; subIter < 5 && Instant.now().isBefore(deadline); subIter++) {
                 boolean iterChanged = false;
-                for (var nodeId : members) {
-                    var neighbors = adjacency.getOrDefault(nodeId, Map.of());
-                    int currentSubComm = subCommunity.get(nodeId);
-                    double ki = nodeDegree(nodeId, adjacency);
-
-                    double bestGain = 0.0;
-                    int bestSubComm = currentSubComm;
-
-                    var candidateComms = new HashSet<Integer>();
-                    for (var neighbor : neighbors.keySet()) {
-                        if (subCommunity.containsKey(neighbor)) {
-                            candidateComms.add(subCommunity.get(neighbor));
-                        }
-                    }
-
-                    for (int candComm : candidateComms) {
-                        if (candComm == currentSubComm) continue;
-                        double gain = modularityGain(nodeId, candComm, currentSubComm,
-                                adjacency, subCommunity, subDegreeCache, ki, twoM);
-                        if (gain > bestGain) {
-                            bestGain = gain;
-                            bestSubComm = candComm;
-                        }
-                    }
+                for (int nodeId : members) {
+                    int currentSubComm = subCommunity[nodeId];
+                    int bestSubComm = bestMove(nodeId, currentSubComm, subCommunity, subDegree, state);
 
                     if (bestSubComm != currentSubComm) {
-                        subDegreeCache.merge(currentSubComm, -ki, Double::sum);
-                        subDegreeCache.merge(bestSubComm, ki, Double::sum);
-                        subCommunity.put(nodeId, bestSubComm);
+                        double ki = state.degree[nodeId];
+                        subDegree[currentSubComm] -= ki;
+                        subDegree[bestSubComm] += ki;
+                        subCommunity[nodeId] = bestSubComm;
                         iterChanged = true;
                         subChanged = true;
                     }
@@ -278,92 +265,109 @@ public class CommunityDetectionAlgorithm implements GraphAlgorithm<Map<String, I
 
             // If the sub-partition found structure, propagate to main partition
             if (subChanged) {
-                var subCommIds = new HashSet<>(subCommunity.values());
-                if (subCommIds.size() > 1) {
+                int[] subToGlobal = new int[members.size()];
+                Arrays.fill(subToGlobal, -1);
+                int distinct = 0;
+                for (int nodeId : members) {
+                    if (subToGlobal[subCommunity[nodeId]] < 0) {
+                        subToGlobal[subCommunity[nodeId]] = Integer.MAX_VALUE;
+                        distinct++;
+                    }
+                }
+                if (distinct > 1) {
                     // Map sub-community IDs to new global community IDs
-                    var subToGlobal = new HashMap<Integer, Integer>();
-                    for (var scId : subCommIds) {
-                        subToGlobal.put(scId, nextCommId++);
+                    for (int i = 0; i < subToGlobal.length; i++) {
+                        if (subToGlobal[i] == Integer.MAX_VALUE) {
+                            subToGlobal[i] = state.newCommunity();
+                        }
                     }
-                    for (var nodeId : members) {
-                        int oldComm = community.get(nodeId);
-                        int newComm = subToGlobal.get(subCommunity.get(nodeId));
+                    for (int nodeId : members) {
+                        int oldComm = state.community[nodeId];
+                        int newComm = subToGlobal[subCommunity[nodeId]];
                         if (oldComm != newComm) {
-                            double ki = nodeDegree(nodeId, adjacency);
-                            communityDegreeCache.merge(oldComm, -ki, Double::sum);
-                            communityDegreeCache.merge(newComm, ki, Double::sum);
-                            community.put(nodeId, newComm);
+                            double ki = state.degree[nodeId];
+                            state.communityDegree[oldComm] -= ki;
+                            state.communityDegree[newComm] += ki;
+                            state.community[nodeId] = newComm;
                             anyChange = true;
                         }
                     }
                 }
             }
+
+            for (int nodeId : members) {
+                subCommunity[nodeId] = -1;
+            }
         }
 
         return anyChange;
     }
 
     /**
-     * Computes the modularity gain of moving {@code nodeId} from
-     * {@code fromComm} to {@code toComm}.
+     * Returns the neighbouring community with the largest positive modularity
+     * gain for {@code nodeId}, or {@code currentComm} when no move improves it.
      *
      * <p>Standard modularity gain formula:
      * ΔQ = [k_i_in / m - γ * Σ_tot * k_i / (2m²)]
      *    - [k_i_out / m - γ * (Σ_tot_from - k_i) * k_i / (2m²)]</p>
      *
-     * <p>Uses cached community degree sums for O(1) lookup.</p>
+     * <p>Edge weights towards each neighbouring community are accumulated
+     * once into a scratch array, so every candidate is scored in O(1).
+     * Neighbours outside the partition being refined (community {@code -1})
+     * are ignored.</p>
      */
-    private double modularityGain(String nodeId, int toComm, int fromComm,
-                                  Map<String, Map<String, Double>> adjacency,
-                                  Map<String, Integer> community,
-                                  Map<Integer, Double> communityDegreeCache,
-                                  double ki, double twoM) {
-        double m = twoM / 2.0;
-
-        // k_i_in: sum of edge weights from nodeId to nodes in toComm
-        double kiIn = 0;
-        // k_i_out: sum of edge weights from nodeId to nodes in fromComm (excluding self)
-        double kiOut = 0;
+    private int bestMove(int nodeId, int currentComm, int[] community, double[] communityDegree,
+                         Partition state) {
+        int[] offsets = state.adjacency.offsets();
+        int[] neighbors = state.adjacency.neighbors();
+        double[] weights = state.adjacency.weights();
+        double[] weightTo = state.weightTo;
+        int[] touched = state.touched;
+        int touchedCount = 0;
 
-        var neighbors = adjacency.getOrDefault(nodeId, Map.of());
-        for (var entry : neighbors.entrySet()) {
-            int neighborComm = community.getOrDefault(entry.getKey(), -1);
-            if (neighborComm == toComm) {
-                kiIn += entry.getValue();
+        double kiOut = 0;
+        for (int i = offsets[nodeId]; i < offsets[nodeId + 1]; i++) {
+            int comm = community[neighbors[i]];
+            if (comm < 0) continue;
+            if (comm == currentComm) {
+                kiOut += weights[i];
+                continue;
             }
-            if (neighborComm == fromComm) {
-                kiOut += entry.getValue();
+            if (weightTo[comm] == 0) {
+                touched[touchedCount++] = comm;
             }
+            weightTo[comm] += weights[i];
         }
 
-        // Σ_tot for target community (cached)
-        double sigmaTotTo = communityDegreeCache.getOrDefault(toComm, 0.0);
+        double m = state.twoM / 2.0;
+        double ki = state.degree[nodeId];
         // Σ_tot for source community excluding nodeId (cached)
-        double sigmaTotFrom = communityDegreeCache.getOrDefault(fromComm, 0.0) - ki;
-
-        // Gain of moving into toComm minus loss of leaving fromComm
-        double gainIn = kiIn / m - resolution * sigmaTotTo * ki / (2.0 * m * m);
+        double sigmaTotFrom = communityDegree[currentComm] - ki;
         double lossOut = kiOut / m - resolution * sigmaTotFrom * ki / (2.0 * m * m);
 
-        return gainIn - lossOut;
-    }
-
-    private double nodeDegree(String nodeId, Map<String, Map<String, Double>> adjacency) {
-        var neighbors = adjacency.getOrDefault(nodeId, Map.of());
-        double degree = 0;
-        for (var w : neighbors.values()) {
-            degree += w;
+        double bestGain = 0.0;
+        int bestComm = currentComm;
+        for (int t = 0; t < touchedCount; t++) {
+            int candComm = touched[t];
+            // Gain of moving into candComm minus loss of leaving currentComm
+            double gainIn = weightTo[candComm] / m - resolution * communityDegree[candComm] * ki / (2.0 * m * m);
+            double gain = gainIn - lossOut;
+            if (gain > bestGain) {
+                bestGain = gain;
+                bestComm = candComm;
+            }
+            weightTo[candComm] = 0;
         }
-        return degree;
+        return bestComm;
     }
 
-    private Map<String, Integer> normalizeCommunityIds(Map<String, Integer> community) {
-        var mapping = new HashMap<Integer, Integer>();
-        var result = new HashMap<String, Integer>();
-        for (var entry : community.entrySet()) {
-            int normalized = mapping.computeIfAbsent(entry.getValue(), k -> mapping.size());
-            result.put(entry.getKey(), normalized);
+    /** Fisher-Yates shuffle matching {@link Collections#shuffle(List, Random)}. */
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length; i > 1; i--) {
+            int j = random.nextInt(i);
+            int swap = values[i - 1];
+            values[i - 1] = values[j];
+            values[j] = swap;
         }
-        return result;
     }
 }
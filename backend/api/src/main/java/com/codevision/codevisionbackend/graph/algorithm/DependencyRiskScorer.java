@@ -1,11 +1,9 @@
 package com.codevision.codevisionbackend.graph.algorithm;
 
-import com.codevision.codevisionbackend.graph.KgEdge;
+import com.codevision.codevisionbackend.graph.CompactGraph;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
 import java.util.*;
 
 /**
@@ -15,82 +13,79 @@ import java.util.*;
  *      + 0.2 * cycleParticipation + 0.2 * normalizedTransitiveDepth
  * <p>
  * All component scores are normalized to [0, 1], producing a final risk in [0, 1].
+ * <p>
+ * Transitive depth is the longest chain of strongly connected components
+ * below a node, read from the shared {@link ReachabilityIndex}; a cycle counts
+ * as one level. It is not the shortest-path distance to the farthest reachable
+ * node: with {@code A -> B -> C} and a shortcut {@code A -> C}, A has depth 2,
+ * where a breadth-first search would report 1.
  */
 @Component
 public class DependencyRiskScorer implements GraphAlgorithm<Map<String, Double>> {
 
-    private final TarjanSccAlgorithm tarjanScc = new TarjanSccAlgorithm();
-    private final long maxRuntimeSeconds;
+    @Override
+    public String name() {
+        return "dependency-risk";
+    }
 
-    public DependencyRiskScorer(
-            @Value("${codevision.algorithms.dependency-risk.maxRuntimeSeconds:60}") long maxRuntimeSeconds) {
-        this.maxRuntimeSeconds = maxRuntimeSeconds;
+    @Override
+    public Map<String, Double> execute(KnowledgeGraph graph) {
+        return execute(graph, new GraphArtifacts(graph), AlgorithmContext.NONE);
     }
 
-    /** No-arg constructor with default timeout for test convenience. */
-    public DependencyRiskScorer() {
-        this(60);
+    @Override
+    public Set<GraphArtifacts.Artifact<?>> requiredArtifacts() {
+        return Set.of(
+                GraphArtifacts.EDGE_DEGREES,
+                GraphArtifacts.STRONGLY_CONNECTED_COMPONENTS,
+                GraphArtifacts.REACHABILITY);
     }
 
     @Override
-    public String name() {
-        return "dependency-risk";
+    public Map<String, Double> execute(KnowledgeGraph graph, GraphArtifacts artifacts) {
+        return execute(graph, artifacts, AlgorithmContext.NONE);
     }
 
+    /** Checks {@code context} before scoring each node. */
     @Override
-    public Map<String, Double> execute(KnowledgeGraph graph) {
+    public Map<String, Double> execute(KnowledgeGraph graph, GraphArtifacts artifacts, AlgorithmContext context) {
         var nodeIds = graph.getNodes().keySet();
         if (nodeIds.isEmpty()) {
             return Map.of();
         }
-
-        // Compute fan-in and fan-out per node
-        Map<String, Integer> fanIn = new HashMap<>();
-        Map<String, Integer> fanOut = new HashMap<>();
-        for (var id : nodeIds) {
-            fanIn.put(id, 0);
-            fanOut.put(id, 0);
-        }
-        for (KgEdge edge : graph.getEdges()) {
-            var src = edge.sourceNodeId();
-            var tgt = edge.targetNodeId();
-            if (src != null && fanOut.containsKey(src)) {
-                fanOut.merge(src, 1, Integer::sum);
-            }
-            if (tgt != null && fanIn.containsKey(tgt)) {
-                fanIn.merge(tgt, 1, Integer::sum);
+        CompactGraph compact = artifacts.get(GraphArtifacts.COMPACT);
+
+        // Fan-in and fan-out per node
+        var degrees = artifacts.get(GraphArtifacts.EDGE_DEGREES);
+        int maxFanIn = Arrays.stream(degrees.in()).max().orElse(0);
+        int maxFanOut = Arrays.stream(degrees.out()).max().orElse(0);
+
+        // Cycle participation from the shared Tarjan SCCs
+        boolean[] inCycle = new boolean[compact.nodeCount()];
+        for (int[] component : artifacts.get(GraphArtifacts.STRONGLY_CONNECTED_COMPONENTS)) {
+            if (component.length > 1) {
+                for (int node : component) {
+                    inCycle[node] = true;
+                }
             }
         }
 
-        int maxFanIn = fanIn.values().stream().mapToInt(Integer::intValue).max().orElse(0);
-        int maxFanOut = fanOut.values().stream().mapToInt(Integer::intValue).max().orElse(0);
-
-        // Compute cycle participation via Tarjan SCC
-        List<Set<String>> sccs = tarjanScc.execute(graph);
-        Set<String> cycleNodes = new HashSet<>();
-        for (var scc : sccs) {
-            cycleNodes.addAll(scc);
+        // Transitive depth from the condensed SCC DAG
+        ReachabilityIndex reachability = artifacts.get(GraphArtifacts.REACHABILITY);
+        int maxDepth = 0;
+        for (int node = 0; node < compact.nodeCount(); node++) {
+            maxDepth = Math.max(maxDepth, reachability.depth(node));
         }
 
-        // Compute transitive depth via BFS from each node
-        Map<String, Set<String>> adjacency = graph.buildAdjacencyMap();
-        Map<String, Integer> transitiveDepth = new HashMap<>();
-        for (var id : nodeIds) {
-            transitiveDepth.put(id, bfsDepth(id, adjacency));
-        }
-        int maxDepth = transitiveDepth.values().stream().mapToInt(Integer::intValue).max().orElse(0);
-
         // Compute risk scores
-        Instant deadline = Instant.now().plusSeconds(maxRuntimeSeconds);
         Map<String, Double> result = new HashMap<>();
         for (var id : nodeIds) {
-            if (Instant.now().isAfter(deadline)) {
-                break;
-            }
-            double normFanIn = maxFanIn > 0 ? (double) fanIn.get(id) / maxFanIn : 0.0;
-            double normFanOut = maxFanOut > 0 ? (double) fanOut.get(id) / maxFanOut : 0.0;
-            double cyclePart = cycleNodes.contains(id) ? 1.0 : 0.0;
-            double normDepth = maxDepth > 0 ? (double) transitiveDepth.get(id) / maxDepth : 0.0;
+            context.checkpoint();
+            int node = compact.indexOf(id);
+            double normFanIn = maxFanIn > 0 ? (double) degrees.in()[node] / maxFanIn : 0.0;
+            double normFanOut = maxFanOut > 0 ? (double) degrees.out()[node] / maxFanOut : 0.0;
+            double cyclePart = inCycle[node] ? 1.0 : 0.0;
+            double normDepth = maxDepth > 0 ? (double) reachability.depth(node) / maxDepth : 0.0;
 
             double risk = 0.3 * normFanIn + 0.3 * normFanOut + 0.2 * cyclePart + 0.2 * normDepth;
             result.put(id, risk);
@@ -98,33 +93,4 @@ public class DependencyRiskScorer implements GraphAlgorithm<Map<String, Double>>
 
         return result;
     }
-
-    /**
-     * BFS from a start node, returning the maximum depth reached.
-     * Uses a visited set for cycle detection.
-     */
-    private int bfsDepth(String start, Map<String, Set<String>> adjacency) {
-        Set<String> visited = new HashSet<>();
-        Deque<String> currentLevel = new ArrayDeque<>();
-        currentLevel.add(start);
-        visited.add(start);
-        int depth = 0;
-
-        while (!currentLevel.isEmpty()) {
-            Deque<String> nextLevel = new ArrayDeque<>();
-            for (var node : currentLevel) {
-                for (var neighbor : adjacency.getOrDefault(node, Set.of())) {
-                    if (visited.add(neighbor)) {
-                        nextLevel.add(neighbor);
-                    }
-                }
-            }
-            if (!nextLevel.isEmpty()) {
-                depth++;
-            }
-            currentLevel = nextLevel;
-        }
-
-        return depth;
-    }
 }
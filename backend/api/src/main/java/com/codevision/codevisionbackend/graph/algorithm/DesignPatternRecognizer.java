@@ -6,6 +6,8 @@ import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -16,10 +18,20 @@ import java.util.Set;
  * Recognizes common design patterns in the knowledge graph by analyzing
  * structural relationships between nodes. Detects: Singleton, Strategy,
  * Observer, Factory, Decorator patterns.
+ *
+ * <p>All detectors share one pass over the graph's edge-type index. Each
+ * relevant edge is visited once and updates per-node counters: implementors
+ * per interface, listener methods per class, distinct constructed types per
+ * class or method. Reading the counters back in node or edge order then yields
+ * the same lists as checking every node against every edge, in
+ * O(nodes + relevant edges).</p>
  */
 @Component
 public class DesignPatternRecognizer implements GraphAlgorithm<Map<String, List<String>>> {
 
+    private static final Set<String> OBSERVER_METHOD_PREFIXES = Set.of(
+            "add", "remove", "notify", "fire");
+
     @Override
     public String name() {
         return "design-pattern-recognizer";
@@ -32,12 +44,13 @@ public class DesignPatternRecognizer implements GraphAlgorithm<Map<String, List<
             return Map.of();
         }
 
+        var counters = new Counters(graph);
         Map<String, List<String>> patterns = new LinkedHashMap<>();
-        patterns.put("STRATEGY", detectStrategy(graph));
-        patterns.put("SINGLETON", detectSingleton(graph));
-        patterns.put("OBSERVER", detectObserver(graph));
-        patterns.put("DECORATOR", detectDecorator(graph));
-        patterns.put("FACTORY", detectFactory(graph));
+        patterns.put("STRATEGY", counters.strategies());
+        patterns.put("SINGLETON", counters.singletons());
+        patterns.put("OBSERVER", counters.observers());
+        patterns.put("DECORATOR", counters.decorators());
+        patterns.put("FACTORY", counters.factories());
 
         // Remove empty pattern lists
         patterns.entrySet().removeIf(e -> e.getValue().isEmpty());
@@ -45,130 +58,160 @@ public class DesignPatternRecognizer implements GraphAlgorithm<Map<String, List<
         return patterns;
     }
 
-    /**
-     * Strategy: an interface with 2+ implementing classes.
-     */
-    private List<String> detectStrategy(KnowledgeGraph graph) {
-        List<String> strategies = new ArrayList<>();
-        for (var interfaceId : graph.nodesOfType(KgNodeType.INTERFACE)) {
-            var implementors = graph.edgesOfType(KgEdgeType.IMPLEMENTS).stream()
-                    .filter(e -> interfaceId.equals(e.targetNodeId()))
-                    .count();
-            if (implementors >= 2) {
-                var node = graph.getNode(interfaceId);
-                strategies.add(node != null ? node.name() : interfaceId);
+    /** Per-pattern counters filled from a single pass over the relevant edge types. */
+    private static final class Counters {
+
+        private final KnowledgeGraph graph;
+        private final Map<String, Integer> implementors = new HashMap<>();
+        private final Set<String> selfReferencing = new HashSet<>();
+        private final Map<String, Integer> listenerMethods = new HashMap<>();
+        private final Map<String, String> firstConstructed = new HashMap<>();
+        private final Set<String> constructsSeveral = new HashSet<>();
+        private final Set<String> usesPairs = new HashSet<>();
+
+        private Counters(KnowledgeGraph graph) {
+            this.graph = graph;
+            for (var edge : graph.edgesOfType(KgEdgeType.IMPLEMENTS)) {
+                if (edge.targetNodeId() != null) {
+                    implementors.merge(edge.targetNodeId(), 1, Integer::sum);
+                }
+            }
+            countSelfReferences(KgEdgeType.READS_FIELD);
+            countSelfReferences(KgEdgeType.WRITES_FIELD);
+            countSelfReferences(KgEdgeType.CONSTRUCTS);
+            countConstructed(KgEdgeType.CONSTRUCTS);
+            countConstructed(KgEdgeType.INSTANTIATES);
+            for (var edge : graph.edgesOfType(KgEdgeType.CONTAINS)) {
+                if (isOfType(edge.sourceNodeId(), KgNodeType.CLASS) && isListenerMethod(edge.targetNodeId())) {
+                    listenerMethods.merge(edge.sourceNodeId(), 1, Integer::sum);
+                }
+            }
+            for (var edge : graph.edgesOfType(KgEdgeType.USES)) {
+                usesPairs.add(pair(edge.sourceNodeId(), edge.targetNodeId()));
             }
         }
-        return strategies;
-    }
 
-    /**
-     * Singleton: a class that has a self-referencing field access (READS_FIELD/WRITES_FIELD)
-     * OR constructs itself (CONSTRUCTS self-edge), indicating lazy initialization.
-     */
-    private List<String> detectSingleton(KnowledgeGraph graph) {
-        List<String> singletons = new ArrayList<>();
-        for (var classId : graph.nodesOfType(KgNodeType.CLASS)) {
-            var neighbors = graph.getNeighbors(classId);
-            boolean selfFieldRef = neighbors.stream()
-                    .anyMatch(e -> classId.equals(e.targetNodeId())
-                            && (e.type() == KgEdgeType.READS_FIELD || e.type() == KgEdgeType.WRITES_FIELD));
-            boolean selfConstruct = neighbors.stream()
-                    .anyMatch(e -> classId.equals(e.targetNodeId())
-                            && e.type() == KgEdgeType.CONSTRUCTS);
-            if (selfFieldRef || selfConstruct) {
-                var node = graph.getNode(classId);
-                singletons.add(node != null ? node.name() : classId);
+        /**
+         * Strategy: an interface with 2+ implementing classes.
+         */
+        private List<String> strategies() {
+            List<String> strategies = new ArrayList<>();
+            for (var interfaceId : graph.nodesOfType(KgNodeType.INTERFACE)) {
+                if (implementors.getOrDefault(interfaceId, 0) >= 2) {
+                    strategies.add(nameOf(interfaceId));
+                }
             }
+            return strategies;
         }
-        return singletons;
-    }
 
-    private static final Set<String> OBSERVER_METHOD_PREFIXES = Set.of(
-            "add", "remove", "notify", "fire");
-
-    /**
-     * Observer: a class that PUBLISHES events, OR a class that contains 3+ methods
-     * whose names suggest listener management (add*, remove*, notify*, on*, fire*).
-     */
-    private List<String> detectObserver(KnowledgeGraph graph) {
-        Set<String> observerNames = new LinkedHashSet<>();
-
-        // Detect via PUBLISHES edges
-        for (var edge : graph.edgesOfType(KgEdgeType.PUBLISHES)) {
-            var node = graph.getNode(edge.sourceNodeId());
-            if (node != null) {
-                observerNames.add(node.name());
+        /**
+         * Singleton: a class that has a self-referencing field access (READS_FIELD/WRITES_FIELD)
+         * OR constructs itself (CONSTRUCTS self-edge), indicating lazy initialization.
+         */
+        private List<String> singletons() {
+            List<String> singletons = new ArrayList<>();
+            for (var classId : graph.nodesOfType(KgNodeType.CLASS)) {
+                if (selfReferencing.contains(classId)) {
+                    singletons.add(nameOf(classId));
+                }
             }
+            return singletons;
         }
 
-        // Detect via structural method analysis: class contains 3+ listener-management methods
-        for (var classId : graph.nodesOfType(KgNodeType.CLASS)) {
-            var containedMethods = graph.getNeighbors(classId).stream()
-                    .filter(e -> e.type() == KgEdgeType.CONTAINS)
-                    .map(e -> graph.getNode(e.targetNodeId()))
-                    .filter(n -> n != null && n.type() == KgNodeType.METHOD)
-                    .toList();
-
-            long listenerMethodCount = containedMethods.stream()
-                    .filter(m -> {
-                        var methodName = m.name() != null ? m.name().toLowerCase() : "";
-                        return OBSERVER_METHOD_PREFIXES.stream().anyMatch(methodName::startsWith);
-                    })
-                    .count();
-
-            if (listenerMethodCount >= 3) {
-                var node = graph.getNode(classId);
+        /**
+         * Observer: a class that PUBLISHES events, OR a class that contains 3+ methods
+         * whose names suggest listener management (add*, remove*, notify*, fire*).
+         */
+        private List<String> observers() {
+            Set<String> observerNames = new LinkedHashSet<>();
+            for (var edge : graph.edgesOfType(KgEdgeType.PUBLISHES)) {
+                var node = edge.sourceNodeId() != null ? graph.getNode(edge.sourceNodeId()) : null;
                 if (node != null) {
                     observerNames.add(node.name());
                 }
             }
+            for (var classId : graph.nodesOfType(KgNodeType.CLASS)) {
+                if (listenerMethods.getOrDefault(classId, 0) >= 3) {
+                    observerNames.add(graph.getNode(classId).name());
+                }
+            }
+            return new ArrayList<>(observerNames);
         }
 
-        return new ArrayList<>(observerNames);
-    }
+        /**
+         * Decorator: a class that both EXTENDS another class and CONTAINS a field of the same type.
+         */
+        private List<String> decorators() {
+            List<String> decorators = new ArrayList<>();
+            for (var edge : graph.edgesOfType(KgEdgeType.EXTENDS)) {
+                if (edge.targetNodeId() != null && usesPairs.contains(pair(edge.sourceNodeId(), edge.targetNodeId()))) {
+                    decorators.add(nameOf(edge.sourceNodeId()));
+                }
+            }
+            return decorators;
+        }
 
-    /**
-     * Decorator: a class that both EXTENDS another class and CONTAINS a field of the same type.
-     */
-    private List<String> detectDecorator(KnowledgeGraph graph) {
-        List<String> decorators = new ArrayList<>();
-        for (var extendsEdge : graph.edgesOfType(KgEdgeType.EXTENDS)) {
-            var childId = extendsEdge.sourceNodeId();
-            var parentId = extendsEdge.targetNodeId();
-            // Check if child also has a field referencing parent type
-            boolean hasFieldOfParentType = graph.getNeighbors(childId).stream()
-                    .anyMatch(e -> e.type() == KgEdgeType.USES && parentId.equals(e.targetNodeId()));
-            if (hasFieldOfParentType) {
-                var node = graph.getNode(childId);
-                decorators.add(node != null ? node.name() : childId);
+        /**
+         * Factory: a class that has CONSTRUCTS or INSTANTIATES edges to 2+ different target classes.
+         * Purely structural - no name-based heuristics.
+         */
+        private List<String> factories() {
+            List<String> factories = new ArrayList<>();
+            for (var entry : graph.getNodes().entrySet()) {
+                var node = entry.getValue();
+                if ((node.type() == KgNodeType.CLASS || node.type() == KgNodeType.METHOD)
+                        && constructsSeveral.contains(entry.getKey())) {
+                    factories.add(node.name());
+                }
             }
+            return factories;
         }
-        return decorators;
-    }
 
-    /**
-     * Factory: a class that has CONSTRUCTS or INSTANTIATES edges to 2+ different target classes.
-     * Purely structural - no name-based heuristics.
-     */
-    private List<String> detectFactory(KnowledgeGraph graph) {
-        List<String> factories = new ArrayList<>();
-        for (var entry : graph.getNodes().entrySet()) {
-            var nodeId = entry.getKey();
-            var node = entry.getValue();
-            if (node.type() != KgNodeType.CLASS && node.type() != KgNodeType.METHOD) {
-                continue;
+        private void countSelfReferences(KgEdgeType type) {
+            for (var edge : graph.edgesOfType(type)) {
+                if (edge.sourceNodeId() != null && edge.sourceNodeId().equals(edge.targetNodeId())) {
+                    selfReferencing.add(edge.sourceNodeId());
+                }
+            }
+        }
+
+        /** Tracks the first distinct target per source, and whether a second one exists. */
+        private void countConstructed(KgEdgeType type) {
+            for (var edge : graph.edgesOfType(type)) {
+                var sourceId = edge.sourceNodeId();
+                var targetId = edge.targetNodeId();
+                // exclude self-construction (singleton)
+                if (sourceId == null || sourceId.equals(targetId) || constructsSeveral.contains(sourceId)) {
+                    continue;
+                }
+                var first = firstConstructed.putIfAbsent(sourceId, String.valueOf(targetId));
+                if (first != null && !first.equals(String.valueOf(targetId))) {
+                    constructsSeveral.add(sourceId);
+                }
             }
-            long distinctTargets = graph.getNeighbors(nodeId).stream()
-                    .filter(e -> e.type() == KgEdgeType.CONSTRUCTS || e.type() == KgEdgeType.INSTANTIATES)
-                    .filter(e -> !nodeId.equals(e.targetNodeId())) // exclude self-construction (singleton)
-                    .map(e -> e.targetNodeId())
-                    .distinct()
-                    .count();
-            if (distinctTargets >= 2) {
-                factories.add(node.name());
+        }
+
+        private boolean isListenerMethod(String nodeId) {
+            var node = nodeId != null ? graph.getNode(nodeId) : null;
+            if (node == null || node.type() != KgNodeType.METHOD) {
+                return false;
             }
+            var methodName = node.name() != null ? node.name().toLowerCase() : "";
+            return OBSERVER_METHOD_PREFIXES.stream().anyMatch(methodName::startsWith);
+        }
+
+        private boolean isOfType(String nodeId, KgNodeType type) {
+            var node = nodeId != null ? graph.getNode(nodeId) : null;
+            return node != null && node.type() == type;
+        }
+
+        private String nameOf(String nodeId) {
+            var node = graph.getNode(nodeId);
+            return node != null ? node.name() : nodeId;
+        }
+
+        private static String pair(String sourceId, String targetId) {
+            return sourceId + '\u0000' + targetId;
         }
-        return factories;
     }
 }
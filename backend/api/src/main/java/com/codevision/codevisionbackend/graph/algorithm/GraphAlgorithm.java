@@ -2,6 +2,8 @@ package com.codevision.codevisionbackend.graph.algorithm;
 
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 
+import java.util.Set;
+
 /**
  * Command interface for pluggable graph algorithms.
  * Each algorithm takes a KnowledgeGraph and produces a typed result.
@@ -22,4 +24,40 @@ public interface GraphAlgorithm<R> {
      * @return the computed result
      */
     R execute(KnowledgeGraph graph);
+
+    /**
+     * Derived data this algorithm reads from {@link GraphArtifacts}. The
+     * orchestrator computes these before starting the algorithms so they are
+     * built once and shared.
+     */
+    default Set<GraphArtifacts.Artifact<?>> requiredArtifacts() {
+        return Set.of();
+    }
+
+    /**
+     * Executes the algorithm, reusing artifacts shared with other algorithms
+     * of the same run. The default ignores {@code artifacts}.
+     *
+     * @param graph     the knowledge graph to analyze
+     * @param artifacts shared derived data for {@code graph}
+     * @return the computed result
+     */
+    default R execute(KnowledgeGraph graph, GraphArtifacts artifacts) {
+        return execute(graph);
+    }
+
+    /**
+     * Executes the algorithm as part of an orchestrated run. The default
+     * ignores {@code context}; algorithms that run long should call
+     * {@link AlgorithmContext#checkpoint()} in their outer loops so a run
+     * aborted for its budget stops.
+     *
+     * @param graph     the knowledge graph to analyze
+     * @param artifacts shared derived data for {@code graph}
+     * @param context   e.g. this algorithm's result on an earlier version of the graph
+     * @return the computed result
+     */
+    default R execute(KnowledgeGraph graph, GraphArtifacts artifacts, AlgorithmContext context) {
+        return execute(graph, artifacts);
+    }
 }
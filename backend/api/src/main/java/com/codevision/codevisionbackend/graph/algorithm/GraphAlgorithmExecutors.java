@@ -0,0 +1,133 @@
+package com.codevision.codevisionbackend.graph.algorithm;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads shared by every graph algorithm run, so concurrent runs and the
+ * algorithms that split their work across threads draw from bounded pools
+ * instead of starting and shutting down pools of their own on each call.
+ *
+ * <ul>
+ *   <li>The algorithm pool runs whole algorithms for
+ *       {@link GraphAlgorithmOrchestrator}, on
+ *       {@code graph.algorithms.orchestrator.parallelism} threads.</li>
+ *   <li>The compute pool runs data-parallel work inside one algorithm, on
+ *       {@code graph.algorithms.computeParallelism} fork-join workers.</li>
+ *   <li>The budget monitor is one thread that checks the orchestrator's
+ *       time and allocation budgets.</li>
+ * </ul>
+ *
+ * <p>Zero or a negative size uses every available processor. Pools are created
+ * on first use and their threads are daemons. Algorithms built outside Spring
+ * share {@link #standalone()}.</p>
+ */
+@Component
+public class GraphAlgorithmExecutors {
+
+    private static volatile GraphAlgorithmExecutors standalone;
+
+    private final int computeParallelism;
+    private final int algorithmParallelism;
+    private ForkJoinPool computePool;
+    private ExecutorService algorithmPool;
+    private ScheduledThreadPoolExecutor budgetMonitor;
+
+    public GraphAlgorithmExecutors() {
+        this(0, 0);
+    }
+
+    /**
+     * @param computeParallelism   workers of the compute pool
+     * @param algorithmParallelism algorithms run at once across all orchestrated runs
+     */
+    @Autowired
+    public GraphAlgorithmExecutors(
+            @Value("${graph.algorithms.computeParallelism:0}") int computeParallelism,
+            @Value("${graph.algorithms.orchestrator.parallelism:0}") int algorithmParallelism) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.computeParallelism = computeParallelism > 0 ? computeParallelism : processors;
+        this.algorithmParallelism = algorithmParallelism > 0 ? algorithmParallelism : processors;
+    }
+
+    /** Executors shared by algorithms that are not managed by Spring, e.g. in tests and tools. */
+    public static GraphAlgorithmExecutors standalone() {
+        GraphAlgorithmExecutors executors = standalone;
+        if (executors == null) {
+            synchronized (GraphAlgorithmExecutors.class) {
+                executors = standalone;
+                if (executors == null) {
+                    executors = new GraphAlgorithmExecutors();
+                    standalone = executors;
+                }
+            }
+        }
+        return executors;
+    }
+
+    /** Fork-join pool for data-parallel work inside a single algorithm. */
+    public synchronized ForkJoinPool computePool() {
+        if (computePool == null) {
+            computePool = new ForkJoinPool(computeParallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("graph-compute-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return computePool;
+    }
+
+    /** Fixed pool on which the orchestrator runs algorithms and builds their artifacts. */
+    public synchronized ExecutorService algorithmPool() {
+        if (algorithmPool == null) {
+            algorithmPool = Executors.newFixedThreadPool(algorithmParallelism, daemonThreads("graph-algorithm"));
+        }
+        return algorithmPool;
+    }
+
+    /** Single thread for periodic budget checks; cancelled checks are removed at once. */
+    public synchronized ScheduledExecutorService budgetMonitor() {
+        if (budgetMonitor == null) {
+            budgetMonitor = new ScheduledThreadPoolExecutor(1, daemonThreads("graph-algorithm-budget"));
+            budgetMonitor.setRemoveOnCancelPolicy(true);
+        }
+        return budgetMonitor;
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (computePool != null) {
+            computePool.shutdownNow();
+            computePool = null;
+        }
+        if (algorithmPool != null) {
+            algorithmPool.shutdownNow();
+            algorithmPool = null;
+        }
+        if (budgetMonitor != null) {
+            budgetMonitor.shutdownNow();
+            budgetMonitor = null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -3,26 +3,74 @@ package com.codevision.codevisionbackend.graph.algorithm;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Orchestrates execution of all registered graph algorithms.
  * Runs each algorithm and collects results keyed by algorithm name.
+ *
+ * <p>Both modes share one {@link GraphArtifacts} per run, so intermediates
+ * such as strongly connected components are computed once for every
+ * algorithm that declares them. {@link #runAll(KnowledgeGraph)} runs the
+ * algorithms one after another.
+ * {@link #runConcurrently(KnowledgeGraph)} first builds the declared
+ * artifacts, then runs independent algorithms on the shared
+ * {@link GraphAlgorithmExecutors#algorithmPool() algorithm pool}. Each
+ * algorithm gets a wall-clock budget and, where the JVM can measure per-thread
+ * allocation, an allocation budget that covers every thread the algorithm
+ * works on. Their elapsed time and allocated bytes are reported under
+ * {@value #TIMINGS_KEY}.</p>
  */
 @Component
 public class GraphAlgorithmOrchestrator {
 
     private static final Logger log = LoggerFactory.getLogger(GraphAlgorithmOrchestrator.class);
 
+    /** Results key under which {@link #runConcurrently(KnowledgeGraph)} reports per-algorithm timings. */
+    public static final String TIMINGS_KEY = "timings";
+    private static final long BUDGET_CHECK_INTERVAL_MILLIS = 50;
+
     private final List<GraphAlgorithm<?>> algorithms;
+    private final GraphAlgorithmExecutors executors;
+    private final Duration timeBudget;
+    private final long allocationBudgetBytes;
 
     public GraphAlgorithmOrchestrator(List<GraphAlgorithm<?>> algorithms) {
+        this(algorithms, GraphAlgorithmExecutors.standalone(), 300, 0);
+    }
+
+    /**
+     * @param executors          pools the algorithms and their budget checks run on
+     * @param timeBudgetSeconds  wall-clock budget per algorithm; zero or less disables it
+     * @param allocationBudgetMb bytes an algorithm may allocate across its threads, in MB; zero or less disables it
+     */
+    @Autowired
+    public GraphAlgorithmOrchestrator(
+            List<GraphAlgorithm<?>> algorithms,
+            GraphAlgorithmExecutors executors,
+            @Value("${graph.algorithms.orchestrator.timeBudgetSeconds:300}") long timeBudgetSeconds,
+            @Value("${graph.algorithms.orchestrator.allocationBudgetMb:0}") long allocationBudgetMb) {
         this.algorithms = algorithms;
+        this.executors = executors;
+        this.timeBudget = Duration.ofSeconds(Math.max(0, timeBudgetSeconds));
+        this.allocationBudgetBytes = Math.max(0, allocationBudgetMb) * 1024 * 1024;
     }
 
     /**
@@ -32,11 +80,12 @@ public class GraphAlgorithmOrchestrator {
      * @return map of algorithm name to result
      */
     public Map<String, Object> runAll(KnowledgeGraph graph) {
+        var artifacts = new GraphArtifacts(graph);
         Map<String, Object> results = new LinkedHashMap<>();
         for (var algorithm : algorithms) {
             try {
                 log.info("Running algorithm: {}", algorithm.name());
-                var result = algorithm.execute(graph);
+                var result = algorithm.execute(graph, artifacts);
                 results.put(algorithm.name(), result);
                 log.info("Algorithm {} completed", algorithm.name());
             } catch (Exception e) {
@@ -47,6 +96,92 @@ public class GraphAlgorithmOrchestrator {
         return results;
     }
 
+    /**
+     * Runs all registered algorithms concurrently, after building the
+     * artifacts they declare. An algorithm that fails or exceeds its budget
+     * gets an {@code error} entry, and the others are unaffected. A run over
+     * budget is aborted through its {@link AlgorithmContext}: the algorithm's
+     * next {@link AlgorithmContext#checkpoint()} throws, and its thread is
+     * interrupted in case it is blocked. An algorithm that never reaches a
+     * checkpoint keeps its thread until it returns, but its result is
+     * discarded.
+     *
+     * @param graph the knowledge graph to analyze
+     * @return algorithm name to result, in registration order, followed by
+     *         {@value #TIMINGS_KEY}: algorithm name to status, elapsed
+     *         milliseconds and allocated bytes
+     */
+    public Map<String, Object> runConcurrently(KnowledgeGraph graph) {
+        return runConcurrently(graph, new GraphArtifacts(graph));
+    }
+
+    /**
+     * Runs all registered algorithms concurrently, reusing artifacts already
+     * built for {@code graph}, e.g. by an earlier run on a cached graph.
+     *
+     * @param graph     the knowledge graph to analyze
+     * @param artifacts shared derived data for {@code graph}
+     * @return as {@link #runConcurrently(KnowledgeGraph)}
+     */
+    public Map<String, Object> runConcurrently(KnowledgeGraph graph, GraphArtifacts artifacts) {
+        return runConcurrently(graph, artifacts, Map.of());
+    }
+
+    /**
+     * Runs all registered algorithms concurrently, handing each one its
+     * result from an earlier run on a previous version of the graph, so
+     * iterative algorithms such as PageRank can warm-start.
+     *
+     * @param graph           the knowledge graph to analyze
+     * @param artifacts       shared derived data for {@code graph}
+     * @param previousResults results of an earlier run, as returned by this method; may be empty
+     * @return as {@link #runConcurrently(KnowledgeGraph)}
+     */
+    public Map<String, Object> runConcurrently(
+            KnowledgeGraph graph, GraphArtifacts artifacts, Map<String, Object> previousResults) {
+        var executor = executors.algorithmPool();
+        prepareArtifacts(artifacts, executor);
+
+        List<Run> runs = new ArrayList<>();
+        for (var algorithm : algorithms) {
+            var context = AlgorithmContext.warmStart(previousResults.get(algorithm.name()));
+            var run = new Run(algorithm, graph, artifacts, context);
+            runs.add(run);
+            executor.execute(run::start);
+        }
+        ScheduledFuture<?> budgets = executors.budgetMonitor().scheduleAtFixedRate(
+                () -> runs.forEach(this::enforceBudget),
+                BUDGET_CHECK_INTERVAL_MILLIS, BUDGET_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        try {
+            Map<String, Object> results = new LinkedHashMap<>();
+            Map<String, Object> timings = new LinkedHashMap<>();
+            for (var run : runs) {
+                String name = run.algorithm.name();
+                results.put(name, run.await());
+                timings.put(name, run.timing());
+            }
+            results.put(TIMINGS_KEY, timings);
+            return results;
+        } finally {
+            budgets.cancel(false);
+            // Only left running when waiting for the results was interrupted
+            runs.forEach(run -> run.abort("orchestrated run abandoned"));
+        }
+    }
+
+    /**
+     * Whether every algorithm of a {@link #runConcurrently(KnowledgeGraph)}
+     * result completed, i.e. none was aborted or failed.
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean allCompleted(Map<String, Object> results) {
+        if (!(results.get(TIMINGS_KEY) instanceof Map<?, ?> timings)) {
+            return false;
+        }
+        return ((Map<String, Map<String, Object>>) timings).values().stream()
+                .allMatch(timing -> "completed".equals(timing.get("status")));
+    }
+
     /**
      * Finds an algorithm by name.
      */
@@ -62,4 +197,126 @@ public class GraphAlgorithmOrchestrator {
     public List<GraphAlgorithm<?>> registeredAlgorithms() {
         return List.copyOf(algorithms);
     }
+
+    /** Builds every declared artifact in parallel; artifacts that depend on each other wait on one another. */
+    private void prepareArtifacts(GraphArtifacts artifacts, ExecutorService executor) {
+        Set<GraphArtifacts.Artifact<?>> required = new LinkedHashSet<>();
+        algorithms.forEach(algorithm -> required.addAll(algorithm.requiredArtifacts()));
+        List<FutureTask<Object>> tasks = new ArrayList<>();
+        for (var artifact : required) {
+            var task = new FutureTask<Object>(() -> artifacts.get(artifact));
+            tasks.add(task);
+            executor.execute(task);
+        }
+        for (var task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted preparing graph artifacts");
+            } catch (ExecutionException e) {
+                // The algorithms needing it will hit the same failure and report it
+                log.warn("Graph artifact failed: {}", e.getCause().getMessage());
+            }
+        }
+    }
+
+    private void enforceBudget(Run run) {
+        if (!run.isRunning()) {
+            return;
+        }
+        if (!timeBudget.isZero() && run.elapsedNanos() > timeBudget.toNanos()) {
+            run.abort("time budget of " + timeBudget.toSeconds() + "s exceeded");
+        } else if (allocationBudgetBytes > 0 && run.allocatedBytes() > allocationBudgetBytes) {
+            run.abort("allocation budget of " + allocationBudgetBytes / (1024 * 1024) + " MB exceeded");
+        }
+    }
+
+    /** One algorithm's execution, with the measurements its budgets are checked against. */
+    private static final class Run {
+
+        private final GraphAlgorithm<?> algorithm;
+        private final AlgorithmContext context;
+        private final FutureTask<Object> task;
+        private volatile Thread thread;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile String abortReason;
+        private volatile boolean failed;
+
+        private Run(GraphAlgorithm<?> algorithm, KnowledgeGraph graph, GraphArtifacts artifacts,
+                AlgorithmContext context) {
+            this.algorithm = algorithm;
+            this.context = context;
+            this.task = new FutureTask<>(() -> context.measure(() -> algorithm.execute(graph, artifacts, context)));
+        }
+
+        private void start() {
+            if (task.isDone()) {
+                return;
+            }
+            thread = Thread.currentThread();
+            startNanos = System.nanoTime();
+            log.info("Running algorithm: {}", algorithm.name());
+            try {
+                task.run();
+            } finally {
+                endNanos = System.nanoTime();
+                thread = null;
+            }
+        }
+
+        private boolean isRunning() {
+            return thread != null && !task.isDone();
+        }
+
+        private long elapsedNanos() {
+            long start = startNanos;
+            if (start == 0) {
+                return 0;
+            }
+            long end = endNanos;
+            return (end == 0 ? System.nanoTime() : end) - start;
+        }
+
+        private long allocatedBytes() {
+            return context.allocatedBytes();
+        }
+
+        private void abort(String reason) {
+            if (task.isDone()) {
+                return;
+            }
+            abortReason = reason;
+            context.abort(reason);
+            task.cancel(true);
+        }
+
+        private Object await() {
+            try {
+                Object result = task.get();
+                log.info("Algorithm {} completed in {} ms", algorithm.name(), elapsedNanos() / 1_000_000);
+                return result;
+            } catch (CancellationException e) {
+                log.warn("Algorithm {} aborted: {}", algorithm.name(), abortReason);
+                return Map.of("error", String.valueOf(abortReason));
+            } catch (ExecutionException e) {
+                failed = true;
+                Throwable cause = e.getCause();
+                log.error("Algorithm {} failed: {}", algorithm.name(), cause.getMessage(), cause);
+                return Map.of("error", String.valueOf(cause.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted waiting for algorithm " + algorithm.name());
+            }
+        }
+
+        private Map<String, Object> timing() {
+            Map<String, Object> timing = new LinkedHashMap<>();
+            timing.put("status", abortReason != null ? "aborted" : failed ? "failed" : "completed");
+            timing.put("elapsedMillis", elapsedNanos() / 1_000_000);
+            timing.put("allocatedBytes", allocatedBytes());
+            return timing;
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package com.codevision.codevisionbackend.graph.algorithm;
+
+import com.codevision.codevisionbackend.graph.CompactGraph;
+import com.codevision.codevisionbackend.graph.KgEdge;
+import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+/**
+ * Derived data shared by the graph algorithms of one run over one graph.
+ *
+ * <p>Each {@link Artifact} is computed at most once, on first request. Threads
+ * that ask for an artifact while another thread computes it wait for that
+ * result instead of computing their own. Artifacts may depend on each other
+ * through {@link #get(Artifact)}. Algorithms list the artifacts they use in
+ * {@link GraphAlgorithm#requiredArtifacts()}, so the orchestrator can build
+ * shared ones before it starts the algorithms.</p>
+ *
+ * <p>The graph must not change while its artifacts are in use.</p>
+ */
+public final class GraphArtifacts {
+
+    /** The graph's compact, int-indexed view. */
+    public static final Artifact<CompactGraph> COMPACT =
+            new Artifact<>("compact", artifacts -> artifacts.graph().compact());
+
+    /**
+     * Every strongly connected component, trivial ones included, as dense node
+     * indices of {@link #COMPACT}, in reverse topological order.
+     */
+    public static final Artifact<List<int[]>> STRONGLY_CONNECTED_COMPONENTS =
+            new Artifact<>("strongly-connected-components",
+                    artifacts -> TarjanSccAlgorithm.components(artifacts.get(COMPACT)));
+
+    /** Transitive closure over the condensed {@link #STRONGLY_CONNECTED_COMPONENTS}. */
+    public static final Artifact<ReachabilityIndex> REACHABILITY =
+            new Artifact<>("reachability",
+                    artifacts -> ReachabilityIndex.of(artifacts.get(COMPACT),
+                            artifacts.get(STRONGLY_CONNECTED_COMPONENTS)));
+
+    /** Per-node edge counts, parallel edges included; see {@link EdgeDegrees}. */
+    public static final Artifact<EdgeDegrees> EDGE_DEGREES =
+            new Artifact<>("edge-degrees", GraphArtifacts::edgeDegrees);
+
+    /** Forward adjacency by node id, as built by {@link KnowledgeGraph#buildAdjacencyMap()}. */
+    public static final Artifact<Map<String, Set<String>>> ADJACENCY =
+            new Artifact<>("adjacency", artifacts -> artifacts.graph().buildAdjacencyMap());
+
+    private final KnowledgeGraph graph;
+    private final Map<Artifact<?>, FutureTask<?>> values = new ConcurrentHashMap<>();
+
+    public GraphArtifacts(KnowledgeGraph graph) {
+        this.graph = Objects.requireNonNull(graph);
+    }
+
+    public KnowledgeGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns {@code artifact}, computing it on the calling thread unless
+     * another thread already is, in which case this call waits for it.
+     *
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Artifact<T> artifact) {
+        FutureTask<?> task = values.computeIfAbsent(artifact,
+                key -> new FutureTask<>(() -> artifact.factory().apply(this)));
+        task.run();
+        try {
+            return (T) task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for artifact " + artifact.name());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Failed to compute artifact " + artifact.name(), cause);
+        }
+    }
+
+    /**
+     * Counts, for every node of {@link #COMPACT}, the edges that end at it and
+     * start at it. Every edge counts, parallel edges included, for each
+     * endpoint that is a node of the graph.
+     */
+    private static EdgeDegrees edgeDegrees(GraphArtifacts artifacts) {
+        CompactGraph compact = artifacts.get(COMPACT);
+        int[] in = new int[compact.nodeCount()];
+        int[] out = new int[compact.nodeCount()];
+        for (KgEdge edge : artifacts.graph().getEdges()) {
+            int source = compact.indexOf(edge.sourceNodeId());
+            int target = compact.indexOf(edge.targetNodeId());
+            if (source >= 0) {
+                out[source]++;
+            }
+            if (target >= 0) {
+                in[target]++;
+            }
+        }
+        return new EdgeDegrees(in, out);
+    }
+
+    /**
+     * Raw fan-in and fan-out per dense node index.
+     *
+     * @param in  incoming edge count per node
+     * @param out outgoing edge count per node
+     */
+    public record EdgeDegrees(int[] in, int[] out) {}
+
+    /**
+     * Key and factory of one kind of derived data. Artifacts compare by
+     * identity, so declare each one once as a constant.
+     *
+     * @param <T> the artifact's type
+     */
+    public static final class Artifact<T> {
+
+        private final String name;
+        private final Function<GraphArtifacts, T> factory;
+
+        public Artifact(String name, Function<GraphArtifacts, T> factory) {
+            this.name = Objects.requireNonNull(name);
+            this.factory = Objects.requireNonNull(factory);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        Function<GraphArtifacts, T> factory() {
+            return factory;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.codevision.codevisionbackend.graph.algorithm;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashMap;
@@ -15,12 +14,16 @@ import java.util.Set;
  * Analyzes the impact of changing a given node by computing its forward
  * transitive closure (all nodes reachable from it via outgoing edges).
  * Answers: "If I change X, what else might break?"
+ *
+ * <p>{@link #execute(KnowledgeGraph)} answers every node from one
+ * {@link ReachabilityIndex}, so its sets are views whose size and membership
+ * come from the index. They hold the graph's nodes only; edges to ids that
+ * are not nodes are ignored there, while
+ * {@link #analyzeImpact(KnowledgeGraph, String)} still includes such ids.</p>
  */
 @Component
 public class ImpactAnalyzer implements GraphAlgorithm<Map<String, Set<String>>> {
 
-    private static final long DEFAULT_MAX_RUNTIME_SECONDS = 120;
-
     @Override
     public String name() {
         return "impact-analyzer";
@@ -28,18 +31,24 @@ public class ImpactAnalyzer implements GraphAlgorithm<Map<String, Set<String>>>
 
     /**
      * Returns a map of each node to its forward transitive closure.
-     * Uses a time-based deadline to prevent runaway computation on large graphs.
      * For targeted use, prefer {@link #analyzeImpact(KnowledgeGraph, String)}.
      */
     @Override
     public Map<String, Set<String>> execute(KnowledgeGraph graph) {
+        return execute(graph, new GraphArtifacts(graph));
+    }
+
+    @Override
+    public Set<GraphArtifacts.Artifact<?>> requiredArtifacts() {
+        return Set.of(GraphArtifacts.REACHABILITY);
+    }
+
+    @Override
+    public Map<String, Set<String>> execute(KnowledgeGraph graph, GraphArtifacts artifacts) {
+        ReachabilityIndex reachability = artifacts.get(GraphArtifacts.REACHABILITY);
         var result = new HashMap<String, Set<String>>();
-        var deadline = Instant.now().plusSeconds(DEFAULT_MAX_RUNTIME_SECONDS);
         for (var nodeId : graph.getNodes().keySet()) {
-            if (Instant.now().isAfter(deadline)) {
-                break;
-            }
-            result.put(nodeId, analyzeImpact(graph, nodeId));
+            result.put(nodeId, reachability.reachableFrom(nodeId));
         }
         return result;
     }
@@ -1,18 +1,38 @@
 package com.codevision.codevisionbackend.graph.algorithm;
 
-import com.codevision.codevisionbackend.graph.KgEdge;
+import com.codevision.codevisionbackend.graph.CompactGraph;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * Computes PageRank scores for all nodes in the knowledge graph.
- * Uses the standard iterative algorithm with damping factor 0.85.
+ * Uses the standard iterative algorithm with damping factor 0.85, pulling
+ * rank over the graph's {@link CompactGraph} in-adjacency with primitive
+ * rank arrays.
+ *
+ * <p>Each iteration first computes every node's outgoing contribution
+ * ({@code rank / outDegree}) into a flat array, then sums contributions per
+ * node. Both passes run over node ranges that hold about the same number of
+ * in-edges. On graphs with at least {@value #PARALLEL_EDGE_THRESHOLD} edges
+ * the ranges are split into {@code graph.algorithms.pagerank.parallelism}
+ * workers' worth of chunks and run on the shared
+ * {@link GraphAlgorithmExecutors#computePool() compute pool}. Dangling nodes are
+ * found once, so their rank mass costs O(dangling) per iteration.</p>
+ *
+ * <p>{@link #execute(KnowledgeGraph, Map)} warm-starts from earlier scores.
+ * Orchestrated runs pass the scores of the project's previous graph through
+ * {@link AlgorithmContext#previousResult()}, so a graph that changed little
+ * converges in a few iterations.</p>
  */
 @Component
 public class PageRankAlgorithm implements GraphAlgorithm<Map<String, Double>> {
@@ -23,6 +43,32 @@ public class PageRankAlgorithm implements GraphAlgorithm<Map<String, Double>> {
     private static final double DEFAULT_CONVERGENCE_THRESHOLD = 1e-6;
     /** Safety: time-based deadline instead of iteration cap */
     private static final long DEFAULT_MAX_RUNTIME_SECONDS = 60;
+    /** Below this many edges a pool costs more than it saves. */
+    static final int PARALLEL_EDGE_THRESHOLD = 100_000;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int parallelism;
+    private final GraphAlgorithmExecutors executors;
+
+    public PageRankAlgorithm() {
+        this(1);
+    }
+
+    public PageRankAlgorithm(int parallelism) {
+        this(parallelism, GraphAlgorithmExecutors.standalone());
+    }
+
+    /**
+     * @param parallelism number of threads; zero or a negative value uses every available processor
+     * @param executors   pool the iterations run on when the graph is large enough
+     */
+    @Autowired
+    public PageRankAlgorithm(
+            @Value("${graph.algorithms.pagerank.parallelism:0}") int parallelism,
+            GraphAlgorithmExecutors executors) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.executors = executors;
+    }
 
     @Override
     public String name() {
@@ -31,76 +77,202 @@ public class PageRankAlgorithm implements GraphAlgorithm<Map<String, Double>> {
 
     @Override
     public Map<String, Double> execute(KnowledgeGraph graph) {
-        var nodeIds = graph.getNodes().keySet();
-        if (nodeIds.isEmpty()) {
+        return execute(graph, Map.of());
+    }
+
+    /** Warm-starts from the previous result in {@code context}, when it holds PageRank scores. */
+    @Override
+    public Map<String, Double> execute(KnowledgeGraph graph, GraphArtifacts artifacts, AlgorithmContext context) {
+        return execute(graph, previousRanks(context.previousResult()), context);
+    }
+
+    /**
+     * Computes PageRank starting from {@code previousRanks} instead of the
+     * uniform distribution. Nodes without a previous score start at
+     * {@code 1 / n}; the start vector is normalised before iterating.
+     *
+     * @param graph         the knowledge graph to analyze
+     * @param previousRanks earlier scores keyed by node id; may be empty
+     * @return PageRank score per node id, summing to 1.0
+     */
+    public Map<String, Double> execute(KnowledgeGraph graph, Map<String, Double> previousRanks) {
+        return execute(graph, previousRanks, AlgorithmContext.NONE);
+    }
+
+    private Map<String, Double> execute(
+            KnowledgeGraph graph, Map<String, Double> previousRanks, AlgorithmContext context) {
+        CompactGraph compact = graph.compact();
+        if (compact.nodeCount() == 0) {
             return Map.of();
         }
+        return compact.toMap(run(compact, initialRanks(compact, previousRanks), context).ranks());
+    }
 
-        int n = nodeIds.size();
-        double initialRank = 1.0 / n;
+    Result run(CompactGraph compact, double[] ranks) {
+        return run(compact, ranks, AlgorithmContext.NONE);
+    }
 
-        Map<String, Double> ranks = new HashMap<>();
-        Map<String, Set<String>> incomingMap = new HashMap<>();
-        Map<String, Integer> outDegree = new HashMap<>();
+    /**
+     * Iterates from {@code ranks} (which may be overwritten) to convergence or
+     * the deadline, checking {@code context} before every iteration.
+     */
+    Result run(CompactGraph compact, double[] ranks, AlgorithmContext context) {
+        int n = compact.nodeCount();
+        int[] inOffsets = compact.inOffsets();
+        int[] inSources = compact.inSources();
 
-        // Initialize
-        for (var id : nodeIds) {
-            ranks.put(id, initialRank);
-            incomingMap.put(id, new HashSet<>());
-            outDegree.put(id, 0);
+        double[] inverseOutDegree = new double[n];
+        int danglingCount = 0;
+        for (int v = 0; v < n; v++) {
+            int degree = compact.outDegree(v);
+            if (degree == 0) {
+                danglingCount++;
+            } else {
+                inverseOutDegree[v] = 1.0 / degree;
+            }
         }
-
-        // Build adjacency from edges
-        for (var edge : graph.getEdges()) {
-            var src = edge.sourceNodeId();
-            var tgt = edge.targetNodeId();
-            if (src != null && tgt != null && nodeIds.contains(src) && nodeIds.contains(tgt)) {
-                incomingMap.computeIfAbsent(tgt, k -> new HashSet<>()).add(src);
-                outDegree.merge(src, 1, Integer::sum);
+        int[] dangling = new int[danglingCount];
+        for (int v = 0, d = 0; v < n; v++) {
+            if (compact.outDegree(v) == 0) {
+                dangling[d++] = v;
             }
         }
 
+        boolean parallel = parallelism > 1 && compact.edgeCount() >= PARALLEL_EDGE_THRESHOLD;
+        int[] bounds = chunkBounds(inOffsets, parallel ? parallelism * CHUNKS_PER_THREAD : 1);
+        int chunks = bounds.length - 1;
+        double[] contribution = new double[n];
+        double[] newRanks = new double[n];
+        double[] chunkDelta = new double[chunks];
+        ForkJoinPool pool = parallel ? executors.computePool() : null;
+        int iterations = 0;
+
         // Iterative computation with time-based deadline (no hardcoded iteration limit)
         var deadline = Instant.now().plusSeconds(DEFAULT_MAX_RUNTIME_SECONDS);
-        for (int iter = 0; Instant.now().isBefore(deadline); iter++) {
-            Map<String, Double> newRanks = new HashMap<>();
-            double maxDelta = 0.0;
+        while (Instant.now().isBefore(deadline)) {
+            context.checkpoint();
+            iterations++;
+            double[] current = ranks;
+            double[] next = newRanks;
 
-            // Handle dangling nodes (no outgoing edges) - distribute their rank evenly
+            // Dangling nodes (no outgoing edges) distribute their rank evenly
             double danglingSum = 0.0;
-            for (var id : nodeIds) {
-                if (outDegree.getOrDefault(id, 0) == 0) {
-                    danglingSum += ranks.get(id);
-                }
+            for (int v : dangling) {
+                danglingSum += current[v];
             }
+            double base = (1.0 - DEFAULT_DAMPING_FACTOR) / n + DEFAULT_DAMPING_FACTOR * danglingSum / n;
 
-            for (var id : nodeIds) {
-                double sum = 0.0;
-                for (var incoming : incomingMap.getOrDefault(id, Set.of())) {
-                    int out = outDegree.getOrDefault(incoming, 1);
-                    sum += ranks.get(incoming) / out;
+            forEachChunk(pool, context, chunks, c -> {
+                for (int v = bounds[c]; v < bounds[c + 1]; v++) {
+                    contribution[v] = current[v] * inverseOutDegree[v];
                 }
-                double newRank = (1.0 - DEFAULT_DAMPING_FACTOR) / n
-                        + DEFAULT_DAMPING_FACTOR * (sum + danglingSum / n);
-                newRanks.put(id, newRank);
-                maxDelta = Math.max(maxDelta, Math.abs(newRank - ranks.get(id)));
-            }
+            });
+            forEachChunk(pool, context, chunks, c -> {
+                double maxDelta = 0.0;
+                for (int v = bounds[c]; v < bounds[c + 1]; v++) {
+                    double sum = 0.0;
+                    for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+                        sum += contribution[inSources[i]];
+                    }
+                    double newRank = base + DEFAULT_DAMPING_FACTOR * sum;
+                    next[v] = newRank;
+                    maxDelta = Math.max(maxDelta, Math.abs(newRank - current[v]));
+                }
+                chunkDelta[c] = maxDelta;
+            });
 
-            ranks = newRanks;
+            newRanks = current;
+            ranks = next;
 
+            double maxDelta = 0.0;
+            for (double delta : chunkDelta) {
+                maxDelta = Math.max(maxDelta, delta);
+            }
             if (maxDelta < DEFAULT_CONVERGENCE_THRESHOLD) {
                 break;
             }
         }
 
-        // Normalize so ranks sum to 1.0
-        double total = ranks.values().stream().mapToDouble(Double::doubleValue).sum();
-        if (total > 0) {
-            for (var entry : ranks.entrySet()) {
-                ranks.put(entry.getKey(), entry.getValue() / total);
+        normalize(ranks);
+        return new Result(ranks, iterations);
+    }
+
+    /** Final ranks together with the number of iterations it took to reach them. */
+    record Result(double[] ranks, int iterations) {}
+
+    /** Scores in {@code previousResult} when it is a node-id-to-score map; anything else is ignored. */
+    private static Map<String, Double> previousRanks(Object previousResult) {
+        if (!(previousResult instanceof Map<?, ?> map)) {
+            return Map.of();
+        }
+        Map<String, Double> ranks = new HashMap<>(map.size() * 2);
+        for (var entry : map.entrySet()) {
+            if (entry.getKey() instanceof String id && entry.getValue() instanceof Number score) {
+                ranks.put(id, score.doubleValue());
             }
         }
+        return ranks;
+    }
 
+    private static double[] initialRanks(CompactGraph compact, Map<String, Double> previousRanks) {
+        int n = compact.nodeCount();
+        double[] ranks = new double[n];
+        Arrays.fill(ranks, 1.0 / n);
+        if (previousRanks != null && !previousRanks.isEmpty()) {
+            for (int v = 0; v < n; v++) {
+                Double previous = previousRanks.get(compact.id(v));
+                if (previous != null && previous > 0 && Double.isFinite(previous)) {
+                    ranks[v] = previous;
+                }
+            }
+            normalize(ranks);
+        }
         return ranks;
     }
+
+    /** Normalize so ranks sum to 1.0 */
+    private static void normalize(double[] ranks) {
+        double total = 0.0;
+        for (double rank : ranks) {
+            total += rank;
+        }
+        if (total > 0) {
+            for (int v = 0; v < ranks.length; v++) {
+                ranks[v] /= total;
+            }
+        }
+    }
+
+    /**
+     * Splits {@code 0..n} into at most {@code chunks} contiguous node ranges
+     * holding roughly equal numbers of in-edges.
+     */
+    private static int[] chunkBounds(int[] inOffsets, int chunks) {
+        int n = inOffsets.length - 1;
+        int count = Math.max(1, Math.min(chunks, n));
+        int[] bounds = new int[count + 1];
+        long edges = inOffsets[n];
+        for (int c = 1; c < count; c++) {
+            int target = (int) (edges * c / count);
+            int position = Arrays.binarySearch(inOffsets, 0, n, target);
+            int split = position >= 0 ? position : -position - 1;
+            bounds[c] = Math.min(n, Math.max(bounds[c - 1], split));
+        }
+        bounds[count] = n;
+        return bounds;
+    }
+
+    /** Runs the chunks on the calling thread, or on {@code pool} with each chunk's allocation counted in {@code context}. */
+    private static void forEachChunk(ForkJoinPool pool, AlgorithmContext context, int chunks, IntConsumer body) {
+        if (pool == null) {
+            for (int c = 0; c < chunks; c++) {
+                body.accept(c);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c -> context.measure(() -> {
+                body.accept(c);
+                return null;
+            }))).join();
+        }
+    }
 }
@@ -0,0 +1,338 @@
+package com.codevision.codevisionbackend.graph.algorithm;
+
+import com.codevision.codevisionbackend.graph.CompactGraph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Transitive-closure index over the graph's strongly connected components.
+ *
+ * <p>Every strongly connected component becomes one vertex of a DAG, numbered
+ * in the reverse topological order that Tarjan's algorithm emits, so a
+ * component only reaches components with a smaller number. Components are
+ * processed in that order. The set of components a component reaches is its
+ * own bit ORed with the sets of its successors, stored as a bitset that
+ * starts at the 64-bit word of its lowest member. Reachability, impact size
+ * and depth then cost one bit test or array read per query instead of a
+ * traversal.</p>
+ *
+ * <p>Closure sets can take quadratic space on long chains. Once the stored
+ * words reach {@code maxWords}, later components keep no set. Queries on those
+ * walk the condensed DAG until they reach components that have a stored set.
+ * Depth and impact size are computed for every component either way.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+public final class ReachabilityIndex {
+
+    /** About 256 MB of closure bitsets. */
+    static final long DEFAULT_MAX_WORDS = 32L * 1024 * 1024;
+
+    private final CompactGraph compact;
+    private final int[] componentOf;
+    private final int[][] members;
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final int[] depth;
+    private final int[] impactSize;
+    private final int[] firstWord;
+    private final long[][] words;
+
+    private ReachabilityIndex(CompactGraph compact, List<int[]> components, long maxWords) {
+        this.compact = compact;
+        int n = compact.nodeCount();
+        int c = components.size();
+        this.members = components.toArray(new int[0][]);
+        this.componentOf = new int[n];
+        for (int component = 0; component < c; component++) {
+            for (int node : members[component]) {
+                componentOf[node] = component;
+            }
+        }
+
+        // Condensed DAG in CSR form, duplicate component edges removed
+        int[] outOffsets = compact.outOffsets();
+        int[] outTargets = compact.outTargets();
+        this.successorOffsets = new int[c + 1];
+        int[] buffer = new int[Math.max(16, compact.edgeCount())];
+        int count = 0;
+        int[] lastSeen = new int[c];
+        Arrays.fill(lastSeen, -1);
+        for (int component = 0; component < c; component++) {
+            successorOffsets[component] = count;
+            for (int node : members[component]) {
+                for (int i = outOffsets[node]; i < outOffsets[node + 1]; i++) {
+                    int target = componentOf[outTargets[i]];
+                    if (target != component && lastSeen[target] != component) {
+                        lastSeen[target] = component;
+                        buffer[count++] = target;
+                    }
+                }
+            }
+        }
+        successorOffsets[c] = count;
+        this.successors = Arrays.copyOf(buffer, count);
+
+        this.depth = new int[c];
+        this.impactSize = new int[c];
+        this.firstWord = new int[c];
+        this.words = new long[c][];
+        boolean singletons = components.stream().allMatch(component -> component.length == 1);
+        long stored = 0;
+        for (int component = 0; component < c; component++) {
+            int longest = 0;
+            for (int i = successorOffsets[component]; i < successorOffsets[component + 1]; i++) {
+                longest = Math.max(longest, depth[successors[i]] + 1);
+            }
+            depth[component] = longest;
+
+            if (stored < maxWords) {
+                storeClosure(component);
+                stored += words[component].length;
+                impactSize[component] = singletons
+                        ? bitCount(words[component])
+                        : weightedCount(firstWord[component], words[component]);
+            } else {
+                long[] closure = closure(component);
+                impactSize[component] = singletons ? bitCount(closure) : weightedCount(0, closure);
+            }
+        }
+    }
+
+    /**
+     * Builds the index with the default memory cap.
+     *
+     * @param compact    the graph
+     * @param components every strongly connected component of {@code compact}, in reverse topological order
+     * @return the index
+     */
+    public static ReachabilityIndex of(CompactGraph compact, List<int[]> components) {
+        return of(compact, components, DEFAULT_MAX_WORDS);
+    }
+
+    static ReachabilityIndex of(CompactGraph compact, List<int[]> components, long maxWords) {
+        return new ReachabilityIndex(compact, components, maxWords);
+    }
+
+    /** Number of strongly connected components, i.e. vertices of the condensed DAG. */
+    public int componentCount() {
+        return members.length;
+    }
+
+    /**
+     * Whether {@code to} can be reached from {@code from} along outgoing edges.
+     * Every node reaches itself; unknown ids reach nothing.
+     */
+    public boolean reaches(String from, String to) {
+        int source = compact.indexOf(from);
+        int target = compact.indexOf(to);
+        if (source < 0 || target < 0) {
+            return false;
+        }
+        int sourceComponent = componentOf[source];
+        int targetComponent = componentOf[target];
+        if (targetComponent > sourceComponent) {
+            return false;
+        }
+        if (words[sourceComponent] != null) {
+            return test(firstWord[sourceComponent], words[sourceComponent], targetComponent);
+        }
+        return test(0, closure(sourceComponent), targetComponent);
+    }
+
+    /**
+     * Number of nodes reachable from {@code id}, itself included; zero for an
+     * unknown id.
+     */
+    public int impactSize(String id) {
+        int node = compact.indexOf(id);
+        return node < 0 ? 0 : impactSize[componentOf[node]];
+    }
+
+    /**
+     * Length of the longest chain of components below {@code id}'s component
+     * in the condensed DAG: zero for a node that reaches only its own cycle.
+     * Zero for an unknown id.
+     */
+    public int depth(String id) {
+        int node = compact.indexOf(id);
+        return node < 0 ? 0 : depth(node);
+    }
+
+    /** {@link #depth(String)} by dense node index. */
+    public int depth(int node) {
+        return depth[componentOf[node]];
+    }
+
+    /** Component number of a dense node index; see the class comment for the numbering. */
+    public int componentOf(int node) {
+        return componentOf[node];
+    }
+
+    /**
+     * The ids reachable from {@code id}, itself included, as an unmodifiable
+     * view. {@code size()} and {@code contains()} are answered from the index;
+     * iterating lists the members of every reached component.
+     */
+    public Set<String> reachableFrom(String id) {
+        int node = compact.indexOf(id);
+        if (node < 0) {
+            return Set.of();
+        }
+        int component = componentOf[node];
+        return words[component] != null
+                ? new ReachableSet(component, firstWord[component], words[component])
+                : new ReachableSet(component, 0, closure(component));
+    }
+
+    /** ORs the successors' stored closures and the component's own bit. */
+    private void storeClosure(int component) {
+        int low = component >>> 6;
+        int high = low;
+        for (int i = successorOffsets[component]; i < successorOffsets[component + 1]; i++) {
+            int successor = successors[i];
+            low = Math.min(low, firstWord[successor]);
+            high = Math.max(high, firstWord[successor] + words[successor].length - 1);
+        }
+        long[] closure = new long[high - low + 1];
+        for (int i = successorOffsets[component]; i < successorOffsets[component + 1]; i++) {
+            int successor = successors[i];
+            long[] successorWords = words[successor];
+            int offset = firstWord[successor] - low;
+            for (int w = 0; w < successorWords.length; w++) {
+                closure[offset + w] |= successorWords[w];
+            }
+        }
+        closure[(component >>> 6) - low] |= 1L << component;
+        firstWord[component] = low;
+        words[component] = closure;
+    }
+
+    /**
+     * Closure of a component without a stored set, as words starting at zero:
+     * walks the condensed DAG and ORs in stored closures where it meets them.
+     */
+    private long[] closure(int component) {
+        long[] closure = new long[(component >>> 6) + 1];
+        int[] stack = new int[Math.max(1, component + 1)];
+        int top = 0;
+        stack[top++] = component;
+        closure[component >>> 6] |= 1L << component;
+        while (top > 0) {
+            int current = stack[--top];
+            for (int i = successorOffsets[current]; i < successorOffsets[current + 1]; i++) {
+                int successor = successors[i];
+                if (test(0, closure, successor)) {
+                    continue;
+                }
+                if (words[successor] != null) {
+                    long[] successorWords = words[successor];
+                    int offset = firstWord[successor];
+                    for (int w = 0; w < successorWords.length; w++) {
+                        closure[offset + w] |= successorWords[w];
+                    }
+                } else {
+                    closure[successor >>> 6] |= 1L << successor;
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = successor;
+                }
+            }
+        }
+        return closure;
+    }
+
+    private static boolean test(int firstWord, long[] words, int component) {
+        int word = (component >>> 6) - firstWord;
+        return word >= 0 && word < words.length && (words[word] & (1L << component)) != 0;
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /** Number of nodes in the components whose bits are set. */
+    private int weightedCount(int firstWord, long[] words) {
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                count += members[((firstWord + w) << 6) + Long.numberOfTrailingZeros(word)].length;
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    /** Node ids of the components set in a closure bitset. */
+    private final class ReachableSet extends AbstractSet<String> {
+
+        private final int component;
+        private final int firstWord;
+        private final long[] words;
+
+        private ReachableSet(int component, int firstWord, long[] words) {
+            this.component = component;
+            this.firstWord = firstWord;
+            this.words = words;
+        }
+
+        @Override
+        public int size() {
+            return impactSize[component];
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof String id)) {
+                return false;
+            }
+            int node = compact.indexOf(id);
+            return node >= 0 && test(firstWord, words, componentOf[node]);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private int word = 0;
+                private long remaining = words.length > 0 ? words[0] : 0;
+                private int[] nodes = new int[0];
+                private int position = 0;
+
+                @Override
+                public boolean hasNext() {
+                    while (position == nodes.length) {
+                        while (remaining == 0) {
+                            if (++word >= words.length) {
+                                return false;
+                            }
+                            remaining = words[word];
+                        }
+                        nodes = members[((firstWord + word) << 6) + Long.numberOfTrailingZeros(remaining)];
+                        remaining &= remaining - 1;
+                        position = 0;
+                    }
+                    return true;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return compact.id(nodes[position++]);
+                }
+            };
+        }
+    }
+}
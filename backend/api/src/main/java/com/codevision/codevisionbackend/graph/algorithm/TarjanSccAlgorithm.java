@@ -1,5 +1,6 @@
 package com.codevision.codevisionbackend.graph.algorithm;
 
+import com.codevision.codevisionbackend.graph.CompactGraph;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.stereotype.Component;
 
@@ -8,6 +9,9 @@ import java.util.*;
 /**
  * Finds strongly connected components (cycles) using Tarjan's algorithm.
  * Returns all SCCs with more than one node, indicating circular dependencies.
+ *
+ * <p>Runs iteratively over the graph's {@link CompactGraph} with primitive
+ * index, lowlink and stack arrays.</p>
  */
 @Component
 public class TarjanSccAlgorithm implements GraphAlgorithm<List<Set<String>>> {
@@ -19,80 +23,112 @@ public class TarjanSccAlgorithm implements GraphAlgorithm<List<Set<String>>> {
 
     @Override
     public List<Set<String>> execute(KnowledgeGraph graph) {
-        var nodeIds = graph.getNodes().keySet();
-        if (nodeIds.isEmpty()) {
+        return execute(graph, new GraphArtifacts(graph));
+    }
+
+    @Override
+    public Set<GraphArtifacts.Artifact<?>> requiredArtifacts() {
+        return Set.of(GraphArtifacts.STRONGLY_CONNECTED_COMPONENTS);
+    }
+
+    @Override
+    public List<Set<String>> execute(KnowledgeGraph graph, GraphArtifacts artifacts) {
+        CompactGraph compact = artifacts.get(GraphArtifacts.COMPACT);
+        if (compact.nodeCount() == 0) {
             return List.of();
         }
 
-        Map<String, Set<String>> adjacency = graph.buildAdjacencyMap();
-        Map<String, Integer> index = new HashMap<>();
-        Map<String, Integer> lowlink = new HashMap<>();
-        Map<String, Boolean> onStack = new HashMap<>();
-        Deque<String> stack = new ArrayDeque<>();
         List<Set<String>> sccs = new ArrayList<>();
-        int[] counter = {0};
-
-        for (var nodeId : nodeIds) {
-            if (!index.containsKey(nodeId)) {
-                strongConnect(nodeId, adjacency, index, lowlink, onStack, stack, sccs, counter);
+        for (int[] component : artifacts.get(GraphArtifacts.STRONGLY_CONNECTED_COMPONENTS)) {
+            // Filter to only non-trivial SCCs (size > 1 = circular dependency)
+            if (component.length > 1) {
+                Set<String> scc = new LinkedHashSet<>();
+                for (int node : component) {
+                    scc.add(compact.id(node));
+                }
+                sccs.add(scc);
             }
         }
-
-        // Filter to only non-trivial SCCs (size > 1 = circular dependency)
-        return sccs.stream()
-                .filter(scc -> scc.size() > 1)
-                .toList();
+        return sccs;
     }
 
-    private void strongConnect(String v, Map<String, Set<String>> adjacency,
-                               Map<String, Integer> index, Map<String, Integer> lowlink,
-                               Map<String, Boolean> onStack, Deque<String> stack,
-                               List<Set<String>> sccs, int[] counter) {
-        // Use iterative approach to avoid stack overflow on deep graphs
-        Deque<Frame> callStack = new ArrayDeque<>();
-        callStack.push(new Frame(v, adjacency.getOrDefault(v, Set.of()).iterator()));
+    /**
+     * Computes every strongly connected component, trivial ones included,
+     * as arrays of dense node indices in reverse topological order.
+     *
+     * @param compact the graph to decompose
+     * @return all components
+     */
+    static List<int[]> components(CompactGraph compact) {
+        int n = compact.nodeCount();
+        int[] outOffsets = compact.outOffsets();
+        int[] outTargets = compact.outTargets();
 
-        index.put(v, counter[0]);
-        lowlink.put(v, counter[0]);
-        counter[0]++;
-        stack.push(v);
-        onStack.put(v, true);
+        int[] index = new int[n];
+        int[] lowlink = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int[] stack = new int[n];
+        int stackSize = 0;
+        // Iterative DFS to avoid stack overflow on deep graphs: node and next edge cursor per frame
+        int[] callNode = new int[n];
+        int[] callCursor = new int[n];
+        int counter = 0;
+        List<int[]> components = new ArrayList<>();
 
-        while (!callStack.isEmpty()) {
-            var frame = callStack.peek();
-            if (frame.neighbors.hasNext()) {
-                var w = frame.neighbors.next();
-                if (!index.containsKey(w)) {
-                    index.put(w, counter[0]);
-                    lowlink.put(w, counter[0]);
-                    counter[0]++;
-                    stack.push(w);
-                    onStack.put(w, true);
-                    callStack.push(new Frame(w, adjacency.getOrDefault(w, Set.of()).iterator()));
-                } else if (Boolean.TRUE.equals(onStack.get(w))) {
-                    lowlink.put(frame.nodeId, Math.min(lowlink.get(frame.nodeId), index.get(w)));
-                }
-            } else {
-                // Done processing this node
-                callStack.pop();
-                if (!callStack.isEmpty()) {
-                    var parent = callStack.peek();
-                    lowlink.put(parent.nodeId, Math.min(lowlink.get(parent.nodeId), lowlink.get(frame.nodeId)));
-                }
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = root;
+            callCursor[0] = outOffsets[root];
+            index[root] = counter;
+            lowlink[root] = counter;
+            counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int v = callNode[depth];
+                if (callCursor[depth] < outOffsets[v + 1]) {
+                    int w = outTargets[callCursor[depth]++];
+                    if (index[w] < 0) {
+                        index[w] = counter;
+                        lowlink[w] = counter;
+                        counter++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        depth++;
+                        callNode[depth] = w;
+                        callCursor[depth] = outOffsets[w];
+                    } else if (onStack[w]) {
+                        lowlink[v] = Math.min(lowlink[v], index[w]);
+                    }
+                } else {
+                    // Done processing this node
+                    depth--;
+                    if (depth >= 0) {
+                        int parent = callNode[depth];
+                        lowlink[parent] = Math.min(lowlink[parent], lowlink[v]);
+                    }
 
-                if (lowlink.get(frame.nodeId).equals(index.get(frame.nodeId))) {
-                    Set<String> scc = new LinkedHashSet<>();
-                    String w;
-                    do {
-                        w = stack.pop();
-                        onStack.put(w, false);
-                        scc.add(w);
-                    } while (!w.equals(frame.nodeId));
-                    sccs.add(scc);
+                    if (lowlink[v] == index[v]) {
+                        int start = stackSize;
+                        do {
+                            start--;
+                            onStack[stack[start]] = false;
+                        } while (stack[start] != v);
+                        int[] component = new int[stackSize - start];
+                        for (int i = 0; i < component.length; i++) {
+                            component[i] = stack[stackSize - 1 - i];
+                        }
+                        stackSize = start;
+                        components.add(component);
+                    }
                 }
             }
         }
+        return components;
     }
-
-    private record Frame(String nodeId, Iterator<String> neighbors) {}
 }
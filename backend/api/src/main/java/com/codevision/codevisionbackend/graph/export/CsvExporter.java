@@ -3,14 +3,15 @@ package com.codevision.codevisionbackend.graph.export;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Exports a {@link KnowledgeGraph} as CSV with two sections: nodes and edges,
  * separated by a blank line and {@code # Edges} marker.
  */
 @Component
-public class CsvExporter implements GraphExporter {
+public class CsvExporter extends TextGraphExporter {
 
     @Override
     public String formatName() {
@@ -28,34 +29,30 @@ public class CsvExporter implements GraphExporter {
     }
 
     @Override
-    public byte[] export(KnowledgeGraph graph) {
-        var sb = new StringBuilder();
-
+    protected void write(KnowledgeGraph graph, Writer writer) throws IOException {
         // Nodes section
-        sb.append("id,type,name,qualifiedName\n");
+        writer.append("id,type,name,qualifiedName\n");
         for (var entry : graph.getNodes().entrySet()) {
             var node = entry.getValue();
-            sb.append(escapeCsv(node.id())).append(',');
-            sb.append(escapeCsv(node.type() != null ? node.type().name() : "")).append(',');
-            sb.append(escapeCsv(node.name())).append(',');
-            sb.append(escapeCsv(node.qualifiedName())).append('\n');
+            writer.append(escapeCsv(node.id())).append(',');
+            writer.append(escapeCsv(node.type() != null ? node.type().name() : "")).append(',');
+            writer.append(escapeCsv(node.name())).append(',');
+            writer.append(escapeCsv(node.qualifiedName())).append('\n');
         }
 
         // Separator
-        sb.append('\n');
-        sb.append("# Edges\n");
+        writer.append('\n');
+        writer.append("# Edges\n");
 
         // Edges section
-        sb.append("id,type,source,target,label\n");
+        writer.append("id,type,source,target,label\n");
         for (var edge : graph.getEdges()) {
-            sb.append(escapeCsv(edge.id())).append(',');
-            sb.append(escapeCsv(edge.type() != null ? edge.type().name() : "")).append(',');
-            sb.append(escapeCsv(edge.sourceNodeId())).append(',');
-            sb.append(escapeCsv(edge.targetNodeId())).append(',');
-            sb.append(escapeCsv(edge.label())).append('\n');
+            writer.append(escapeCsv(edge.id())).append(',');
+            writer.append(escapeCsv(edge.type() != null ? edge.type().name() : "")).append(',');
+            writer.append(escapeCsv(edge.sourceNodeId())).append(',');
+            writer.append(escapeCsv(edge.targetNodeId())).append(',');
+            writer.append(escapeCsv(edge.label())).append('\n');
         }
-
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
     }
 
     private String escapeCsv(String value) {
@@ -4,14 +4,15 @@ import com.codevision.codevisionbackend.graph.KgNodeType;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Exports a {@link KnowledgeGraph} in Graphviz DOT format with type-based
  * node shapes.
  */
 @Component
-public class DotExporter implements GraphExporter {
+public class DotExporter extends TextGraphExporter {
 
     @Override
     public String formatName() {
@@ -29,29 +30,27 @@ public class DotExporter implements GraphExporter {
     }
 
     @Override
-    public byte[] export(KnowledgeGraph graph) {
-        var sb = new StringBuilder();
-        sb.append("digraph KnowledgeGraph {\n");
-        sb.append("  rankdir=TB;\n");
+    protected void write(KnowledgeGraph graph, Writer writer) throws IOException {
+        writer.append("digraph KnowledgeGraph {\n");
+        writer.append("  rankdir=TB;\n");
 
         for (var entry : graph.getNodes().entrySet()) {
             var node = entry.getValue();
             var shape = shapeFor(node.type());
             var label = node.name() != null ? node.name() : node.id();
-            sb.append("  \"").append(dotEscape(node.id()))
+            writer.append("  \"").append(dotEscape(node.id()))
               .append("\" [label=\"").append(dotEscape(label))
               .append("\", shape=").append(shape).append("];\n");
         }
 
         for (var edge : graph.getEdges()) {
             var label = edge.type() != null ? edge.type().name() : "";
-            sb.append("  \"").append(dotEscape(edge.sourceNodeId()))
+            writer.append("  \"").append(dotEscape(edge.sourceNodeId()))
               .append("\" -> \"").append(dotEscape(edge.targetNodeId()))
               .append("\" [label=\"").append(dotEscape(label)).append("\"];\n");
         }
 
-        sb.append("}\n");
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
+        writer.append("}\n");
     }
 
     private String shapeFor(KgNodeType type) {
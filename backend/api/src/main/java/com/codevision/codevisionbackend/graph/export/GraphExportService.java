@@ -3,6 +3,8 @@ package com.codevision.codevisionbackend.graph.export;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,6 +41,21 @@ public class GraphExportService {
         return exporter.export(graph);
     }
 
+    /**
+     * Writes the given graph in the specified format to {@code out}.
+     *
+     * @param graph  the graph to export
+     * @param format the format name (e.g. "json", "csv")
+     * @param out    destination; flushed but not closed
+     * @throws IllegalArgumentException if the format is not supported
+     * @throws IOException              if writing to {@code out} fails
+     */
+    public void export(KnowledgeGraph graph, String format, OutputStream out) throws IOException {
+        var exporter = getExporter(format)
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported export format: " + format));
+        exporter.export(graph, out);
+    }
+
     /**
      * Returns the list of all supported format names.
      *
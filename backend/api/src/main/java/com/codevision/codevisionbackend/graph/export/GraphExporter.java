@@ -2,10 +2,18 @@ package com.codevision.codevisionbackend.graph.export;
 
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * Strategy interface for exporting a {@link KnowledgeGraph} into a specific
  * output format. Each implementation is a Spring {@code @Component} that
  * participates in auto-discovery via {@code List<GraphExporter>} injection.
+ *
+ * <p>Exporters that can write their output incrementally report
+ * {@link #supportsStreaming()} and implement
+ * {@link #export(KnowledgeGraph, OutputStream)} without buffering the whole
+ * document; text formats do so by extending {@link TextGraphExporter}.</p>
  */
 public interface GraphExporter {
 
@@ -31,6 +39,30 @@ public interface GraphExporter {
      */
     byte[] export(KnowledgeGraph graph);
 
+    /**
+     * Writes the export of the given knowledge graph to {@code out}. The
+     * stream is flushed but not closed. The default writes the result of
+     * {@link #export(KnowledgeGraph)}.
+     *
+     * @param graph the graph to export; must not be {@code null}
+     * @param out   destination of the exported content
+     * @throws IOException if writing to {@code out} fails
+     */
+    default void export(KnowledgeGraph graph, OutputStream out) throws IOException {
+        out.write(export(graph));
+        out.flush();
+    }
+
+    /**
+     * Returns whether {@link #export(KnowledgeGraph, OutputStream)} writes
+     * incrementally rather than building the whole output first.
+     *
+     * @return {@code true} for streaming exporters
+     */
+    default boolean supportsStreaming() {
+        return false;
+    }
+
     /**
      * Returns the MIME content type for this format (e.g. "application/json").
      * Defaults to "application/octet-stream" if not overridden.
@@ -3,14 +3,15 @@ package com.codevision.codevisionbackend.graph.export;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Exports a {@link KnowledgeGraph} in the standard GraphML XML format,
  * compliant with the graphml.graphdrawing.org namespace.
  */
 @Component
-public class GraphMLExporter implements GraphExporter {
+public class GraphMLExporter extends TextGraphExporter {
 
     @Override
     public String formatName() {
@@ -28,10 +29,8 @@ public class GraphMLExporter implements GraphExporter {
     }
 
     @Override
-    public byte[] export(KnowledgeGraph graph) {
-        var sb = new StringBuilder();
-
-        sb.append("""
+    protected void write(KnowledgeGraph graph, Writer writer) throws IOException {
+        writer.append("""
                 <?xml version="1.0" encoding="UTF-8"?>
                 <graphml xmlns="http://graphml.graphdrawing.org/xmlns"
                          xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
@@ -46,27 +45,25 @@ public class GraphMLExporter implements GraphExporter {
 
         for (var entry : graph.getNodes().entrySet()) {
             var node = entry.getValue();
-            sb.append("    <node id=\"").append(xmlEscape(node.id())).append("\">\n");
-            sb.append("      <data key=\"nodeType\">").append(xmlEscape(node.type() != null ? node.type().name() : "")).append("</data>\n");
-            sb.append("      <data key=\"nodeName\">").append(xmlEscape(node.name())).append("</data>\n");
-            sb.append("      <data key=\"nodeQualifiedName\">").append(xmlEscape(node.qualifiedName())).append("</data>\n");
-            sb.append("    </node>\n");
+            writer.append("    <node id=\"").append(xmlEscape(node.id())).append("\">\n");
+            writer.append("      <data key=\"nodeType\">").append(xmlEscape(node.type() != null ? node.type().name() : "")).append("</data>\n");
+            writer.append("      <data key=\"nodeName\">").append(xmlEscape(node.name())).append("</data>\n");
+            writer.append("      <data key=\"nodeQualifiedName\">").append(xmlEscape(node.qualifiedName())).append("</data>\n");
+            writer.append("    </node>\n");
         }
 
         for (var edge : graph.getEdges()) {
-            sb.append("    <edge id=\"").append(xmlEscape(edge.id()))
+            writer.append("    <edge id=\"").append(xmlEscape(edge.id()))
               .append("\" source=\"").append(xmlEscape(edge.sourceNodeId()))
               .append("\" target=\"").append(xmlEscape(edge.targetNodeId()))
               .append("\">\n");
-            sb.append("      <data key=\"edgeType\">").append(xmlEscape(edge.type() != null ? edge.type().name() : "")).append("</data>\n");
-            sb.append("      <data key=\"edgeLabel\">").append(xmlEscape(edge.label())).append("</data>\n");
-            sb.append("    </edge>\n");
+            writer.append("      <data key=\"edgeType\">").append(xmlEscape(edge.type() != null ? edge.type().name() : "")).append("</data>\n");
+            writer.append("      <data key=\"edgeLabel\">").append(xmlEscape(edge.label())).append("</data>\n");
+            writer.append("    </edge>\n");
         }
 
-        sb.append("  </graph>\n");
-        sb.append("</graphml>\n");
-
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
+        writer.append("  </graph>\n");
+        writer.append("</graphml>\n");
     }
 
     private String xmlEscape(String value) {
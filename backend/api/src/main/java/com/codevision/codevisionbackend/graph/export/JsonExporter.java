@@ -1,23 +1,19 @@
 package com.codevision.codevisionbackend.graph.export;
 
-import com.codevision.codevisionbackend.graph.KgEdge;
-import com.codevision.codevisionbackend.graph.KgNode;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Exports a {@link KnowledgeGraph} as a JSON document containing two arrays:
- * {@code nodes} and {@code edges}.
+ * {@code nodes} and {@code edges}. Entries are written one at a time through
+ * a Jackson generator, so no intermediate maps are built.
  */
 @Component
-public class JsonExporter implements GraphExporter {
+public class JsonExporter extends TextGraphExporter {
 
     private final ObjectMapper objectMapper;
 
@@ -41,42 +37,32 @@ public class JsonExporter implements GraphExporter {
     }
 
     @Override
-    public byte[] export(KnowledgeGraph graph) {
-        var result = new LinkedHashMap<String, Object>();
-        result.put("nodes", buildNodes(graph));
-        result.put("edges", buildEdges(graph));
-        try {
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(result);
-        } catch (JsonProcessingException e) {
-            throw new ExportException("Failed to export graph as JSON", e);
+    protected void write(KnowledgeGraph graph, Writer writer) throws IOException {
+        // Not closed: that would close the caller's stream
+        var generator = objectMapper.writerWithDefaultPrettyPrinter().createGenerator(writer);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("nodes");
+        for (var node : graph.getNodes().values()) {
+            generator.writeStartObject();
+            generator.writeStringField("id", node.id());
+            generator.writeStringField("type", node.type() != null ? node.type().name() : null);
+            generator.writeStringField("name", node.name());
+            generator.writeStringField("qualifiedName", node.qualifiedName());
+            generator.writeEndObject();
         }
-    }
-
-    private List<Map<String, Object>> buildNodes(KnowledgeGraph graph) {
-        var nodes = new ArrayList<Map<String, Object>>();
-        for (var entry : graph.getNodes().entrySet()) {
-            var node = entry.getValue();
-            var map = new LinkedHashMap<String, Object>();
-            map.put("id", node.id());
-            map.put("type", node.type() != null ? node.type().name() : null);
-            map.put("name", node.name());
-            map.put("qualifiedName", node.qualifiedName());
-            nodes.add(map);
-        }
-        return nodes;
-    }
-
-    private List<Map<String, Object>> buildEdges(KnowledgeGraph graph) {
-        var edges = new ArrayList<Map<String, Object>>();
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("edges");
         for (var edge : graph.getEdges()) {
-            var map = new LinkedHashMap<String, Object>();
-            map.put("id", edge.id());
-            map.put("type", edge.type() != null ? edge.type().name() : null);
-            map.put("source", edge.sourceNodeId());
-            map.put("target", edge.targetNodeId());
-            map.put("label", edge.label());
-            edges.add(map);
+            generator.writeStartObject();
+            generator.writeStringField("id", edge.id());
+            generator.writeStringField("type", edge.type() != null ? edge.type().name() : null);
+            generator.writeStringField("source", edge.sourceNodeId());
+            generator.writeStringField("target", edge.targetNodeId());
+            generator.writeStringField("label", edge.label());
+            generator.writeEndObject();
         }
-        return edges;
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
     }
 }
@@ -4,14 +4,15 @@ import com.codevision.codevisionbackend.graph.KgNodeType;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Exports a {@link KnowledgeGraph} in Mermaid flowchart format (flowchart TD).
  * Nodes are rendered with type-based shapes.
  */
 @Component
-public class MermaidExporter implements GraphExporter {
+public class MermaidExporter extends TextGraphExporter {
 
     @Override
     public String formatName() {
@@ -29,28 +30,25 @@ public class MermaidExporter implements GraphExporter {
     }
 
     @Override
-    public byte[] export(KnowledgeGraph graph) {
-        var sb = new StringBuilder();
-        sb.append("flowchart TD\n");
+    protected void write(KnowledgeGraph graph, Writer writer) throws IOException {
+        writer.append("flowchart TD\n");
 
         for (var entry : graph.getNodes().entrySet()) {
             var node = entry.getValue();
             var id = sanitizeId(node.id());
             var label = mermaidEscape(node.name() != null ? node.name() : node.id());
             var shape = shapeFor(node.type(), id, label);
-            sb.append("  ").append(shape).append('\n');
+            writer.append("  ").append(shape).append('\n');
         }
 
         for (var edge : graph.getEdges()) {
             var sourceId = sanitizeId(edge.sourceNodeId());
             var targetId = sanitizeId(edge.targetNodeId());
             var label = edge.type() != null ? edge.type().name() : "";
-            sb.append("  ").append(sourceId)
+            writer.append("  ").append(sourceId)
               .append(" -->|").append(mermaidEscape(label)).append("| ")
               .append(targetId).append('\n');
         }
-
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
     }
 
     private String shapeFor(KgNodeType type, String id, String label) {
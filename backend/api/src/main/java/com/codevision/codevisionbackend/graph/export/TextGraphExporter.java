@@ -0,0 +1,54 @@
+package com.codevision.codevisionbackend.graph.export;
+
+import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Base class for exporters of UTF-8 text formats. Subclasses write nodes and
+ * edges to a {@link Writer} as they go, so streaming an export holds no more
+ * than one write buffer in memory. {@link #export(KnowledgeGraph)} collects
+ * the same output into a byte array.
+ */
+public abstract class TextGraphExporter implements GraphExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes the export of {@code graph} to {@code writer}.
+     *
+     * @param graph  the graph to export
+     * @param writer destination; flushed by the caller
+     * @throws IOException if writing fails
+     */
+    protected abstract void write(KnowledgeGraph graph, Writer writer) throws IOException;
+
+    @Override
+    public byte[] export(KnowledgeGraph graph) {
+        var buffer = new ByteArrayOutputStream();
+        try {
+            export(graph, buffer);
+        } catch (IOException e) {
+            throw new ExportException("Failed to export graph as " + formatName(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public void export(KnowledgeGraph graph, OutputStream out) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        write(graph, writer);
+        writer.flush();
+    }
+
+    @Override
+    public boolean supportsStreaming() {
+        return true;
+    }
+}
@@ -0,0 +1,151 @@
+package com.codevision.codevisionbackend.graph.persistence;
+
+import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import com.codevision.codevisionbackend.graph.algorithm.GraphArtifacts;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A project's knowledge graph as loaded into {@link KnowledgeGraphCache},
+ * together with everything computed from it.
+ *
+ * <p>The graph is frozen. {@link #artifacts()} shares derived data between the
+ * algorithms run on it, and {@link #memoize(String, Supplier)} keeps each
+ * result for as long as the handle is cached. A result is computed once even
+ * when several requests ask for it at the same time. A computation that fails,
+ * or whose result {@link #memoize(String, Supplier, Predicate)} rejects, is not
+ * remembered, so the next request tries again.</p>
+ *
+ * <p>The algorithm results memoized under {@link #ALGORITHMS_KEY} outlive the
+ * handle: when {@link KnowledgeGraphCache} replaces it, they become
+ * {@link #previousAlgorithmResults()} of the project's next handle.</p>
+ */
+public final class GraphHandle {
+
+    /** Key under which the orchestrator's algorithm results are memoized. */
+    public static final String ALGORITHMS_KEY = "algorithms";
+
+    private final Long projectId;
+    private final long generation;
+    private final KnowledgeGraph graph;
+    private final GraphArtifacts artifacts;
+    private final Map<String, Object> previousAlgorithmResults;
+    private final Map<String, FutureTask<?>> results = new ConcurrentHashMap<>();
+
+    /**
+     * @param projectId  the project the graph belongs to
+     * @param generation identifies this load; a reload after eviction gets a higher one
+     * @param graph      the frozen graph
+     */
+    public GraphHandle(Long projectId, long generation, KnowledgeGraph graph) {
+        this(projectId, generation, graph, Map.of());
+    }
+
+    /**
+     * @param previousAlgorithmResults algorithm results of the project's previous handle; may be empty
+     */
+    public GraphHandle(Long projectId, long generation, KnowledgeGraph graph,
+                       Map<String, Object> previousAlgorithmResults) {
+        this.projectId = Objects.requireNonNull(projectId);
+        this.generation = generation;
+        this.graph = Objects.requireNonNull(graph);
+        this.artifacts = new GraphArtifacts(graph);
+        this.previousAlgorithmResults = Collections.unmodifiableMap(new HashMap<>(previousAlgorithmResults));
+    }
+
+    public Long projectId() {
+        return projectId;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public KnowledgeGraph graph() {
+        return graph;
+    }
+
+    /** Derived data shared by every algorithm run on this graph. */
+    public GraphArtifacts artifacts() {
+        return artifacts;
+    }
+
+    /**
+     * Algorithm results computed on the project's previous graph, by algorithm
+     * name, for warm-starting the algorithms on this one.
+     */
+    public Map<String, Object> previousAlgorithmResults() {
+        return previousAlgorithmResults;
+    }
+
+    /**
+     * Returns the result stored under {@code key}, computing it on the calling
+     * thread on first use.
+     *
+     * @param key         identifies the result, e.g. {@code "algorithm:pagerank"}
+     * @param computation produces the result from this handle's graph
+     * @return the stored or newly computed result
+     */
+    public <T> T memoize(String key, Supplier<T> computation) {
+        return memoize(key, computation, result -> true);
+    }
+
+    /**
+     * As {@link #memoize(String, Supplier)}, but keeps the result only if
+     * {@code keep} accepts it, e.g. only when every algorithm of a run
+     * completed. Requests already waiting still share a rejected result.
+     *
+     * @param keep decides whether the computed result is remembered
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T memoize(String key, Supplier<T> computation, Predicate<? super T> keep) {
+        FutureTask<?> task = results.computeIfAbsent(key, k -> new FutureTask<>(computation::get));
+        task.run();
+        try {
+            T result = (T) task.get();
+            if (!keep.test(result)) {
+                results.remove(key, task);
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for " + key);
+        } catch (ExecutionException e) {
+            results.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Failed to compute " + key, cause);
+        }
+    }
+
+    /** The result stored under {@code key} if it has been computed successfully, without waiting for it. */
+    Optional<Object> completedResult(String key) {
+        FutureTask<?> task = results.get(key);
+        if (task == null || !task.isDone()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(task.get());
+        } catch (ExecutionException | CancellationException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.codevision.codevisionbackend.graph.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Server-side cache of project knowledge graphs, so graph queries address a
+ * project instead of uploading the whole graph with every request.
+ *
+ * <p>Each project's graph is loaded once through
+ * {@link KnowledgeGraphQueryService#loadGraph(Long)} and handed out as a
+ * {@link GraphHandle}, which also memoizes algorithm results. Concurrent
+ * requests for a project that is not cached yet share one load. At most
+ * {@code graph.cache.maxProjects} graphs are kept, in least-recently-used
+ * order. An entry expires {@code graph.cache.ttlSeconds} after it was loaded,
+ * which bounds staleness when another instance rewrites the graph.
+ * {@link KnowledgeGraphPersistService} evicts a project's entry when it
+ * writes that project's graph.</p>
+ *
+ * <p>When an entry is evicted or expires, the algorithm results memoized on
+ * its handle are kept, for up to {@code graph.cache.maxProjects} projects, and
+ * passed to the project's next handle so that iterative algorithms can
+ * warm-start from them.</p>
+ */
+@Service
+public class KnowledgeGraphCache {
+
+    private static final Logger log = LoggerFactory.getLogger(KnowledgeGraphCache.class);
+
+    private final KnowledgeGraphQueryService queryService;
+    private final int maxProjects;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong generations = new AtomicLong();
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, Map<String, Object>> retiredResults = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param maxProjects number of project graphs to keep; zero or less loads the graph on every request
+     * @param ttlSeconds  seconds an entry stays valid after loading; zero or less never expires entries
+     */
+    @Autowired
+    public KnowledgeGraphCache(
+            KnowledgeGraphQueryService queryService,
+            @Value("${graph.cache.maxProjects:4}") int maxProjects,
+            @Value("${graph.cache.ttlSeconds:600}") long ttlSeconds) {
+        this(queryService, maxProjects, Duration.ofSeconds(Math.max(0, ttlSeconds)), System::nanoTime);
+    }
+
+    KnowledgeGraphCache(KnowledgeGraphQueryService queryService, int maxProjects, Duration ttl, LongSupplier nanoTime) {
+        this.queryService = Objects.requireNonNull(queryService);
+        this.maxProjects = maxProjects;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the cached graph of a project, loading it on first use or after
+     * it was evicted or expired.
+     *
+     * @param projectId the project identifier
+     * @return the handle of the project's frozen graph
+     */
+    public GraphHandle get(Long projectId) {
+        Objects.requireNonNull(projectId, "projectId must not be null");
+        if (maxProjects <= 0) {
+            return load(projectId);
+        }
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(projectId);
+            long now = nanoTime.getAsLong();
+            if (entry == null || (ttlNanos > 0 && now - entry.loadedAt >= ttlNanos)) {
+                if (entry != null) {
+                    retire(projectId, entry);
+                }
+                entry = new Entry(new FutureTask<>(() -> load(projectId)), now);
+                entries.put(projectId, entry);
+                var eldest = entries.entrySet().iterator();
+                while (entries.size() > maxProjects) {
+                    var evicted = eldest.next();
+                    eldest.remove();
+                    retire(evicted.getKey(), evicted.getValue());
+                }
+            }
+        }
+
+        entry.task.run();
+        try {
+            return entry.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted loading the graph of project " + projectId);
+        } catch (ExecutionException e) {
+            synchronized (entries) {
+                entries.remove(projectId, entry);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Failed to load the graph of project " + projectId, cause);
+        }
+    }
+
+    /**
+     * Drops a project's cached graph and results; the next request reloads it.
+     *
+     * @param projectId the project identifier
+     */
+    public void evict(Long projectId) {
+        synchronized (entries) {
+            var entry = entries.remove(projectId);
+            if (entry != null) {
+                retire(projectId, entry);
+                log.debug("Evicted cached knowledge graph of project {}", projectId);
+            }
+        }
+    }
+
+    /** Keeps the algorithm results of a replaced entry for the project's next handle. Caller holds the lock. */
+    private void retire(Long projectId, Entry entry) {
+        if (!entry.task.isDone()) {
+            return;
+        }
+        try {
+            entry.task.get().completedResult(GraphHandle.ALGORITHMS_KEY)
+                    .filter(Map.class::isInstance)
+                    .ifPresent(results -> {
+                        @SuppressWarnings("unchecked")
+                        var algorithmResults = (Map<String, Object>) results;
+                        retiredResults.put(projectId, algorithmResults);
+                        var eldest = retiredResults.keySet().iterator();
+                        while (retiredResults.size() > Math.max(1, maxProjects)) {
+                            eldest.next();
+                            eldest.remove();
+                        }
+                    });
+        } catch (ExecutionException | CancellationException e) {
+            // A failed load left nothing to keep
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private GraphHandle load(Long projectId) {
+        Map<String, Object> previousResults;
+        synchronized (entries) {
+            previousResults = retiredResults.remove(projectId);
+        }
+        var handle = new GraphHandle(projectId, generations.incrementAndGet(), queryService.loadGraph(projectId),
+                previousResults != null ? previousResults : Map.of());
+        log.debug("Cached knowledge graph of project {} as generation {}", projectId, handle.generation());
+        return handle;
+    }
+
+    private record Entry(FutureTask<GraphHandle> task, long loadedAt) {}
+}
@@ -1,26 +1,54 @@
 package com.codevision.codevisionbackend.graph.persistence;
 
-import com.codevision.codevisionbackend.graph.ConfidenceLevel;
 import com.codevision.codevisionbackend.graph.KgEdge;
 import com.codevision.codevisionbackend.graph.KgNode;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.postgresql.PGConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Persists a {@link KnowledgeGraph} to PostgreSQL tables ({@code kg_node},
- * {@code kg_edge}) using batch inserts via {@link JdbcTemplate}. Node metadata
- * and edge properties are serialised as JSONB using Jackson.
+ * {@code kg_edge}). On PostgreSQL new rows are streamed through the
+ * {@code COPY} protocol; other databases (H2 in tests) and deployments with
+ * {@code graph.persistence.copyEnabled=false} use batch inserts via
+ * {@link JdbcTemplate}. Node metadata and edge properties are serialised as
+ * JSONB using Jackson.
+ *
+ * <p>Every row carries a {@code content_hash} over its serialised columns.
+ * With {@code graph.persistence.differential=true} a re-analysis is compared
+ * against the stored hashes and only the rows that were added, changed or
+ * removed are written, instead of rewriting the whole project graph.</p>
  */
 @Service
 @Transactional
@@ -28,34 +56,52 @@ public class KnowledgeGraphPersistService {
 
     private static final Logger log = LoggerFactory.getLogger(KnowledgeGraphPersistService.class);
 
-    private static final String INSERT_NODE_SQL =
-            "INSERT INTO kg_node (id, project_id, type, name, qualified_name, metadata, provenance, confidence, artifact_id, origin) "
-                    + "VALUES (?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?, ?)";
-
-    private static final String INSERT_EDGE_SQL =
-            "INSERT INTO kg_edge (id, project_id, source_node_id, target_node_id, type, label, confidence, provenance, properties) "
-                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb)";
-
-    private static final String DELETE_NODES_SQL = "DELETE FROM kg_node WHERE project_id = ?";
-    private static final String DELETE_EDGES_SQL = "DELETE FROM kg_edge WHERE project_id = ?";
-
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
     private final int batchSize;
+    private final boolean copyEnabled;
+    private final boolean differential;
+    private final KnowledgeGraphCache graphCache;
+
+    public KnowledgeGraphPersistService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, int batchSize) {
+        this(jdbcTemplate, objectMapper, batchSize, true, false);
+    }
 
     public KnowledgeGraphPersistService(
             JdbcTemplate jdbcTemplate,
             ObjectMapper objectMapper,
-            @Value("${graph.persistence.batchSize:500}") int batchSize) {
+            int batchSize,
+            boolean copyEnabled,
+            boolean differential) {
+        this(jdbcTemplate, objectMapper, batchSize, copyEnabled, differential, null);
+    }
+
+    /**
+     * @param graphCache cache whose entry for a project is evicted after that project's graph is written;
+     *                   may be {@code null}
+     */
+    @Autowired
+    public KnowledgeGraphPersistService(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${graph.persistence.batchSize:500}") int batchSize,
+            @Value("${graph.persistence.copyEnabled:true}") boolean copyEnabled,
+            @Value("${graph.persistence.differential:true}") boolean differential,
+            KnowledgeGraphCache graphCache) {
         this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
-        this.objectMapper = Objects.requireNonNull(objectMapper);
+        this.objectMapper = canonical(Objects.requireNonNull(objectMapper));
         this.batchSize = batchSize;
+        this.copyEnabled = copyEnabled;
+        this.differential = differential;
+        this.graphCache = graphCache;
     }
 
     /**
-     * Persists the entire knowledge graph for a project. Deletes existing data
-     * for the project first (clean-slate approach), then batch-inserts all
-     * nodes and edges.
+     * Persists the entire knowledge graph for a project. In differential mode
+     * this delegates to {@link #persistChanges}; otherwise existing data for
+     * the project is deleted first (clean-slate approach) and all nodes and
+     * edges are bulk-loaded with {@code COPY}, or batch-inserted when the
+     * connection is not PostgreSQL.
      *
      * @param projectId the project identifier
      * @param graph     the knowledge graph to persist
@@ -64,14 +110,51 @@ public class KnowledgeGraphPersistService {
         Objects.requireNonNull(projectId, "projectId must not be null");
         Objects.requireNonNull(graph, "graph must not be null");
 
+        if (differential) {
+            persistChanges(projectId, graph);
+            return;
+        }
+
         deleteByProjectId(projectId);
-        batchInsertNodes(projectId, graph);
-        batchInsertEdges(projectId, graph);
+        insertRows(Table.NODE, projectId, nodeRows(graph).values());
+        insertRows(Table.EDGE, projectId, edgeRows(graph).values());
 
         log.info("Persisted knowledge graph for project {}: {} nodes, {} edges",
                 projectId, graph.nodeCount(), graph.edgeCount());
     }
 
+    /**
+     * Writes only what changed since the stored graph: rows whose id is new
+     * are inserted, rows whose content hash differs are updated and stored
+     * rows missing from {@code graph} are deleted. Everything runs in the
+     * caller's transaction.
+     *
+     * @param projectId the project identifier
+     * @param graph     the knowledge graph to persist
+     * @return counts of the rows written per operation
+     */
+    public ChangeSummary persistChanges(Long projectId, KnowledgeGraph graph) {
+        Objects.requireNonNull(projectId, "projectId must not be null");
+        Objects.requireNonNull(graph, "graph must not be null");
+
+        TableChanges edges = diff(Table.EDGE, projectId, edgeRows(graph));
+        TableChanges nodes = diff(Table.NODE, projectId, nodeRows(graph));
+        evictAfterCommit(projectId);
+
+        deleteRows(Table.EDGE, projectId, edges.deleted());
+        deleteRows(Table.NODE, projectId, nodes.deleted());
+        updateRows(Table.NODE, projectId, nodes.updated());
+        updateRows(Table.EDGE, projectId, edges.updated());
+        insertRows(Table.NODE, projectId, nodes.inserted());
+        insertRows(Table.EDGE, projectId, edges.inserted());
+
+        ChangeSummary summary = new ChangeSummary(
+                nodes.inserted().size(), nodes.updated().size(), nodes.deleted().size(),
+                edges.inserted().size(), edges.updated().size(), edges.deleted().size());
+        log.info("Persisted knowledge graph changes for project {}: {}", projectId, summary);
+        return summary;
+    }
+
     /**
      * Deletes all knowledge graph data for the given project.
      *
@@ -80,57 +163,288 @@ public class KnowledgeGraphPersistService {
     public void deleteByProjectId(Long projectId) {
         Objects.requireNonNull(projectId, "projectId must not be null");
 
-        int edgesDeleted = jdbcTemplate.update(DELETE_EDGES_SQL, projectId);
-        int nodesDeleted = jdbcTemplate.update(DELETE_NODES_SQL, projectId);
+        int edgesDeleted = jdbcTemplate.update(Table.EDGE.deleteProjectSql, projectId);
+        int nodesDeleted = jdbcTemplate.update(Table.NODE.deleteProjectSql, projectId);
+        evictAfterCommit(projectId);
 
         log.debug("Deleted {} nodes and {} edges for project {}", nodesDeleted, edgesDeleted, projectId);
     }
 
+    /**
+     * Evicts the project's cached graph now, and again once the surrounding
+     * transaction commits, so a load that ran during the write does not stay
+     * cached.
+     */
+    private void evictAfterCommit(Long projectId) {
+        if (graphCache == null) {
+            return;
+        }
+        graphCache.evict(projectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    graphCache.evict(projectId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rows written per table by {@link #persistChanges}.
+     */
+    public record ChangeSummary(
+            int nodesInserted,
+            int nodesUpdated,
+            int nodesDeleted,
+            int edgesInserted,
+            int edgesUpdated,
+            int edgesDeleted) {
+    }
+
     // ── Internal helpers ────────────────────────────────────────────────────
 
-    private void batchInsertNodes(Long projectId, KnowledgeGraph graph) {
-        List<KgNode> nodes = new ArrayList<>(graph.getNodes().values());
+    /**
+     * Column layout of the two graph tables. Every statement lists the
+     * {@link Row#columns()} in the same order, between the id/project key and
+     * the trailing {@code content_hash}.
+     */
+    private enum Table {
+        NODE("kg_node",
+                List.of("type", "name", "qualified_name", "metadata", "provenance", "confidence", "artifact_id",
+                        "origin"),
+                Set.of("metadata", "provenance")),
+        EDGE("kg_edge",
+                List.of("source_node_id", "target_node_id", "type", "label", "confidence", "provenance",
+                        "properties"),
+                Set.of("provenance", "properties"));
+
+        private final String name;
+        private final String insertSql;
+        private final String copySql;
+        private final String updateSql;
+        private final String deleteRowSql;
+        private final String deleteProjectSql;
+        private final String selectHashesSql;
+
+        Table(String name, List<String> columns, Set<String> jsonColumns) {
+            this.name = name;
+            String columnList = "id, project_id, " + String.join(", ", columns) + ", content_hash";
+            List<String> placeholders = columns.stream()
+                    .map(column -> jsonColumns.contains(column) ? "?::jsonb" : "?")
+                    .toList();
+            List<String> assignments = new ArrayList<>();
+            for (int i = 0; i < columns.size(); i++) {
+                assignments.add(columns.get(i) + " = " + placeholders.get(i));
+            }
+            this.insertSql = "INSERT INTO " + name + " (" + columnList + ") VALUES (?, ?, "
+                    + String.join(", ", placeholders) + ", ?)";
+            this.copySql = "COPY " + name + " (" + columnList + ") FROM STDIN WITH (FORMAT csv)";
+            this.updateSql = "UPDATE " + name + " SET " + String.join(", ", assignments)
+                    + ", content_hash = ? WHERE id = ? AND project_id = ?";
+            this.deleteRowSql = "DELETE FROM " + name + " WHERE id = ? AND project_id = ?";
+            this.deleteProjectSql = "DELETE FROM " + name + " WHERE project_id = ?";
+            this.selectHashesSql = "SELECT id, content_hash FROM " + name + " WHERE project_id = ?";
+        }
+    }
+
+    /** One serialised table row: its id, its non-key columns and their content hash. */
+    private record Row(String id, String[] columns, String contentHash) {
+    }
+
+    private record TableChanges(List<Row> inserted, List<Row> updated, List<String> deleted) {
+    }
+
+    private TableChanges diff(Table table, Long projectId, Map<String, Row> incoming) {
+        Map<String, String> stored = new HashMap<>();
+        jdbcTemplate.query(table.selectHashesSql,
+                (RowCallbackHandler) rs -> stored.put(rs.getString(1), rs.getString(2)),
+                projectId);
 
-        for (int i = 0; i < nodes.size(); i += batchSize) {
-            List<KgNode> batch = nodes.subList(i, Math.min(i + batchSize, nodes.size()));
+        List<Row> inserted = new ArrayList<>();
+        List<Row> updated = new ArrayList<>();
+        for (Row row : incoming.values()) {
+            if (!stored.containsKey(row.id())) {
+                inserted.add(row);
+            } else if (!row.contentHash().equals(stored.get(row.id()))) {
+                updated.add(row);
+            }
+        }
+        List<String> deleted = stored.keySet().stream()
+                .filter(id -> !incoming.containsKey(id))
+                .toList();
+        log.debug("{} changes for project {}: {} inserts, {} updates, {} deletes",
+                table.name, projectId, inserted.size(), updated.size(), deleted.size());
+        return new TableChanges(inserted, updated, deleted);
+    }
+
+    private void insertRows(Table table, Long projectId, Collection<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (copyEnabled && copyRows(table, projectId, rows)) {
+            return;
+        }
+        List<Row> list = new ArrayList<>(rows);
+        for (int i = 0; i < list.size(); i += batchSize) {
+            List<Row> batch = list.subList(i, Math.min(i + batchSize, list.size()));
 
-            jdbcTemplate.batchUpdate(INSERT_NODE_SQL, batch, batch.size(),
-                    (ps, node) -> {
-                        ps.setString(1, node.id());
+            jdbcTemplate.batchUpdate(table.insertSql, batch, batch.size(),
+                    (ps, row) -> {
+                        ps.setString(1, row.id());
                         ps.setLong(2, projectId);
-                        ps.setString(3, node.type() != null ? node.type().name() : null);
-                        ps.setString(4, node.name());
-                        ps.setString(5, node.qualifiedName());
-                        ps.setString(6, toJson(node.metadata()));
-                        ps.setString(7, toJson(node.provenance()));
-                        ps.setString(8, confidenceFromProvenance(node));
-                        ps.setString(9, node.artifactId());
-                        ps.setString(10, node.origin());
+                        String[] columns = row.columns();
+                        for (int c = 0; c < columns.length; c++) {
+                            ps.setString(3 + c, columns[c]);
+                        }
+                        ps.setString(3 + columns.length, row.contentHash());
                     });
         }
     }
 
-    private void batchInsertEdges(Long projectId, KnowledgeGraph graph) {
-        List<KgEdge> edges = graph.getEdges();
+    /**
+     * Streams rows through {@code COPY} on the transaction's connection.
+     *
+     * @return {@code false} when the connection is not PostgreSQL and nothing
+     *         was written
+     */
+    private boolean copyRows(Table table, Long projectId, Collection<Row> rows) {
+        Boolean copied = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            PostgresCopyWriter writer = new PostgresCopyWriter(connection.unwrap(PGConnection.class).getCopyAPI());
+            String project = projectId.toString();
+            long count = writer.copy(table.copySql, rows, row -> {
+                String[] columns = row.columns();
+                String[] values = new String[columns.length + 3];
+                values[0] = row.id();
+                values[1] = project;
+                System.arraycopy(columns, 0, values, 2, columns.length);
+                values[values.length - 1] = row.contentHash();
+                return values;
+            });
+            log.debug("Copied {} {} rows for project {}", count, table.name, projectId);
+            return true;
+        });
+        return Boolean.TRUE.equals(copied);
+    }
+
+    private void updateRows(Table table, Long projectId, List<Row> rows) {
+        for (int i = 0; i < rows.size(); i += batchSize) {
+            List<Row> batch = rows.subList(i, Math.min(i + batchSize, rows.size()));
 
-        for (int i = 0; i < edges.size(); i += batchSize) {
-            List<KgEdge> batch = edges.subList(i, Math.min(i + batchSize, edges.size()));
+            jdbcTemplate.batchUpdate(table.updateSql, batch, batch.size(),
+                    (ps, row) -> {
+                        String[] columns = row.columns();
+                        for (int c = 0; c < columns.length; c++) {
+                            ps.setString(1 + c, columns[c]);
+                        }
+                        ps.setString(columns.length + 1, row.contentHash());
+                        ps.setString(columns.length + 2, row.id());
+                        ps.setLong(columns.length + 3, projectId);
+                    });
+        }
+    }
 
-            jdbcTemplate.batchUpdate(INSERT_EDGE_SQL, batch, batch.size(),
-                    (ps, edge) -> {
-                        ps.setString(1, edge.id());
+    private void deleteRows(Table table, Long projectId, List<String> ids) {
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<String> batch = ids.subList(i, Math.min(i + batchSize, ids.size()));
+
+            jdbcTemplate.batchUpdate(table.deleteRowSql, batch, batch.size(),
+                    (ps, id) -> {
+                        ps.setString(1, id);
                         ps.setLong(2, projectId);
-                        ps.setString(3, edge.sourceNodeId());
-                        ps.setString(4, edge.targetNodeId());
-                        ps.setString(5, edge.type() != null ? edge.type().name() : null);
-                        ps.setString(6, edge.label());
-                        ps.setString(7, edge.confidence() != null ? edge.confidence().name() : null);
-                        ps.setString(8, toJson(edge.provenance()));
-                        ps.setString(9, toJson(edge.properties()));
                     });
         }
     }
 
+    /** Node rows keyed by id; the first occurrence of an id wins. */
+    private Map<String, Row> nodeRows(KnowledgeGraph graph) {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (KgNode node : graph.getNodes().values()) {
+            rows.computeIfAbsent(node.id(), id -> row(id, new String[] {
+                    node.type() != null ? node.type().name() : null,
+                    node.name(),
+                    node.qualifiedName(),
+                    toJson(node.metadata()),
+                    toJson(node.provenance()),
+                    confidenceFromProvenance(node),
+                    node.artifactId(),
+                    node.origin()
+            }));
+        }
+        return rows;
+    }
+
+    /** Edge rows keyed by id; the first occurrence of an id wins. */
+    private Map<String, Row> edgeRows(KnowledgeGraph graph) {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (KgEdge edge : graph.getEdges()) {
+            rows.computeIfAbsent(edge.id(), id -> row(id, new String[] {
+                    edge.sourceNodeId(),
+                    edge.targetNodeId(),
+                    edge.type() != null ? edge.type().name() : null,
+                    edge.label(),
+                    edge.confidence() != null ? edge.confidence().name() : null,
+                    toJson(edge.provenance()),
+                    toJson(edge.properties())
+            }));
+        }
+        return rows;
+    }
+
+    private static Row row(String id, String[] columns) {
+        MessageDigest digest = sha256();
+        for (String column : columns) {
+            if (column == null) {
+                digest.update((byte) 1);
+            } else {
+                digest.update((byte) 0);
+                digest.update(column.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0x1f);
+        }
+        return new Row(id, columns, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Row JSON must be byte-stable for unchanged content, otherwise every
+     * re-analysis would look like an update. Map keys are sorted and sets are
+     * written in sorted order, since {@code Map.of}/{@code Set.of} iteration
+     * order differs between JVM runs.
+     */
+    private static ObjectMapper canonical(ObjectMapper objectMapper) {
+        SimpleModule sortedSets = new SimpleModule("canonical-sets");
+        sortedSets.addSerializer(Set.class, new SortedSetSerializer());
+        return objectMapper.copy()
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+                .registerModule(sortedSets);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final class SortedSetSerializer extends JsonSerializer<Set> {
+
+        @Override
+        public void serialize(Set value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            List<Object> sorted = new ArrayList<>(value);
+            sorted.sort((left, right) -> String.valueOf(left).compareTo(String.valueOf(right)));
+            gen.writeStartArray();
+            for (Object element : sorted) {
+                serializers.defaultSerializeValue(element, gen);
+            }
+            gen.writeEndArray();
+        }
+    }
+
     private String toJson(Object value) {
         if (value == null) {
             return null;
@@ -6,6 +6,7 @@ import com.codevision.codevisionbackend.graph.KgEdgeType;
 import com.codevision.codevisionbackend.graph.KgNode;
 import com.codevision.codevisionbackend.graph.KgNodeType;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import com.codevision.codevisionbackend.graph.KnowledgeGraphBuilder;
 import com.codevision.codevisionbackend.graph.NodeMetadata;
 import com.codevision.codevisionbackend.graph.Provenance;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -88,22 +89,17 @@ public class KnowledgeGraphQueryService {
      * Loads the full knowledge graph for a project.
      *
      * @param projectId the project identifier
-     * @return a fully populated {@link KnowledgeGraph}
+     * @return a fully populated, frozen {@link KnowledgeGraph}
      */
     public KnowledgeGraph loadGraph(Long projectId) {
         Objects.requireNonNull(projectId, "projectId must not be null");
 
-        KnowledgeGraph graph = new KnowledgeGraph();
-
         List<KgNode> nodes = jdbcTemplate.query(SELECT_NODES_SQL, nodeRowMapper(), projectId);
-        for (KgNode node : nodes) {
-            graph.addNode(node);
-        }
-
         List<KgEdge> edges = jdbcTemplate.query(SELECT_EDGES_SQL, edgeRowMapper(), projectId);
-        for (KgEdge edge : edges) {
-            graph.addEdge(edge);
-        }
+        KnowledgeGraph graph = new KnowledgeGraphBuilder()
+                .withNodes(nodes)
+                .withEdges(edges)
+                .buildFrozen();
 
         log.debug("Loaded knowledge graph for project {}: {} nodes, {} edges",
                 projectId, graph.nodeCount(), graph.edgeCount());
@@ -116,7 +112,7 @@ public class KnowledgeGraphQueryService {
      *
      * @param projectId the project identifier
      * @param nodeIds   the set of node ids to include
-     * @return a {@link KnowledgeGraph} containing only the requested nodes and their edges
+     * @return a frozen {@link KnowledgeGraph} containing only the requested nodes and their edges
      */
     public KnowledgeGraph loadSubgraph(Long projectId, Set<String> nodeIds) {
         Objects.requireNonNull(projectId, "projectId must not be null");
@@ -126,24 +122,22 @@ public class KnowledgeGraphQueryService {
             return new KnowledgeGraph();
         }
 
-        KnowledgeGraph graph = new KnowledgeGraph();
+        KnowledgeGraphBuilder builder = new KnowledgeGraphBuilder();
         String[] idArray = nodeIds.toArray(String[]::new);
 
         List<KgNode> nodes = jdbcTemplate.query(SELECT_NODES_BY_IDS_SQL, nodeRowMapper(), projectId, idArray);
-        for (KgNode node : nodes) {
-            graph.addNode(node);
-        }
+        builder.withNodes(nodes);
 
         List<KgEdge> edges = jdbcTemplate.query(SELECT_EDGES_FOR_NODES_SQL, edgeRowMapper(),
                 projectId, idArray, idArray);
         for (KgEdge edge : edges) {
             // Only include edges where both endpoints are in the subgraph
             if (nodeIds.contains(edge.sourceNodeId()) && nodeIds.contains(edge.targetNodeId())) {
-                graph.addEdge(edge);
+                builder.withEdge(edge);
             }
         }
 
-        return graph;
+        return builder.buildFrozen();
     }
 
     /**
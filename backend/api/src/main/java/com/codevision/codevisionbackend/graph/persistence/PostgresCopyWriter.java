@@ -0,0 +1,90 @@
+package com.codevision.codevisionbackend.graph.persistence;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Streams rows into PostgreSQL through the {@code COPY ... FROM STDIN} protocol.
+ * Rows are encoded as CSV into a bounded buffer that is flushed to the server
+ * as it fills, so the full load is never materialised in memory. A {@code null}
+ * column is written unquoted (read back as SQL {@code NULL}); every other value
+ * is quoted, which keeps empty strings distinct from {@code NULL}.
+ */
+public final class PostgresCopyWriter {
+
+    private static final int FLUSH_THRESHOLD_CHARS = 64 * 1024;
+
+    private final CopyManager copyManager;
+
+    public PostgresCopyWriter(CopyManager copyManager) {
+        this.copyManager = Objects.requireNonNull(copyManager);
+    }
+
+    /**
+     * Copies {@code rows} using {@code copySql}, which must read CSV from
+     * {@code STDIN}.
+     *
+     * @param copySql the {@code COPY} statement
+     * @param rows    the rows to stream
+     * @param columns maps a row to its column values, in statement order
+     * @return the number of rows the server reports as copied
+     */
+    public <T> long copy(String copySql, Collection<T> rows, Function<T, String[]> columns) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        CopyIn copyIn = copyManager.copyIn(copySql);
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD_CHARS + 1024);
+            for (T row : rows) {
+                appendRow(buffer, columns.apply(row));
+                if (buffer.length() >= FLUSH_THRESHOLD_CHARS) {
+                    flush(copyIn, buffer);
+                }
+            }
+            flush(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    static void appendRow(StringBuilder buffer, String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            buffer.append('"');
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                if (ch == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(ch);
+            }
+            buffer.append('"');
+        }
+        buffer.append('\n');
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -2,53 +2,125 @@ package com.codevision.codevisionbackend.graph.web;
 
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import com.codevision.codevisionbackend.graph.export.GraphExportService;
+import com.codevision.codevisionbackend.graph.export.GraphExporter;
+import com.codevision.codevisionbackend.graph.persistence.KnowledgeGraphCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller exposing graph export endpoints. Supports exporting a
  * {@link KnowledgeGraph} in any registered format and listing available formats.
+ *
+ * <p>Exports are sent as a {@link StreamingResponseBody}. Formats whose
+ * exporter supports streaming are written straight to the response, so large
+ * exports are never held in memory. Other formats are rendered before the
+ * response starts, so their failures still produce an error response. Text
+ * formats are gzip-compressed when the client accepts it.</p>
  */
 @RestController
 @RequestMapping("/api/v1/graph/export")
 public class GraphExportController {
 
+    private static final Logger log = LoggerFactory.getLogger(GraphExportController.class);
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private final GraphExportService exportService;
+    private final KnowledgeGraphCache graphCache;
 
-    public GraphExportController(GraphExportService exportService) {
+    public GraphExportController(GraphExportService exportService, KnowledgeGraphCache graphCache) {
         this.exportService = exportService;
+        this.graphCache = graphCache;
     }
 
     /**
      * Exports the given knowledge graph in the specified format.
      *
-     * @param format the export format (e.g. "json", "csv", "graphml")
-     * @param graph  the knowledge graph to export
-     * @return the exported bytes with appropriate content type and disposition headers
+     * @param format         the export format (e.g. "json", "csv", "graphml")
+     * @param acceptEncoding the client's {@code Accept-Encoding} header, if any
+     * @param graph          the knowledge graph to export
+     * @return the exported content, streamed, with appropriate content type and disposition headers
      */
     @PostMapping("/{format}")
-    public ResponseEntity<byte[]> exportGraph(
+    public ResponseEntity<StreamingResponseBody> exportGraph(
             @PathVariable String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             @RequestBody KnowledgeGraph graph) {
+        return export(exporterFor(format), format, acceptEncoding, graph);
+    }
 
-        var exporter = exportService.getExporter(format)
+    /**
+     * Exports a project's stored knowledge graph, read through
+     * {@link KnowledgeGraphCache}, in the specified format.
+     *
+     * @param projectId      the project whose graph to export
+     * @param format         the export format (e.g. "json", "csv", "graphml")
+     * @param acceptEncoding the client's {@code Accept-Encoding} header, if any
+     * @return the exported content, streamed, with appropriate content type and disposition headers
+     */
+    @GetMapping("/projects/{projectId}/{format}")
+    public ResponseEntity<StreamingResponseBody> exportProjectGraph(
+            @PathVariable Long projectId,
+            @PathVariable String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Resolve the format before loading the graph
+        var exporter = exporterFor(format);
+        return export(exporter, format, acceptEncoding, graphCache.get(projectId).graph());
+    }
+
+    private GraphExporter exporterFor(String format) {
+        return exportService.getExporter(format)
                 .orElseThrow(() -> new IllegalArgumentException("Unsupported export format: " + format));
+    }
 
-        var data = exporter.export(graph);
+    private ResponseEntity<StreamingResponseBody> export(
+            GraphExporter exporter, String format, String acceptEncoding, KnowledgeGraph graph) {
+        // Formats that cannot stream are rendered before the response starts
+        byte[] rendered = exporter.supportsStreaming() ? null : exporter.export(graph);
         var contentType = exporter.contentType();
         var fileName = "knowledge-graph" + exporter.fileExtension();
         var disposition = ContentDisposition.attachment().filename(fileName).build();
+        boolean gzip = isCompressible(contentType) && acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            try {
+                var target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+                if (rendered != null) {
+                    target.write(rendered);
+                } else {
+                    exporter.export(graph, target);
+                }
+                if (target instanceof GZIPOutputStream compressed) {
+                    compressed.finish();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Headers are already sent; the client sees a truncated download
+                log.warn("Streaming {} export failed: {}", format, e.getMessage());
+                throw e;
+            }
+        };
 
-        return ResponseEntity.ok()
+        var response = ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
-                .body(data);
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        if (isCompressible(contentType)) {
+            response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     /**
@@ -61,4 +133,36 @@ public class GraphExportController {
         return ResponseEntity.ok(Map.of("formats", exportService.supportedFormats()));
     }
 
+    /** Text formats; images, PDF and spreadsheets are already compressed. */
+    private static boolean isCompressible(String contentType) {
+        return contentType != null && (contentType.startsWith("text/")
+                || contentType.endsWith("json")
+                || contentType.endsWith("xml"));
+    }
+
+    /** Whether an {@code Accept-Encoding} header allows gzip, i.e. lists it without {@code q=0}. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            var parts = coding.split(";");
+            var name = parts[0].trim();
+            if (!name.equals("gzip") && !name.equals("x-gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                var parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
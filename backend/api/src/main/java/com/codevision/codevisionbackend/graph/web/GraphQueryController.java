@@ -4,6 +4,9 @@ import com.codevision.codevisionbackend.graph.KgEdge;
 import com.codevision.codevisionbackend.graph.KgNode;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import com.codevision.codevisionbackend.graph.algorithm.GraphAlgorithmOrchestrator;
+import com.codevision.codevisionbackend.graph.algorithm.GraphArtifacts;
+import com.codevision.codevisionbackend.graph.persistence.GraphHandle;
+import com.codevision.codevisionbackend.graph.persistence.KnowledgeGraphCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +16,15 @@ import java.util.*;
 /**
  * REST controller exposing graph query endpoints for the interactive dashboard.
  * Returns data in Graphology-compatible JSON format for Sigma.js rendering.
+ *
+ * <p>The {@code POST} endpoints take the graph in the request body. The
+ * {@code GET /projects/{projectId}/...} endpoints query the project's stored
+ * graph through {@link KnowledgeGraphCache} instead, so the graph is loaded
+ * and indexed once. Their full graph, community and metrics results are
+ * memoized on the cached {@link GraphHandle}; metrics only once every
+ * algorithm has completed, so an aborted or failed run is retried on the next
+ * request. Metrics of a reloaded graph
+ * warm-start from the algorithm results of the project's previous graph.</p>
  */
 @RestController
 @RequestMapping("/api/v1/graph")
@@ -21,9 +33,11 @@ public class GraphQueryController {
     private static final long DEFAULT_MAX_TRAVERSAL_SECONDS = 30;
 
     private final GraphAlgorithmOrchestrator orchestrator;
+    private final KnowledgeGraphCache graphCache;
 
-    public GraphQueryController(GraphAlgorithmOrchestrator orchestrator) {
+    public GraphQueryController(GraphAlgorithmOrchestrator orchestrator, KnowledgeGraphCache graphCache) {
         this.orchestrator = orchestrator;
+        this.graphCache = graphCache;
     }
 
     /**
@@ -50,26 +64,16 @@ public class GraphQueryController {
      */
     @PostMapping("/communities")
     public ResponseEntity<Map<String, Object>> getCommunities(@RequestBody KnowledgeGraph graph) {
-        var communityAlgo = orchestrator.findByName("community-detection");
-        Map<String, Object> result = new LinkedHashMap<>();
-        if (communityAlgo.isPresent()) {
-            result.put("communities", communityAlgo.get().execute(graph));
-        } else {
-            result.put("communities", Map.of());
-        }
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(communities(graph, new GraphArtifacts(graph)));
     }
 
     /**
-     * Returns graph metrics including node/edge counts and algorithm results.
+     * Returns graph metrics including node/edge counts and algorithm results,
+     * with per-algorithm timings.
      */
     @PostMapping("/metrics")
     public ResponseEntity<Map<String, Object>> getMetrics(@RequestBody KnowledgeGraph graph) {
-        Map<String, Object> metrics = new LinkedHashMap<>();
-        metrics.put("nodeCount", graph.nodeCount());
-        metrics.put("edgeCount", graph.edgeCount());
-        metrics.put("algorithms", orchestrator.runAll(graph));
-        return ResponseEntity.ok(metrics);
+        return ResponseEntity.ok(metrics(graph, orchestrator.runConcurrently(graph, new GraphArtifacts(graph))));
     }
 
     /**
@@ -95,6 +99,96 @@ public class GraphQueryController {
         return ResponseEntity.ok(Map.of("sourceNode", nodeId, "dependencies", new ArrayList<>(deps)));
     }
 
+    // ── Project-scoped endpoints over the cached graph ──────────────────
+
+    /**
+     * Returns a project's stored graph in Graphology JSON format.
+     */
+    @GetMapping("/projects/{projectId}/full")
+    public ResponseEntity<Map<String, Object>> getProjectGraph(@PathVariable Long projectId) {
+        var handle = graphCache.get(projectId);
+        return ResponseEntity.ok(handle.memoize("full", () ->
+                toGraphologyFormat(handle.graph(), handle.graph().getNodes().keySet())));
+    }
+
+    /**
+     * Returns the subgraph of a project's stored graph that is connected to
+     * the given seed nodes.
+     */
+    @GetMapping("/projects/{projectId}/subgraph")
+    public ResponseEntity<Map<String, Object>> getProjectSubgraph(
+            @PathVariable Long projectId,
+            @RequestParam Set<String> seedNodes) {
+        var graph = graphCache.get(projectId).graph();
+        return ResponseEntity.ok(toGraphologyFormat(graph, expandSubgraph(graph, seedNodes)));
+    }
+
+    /**
+     * Returns community detection results for a project's stored graph.
+     */
+    @GetMapping("/projects/{projectId}/communities")
+    public ResponseEntity<Map<String, Object>> getProjectCommunities(@PathVariable Long projectId) {
+        var handle = graphCache.get(projectId);
+        return ResponseEntity.ok(handle.memoize("communities", () ->
+                communities(handle.graph(), handle.artifacts())));
+    }
+
+    /**
+     * Returns graph metrics and algorithm results for a project's stored graph.
+     */
+    @GetMapping("/projects/{projectId}/metrics")
+    public ResponseEntity<Map<String, Object>> getProjectMetrics(@PathVariable Long projectId) {
+        var handle = graphCache.get(projectId);
+        Map<String, Object> algorithms = handle.memoize(GraphHandle.ALGORITHMS_KEY,
+                () -> orchestrator.runConcurrently(handle.graph(), handle.artifacts(), handle.previousAlgorithmResults()),
+                GraphAlgorithmOrchestrator::allCompleted);
+        boolean completed = GraphAlgorithmOrchestrator.allCompleted(algorithms);
+        return ResponseEntity.ok(handle.memoize("metrics",
+                () -> metrics(handle.graph(), algorithms), metrics -> completed));
+    }
+
+    /**
+     * Returns the shortest path between two nodes of a project's stored graph.
+     */
+    @GetMapping("/projects/{projectId}/shortest-path")
+    public ResponseEntity<Map<String, Object>> getProjectShortestPath(
+            @PathVariable Long projectId,
+            @RequestParam String from,
+            @RequestParam String to) {
+        var path = bfsShortestPath(graphCache.get(projectId).graph(), from, to);
+        return ResponseEntity.ok(Map.of("path", path, "length", path.size()));
+    }
+
+    /**
+     * Returns all transitive dependencies of a node in a project's stored graph.
+     */
+    @GetMapping("/projects/{projectId}/transitive-deps")
+    public ResponseEntity<Map<String, Object>> getProjectTransitiveDeps(
+            @PathVariable Long projectId,
+            @RequestParam String nodeId) {
+        var deps = bfsForwardReachable(graphCache.get(projectId).graph(), nodeId);
+        return ResponseEntity.ok(Map.of("sourceNode", nodeId, "dependencies", new ArrayList<>(deps)));
+    }
+
+    private Map<String, Object> communities(KnowledgeGraph graph, GraphArtifacts artifacts) {
+        var communityAlgo = orchestrator.findByName("community-detection");
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (communityAlgo.isPresent()) {
+            result.put("communities", communityAlgo.get().execute(graph, artifacts));
+        } else {
+            result.put("communities", Map.of());
+        }
+        return result;
+    }
+
+    private Map<String, Object> metrics(KnowledgeGraph graph, Map<String, Object> algorithms) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("nodeCount", graph.nodeCount());
+        metrics.put("edgeCount", graph.edgeCount());
+        metrics.put("algorithms", algorithms);
+        return metrics;
+    }
+
     // ── Graphology format conversion ────────────────────────────────────
 
     private Map<String, Object> toGraphologyFormat(KnowledgeGraph graph, Set<String> nodeIds) {
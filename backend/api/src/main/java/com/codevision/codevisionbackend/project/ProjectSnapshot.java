@@ -48,9 +48,27 @@ public class ProjectSnapshot {
     @Column(name = "module_fingerprints_json", columnDefinition = "text")
     private String moduleFingerprintsJson;
 
+    @Column(name = "file_fingerprints_json", columnDefinition = "text")
+    private String fileFingerprintsJson;
+
+    /**
+     * Full payload for snapshots in the legacy format; for sectioned snapshots only the scalar header, with the
+     * collections stored as {@link ProjectSnapshotSection}s.
+     */
     @Column(name = "snapshot_json", nullable = false, columnDefinition = "text")
     private String snapshotJson;
 
+    /** Storage format of the payload, or {@code null} for snapshots stored as a single JSON document. */
+    @Column(name = "storage_format", length = 32)
+    private String storageFormat;
+
+    /**
+     * Whether the PII/PCI and logger scans ran for this snapshot, or {@code null} for snapshots recorded before the
+     * flag existed. Only snapshots with the flag set carry findings that a later run may reuse.
+     */
+    @Column(name = "security_scanned")
+    private Boolean securityScanned;
+
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 }
@@ -71,8 +71,8 @@ public class ProjectSnapshotController implements ProjectApi {
     @Override
     public ResponseEntity<ProjectApiEndpointsResponse> getProjectApiEndpoints(Long projectId) {
         log.info("Fetching API endpoints for project id={}", projectId);
-        return projectSnapshotService.fetchSnapshot(projectId)
-                .map(snapshot -> apiModelMapper.toApiEndpointsResponse(projectId, snapshot.apiEndpoints()))
+        return projectSnapshotService.fetchApiEndpoints(projectId)
+                .map(endpoints -> apiModelMapper.toApiEndpointsResponse(projectId, endpoints))
                 .map(response -> {
                     int count = response.getEndpoints() != null ? response.getEndpoints().size() : 0;
                     log.info("Found {} endpoints for project id={}", count, projectId);
@@ -87,8 +87,8 @@ public class ProjectSnapshotController implements ProjectApi {
     @Override
     public ResponseEntity<ProjectDbAnalysisResponse> getProjectDbAnalysis(Long projectId) {
         log.info("Fetching database analysis for project id={}", projectId);
-        return projectSnapshotService.fetchSnapshot(projectId)
-                .map(snapshot -> apiModelMapper.toDbAnalysisResponse(projectId, snapshot.dbAnalysis()))
+        return projectSnapshotService.fetchDbAnalysis(projectId)
+                .map(dbAnalysis -> apiModelMapper.toDbAnalysisResponse(projectId, dbAnalysis))
                 .map(response -> {
                     log.info("Found database analysis for project id={}", projectId);
                     return ResponseEntity.ok(response);
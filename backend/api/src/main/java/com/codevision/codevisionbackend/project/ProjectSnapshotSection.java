@@ -0,0 +1,54 @@
+package com.codevision.codevisionbackend.project;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** One gzip-compressed JSON section of a {@link ProjectSnapshot} stored in the sectioned format. */
+@Entity
+@Table(
+        name = "project_snapshot_section",
+        indexes = @Index(
+                name = "uq_project_snapshot_section",
+                columnList = "snapshot_id, section_name",
+                unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProjectSnapshotSection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(
+            name = "snapshot_id",
+            nullable = false,
+            foreignKey = @ForeignKey(name = "fk_project_snapshot_section_snapshot"))
+    private ProjectSnapshot snapshot;
+
+    @Column(name = "snapshot_id", nullable = false, insertable = false, updatable = false)
+    private Long snapshotId;
+
+    @Column(name = "section_name", nullable = false, length = 64)
+    private String sectionName;
+
+    @Column(name = "uncompressed_bytes", nullable = false)
+    private long uncompressedBytes;
+
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+}
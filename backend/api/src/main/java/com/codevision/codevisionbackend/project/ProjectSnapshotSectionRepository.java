@@ -0,0 +1,12 @@
+package com.codevision.codevisionbackend.project;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProjectSnapshotSectionRepository extends JpaRepository<ProjectSnapshotSection, Long> {
+
+    List<ProjectSnapshotSection> findBySnapshotId(Long snapshotId);
+
+    Optional<ProjectSnapshotSection> findBySnapshotIdAndSectionName(Long snapshotId, String sectionName);
+}
@@ -2,7 +2,9 @@ package com.codevision.codevisionbackend.project;
 
 import static com.codevision.codevisionbackend.git.BranchUtils.normalize;
 
+import com.codevision.codevisionbackend.analyze.ApiEndpointSummary;
 import com.codevision.codevisionbackend.analyze.ClassMetadataSummary;
+import com.codevision.codevisionbackend.analyze.DbAnalysisSummary;
 import com.codevision.codevisionbackend.analyze.DiagramSummary;
 import com.codevision.codevisionbackend.analyze.ParsedDataResponse;
 import com.codevision.codevisionbackend.analyze.PiiPciFindingSummary;
@@ -15,7 +17,11 @@ import com.codevision.codevisionbackend.project.security.PiiPciFindingRepository
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -23,7 +29,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -35,8 +44,10 @@ public class ProjectSnapshotService {
     private static final Logger log = LoggerFactory.getLogger(ProjectSnapshotService.class);
     private static final TypeReference<List<String>> LIST_OF_STRINGS = new TypeReference<>() {};
     private static final TypeReference<Map<String, String>> MAP_OF_STRINGS = new TypeReference<>() {};
+    static final String SECTIONED_STORAGE_FORMAT = "sectioned-gzip-v1";
 
     private final ProjectSnapshotRepository snapshotRepository;
+    private final ProjectSnapshotSectionRepository sectionRepository;
     private final ProjectRepository projectRepository;
     private final ClassMetadataRepository classMetadataRepository;
     private final DiagramService diagramService;
@@ -45,12 +56,14 @@ public class ProjectSnapshotService {
 
     public ProjectSnapshotService(
             ProjectSnapshotRepository snapshotRepository,
+            ProjectSnapshotSectionRepository sectionRepository,
             ProjectRepository projectRepository,
             ClassMetadataRepository classMetadataRepository,
             DiagramService diagramService,
             PiiPciFindingRepository piiPciFindingRepository,
             ObjectMapper objectMapper) {
         this.snapshotRepository = snapshotRepository;
+        this.sectionRepository = sectionRepository;
         this.projectRepository = projectRepository;
         this.classMetadataRepository = classMetadataRepository;
         this.diagramService = diagramService;
@@ -76,17 +89,27 @@ public class ProjectSnapshotService {
         snapshot.setRepoUrl(repoUrl);
         snapshot.setBranchName(metadata.branchName());
         snapshot.setCommitHash(metadata.commitHash());
-        snapshot.setModuleFingerprintsJson(writeModuleFingerprints(metadata.moduleFingerprints()));
-        snapshot.setSnapshotJson(toJson(parsedData));
+        snapshot.setModuleFingerprintsJson(writeFingerprints(metadata.moduleFingerprints()));
+        snapshot.setFileFingerprintsJson(writeFingerprints(metadata.fileFingerprints()));
+        snapshot.setSnapshotJson(toJson(header(parsedData)));
+        snapshot.setStorageFormat(SECTIONED_STORAGE_FORMAT);
+        snapshot.setSecurityScanned(metadata.securityScanned());
         snapshot.setCreatedAt(OffsetDateTime.now());
 
         ProjectSnapshot persisted = snapshotRepository.saveAndFlush(snapshot);
+        List<ProjectSnapshotSection> sections = SnapshotSection.ALL.stream()
+                .map(section -> encodeSection(persisted, section, parsedData))
+                .toList();
+        sectionRepository.saveAll(sections);
         log.info(
-                "Snapshot {} persisted for projectId={} branch={} commit={}",
+                "Snapshot {} persisted for projectId={} branch={} commit={} ({} sections, {} bytes compressed from {})",
                 persisted.getId(),
                 managedProject.getId(),
                 metadata.branchName(),
-                metadata.commitHash());
+                metadata.commitHash(),
+                sections.size(),
+                sections.stream().mapToLong(section -> section.getPayload().length).sum(),
+                sections.stream().mapToLong(ProjectSnapshotSection::getUncompressedBytes).sum());
         return persisted;
     }
 
@@ -111,9 +134,23 @@ public class ProjectSnapshotService {
         return findLatestSnapshotEntity(projectId).map(this::hydrateSnapshot);
     }
 
+    /** Endpoint catalog of the latest snapshot; only that section is read and decoded. */
+    @Transactional(readOnly = true)
+    public Optional<List<ApiEndpointSummary>> fetchApiEndpoints(Long projectId) {
+        return findLatestSnapshotEntity(projectId)
+                .map(snapshot -> readSection(snapshot, SnapshotSection.API_ENDPOINTS));
+    }
+
+    /** Database analysis of the latest snapshot; only that section is read and decoded. */
+    @Transactional(readOnly = true)
+    public Optional<DbAnalysisSummary> fetchDbAnalysis(Long projectId) {
+        return findLatestSnapshotEntity(projectId)
+                .map(snapshot -> readSection(snapshot, SnapshotSection.DB_ANALYSIS));
+    }
+
     @Transactional(readOnly = true)
     public ParsedDataResponse hydrateSnapshot(ProjectSnapshot snapshot) {
-        ParsedDataResponse raw = fromJson(snapshot);
+        ParsedDataResponse raw = readPayload(snapshot);
         Long projectId = snapshotProjectId(snapshot);
         List<ClassMetadataSummary> classes = raw.classes();
         if (classes == null || classes.isEmpty()) {
@@ -165,14 +202,25 @@ public class ProjectSnapshotService {
                 .findByIdAndProjectId(compareSnapshotId, projectId)
                 .orElseThrow(() -> new IllegalArgumentException("Snapshot " + compareSnapshotId + " not found for project " + projectId));
 
-        ParsedDataResponse baseData = hydrateSnapshot(base);
-        ParsedDataResponse compareData = hydrateSnapshot(compare);
-        return buildDiff(base, compare, baseData, compareData);
+        SnapshotDiffEngine engine = new SnapshotDiffEngine(objectMapper);
+        return engine.compare(base, compare, readDiffKeys(engine, base), readDiffKeys(engine, compare));
     }
 
     @Transactional(readOnly = true)
     public Map<String, String> readModuleFingerprints(ProjectSnapshot snapshot) {
-        String payload = snapshot.getModuleFingerprintsJson();
+        return readFingerprints(snapshot, snapshot.getModuleFingerprintsJson(), "module");
+    }
+
+    /**
+     * Per-file blob fingerprints (repository-relative path to git blob id) recorded with the snapshot, or an
+     * empty map for snapshots written before file fingerprints were tracked.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, String> readFileFingerprints(ProjectSnapshot snapshot) {
+        return readFingerprints(snapshot, snapshot.getFileFingerprintsJson(), "file");
+    }
+
+    private Map<String, String> readFingerprints(ProjectSnapshot snapshot, String payload, String kind) {
         if (payload == null || payload.isBlank()) {
             return Map.of();
         }
@@ -180,7 +228,7 @@ public class ProjectSnapshotService {
             Map<String, String> parsed = objectMapper.readValue(payload, MAP_OF_STRINGS);
             return parsed == null ? Map.of() : parsed;
         } catch (IOException e) {
-            log.warn("Failed to parse module fingerprints for snapshot {}", snapshot.getId(), e);
+            log.warn("Failed to parse {} fingerprints for snapshot {}", kind, snapshot.getId(), e);
             return Map.of();
         }
     }
@@ -226,6 +274,125 @@ public class ProjectSnapshotService {
         }
     }
 
+    /** The response without any of its sections; stored as the snapshot JSON of sectioned snapshots. */
+    private ParsedDataResponse header(ParsedDataResponse data) {
+        return new ParsedDataResponse(
+                data.projectId(),
+                data.projectName(),
+                data.repoUrl(),
+                data.analyzedAt(),
+                data.buildInfo(),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
+    }
+
+    private boolean isSectioned(ProjectSnapshot snapshot) {
+        return SECTIONED_STORAGE_FORMAT.equals(snapshot.getStorageFormat());
+    }
+
+    private ParsedDataResponse readPayload(ProjectSnapshot snapshot) {
+        ParsedDataResponse header = fromJson(snapshot);
+        if (!isSectioned(snapshot)) {
+            return header;
+        }
+        Map<String, ProjectSnapshotSection> stored = sectionRepository.findBySnapshotId(snapshot.getId()).stream()
+                .collect(Collectors.toMap(
+                        ProjectSnapshotSection::getSectionName,
+                        Function.identity(),
+                        (left, right) -> right));
+        return new ParsedDataResponse(
+                header.projectId(),
+                header.projectName(),
+                header.repoUrl(),
+                header.analyzedAt(),
+                header.buildInfo(),
+                decodeOrDefault(stored, SnapshotSection.CLASSES, header),
+                decodeOrDefault(stored, SnapshotSection.METADATA_DUMP, header),
+                decodeOrDefault(stored, SnapshotSection.DB_ANALYSIS, header),
+                decodeOrDefault(stored, SnapshotSection.API_ENDPOINTS, header),
+                decodeOrDefault(stored, SnapshotSection.ASSETS, header),
+                decodeOrDefault(stored, SnapshotSection.LOGGER_INSIGHTS, header),
+                decodeOrDefault(stored, SnapshotSection.PII_PCI_SCAN, header),
+                decodeOrDefault(stored, SnapshotSection.GHERKIN_FEATURES, header),
+                decodeOrDefault(stored, SnapshotSection.CALL_FLOWS, header),
+                decodeOrDefault(stored, SnapshotSection.DIAGRAMS, header));
+    }
+
+    /**
+     * Reads a single section. Legacy snapshots have no sections, so the whole document is decoded instead; a
+     * missing section yields the empty default carried by the header.
+     */
+    private <T> T readSection(ProjectSnapshot snapshot, SnapshotSection<T> section) {
+        if (!isSectioned(snapshot)) {
+            return section.extract(fromJson(snapshot));
+        }
+        return sectionRepository.findBySnapshotIdAndSectionName(snapshot.getId(), section.name())
+                .map(stored -> decodeSection(stored, section))
+                .orElseGet(() -> section.extract(fromJson(snapshot)));
+    }
+
+    private <T> T decodeOrDefault(
+            Map<String, ProjectSnapshotSection> stored, SnapshotSection<T> section, ParsedDataResponse header) {
+        ProjectSnapshotSection candidate = stored.get(section.name());
+        return candidate == null ? section.extract(header) : decodeSection(candidate, section);
+    }
+
+    private ProjectSnapshotSection encodeSection(
+            ProjectSnapshot snapshot, SnapshotSection<?> section, ParsedDataResponse data) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        CountingOutputStream counter;
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            counter = new CountingOutputStream(gzip);
+            objectMapper.writeValue(counter, section.extract(data));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize snapshot section " + section.name(), e);
+        }
+        ProjectSnapshotSection entity = new ProjectSnapshotSection();
+        entity.setSnapshot(snapshot);
+        entity.setSectionName(section.name());
+        entity.setUncompressedBytes(counter.count);
+        entity.setPayload(compressed.toByteArray());
+        return entity;
+    }
+
+    private <T> T decodeSection(ProjectSnapshotSection stored, SnapshotSection<T> section) {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(stored.getPayload()))) {
+            return objectMapper.readValue(input, section.type());
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Failed to deserialize section " + section.name() + " of snapshot " + stored.getSnapshotId(), e);
+        }
+    }
+
+    /**
+     * Stream-reads only the sections a diff compares. Sectioned snapshots decompress each section straight into
+     * the parser; legacy snapshots are scanned once with the unrelated top-level fields skipped.
+     */
+    private SnapshotDiffEngine.SnapshotKeys readDiffKeys(SnapshotDiffEngine engine, ProjectSnapshot snapshot) {
+        try {
+            if (!isSectioned(snapshot)) {
+                return engine.readDocument(snapshot.getSnapshotJson());
+            }
+            return engine.readSections(sectionName -> {
+                Optional<ProjectSnapshotSection> stored =
+                        sectionRepository.findBySnapshotIdAndSectionName(snapshot.getId(), sectionName);
+                return stored.isEmpty()
+                        ? null
+                        : new GZIPInputStream(new ByteArrayInputStream(stored.get().getPayload()));
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read snapshot " + snapshot.getId() + " for diff", e);
+        }
+    }
+
     private ParsedDataResponse fromJson(ProjectSnapshot snapshot) {
         try {
             return objectMapper.readValue(snapshot.getSnapshotJson(), ParsedDataResponse.class);
@@ -234,14 +401,14 @@ public class ProjectSnapshotService {
         }
     }
 
-    private String writeModuleFingerprints(Map<String, String> fingerprints) {
+    private String writeFingerprints(Map<String, String> fingerprints) {
         if (fingerprints == null || fingerprints.isEmpty()) {
             return null;
         }
         try {
             return objectMapper.writeValueAsString(fingerprints);
         } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to serialize module fingerprint map", e);
+            throw new IllegalStateException("Failed to serialize fingerprint map", e);
         }
     }
 
@@ -325,100 +492,6 @@ public class ProjectSnapshotService {
                 .toList();
     }
 
-    private SnapshotDiff buildDiff(
-            ProjectSnapshot baseSnapshot,
-            ProjectSnapshot compareSnapshot,
-            ParsedDataResponse base,
-            ParsedDataResponse compare) {
-        List<SnapshotDiff.ClassRef> addedClasses = diffClasses(base, compare, true);
-        List<SnapshotDiff.ClassRef> removedClasses = diffClasses(base, compare, false);
-        List<SnapshotDiff.EndpointRef> addedEndpoints = diffEndpoints(base, compare, true);
-        List<SnapshotDiff.EndpointRef> removedEndpoints = diffEndpoints(base, compare, false);
-        List<SnapshotDiff.DbEntityRef> addedEntities = diffEntities(base, compare, true);
-        List<SnapshotDiff.DbEntityRef> removedEntities = diffEntities(base, compare, false);
-
-        return new SnapshotDiff(
-                baseSnapshot.getId(),
-                compareSnapshot.getId(),
-                Optional.ofNullable(baseSnapshot.getCommitHash()).orElse(""),
-                Optional.ofNullable(compareSnapshot.getCommitHash()).orElse(""),
-                addedClasses,
-                removedClasses,
-                addedEndpoints,
-                removedEndpoints,
-                addedEntities,
-                removedEntities);
-    }
-
-    private List<SnapshotDiff.ClassRef> diffClasses(ParsedDataResponse base, ParsedDataResponse compare, boolean additions) {
-        Map<String, ClassMetadataSummary> baseMap = (base.classes() == null ? List.<ClassMetadataSummary>of() : base.classes()).stream()
-                .collect(Collectors.toMap(ClassMetadataSummary::fullyQualifiedName, summary -> summary, (left, right) -> left));
-        Map<String, ClassMetadataSummary> compareMap = (compare.classes() == null ? List.<ClassMetadataSummary>of() : compare.classes()).stream()
-                .collect(Collectors.toMap(ClassMetadataSummary::fullyQualifiedName, summary -> summary, (left, right) -> left));
-        return additions
-                ? compareMap.entrySet().stream()
-                        .filter(entry -> !baseMap.containsKey(entry.getKey()))
-                        .map(entry -> new SnapshotDiff.ClassRef(entry.getKey(), entry.getValue().stereotype()))
-                        .toList()
-                : baseMap.entrySet().stream()
-                        .filter(entry -> !compareMap.containsKey(entry.getKey()))
-                        .map(entry -> new SnapshotDiff.ClassRef(entry.getKey(), entry.getValue().stereotype()))
-                        .toList();
-    }
-
-    private List<SnapshotDiff.EndpointRef> diffEndpoints(ParsedDataResponse base, ParsedDataResponse compare, boolean additions) {
-        Map<String, SnapshotDiff.EndpointRef> baseMap = toEndpointMap(base);
-        Map<String, SnapshotDiff.EndpointRef> compareMap = toEndpointMap(compare);
-        return additions
-                ? compareMap.keySet().stream()
-                        .filter(key -> !baseMap.containsKey(key))
-                        .map(compareMap::get)
-                        .toList()
-                : baseMap.keySet().stream()
-                        .filter(key -> !compareMap.containsKey(key))
-                        .map(baseMap::get)
-                        .toList();
-    }
-
-    private Map<String, SnapshotDiff.EndpointRef> toEndpointMap(ParsedDataResponse response) {
-        if (response.apiEndpoints() == null) {
-            return Map.of();
-        }
-        return response.apiEndpoints().stream()
-                .map(endpoint -> new SnapshotDiff.EndpointRef(
-                        endpoint.protocol(), endpoint.httpMethod(), endpoint.pathOrOperation()))
-                .collect(Collectors.toMap(
-                        SnapshotDiff.EndpointRef::identity,
-                        ref -> ref,
-                        (left, right) -> left));
-    }
-
-    private List<SnapshotDiff.DbEntityRef> diffEntities(ParsedDataResponse base, ParsedDataResponse compare, boolean additions) {
-        Map<String, SnapshotDiff.DbEntityRef> baseEntities = toEntityMap(base);
-        Map<String, SnapshotDiff.DbEntityRef> compareEntities = toEntityMap(compare);
-        return additions
-                ? compareEntities.keySet().stream()
-                        .filter(key -> !baseEntities.containsKey(key))
-                        .map(compareEntities::get)
-                        .toList()
-                : baseEntities.keySet().stream()
-                        .filter(key -> !compareEntities.containsKey(key))
-                        .map(baseEntities::get)
-                        .toList();
-    }
-
-    private Map<String, SnapshotDiff.DbEntityRef> toEntityMap(ParsedDataResponse response) {
-        if (response.dbAnalysis() == null || response.dbAnalysis().entities() == null) {
-            return Map.of();
-        }
-        return response.dbAnalysis().entities().stream()
-                .map(entity -> new SnapshotDiff.DbEntityRef(entity.entityName(), entity.tableName()))
-                .collect(Collectors.toMap(
-                        SnapshotDiff.DbEntityRef::identity,
-                        ref -> ref,
-                        (left, right) -> left));
-    }
-
     private Long snapshotProjectId(ProjectSnapshot snapshot) {
         if (snapshot == null) {
             return null;
@@ -430,11 +503,62 @@ public class ProjectSnapshotService {
         return project != null ? project.getId() : null;
     }
 
-    public record SnapshotMetadata(String branchName, String commitHash, Map<String, String> moduleFingerprints) {
+    /** Counts the uncompressed bytes of a section on their way into the compressor. */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    public record SnapshotMetadata(
+            String branchName,
+            String commitHash,
+            Map<String, String> moduleFingerprints,
+            Map<String, String> fileFingerprints,
+            boolean securityScanned) {
         public SnapshotMetadata {
             branchName = normalize(branchName);
             commitHash = commitHash == null ? "" : commitHash;
             moduleFingerprints = moduleFingerprints == null ? Map.of() : Map.copyOf(moduleFingerprints);
+            fileFingerprints = fileFingerprints == null ? Map.of() : Map.copyOf(fileFingerprints);
+        }
+
+        public SnapshotMetadata(
+                String branchName,
+                String commitHash,
+                Map<String, String> moduleFingerprints,
+                Map<String, String> fileFingerprints) {
+            this(branchName, commitHash, moduleFingerprints, fileFingerprints, false);
+        }
+
+        public SnapshotMetadata(String branchName, String commitHash, Map<String, String> moduleFingerprints) {
+            this(branchName, commitHash, moduleFingerprints, Map.of());
         }
     }
 
@@ -12,7 +12,34 @@ public record SnapshotDiff(
         List<EndpointRef> addedEndpoints,
         List<EndpointRef> removedEndpoints,
         List<DbEntityRef> addedEntities,
-        List<DbEntityRef> removedEntities) {
+        List<DbEntityRef> removedEntities,
+        List<DaoOperationRef> addedDaoOperations,
+        List<DaoOperationRef> removedDaoOperations,
+        List<DaoOperationRef> changedDaoOperations,
+        List<DiagramRef> addedDiagrams,
+        List<DiagramRef> removedDiagrams,
+        List<DiagramRef> changedDiagrams,
+        List<String> addedCallFlows,
+        List<String> removedCallFlows,
+        List<String> changedCallFlows) {
+
+    public SnapshotDiff {
+        addedClasses = addedClasses == null ? List.of() : List.copyOf(addedClasses);
+        removedClasses = removedClasses == null ? List.of() : List.copyOf(removedClasses);
+        addedEndpoints = addedEndpoints == null ? List.of() : List.copyOf(addedEndpoints);
+        removedEndpoints = removedEndpoints == null ? List.of() : List.copyOf(removedEndpoints);
+        addedEntities = addedEntities == null ? List.of() : List.copyOf(addedEntities);
+        removedEntities = removedEntities == null ? List.of() : List.copyOf(removedEntities);
+        addedDaoOperations = addedDaoOperations == null ? List.of() : List.copyOf(addedDaoOperations);
+        removedDaoOperations = removedDaoOperations == null ? List.of() : List.copyOf(removedDaoOperations);
+        changedDaoOperations = changedDaoOperations == null ? List.of() : List.copyOf(changedDaoOperations);
+        addedDiagrams = addedDiagrams == null ? List.of() : List.copyOf(addedDiagrams);
+        removedDiagrams = removedDiagrams == null ? List.of() : List.copyOf(removedDiagrams);
+        changedDiagrams = changedDiagrams == null ? List.of() : List.copyOf(changedDiagrams);
+        addedCallFlows = addedCallFlows == null ? List.of() : List.copyOf(addedCallFlows);
+        removedCallFlows = removedCallFlows == null ? List.of() : List.copyOf(removedCallFlows);
+        changedCallFlows = changedCallFlows == null ? List.of() : List.copyOf(changedCallFlows);
+    }
 
     public record ClassRef(String fullyQualifiedName, String stereotype) {}
 
@@ -32,4 +59,21 @@ public record SnapshotDiff(
             return entity + "::" + table;
         }
     }
+
+    public record DaoOperationRef(String repositoryClass, String methodName, String operationType, String target) {
+        public String identity() {
+            String owner = repositoryClass == null ? "" : repositoryClass;
+            String method = methodName == null ? "" : methodName;
+            String type = operationType == null ? "" : operationType;
+            return owner + "::" + method + "::" + type;
+        }
+    }
+
+    public record DiagramRef(String diagramType, String title) {
+        public String identity() {
+            String type = diagramType == null ? "" : diagramType;
+            String name = title == null ? "" : title;
+            return type + "::" + name;
+        }
+    }
 }
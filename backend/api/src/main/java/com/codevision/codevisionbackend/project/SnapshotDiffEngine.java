@@ -0,0 +1,300 @@
+package com.codevision.codevisionbackend.project;
+
+import com.codevision.codevisionbackend.project.SnapshotDiff.ClassRef;
+import com.codevision.codevisionbackend.project.SnapshotDiff.DaoOperationRef;
+import com.codevision.codevisionbackend.project.SnapshotDiff.DbEntityRef;
+import com.codevision.codevisionbackend.project.SnapshotDiff.DiagramRef;
+import com.codevision.codevisionbackend.project.SnapshotDiff.EndpointRef;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compares two stored snapshots without hydrating them. Only the sections a diff needs are stream-parsed, one
+ * element at a time, and each element is reduced to an identity key, a content digest and a small reference.
+ * The keys of both snapshots are sorted and merge-walked, so memory stays proportional to the number of keys
+ * rather than to the size of the payloads.
+ */
+final class SnapshotDiffEngine {
+
+    /** Sections read by the diff; every other section is skipped without being decoded. */
+    static final Set<String> DIFFED_SECTIONS = Set.of(
+            SnapshotSection.CLASSES.name(),
+            SnapshotSection.API_ENDPOINTS.name(),
+            SnapshotSection.DB_ANALYSIS.name(),
+            SnapshotSection.DIAGRAMS.name(),
+            SnapshotSection.CALL_FLOWS.name());
+
+    private final ObjectMapper objectMapper;
+
+    SnapshotDiffEngine(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Collects the keys of a sectioned snapshot. {@code opener} returns the decompressed JSON of a section, or
+     * {@code null} when the snapshot does not store it.
+     */
+    SnapshotKeys readSections(SectionOpener opener) throws IOException {
+        SnapshotKeys keys = new SnapshotKeys();
+        for (String section : DIFFED_SECTIONS) {
+            try (InputStream input = opener.open(section)) {
+                if (input == null) {
+                    continue;
+                }
+                try (JsonParser parser = objectMapper.createParser(input)) {
+                    if (parser.nextToken() != null) {
+                        collect(section, parser, keys);
+                    }
+                }
+            }
+        }
+        return keys.sorted();
+    }
+
+    /** Collects the keys of a snapshot stored as one JSON document, skipping the sections a diff ignores. */
+    SnapshotKeys readDocument(String json) throws IOException {
+        SnapshotKeys keys = new SnapshotKeys();
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return keys;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (DIFFED_SECTIONS.contains(field)) {
+                    collect(field, parser, keys);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return keys.sorted();
+    }
+
+    SnapshotDiff compare(ProjectSnapshot baseSnapshot, ProjectSnapshot compareSnapshot, SnapshotKeys base,
+            SnapshotKeys compare) {
+        Changes<ClassRef> classes = mergeWalk(base.classes, compare.classes);
+        Changes<EndpointRef> endpoints = mergeWalk(base.endpoints, compare.endpoints);
+        Changes<DbEntityRef> entities = mergeWalk(base.entities, compare.entities);
+        Changes<DaoOperationRef> daoOperations = mergeWalk(base.daoOperations, compare.daoOperations);
+        Changes<DiagramRef> diagrams = mergeWalk(base.diagrams, compare.diagrams);
+        Changes<String> callFlows = mergeWalk(base.callFlows, compare.callFlows);
+        return new SnapshotDiff(
+                baseSnapshot.getId(),
+                compareSnapshot.getId(),
+                Optional.ofNullable(baseSnapshot.getCommitHash()).orElse(""),
+                Optional.ofNullable(compareSnapshot.getCommitHash()).orElse(""),
+                classes.added(),
+                classes.removed(),
+                endpoints.added(),
+                endpoints.removed(),
+                entities.added(),
+                entities.removed(),
+                daoOperations.added(),
+                daoOperations.removed(),
+                daoOperations.changed(),
+                diagrams.added(),
+                diagrams.removed(),
+                diagrams.changed(),
+                callFlows.added(),
+                callFlows.removed(),
+                callFlows.changed());
+    }
+
+    private void collect(String section, JsonParser parser, SnapshotKeys keys) throws IOException {
+        if (SnapshotSection.CLASSES.name().equals(section)) {
+            forEachElement(parser, node -> {
+                String name = text(node, "fullyQualifiedName");
+                if (name != null) {
+                    keys.classes.add(new Entry<>(name, null, new ClassRef(name, text(node, "stereotype"))));
+                }
+            });
+        } else if (SnapshotSection.API_ENDPOINTS.name().equals(section)) {
+            forEachElement(parser, node -> {
+                EndpointRef ref = new EndpointRef(
+                        text(node, "protocol"), text(node, "httpMethod"), text(node, "pathOrOperation"));
+                keys.endpoints.add(new Entry<>(ref.identity(), null, ref));
+            });
+        } else if (SnapshotSection.DB_ANALYSIS.name().equals(section)) {
+            collectDbAnalysis(parser, keys);
+        } else if (SnapshotSection.DIAGRAMS.name().equals(section)) {
+            forEachElement(parser, node -> {
+                DiagramRef ref = new DiagramRef(text(node, "diagramType"), text(node, "title"));
+                String digest = digest(
+                        Objects.toString(text(node, "plantumlSource"), "")
+                                + '\u0000'
+                                + Objects.toString(text(node, "mermaidSource"), ""));
+                keys.diagrams.add(new Entry<>(ref.identity(), digest, ref));
+            });
+        } else if (SnapshotSection.CALL_FLOWS.name().equals(section)) {
+            forEachField(parser, (flow, valueParser) -> {
+                JsonNode steps = valueParser.readValueAsTree();
+                keys.callFlows.add(new Entry<>(flow, digest(steps == null ? "" : steps.toString()), flow));
+            });
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private void collectDbAnalysis(JsonParser parser, SnapshotKeys keys) throws IOException {
+        forEachField(parser, (field, valueParser) -> {
+            if ("entities".equals(field)) {
+                forEachElement(valueParser, node -> {
+                    DbEntityRef ref = new DbEntityRef(text(node, "entityName"), text(node, "tableName"));
+                    keys.entities.add(new Entry<>(ref.identity(), null, ref));
+                });
+            } else if ("operationsByClass".equals(field)) {
+                forEachField(valueParser, (owner, operationsParser) -> forEachElement(operationsParser, node -> {
+                    DaoOperationRef ref = new DaoOperationRef(
+                            owner, text(node, "methodName"), text(node, "operationType"), text(node, "target"));
+                    String digest = Objects.toString(ref.target(), "")
+                            + '\u0000'
+                            + Objects.toString(text(node, "querySnippet"), "");
+                    keys.daoOperations.add(new Entry<>(ref.identity(), digest, ref));
+                }));
+            } else {
+                valueParser.skipChildren();
+            }
+        });
+    }
+
+    /** Reads the array at the current token one element at a time; anything other than an array is skipped. */
+    private void forEachElement(JsonParser parser, ElementHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode node = parser.readValueAsTree();
+            if (node != null && node.isObject()) {
+                handler.accept(node);
+            }
+        }
+    }
+
+    /** Visits the fields of the object at the current token, leaving each value for the handler to consume. */
+    private void forEachField(JsonParser parser, FieldHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            handler.accept(field, parser);
+        }
+    }
+
+    private static <T> Changes<T> mergeWalk(List<Entry<T>> base, List<Entry<T>> compare) {
+        List<T> added = new ArrayList<>();
+        List<T> removed = new ArrayList<>();
+        List<T> changed = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < base.size() && j < compare.size()) {
+            Entry<T> left = base.get(i);
+            Entry<T> right = compare.get(j);
+            int order = left.key().compareTo(right.key());
+            if (order < 0) {
+                removed.add(left.ref());
+                i++;
+            } else if (order > 0) {
+                added.add(right.ref());
+                j++;
+            } else {
+                if (!Objects.equals(left.digest(), right.digest())) {
+                    changed.add(right.ref());
+                }
+                i++;
+                j++;
+            }
+        }
+        for (; i < base.size(); i++) {
+            removed.add(base.get(i).ref());
+        }
+        for (; j < compare.size(); j++) {
+            added.add(compare.get(j).ref());
+        }
+        return new Changes<>(added, removed, changed);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String digest(String value) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    interface SectionOpener {
+        InputStream open(String sectionName) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ElementHandler {
+        void accept(JsonNode element) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FieldHandler {
+        void accept(String field, JsonParser valueParser) throws IOException;
+    }
+
+    private record Entry<T>(String key, String digest, T ref) {}
+
+    private record Changes<T>(List<T> added, List<T> removed, List<T> changed) {}
+
+    /** Sorted identity keys of one snapshot; duplicate keys keep their first occurrence. */
+    static final class SnapshotKeys {
+
+        private List<Entry<ClassRef>> classes = new ArrayList<>();
+        private List<Entry<EndpointRef>> endpoints = new ArrayList<>();
+        private List<Entry<DbEntityRef>> entities = new ArrayList<>();
+        private List<Entry<DaoOperationRef>> daoOperations = new ArrayList<>();
+        private List<Entry<DiagramRef>> diagrams = new ArrayList<>();
+        private List<Entry<String>> callFlows = new ArrayList<>();
+
+        private SnapshotKeys sorted() {
+            classes = sortDistinct(classes);
+            endpoints = sortDistinct(endpoints);
+            entities = sortDistinct(entities);
+            daoOperations = sortDistinct(daoOperations);
+            diagrams = sortDistinct(diagrams);
+            callFlows = sortDistinct(callFlows);
+            return this;
+        }
+
+        private static <T> List<Entry<T>> sortDistinct(List<Entry<T>> entries) {
+            entries.sort(Comparator.comparing((Function<Entry<T>, String>) Entry::key));
+            List<Entry<T>> distinct = new ArrayList<>(entries.size());
+            for (Entry<T> entry : entries) {
+                if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).key().equals(entry.key())) {
+                    distinct.add(entry);
+                }
+            }
+            return distinct;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.codevision.codevisionbackend.project;
+
+import com.codevision.codevisionbackend.analyze.ApiEndpointSummary;
+import com.codevision.codevisionbackend.analyze.AssetInventory;
+import com.codevision.codevisionbackend.analyze.ClassMetadataSummary;
+import com.codevision.codevisionbackend.analyze.DbAnalysisSummary;
+import com.codevision.codevisionbackend.analyze.DiagramSummary;
+import com.codevision.codevisionbackend.analyze.GherkinFeatureSummary;
+import com.codevision.codevisionbackend.analyze.LoggerInsightSummary;
+import com.codevision.codevisionbackend.analyze.MetadataDump;
+import com.codevision.codevisionbackend.analyze.ParsedDataResponse;
+import com.codevision.codevisionbackend.analyze.PiiPciFindingSummary;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A part of a {@link ParsedDataResponse} that is stored as its own compressed {@link ProjectSnapshotSection} so it
+ * can be read and decoded without touching the rest of the snapshot.
+ *
+ * @param <T> the type of the section's value
+ */
+final class SnapshotSection<T> {
+
+    static final SnapshotSection<List<ClassMetadataSummary>> CLASSES =
+            new SnapshotSection<>("classes", new TypeReference<List<ClassMetadataSummary>>() {},
+                    ParsedDataResponse::classes);
+    static final SnapshotSection<MetadataDump> METADATA_DUMP =
+            new SnapshotSection<>("metadataDump", new TypeReference<MetadataDump>() {},
+                    ParsedDataResponse::metadataDump);
+    static final SnapshotSection<DbAnalysisSummary> DB_ANALYSIS =
+            new SnapshotSection<>("dbAnalysis", new TypeReference<DbAnalysisSummary>() {},
+                    ParsedDataResponse::dbAnalysis);
+    static final SnapshotSection<List<ApiEndpointSummary>> API_ENDPOINTS =
+            new SnapshotSection<>("apiEndpoints", new TypeReference<List<ApiEndpointSummary>>() {},
+                    ParsedDataResponse::apiEndpoints);
+    static final SnapshotSection<AssetInventory> ASSETS =
+            new SnapshotSection<>("assets", new TypeReference<AssetInventory>() {}, ParsedDataResponse::assets);
+    static final SnapshotSection<List<LoggerInsightSummary>> LOGGER_INSIGHTS =
+            new SnapshotSection<>("loggerInsights", new TypeReference<List<LoggerInsightSummary>>() {},
+                    ParsedDataResponse::loggerInsights);
+    static final SnapshotSection<List<PiiPciFindingSummary>> PII_PCI_SCAN =
+            new SnapshotSection<>("piiPciScan", new TypeReference<List<PiiPciFindingSummary>>() {},
+                    ParsedDataResponse::piiPciScan);
+    static final SnapshotSection<List<GherkinFeatureSummary>> GHERKIN_FEATURES =
+            new SnapshotSection<>("gherkinFeatures", new TypeReference<List<GherkinFeatureSummary>>() {},
+                    ParsedDataResponse::gherkinFeatures);
+    static final SnapshotSection<Map<String, List<String>>> CALL_FLOWS =
+            new SnapshotSection<>("callFlows", new TypeReference<Map<String, List<String>>>() {},
+                    ParsedDataResponse::callFlows);
+    static final SnapshotSection<List<DiagramSummary>> DIAGRAMS =
+            new SnapshotSection<>("diagrams", new TypeReference<List<DiagramSummary>>() {},
+                    ParsedDataResponse::diagrams);
+
+    static final List<SnapshotSection<?>> ALL = List.of(
+            CLASSES,
+            METADATA_DUMP,
+            DB_ANALYSIS,
+            API_ENDPOINTS,
+            ASSETS,
+            LOGGER_INSIGHTS,
+            PII_PCI_SCAN,
+            GHERKIN_FEATURES,
+            CALL_FLOWS,
+            DIAGRAMS);
+
+    private final String name;
+    private final TypeReference<T> type;
+    private final Function<ParsedDataResponse, T> accessor;
+
+    private SnapshotSection(String name, TypeReference<T> type, Function<ParsedDataResponse, T> accessor) {
+        this.name = name;
+        this.type = type;
+        this.accessor = accessor;
+    }
+
+    /** Stable name under which the section is stored. */
+    String name() {
+        return name;
+    }
+
+    TypeReference<T> type() {
+        return type;
+    }
+
+    /** The section's value within a fully materialised response. */
+    T extract(ParsedDataResponse response) {
+        return accessor.apply(response);
+    }
+}
@@ -25,17 +25,17 @@ public class DiagramService {
 
     private final DiagramRepository diagramRepository;
     private final DiagramStorageService storageService;
-    private final DiagramSvgRenderer svgRenderer;
+    private final DiagramSvgCache svgCache;
     private final ObjectMapper objectMapper;
 
     public DiagramService(
             DiagramRepository diagramRepository,
             DiagramStorageService storageService,
-            DiagramSvgRenderer svgRenderer,
+            DiagramSvgCache svgCache,
             ObjectMapper objectMapper) {
         this.diagramRepository = diagramRepository;
         this.storageService = storageService;
-        this.svgRenderer = svgRenderer;
+        this.svgCache = svgCache;
         this.objectMapper = objectMapper;
     }
 
@@ -59,10 +59,11 @@ public class DiagramService {
                 continue;
             }
             Diagram diagram = toEntity(project, definition, index);
-            byte[] svg = svgRenderer.render(definition.plantumlSource()).orElse(null);
-            if (svg != null) {
-                String relativePath = storageService.storeSvg(project.getId(), definition.type(), index, svg);
-                diagram.setSvgPath(relativePath);
+            String plantumlSource = definition.plantumlSource();
+            if (svgCache.isEnabled() && plantumlSource != null && !plantumlSource.isBlank()) {
+                // Rendered in the background; loadSvg renders on demand if the render is still running or failed
+                diagram.setSvgPath(svgCache.pathFor(plantumlSource));
+                svgCache.prefetch(plantumlSource);
             }
             entities.add(diagram);
         }
@@ -78,7 +79,10 @@ public class DiagramService {
         }
         List<Diagram> existing = diagramRepository.findByProjectIdOrderByDiagramTypeAscSequenceOrderAscTitleAsc(
                 project.getId());
-        existing.forEach(diagram -> storageService.deleteSvg(diagram.getSvgPath()));
+        existing.stream()
+                .map(Diagram::getSvgPath)
+                .filter(svgPath -> !svgCache.isCachePath(svgPath))
+                .forEach(storageService::deleteSvg);
         diagramRepository.deleteByProject(project);
         storageService.purgeProject(project.getId());
     }
@@ -99,10 +103,17 @@ public class DiagramService {
         return diagramRepository.findByProjectIdAndId(projectId, diagramId);
     }
 
+    /**
+     * Returns the diagram's SVG. SVGs in the shared render cache are rendered from the diagram's PlantUML source
+     * if they are missing; SVGs stored per project by earlier versions are read as they are.
+     */
     public byte[] loadSvg(Diagram diagram) {
         if (diagram == null) {
             return null;
         }
+        if (svgCache.isCachePath(diagram.getSvgPath())) {
+            return svgCache.get(diagram.getPlantumlSource()).orElse(null);
+        }
         return storageService.loadSvg(diagram.getSvgPath());
     }
 
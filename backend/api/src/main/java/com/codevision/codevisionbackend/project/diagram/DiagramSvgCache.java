@@ -0,0 +1,305 @@
+package com.codevision.codevisionbackend.project.diagram;
+
+import com.codevision.codevisionbackend.config.DiagramStorageProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed store of rendered PlantUML diagrams, so an unchanged diagram is rendered once instead of on
+ * every analysis.
+ *
+ * <p>SVGs are kept below the diagram storage root in {@value #CACHE_DIRECTORY}, named by the SHA-256 of their
+ * PlantUML source. Files are evicted in least-recently-used order once they exceed
+ * {@code diagram.svg.cache.maxBytes}; access order survives restarts through file modification times. Cache
+ * misses are rendered on a pool of {@code diagram.svg.render.parallelism} threads. A source that is already being
+ * rendered is not rendered a second time, and callers asking for it wait for the running render.</p>
+ */
+@Component
+public class DiagramSvgCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DiagramSvgCache.class);
+
+    static final String CACHE_DIRECTORY = "svg-cache";
+    private static final String SVG_SUFFIX = ".svg";
+
+    private final DiagramSvgRenderer renderer;
+    private final Path storageRoot;
+    private final Path cacheRoot;
+    private final long maxBytes;
+    private final ExecutorService renderPool;
+    private final Map<String, CompletableFuture<Optional<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * @param maxBytes    total size of cached SVG files; zero or less keeps nothing, so every request renders
+     * @param parallelism number of diagrams rendered at once
+     */
+    @Autowired
+    public DiagramSvgCache(
+            DiagramSvgRenderer renderer,
+            DiagramStorageProperties properties,
+            @Value("${diagram.svg.cache.maxBytes:268435456}") long maxBytes,
+            @Value("${diagram.svg.render.parallelism:2}") int parallelism) {
+        this.renderer = renderer;
+        this.storageRoot = properties.resolveRoot();
+        this.cacheRoot = storageRoot.resolve(CACHE_DIRECTORY);
+        this.maxBytes = maxBytes;
+        AtomicInteger threads = new AtomicInteger();
+        this.renderPool = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "diagram-svg-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Indexes the SVGs left by earlier runs, oldest access first, and trims them to the budget. */
+    @PostConstruct
+    void loadIndex() {
+        if (!Files.isDirectory(cacheRoot)) {
+            return;
+        }
+        try (var files = Files.walk(cacheRoot)) {
+            List<Path> cached = files.filter(path -> path.getFileName().toString().endsWith(SVG_SUFFIX))
+                    .sorted(Comparator.comparing(DiagramSvgCache::lastModified))
+                    .toList();
+            synchronized (entries) {
+                for (Path path : cached) {
+                    String name = path.getFileName().toString();
+                    long size = Files.size(path);
+                    entries.put(name.substring(0, name.length() - SVG_SUFFIX.length()), size);
+                    totalBytes += size;
+                }
+                evictOverBudget(null);
+                log.info("Indexed {} cached diagram SVGs ({} bytes)", entries.size(), totalBytes);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to index diagram SVG cache {}", cacheRoot, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    /** Whether SVG rendering is enabled; when it is not, no diagram gets an SVG. */
+    public boolean isEnabled() {
+        return renderer.isEnabled();
+    }
+
+    /**
+     * Path, relative to the diagram storage root, under which the SVG of {@code plantumlSource} is cached. The
+     * file may not exist yet, or may have been evicted.
+     */
+    public String pathFor(String plantumlSource) {
+        return storageRoot.relativize(fileFor(keyOf(plantumlSource))).toString().replace('\\', '/');
+    }
+
+    /** Whether {@code relativePath} points into this cache rather than at a project's own SVG file. */
+    public boolean isCachePath(String relativePath) {
+        return relativePath != null && relativePath.startsWith(CACHE_DIRECTORY + "/");
+    }
+
+    /** Starts rendering {@code plantumlSource} in the background unless it is cached or already rendering. */
+    public void prefetch(String plantumlSource) {
+        if (plantumlSource == null || plantumlSource.isBlank() || !isEnabled()) {
+            return;
+        }
+        String key = keyOf(plantumlSource);
+        if (!isCached(key)) {
+            renderAsync(key, plantumlSource);
+        }
+    }
+
+    /**
+     * Returns the SVG of {@code plantumlSource}, reading it from the cache or rendering it on a miss.
+     *
+     * @return the SVG, or empty when rendering is disabled or fails
+     */
+    public Optional<byte[]> get(String plantumlSource) {
+        if (plantumlSource == null || plantumlSource.isBlank() || !isEnabled()) {
+            return Optional.empty();
+        }
+        String key = keyOf(plantumlSource);
+        byte[] cached = read(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            return renderAsync(key, plantumlSource).join();
+        } catch (CompletionException e) {
+            log.warn("Failed to render PlantUML diagram {}", key, e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Joins the render of {@code key} already in flight, or starts one. The future is published before rendering
+     * starts, so concurrent requests share it; when the pool rejects the render, it runs on the calling thread.
+     */
+    private CompletableFuture<Optional<byte[]>> renderAsync(String key, String plantumlSource) {
+        CompletableFuture<Optional<byte[]>> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Optional<byte[]>> future = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        future.whenComplete((svg, error) -> inFlight.remove(key, future));
+        Runnable render = () -> {
+            try {
+                future.complete(renderAndStore(key, plantumlSource));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        try {
+            renderPool.execute(render);
+        } catch (RejectedExecutionException e) {
+            render.run();
+        }
+        return future;
+    }
+
+    private Optional<byte[]> renderAndStore(String key, String plantumlSource) {
+        byte[] cached = read(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<byte[]> svg = renderer.render(plantumlSource);
+        svg.filter(bytes -> bytes.length > 0).ifPresent(bytes -> store(key, bytes));
+        return svg;
+    }
+
+    private boolean isCached(String key) {
+        synchronized (entries) {
+            if (entries.containsKey(key)) {
+                return true;
+            }
+        }
+        return Files.exists(fileFor(key));
+    }
+
+    private byte[] read(String key) {
+        Path file = fileFor(key);
+        try {
+            byte[] svg = Files.readAllBytes(file);
+            record(key, svg.length);
+            try {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                log.debug("Failed to touch cached diagram {}", file, e);
+            }
+            return svg;
+        } catch (NoSuchFileException e) {
+            synchronized (entries) {
+                Long size = entries.remove(key);
+                if (size != null) {
+                    totalBytes -= size;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read cached diagram {}", file, e);
+            return null;
+        }
+    }
+
+    private void store(String key, byte[] svg) {
+        if (maxBytes <= 0) {
+            return;
+        }
+        Path file = fileFor(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = Files.createTempFile(file.getParent(), key, ".tmp");
+            try {
+                Files.write(temporary, svg);
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            record(key, svg.length);
+        } catch (IOException e) {
+            log.warn("Failed to cache rendered diagram {}", key, e);
+        }
+    }
+
+    private void record(String key, long size) {
+        synchronized (entries) {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous != null ? previous : 0);
+            evictOverBudget(key);
+        }
+    }
+
+    /** Deletes least recently used files until the cache fits its budget; {@code keep} is never evicted. */
+    private void evictOverBudget(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > Math.max(0, maxBytes) && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            try {
+                Files.deleteIfExists(fileFor(entry.getKey()));
+            } catch (IOException e) {
+                log.debug("Failed to evict cached diagram {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private Path fileFor(String key) {
+        return cacheRoot.resolve(key.substring(0, 2)).resolve(key + SVG_SUFFIX);
+    }
+
+    static String keyOf(String plantumlSource) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(plantumlSource.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -21,6 +21,10 @@ public class DiagramSvgRenderer {
         this.svgEnabled = svgEnabled;
     }
 
+    public boolean isEnabled() {
+        return svgEnabled;
+    }
+
     public Optional<byte[]> render(String plantumlSource) {
         if (!svgEnabled) {
             log.debug("Diagram SVG rendering disabled via configuration");
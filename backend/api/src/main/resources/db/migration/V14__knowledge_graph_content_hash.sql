@@ -0,0 +1,2 @@
+ALTER TABLE kg_node ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE kg_edge ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
@@ -0,0 +1,43 @@
+-- Compiled-analysis rows used to be global and were rewritten by every run. They are now scoped to the project
+-- (or, for runs without a project, the repository path) that produced them, so the unscoped rows are dropped and
+-- rebuilt by each project's next run.
+DELETE FROM entity_uses_sequence;
+DELETE FROM entity_field;
+DELETE FROM class_dep;
+DELETE FROM compiled_endpoint;
+DELETE FROM sequence;
+DELETE FROM entity;
+
+ALTER TABLE entity ADD COLUMN IF NOT EXISTS project_key TEXT NOT NULL;
+ALTER TABLE entity ADD COLUMN IF NOT EXISTS run_id UUID;
+ALTER TABLE entity ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE entity DROP CONSTRAINT IF EXISTS entity_class_name_key;
+ALTER TABLE entity ADD CONSTRAINT uq_entity_project_class UNIQUE (project_key, class_name);
+
+ALTER TABLE entity_field ADD COLUMN IF NOT EXISTS project_key TEXT NOT NULL;
+ALTER TABLE entity_field ADD COLUMN IF NOT EXISTS run_id UUID;
+ALTER TABLE entity_field ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+ALTER TABLE sequence ADD COLUMN IF NOT EXISTS project_key TEXT NOT NULL;
+ALTER TABLE sequence ADD COLUMN IF NOT EXISTS run_id UUID;
+ALTER TABLE sequence ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE sequence DROP CONSTRAINT IF EXISTS sequence_generator_name_key;
+ALTER TABLE sequence ADD CONSTRAINT uq_sequence_project_generator UNIQUE (project_key, generator_name);
+
+ALTER TABLE entity_uses_sequence ADD COLUMN IF NOT EXISTS project_key TEXT NOT NULL;
+ALTER TABLE entity_uses_sequence ADD COLUMN IF NOT EXISTS run_id UUID;
+ALTER TABLE entity_uses_sequence ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+ALTER TABLE class_dep ADD COLUMN IF NOT EXISTS project_key TEXT NOT NULL;
+ALTER TABLE class_dep ADD COLUMN IF NOT EXISTS run_id UUID;
+ALTER TABLE class_dep ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE class_dep DROP CONSTRAINT IF EXISTS class_dep_pkey;
+ALTER TABLE class_dep ADD PRIMARY KEY (project_key, caller, callee);
+
+ALTER TABLE compiled_endpoint ADD COLUMN IF NOT EXISTS project_key TEXT NOT NULL;
+ALTER TABLE compiled_endpoint ADD COLUMN IF NOT EXISTS run_id UUID;
+ALTER TABLE compiled_endpoint ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_entity_field_project ON entity_field (project_key);
+CREATE INDEX IF NOT EXISTS idx_entity_uses_sequence_project ON entity_uses_sequence (project_key);
+CREATE INDEX IF NOT EXISTS idx_compiled_endpoint_project ON compiled_endpoint (project_key);
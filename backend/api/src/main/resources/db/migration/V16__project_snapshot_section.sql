@@ -0,0 +1,29 @@
+-- Snapshot sections used to exist only through Hibernate's schema update, whose foreign key to project_snapshot
+-- does not cascade and which allowed the same section to be stored twice for one snapshot. Databases that already
+-- have the table keep their rows; only its constraints are replaced.
+CREATE TABLE IF NOT EXISTS project_snapshot_section (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    snapshot_id BIGINT NOT NULL,
+    section_name VARCHAR(64) NOT NULL,
+    uncompressed_bytes BIGINT NOT NULL,
+    payload BYTEA NOT NULL
+);
+
+DO $$
+DECLARE
+    foreign_key TEXT;
+BEGIN
+    FOR foreign_key IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'project_snapshot_section'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE project_snapshot_section DROP CONSTRAINT %I', foreign_key);
+    END LOOP;
+END $$;
+
+ALTER TABLE project_snapshot_section
+    ADD CONSTRAINT fk_project_snapshot_section_snapshot FOREIGN KEY (snapshot_id)
+        REFERENCES project_snapshot (id) ON DELETE CASCADE;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_project_snapshot_section
+    ON project_snapshot_section (snapshot_id, section_name);
@@ -0,0 +1,299 @@
+package com.codevision.codevisionbackend.analysis;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.AnnotationData;
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.ClassData;
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.ClassRef;
+import com.codevision.codevisionbackend.analysis.BytecodeClasspath.EnumValue;
+import com.codevision.codevisionbackend.analysis.ClasspathBuilder.ClasspathDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Type;
+
+/**
+ * Checks that what {@link BytecodeClasspath} resolves from class files agrees with what reflection reports for the
+ * same compiled classes. The fixture types below are read from the test classes directory.
+ */
+class BytecodeClasspathTest {
+
+    private static final String FIXTURES = BytecodeClasspathTest.class.getName() + "$";
+
+    private BytecodeClasspath classpath;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException {
+        Path testClasses = Path.of(
+                BytecodeClasspathTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        classpath = BytecodeClasspath.read(
+                new ClasspathDescriptor(testClasses, testClasses, List.of(testClasses), testClasses.toString()),
+                List.of(FIXTURES),
+                2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        classpath.close();
+    }
+
+    @Test
+    void methodsAndFieldsIncludeInheritedPublicMembers() {
+        for (Class<?> type : List.of(Base.class, Child.class)) {
+            ClassData data = read(type);
+
+            assertThat(classpath.methods(data))
+                    .extracting(method -> method.name() + method.descriptor())
+                    .doesNotHaveDuplicates()
+                    .containsExactlyInAnyOrderElementsOf(reflectedMethods(type));
+            assertThat(classpath.fields(data))
+                    .extracting(BytecodeClasspath.FieldData::name)
+                    .containsExactlyInAnyOrderElementsOf(Arrays.stream(type.getFields())
+                            .map(Field::getName)
+                            .collect(Collectors.toCollection(LinkedHashSet::new)));
+        }
+    }
+
+    @Test
+    void interfacesAndTheirMethodsIncludeSuperinterfaces() {
+        for (Class<?> type : List.of(Named.class, Described.class, Base.class, Child.class)) {
+            ClassData data = read(type);
+
+            assertThat(classpath.interfaces(data)).containsExactlyInAnyOrderElementsOf(reflectedInterfaces(type));
+            if (type.isInterface()) {
+                assertThat(data.isInterface()).isTrue();
+                assertThat(classpath.methods(data))
+                        .extracting(method -> method.name() + method.descriptor())
+                        .containsExactlyInAnyOrderElementsOf(reflectedMethods(type));
+            }
+        }
+        assertThat(classpath.methods(read(Described.class)))
+                .extracting(BytecodeClasspath.MethodData::name)
+                .contains("description", "name");
+    }
+
+    @Test
+    void annotationsIncludeInheritedAndMetaAnnotations() {
+        for (Class<?> type : List.of(Base.class, Child.class)) {
+            assertThat(classpath.annotations(read(type)))
+                    .extracting(AnnotationData::name)
+                    .containsExactlyInAnyOrderElementsOf(reflectedAnnotations(type).keySet());
+        }
+        assertThat(classpath.annotations(read(Child.class)))
+                .extracting(AnnotationData::name)
+                .contains(Role.class.getName(), Stereotype.class.getName(), Layer.class.getName(),
+                        Audited.class.getName());
+    }
+
+    @Test
+    void annotationParametersIncludeDefaultValues() {
+        Map<String, Annotation> reflected = reflectedAnnotations(Child.class);
+
+        for (AnnotationData annotation : classpath.annotations(read(Child.class))) {
+            assertThat(normalize(annotation.parameters()))
+                    .as(annotation.name())
+                    .isEqualTo(reflectedParameters(reflected.get(annotation.name())));
+        }
+        AnnotationData audited = classpath.annotations(read(Child.class)).stream()
+                .filter(annotation -> annotation.name().equals(Audited.class.getName()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(audited.parameters()).containsOnlyKeys("level", "tags", "severity", "owner");
+        assertThat(audited.parameters().get("tags")).isInstanceOf(String[].class);
+    }
+
+    private ClassData read(Class<?> type) {
+        return classpath.find(type.getName()).orElseThrow();
+    }
+
+    /** Public methods as {@code name + descriptor}, without those every class inherits from {@code Object}. */
+    private static Set<String> reflectedMethods(Class<?> type) {
+        return Arrays.stream(type.getMethods())
+                .filter(method -> method.getDeclaringClass() != Object.class)
+                .map(method -> method.getName() + Type.getMethodDescriptor(method))
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> reflectedInterfaces(Class<?> type) {
+        Set<String> all = new LinkedHashSet<>();
+        ArrayDeque<Class<?>> queue = new ArrayDeque<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            queue.addAll(Arrays.asList(current.getInterfaces()));
+        }
+        while (!queue.isEmpty()) {
+            Class<?> iface = queue.poll();
+            if (all.add(iface.getName())) {
+                queue.addAll(Arrays.asList(iface.getInterfaces()));
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Annotations reflection reports on the class, inherited ones included, plus the meta-annotations of those it
+     * declares, transitively, leaving out {@code java.lang.annotation} types such as {@code @Retention}.
+     */
+    private static Map<String, Annotation> reflectedAnnotations(Class<?> type) {
+        Map<String, Annotation> all = new LinkedHashMap<>();
+        for (Annotation annotation : type.getAnnotations()) {
+            all.put(annotation.annotationType().getName(), annotation);
+        }
+        ArrayDeque<Annotation> queue = new ArrayDeque<>(Arrays.asList(type.getDeclaredAnnotations()));
+        Set<Class<?>> visited = new HashSet<>();
+        while (!queue.isEmpty()) {
+            Class<? extends Annotation> annotationType = queue.poll().annotationType();
+            if (!visited.add(annotationType)) {
+                continue;
+            }
+            for (Annotation meta : annotationType.getAnnotations()) {
+                if (!meta.annotationType().getName().startsWith("java.lang.annotation.")) {
+                    all.putIfAbsent(meta.annotationType().getName(), meta);
+                    queue.add(meta);
+                }
+            }
+        }
+        return all;
+    }
+
+    private static Map<String, Object> reflectedParameters(Annotation annotation) {
+        Map<String, Object> parameters = new HashMap<>();
+        for (Method member : annotation.annotationType().getDeclaredMethods()) {
+            try {
+                parameters.put(member.getName(), normalizeValue(member.invoke(annotation)));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return parameters;
+    }
+
+    private static Map<String, Object> normalize(Map<String, Object> parameters) {
+        Map<String, Object> normalized = new HashMap<>();
+        parameters.forEach((name, value) -> normalized.put(name, normalizeValue(value)));
+        return normalized;
+    }
+
+    /** Maps reflection values and the classpath's values onto the same comparable form. */
+    private static Object normalizeValue(Object value) {
+        if (value instanceof Enum<?> constant) {
+            return constant.getDeclaringClass().getName() + "." + constant.name();
+        }
+        if (value instanceof EnumValue constant) {
+            return constant.className() + "." + constant.constantName();
+        }
+        if (value instanceof Class<?> type) {
+            return type.getName();
+        }
+        if (value instanceof ClassRef type) {
+            return type.className();
+        }
+        if (value != null && value.getClass().isArray()) {
+            List<Object> elements = new ArrayList<>();
+            for (int i = 0; i < Array.getLength(value); i++) {
+                elements.add(normalizeValue(Array.get(value, i)));
+            }
+            return elements;
+        }
+        return value;
+    }
+
+    // ── Fixtures ────────────────────────────────────────────────────────
+
+    public enum Severity {
+        LOW,
+        HIGH
+    }
+
+    @Retention(RUNTIME)
+    @Target({TYPE, ANNOTATION_TYPE})
+    public @interface Layer {
+        String value() default "core";
+    }
+
+    @Layer("service")
+    @Retention(RUNTIME)
+    @Target({TYPE, ANNOTATION_TYPE})
+    public @interface Stereotype {}
+
+    @Stereotype
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    public @interface Role {}
+
+    @Inherited
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    public @interface Audited {
+        int level() default 2;
+
+        String[] tags() default {"a", "b"};
+
+        Severity severity() default Severity.LOW;
+
+        Class<?> owner() default Object.class;
+    }
+
+    public interface Named {
+        String PREFIX = "named:";
+
+        String name();
+    }
+
+    public interface Described extends Named {
+        default String description() {
+            return PREFIX + name();
+        }
+    }
+
+    public interface Versioned {
+        int version();
+    }
+
+    @Audited(level = 5, severity = Severity.HIGH)
+    public abstract static class Base implements Described {
+        public String baseField;
+
+        @Override
+        public String name() {
+            return "base";
+        }
+
+        public void shared(int value) {}
+    }
+
+    @Role
+    public abstract static class Child extends Base implements Versioned {
+        public int childField;
+        public String baseField;
+
+        @Override
+        public void shared(int value) {}
+
+        public List<String> items() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.codevision.codevisionbackend.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codevision.codevisionbackend.analysis.BytecodeCallGraphScanner.CallGraphResult;
+import com.codevision.codevisionbackend.analysis.ClasspathBuilder.ClasspathDescriptor;
+import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BytecodeJarCacheTest {
+
+    private static final List<String> PACKAGES = List.of("com.codevision.fixtures");
+
+    @TempDir
+    Path tempDir;
+
+    private final CompiledAnalysisProperties properties = new CompiledAnalysisProperties();
+    private Path repo;
+    private Path jar;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repo = TestFixtures.copyCompiledFixture(tempDir);
+        jar = repo.resolve("target").resolve("compiled-app.jar");
+        properties.getBytecodeCache().setRoot(tempDir.resolve("cache").toString());
+    }
+
+    @Test
+    void secondScanOfUnchangedJarIsServedFromCache() {
+        BytecodeJarCache cache = new BytecodeJarCache(properties);
+        CallGraphResult first = new BytecodeCallGraphScanner(properties, cache).scan(descriptor(), PACKAGES);
+
+        Optional<List<BytecodeClasspath.ClassData>> stored = cache.load(jar, PACKAGES);
+        assertThat(stored).isPresent();
+        assertThat(stored.get()).isNotEmpty();
+
+        CallGraphResult second = new BytecodeCallGraphScanner(properties, new BytecodeJarCache(properties))
+                .scan(descriptor(), PACKAGES);
+        assertThat(second.classAdjacency()).isEqualTo(first.classAdjacency());
+        assertThat(second.methodEdges()).hasSameSizeAs(first.methodEdges());
+
+        GraphModel model = new BytecodeEntityScanner(properties, new BytecodeJarCache(properties))
+                .scan(descriptor(), PACKAGES);
+        assertThat(model.getClasses().get("com.codevision.fixtures.domain.FixtureEntity").getJarOrDirectory())
+                .endsWith("compiled-app.jar");
+    }
+
+    @Test
+    void keysDependOnAcceptedPackagesAndJarContent() throws IOException {
+        BytecodeJarCache cache = new BytecodeJarCache(properties);
+        String key = cache.keyOf(jar, PACKAGES);
+
+        assertThat(cache.keyOf(jar, List.of("com.codevision"))).isNotEqualTo(key);
+
+        Path copy = Files.copy(jar, tempDir.resolve("copy.jar"));
+        assertThat(cache.keyOf(copy, PACKAGES)).isEqualTo(key);
+        Files.write(copy, new byte[] {0}, java.nio.file.StandardOpenOption.APPEND);
+        assertThat(cache.keyOf(copy, PACKAGES)).isNotEqualTo(key);
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        properties.getBytecodeCache().setEnabled(false);
+        BytecodeJarCache cache = new BytecodeJarCache(properties);
+        new BytecodeCallGraphScanner(properties, cache).scan(descriptor(), PACKAGES);
+
+        assertThat(Files.exists(tempDir.resolve("cache"))).isFalse();
+    }
+
+    @Test
+    void pruneDeletesEntriesUnusedForLongerThanMaxAge() throws IOException {
+        properties.getBytecodeCache().setMaxAgeDays(7);
+        long now = System.currentTimeMillis();
+        Path stale = entry("aa", 10, now - TimeUnit.DAYS.toMillis(8));
+        Path recent = entry("bb", 10, now - TimeUnit.DAYS.toMillis(6));
+
+        new BytecodeJarCache(properties).prune();
+
+        assertThat(stale).doesNotExist();
+        assertThat(recent).exists();
+    }
+
+    @Test
+    void pruneDeletesLeastRecentlyUsedEntriesBeyondMaxSize() throws IOException {
+        properties.getBytecodeCache().setMaxSizeMb(1);
+        long now = System.currentTimeMillis();
+        Path oldest = entry("aa", 400 * 1024, now - 3_000);
+        Path middle = entry("bb", 400 * 1024, now - 2_000);
+        Path newest = entry("cc", 400 * 1024, now - 1_000);
+
+        new BytecodeJarCache(properties).prune();
+
+        assertThat(oldest).doesNotExist();
+        assertThat(middle).exists();
+        assertThat(newest).exists();
+    }
+
+    @Test
+    void storingPrunesTheCache() throws IOException {
+        properties.getBytecodeCache().setMaxAgeDays(7);
+        Path stale = entry("aa", 10, System.currentTimeMillis() - TimeUnit.DAYS.toMillis(8));
+
+        new BytecodeJarCache(properties).store(jar, PACKAGES, List.of());
+
+        assertThat(stale).doesNotExist();
+    }
+
+    /** Writes a cache entry of {@code size} bytes last used at {@code lastUsedMillis}. */
+    private Path entry(String key, int size, long lastUsedMillis) throws IOException {
+        Path file = tempDir.resolve("cache").resolve(key.substring(0, 2)).resolve(key + ".bin.gz");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastUsedMillis));
+        return file;
+    }
+
+    private ClasspathDescriptor descriptor() {
+        Path classesDir = repo.resolve("target").resolve("classes");
+        return new ClasspathDescriptor(repo, classesDir, List.of(jar), jar.toString());
+    }
+}
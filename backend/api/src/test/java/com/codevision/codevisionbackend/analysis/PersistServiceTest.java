@@ -1,7 +1,6 @@
 package com.codevision.codevisionbackend.analysis;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.verify;
 
 import com.codevision.codevisionbackend.analysis.GraphModel.ClassNode;
 import com.codevision.codevisionbackend.analysis.GraphModel.DependencyEdge;
@@ -12,63 +11,96 @@ import com.codevision.codevisionbackend.analysis.GraphModel.FieldModel;
 import com.codevision.codevisionbackend.analysis.GraphModel.Origin;
 import com.codevision.codevisionbackend.analysis.GraphModel.SequenceNode;
 import com.codevision.codevisionbackend.analysis.GraphModel.SequenceUsage;
+import com.codevision.codevisionbackend.analysis.PersistService.ChangeSummary;
 import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
-import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityFieldRepository;
-import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityRecord;
-import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityRepository;
-import com.codevision.codevisionbackend.analysis.persistence.ClassDependencyRecord;
-import com.codevision.codevisionbackend.analysis.persistence.ClassDependencyRepository;
-import com.codevision.codevisionbackend.analysis.persistence.CompiledEndpointRecord;
-import com.codevision.codevisionbackend.analysis.persistence.CompiledEndpointRepository;
-import com.codevision.codevisionbackend.analysis.persistence.EntitySequenceUsageRepository;
-import com.codevision.codevisionbackend.analysis.persistence.SequenceRecordRepository;
 import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
-@ExtendWith(MockitoExtension.class)
 class PersistServiceTest {
 
-    @Mock
-    private AnalysisEntityRepository entityRepository;
-
-    @Mock
-    private AnalysisEntityFieldRepository fieldRepository;
-
-    @Mock
-    private SequenceRecordRepository sequenceRecordRepository;
-
-    @Mock
-    private EntitySequenceUsageRepository entitySequenceUsageRepository;
-
-    @Mock
-    private ClassDependencyRepository classDependencyRepository;
-
-    @Mock
-    private CompiledEndpointRepository compiledEndpointRepository;
-
+    private JdbcTemplate jdbcTemplate;
     private PersistService persistService;
 
     @BeforeEach
     void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:persist-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
         CompiledAnalysisProperties properties = new CompiledAnalysisProperties();
         properties.setAcceptPackages(List.of("com.example"));
-        persistService = new PersistService(
-                entityRepository,
-                fieldRepository,
-                sequenceRecordRepository,
-                entitySequenceUsageRepository,
-                classDependencyRepository,
-                compiledEndpointRepository,
-                properties);
+        persistService = new PersistService(jdbcTemplate, properties);
+    }
+
+    @Test
+    void persistsGraphModelUnderItsProjectKey() {
+        ChangeSummary summary = persistService.persist("project:1", UUID.randomUUID(), model("java.lang.Long"));
+
+        assertThat(summary.inserted()).isEqualTo(6);
+        assertThat(rows("SELECT class_name FROM entity WHERE project_key = 'project:1'"))
+                .containsExactly("com.example.Entity");
+        assertThat(rows("SELECT type FROM entity_field WHERE project_key = 'project:1'"))
+                .containsExactly("java.lang.Long");
+        assertThat(rows("SELECT generator_name FROM sequence WHERE project_key = 'project:1'"))
+                .containsExactly("entity_seq");
+        assertThat(rows("SELECT field_name FROM entity_uses_sequence WHERE project_key = 'project:1'"))
+                .containsExactly("id");
+        assertThat(rows("SELECT caller FROM class_dep WHERE project_key = 'project:1'"))
+                .containsExactly("com.example.Controller");
+        assertThat(rows("SELECT path FROM compiled_endpoint WHERE project_key = 'project:1'"))
+                .containsExactly("/entities");
+    }
+
+    @Test
+    void otherProjectsKeepTheirRows() {
+        persistService.persist("project:1", UUID.randomUUID(), model("java.lang.Long"));
+
+        persistService.persist("project:2", UUID.randomUUID(), GraphModel.empty());
+
+        assertThat(count("entity")).isEqualTo(1);
+        assertThat(count("compiled_endpoint")).isEqualTo(1);
+        assertThat(count("class_dep")).isEqualTo(1);
+    }
+
+    @Test
+    void rerunWritesOnlyChangedRows() {
+        UUID firstRun = UUID.randomUUID();
+        UUID secondRun = UUID.randomUUID();
+        persistService.persist("project:1", firstRun, model("java.lang.Long"));
+
+        GraphModel changed = model("java.util.UUID");
+        changed.getEndpoints().clear();
+        ChangeSummary summary = persistService.persist("project:1", secondRun, changed);
+
+        assertThat(summary.updated()).isEqualTo(1);
+        assertThat(summary.deleted()).isEqualTo(1);
+        assertThat(summary.inserted()).isZero();
+        assertThat(summary.unchanged()).isEqualTo(4);
+        assertThat(rows("SELECT type FROM entity_field")).containsExactly("java.util.UUID");
+        assertThat(count("compiled_endpoint")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT run_id FROM entity", UUID.class)).isEqualTo(firstRun);
+        assertThat(jdbcTemplate.queryForObject("SELECT run_id FROM entity_field", UUID.class)).isEqualTo(secondRun);
     }
 
     @Test
-    void persistsGraphModelToRepositories() {
+    void removedEntitiesTakeTheirFieldsAlong() {
+        persistService.persist("project:1", UUID.randomUUID(), model("java.lang.Long"));
+
+        GraphModel withoutEntity = GraphModel.empty();
+        persistService.persist("project:1", UUID.randomUUID(), withoutEntity);
+
+        assertThat(count("entity")).isZero();
+        assertThat(count("entity_field")).isZero();
+        assertThat(count("entity_uses_sequence")).isZero();
+    }
+
+    private GraphModel model(String idType) {
         GraphModel model = GraphModel.empty();
         ClassNode classNode = new ClassNode();
         classNode.setName("com.example.Entity");
@@ -76,7 +108,7 @@ class PersistServiceTest {
         classNode.setOrigin(Origin.BYTECODE);
         FieldModel field = new FieldModel();
         field.setName("id");
-        field.setType("java.lang.Long");
+        field.setType(idType);
         classNode.getFields().add(field);
         model.addClass(classNode);
 
@@ -98,30 +130,14 @@ class PersistServiceTest {
         endpointNode.setControllerMethod("get");
         endpointNode.setHttpMethod("GET");
         model.addEndpoint(endpointNode);
+        return model;
+    }
+
+    private List<String> rows(String sql) {
+        return jdbcTemplate.queryForList(sql, String.class);
+    }
 
-        persistService.persist(model);
-
-        verify(entitySequenceUsageRepository).deleteAllInBatch();
-        verify(fieldRepository).deleteAllInBatch();
-        verify(classDependencyRepository).deleteAllInBatch();
-        verify(compiledEndpointRepository).deleteAllInBatch();
-
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<AnalysisEntityRecord>> entitiesCaptor = ArgumentCaptor.forClass(List.class);
-        verify(entityRepository).saveAll(entitiesCaptor.capture());
-        assertThat(entitiesCaptor.getValue()).hasSize(1);
-        assertThat(entitiesCaptor.getValue().get(0).getClassName()).isEqualTo("com.example.Entity");
-
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<ClassDependencyRecord>> dependencyCaptor = ArgumentCaptor.forClass(List.class);
-        verify(classDependencyRepository).saveAll(dependencyCaptor.capture());
-        assertThat(dependencyCaptor.getValue()).hasSize(1);
-        assertThat(dependencyCaptor.getValue().get(0).getId().getCaller()).isEqualTo("com.example.Controller");
-
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<List<CompiledEndpointRecord>> endpointCaptor = ArgumentCaptor.forClass(List.class);
-        verify(compiledEndpointRepository).saveAll(endpointCaptor.capture());
-        assertThat(endpointCaptor.getValue()).hasSize(1);
-        assertThat(endpointCaptor.getValue().get(0).getPath()).isEqualTo("/entities");
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
     }
 }
@@ -13,6 +13,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -301,6 +302,85 @@ class MultiLanguageSourceScannerTest {
         }
     }
 
+    @Nested
+    class Given_DirectorySpanningSeveralShards {
+
+        @TempDir
+        Path tempDir;
+
+        @Nested
+        class When_ScanningInParallel {
+
+            @Test
+            void Then_ProducesTheSameGraphAsASequentialScan() throws IOException {
+                for (int i = 0; i < 150; i++) {
+                    var subDir = tempDir.resolve("pkg" + (i % 7));
+                    Files.createDirectories(subDir);
+                    Files.writeString(subDir.resolve("File" + i + ".java"),
+                            "public class File" + i + " {}");
+                    Files.writeString(subDir.resolve("mod" + i + ".py"),
+                            "def f" + i + "():\n    pass");
+                }
+
+                var reg = new LanguageRegistry();
+                var bridge = new TreeSitterBridge(reg);
+                var analyzers = List.<LanguageAnalyzer>of(
+                        new JavaTreeSitterAnalyzer(),
+                        new PythonAnalyzer());
+                var sequential = new MultiLanguageSourceScanner(
+                        bridge, analyzers, reg, new AnalysisSafetyProperties(), 1).scanDirectory(tempDir);
+                var parallel = new MultiLanguageSourceScanner(
+                        bridge, analyzers, reg, new AnalysisSafetyProperties(), 4).scanDirectory(tempDir);
+
+                assertThat(parallel.nodesOfType(KgNodeType.FILE)).hasSize(300);
+                assertThat(parallel.getNodes()).isEqualTo(sequential.getNodes());
+                assertThat(parallel.getEdges()).containsExactlyElementsOf(sequential.getEdges());
+            }
+        }
+
+        @Nested
+        class When_ParallelismExceedsTheParserPool {
+
+            @Test
+            void Then_RunsNoMoreConcurrentParsesThanThePoolServes() throws IOException {
+                for (int i = 0; i < 400; i++) {
+                    Files.writeString(tempDir.resolve("File" + i + ".java"), "public class File" + i + " {}");
+                }
+
+                var reg = new LanguageRegistry();
+                var active = new AtomicInteger();
+                var peak = new AtomicInteger();
+                var bridge = new TreeSitterBridge(reg) {
+                    @Override
+                    public int maxConcurrentParses() {
+                        return 2;
+                    }
+
+                    @Override
+                    protected List<List<ParsedNode>> parseWithGrammar(List<GrammarRequest> requests) {
+                        peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(20);
+                            return super.parseWithGrammar(requests);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException(e);
+                        } finally {
+                            active.decrementAndGet();
+                        }
+                    }
+                };
+                var analyzers = List.<LanguageAnalyzer>of(new JavaTreeSitterAnalyzer());
+
+                var graph = new MultiLanguageSourceScanner(
+                        bridge, analyzers, reg, new AnalysisSafetyProperties(), 8).scanDirectory(tempDir);
+
+                assertThat(graph.nodesOfType(KgNodeType.FILE)).hasSize(400);
+                assertThat(peak.get()).isBetween(1, 2);
+            }
+        }
+    }
+
     @Nested
     class Given_EmptyDirectory {
 
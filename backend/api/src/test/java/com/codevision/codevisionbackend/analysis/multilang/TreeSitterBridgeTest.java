@@ -1,5 +1,6 @@
 package com.codevision.codevisionbackend.analysis.multilang;
 
+import java.util.List;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -89,4 +90,25 @@ class TreeSitterBridgeTest {
             }
         }
     }
+
+    @Nested
+    class Given_MixedBatch {
+
+        @Nested
+        class When_ParsingAll {
+
+            @Test
+            void Then_ReturnsOneResultPerFileInOrder() {
+                var results = bridge.parseAll(List.of(
+                        new TreeSitterBridge.SourceFile("Hello.java", "public class Hello {}"),
+                        new TreeSitterBridge.SourceFile("data.csv", "a,b"),
+                        new TreeSitterBridge.SourceFile("app.py", "def hello(): pass")));
+
+                assertThat(results).hasSize(3);
+                assertThat(results.get(0)).hasValueSatisfying(tree -> assertThat(tree.sourceFile()).isEqualTo("Hello.java"));
+                assertThat(results.get(1)).isEmpty();
+                assertThat(results.get(2)).hasValueSatisfying(tree -> assertThat(tree.sourceFile()).isEqualTo("app.py"));
+            }
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package com.codevision.codevisionbackend.analysis.multilang;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class TreeSitterWorkerPoolTest {
+
+    private static final List<TreeSitterBridge.GrammarRequest> BATCH = List.of(
+            new TreeSitterBridge.GrammarRequest("def hello(): pass", "python"),
+            new TreeSitterBridge.GrammarRequest("package main", "go"));
+
+    @Nested
+    class Given_RunningWorker {
+
+        @Nested
+        class When_ParsingBatches {
+
+            @Test
+            void Then_ReturnsOneResultPerFileAndReusesTheWorker() throws IOException {
+                var script = findScript();
+                assumeTrue(script != null && nodeAvailable(), "Node.js and the worker script are required");
+                try (var pool = new TreeSitterWorkerPool(
+                        List.of("node", script.toString(), "--worker"), 2, Duration.ofSeconds(30), Duration.ZERO)) {
+                    // Entries are null when the tree-sitter grammars are not installed
+                    assertEquals(2, pool.parse(BATCH).size());
+                    assertEquals(2, pool.parse(BATCH).size());
+
+                    assertEquals(1, pool.liveWorkers());
+                    assertTrue(pool.isHealthy());
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Given_CrashingWorker {
+
+        @Nested
+        class When_Parsing {
+
+            @Test
+            void Then_ThrowsAndDiscardsTheWorker() {
+                assumeTrue(nodeAvailable(), "Node.js is required");
+                try (var pool = new TreeSitterWorkerPool(
+                        List.of("node", "-e", "process.exit(1)"), 1, Duration.ofSeconds(5), Duration.ZERO)) {
+                    assertThrows(IOException.class, () -> pool.parse(BATCH));
+                    assertEquals(0, pool.liveWorkers());
+                }
+            }
+
+            @Test
+            void Then_ReportsUnhealthyAfterRepeatedFailures() {
+                assumeTrue(nodeAvailable(), "Node.js is required");
+                try (var pool = new TreeSitterWorkerPool(
+                        List.of("node", "-e", "process.exit(1)"), 1, Duration.ofSeconds(5), Duration.ZERO)) {
+                    for (int i = 0; i < 3; i++) {
+                        assertThrows(IOException.class, () -> pool.parse(BATCH));
+                    }
+                    assertFalse(pool.isHealthy());
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Given_WorkerThatCannotStart {
+
+        @Nested
+        class When_TheRecoveryCooldownPasses {
+
+            @Test
+            void Then_ReportsHealthyForOneMoreAttempt() throws InterruptedException {
+                try (var pool = new TreeSitterWorkerPool(List.of("/nonexistent/node-binary"), 1,
+                        Duration.ofSeconds(5), Duration.ZERO, Duration.ofMillis(100))) {
+                    for (int i = 0; i < 3; i++) {
+                        assertThrows(IOException.class, () -> pool.parse(BATCH));
+                    }
+                    assertFalse(pool.isHealthy());
+
+                    Thread.sleep(150);
+                    assertTrue(pool.isHealthy());
+
+                    assertThrows(IOException.class, () -> pool.parse(BATCH));
+                    assertFalse(pool.isHealthy());
+                }
+            }
+        }
+
+        @Nested
+        class When_TheRecoveryCooldownHasNotPassed {
+
+            @Test
+            void Then_StaysUnhealthy() {
+                try (var pool = new TreeSitterWorkerPool(List.of("/nonexistent/node-binary"), 1,
+                        Duration.ofSeconds(5), Duration.ZERO, Duration.ofMinutes(10))) {
+                    for (int i = 0; i < 3; i++) {
+                        assertThrows(IOException.class, () -> pool.parse(BATCH));
+                    }
+                    assertFalse(pool.isHealthy());
+                    assertFalse(pool.isHealthy());
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Given_ClosedPool {
+
+        @Nested
+        class When_Parsing {
+
+            @Test
+            void Then_Throws() {
+                var pool = new TreeSitterWorkerPool(
+                        List.of("node", "--version"), 1, Duration.ofSeconds(5), Duration.ZERO);
+                pool.close();
+                assertThrows(IOException.class, () -> pool.parse(BATCH));
+                assertFalse(pool.isHealthy());
+            }
+        }
+    }
+
+    private static Path findScript() {
+        for (var dir = Path.of("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            var candidate = dir.resolve("scripts/tree-sitter-parse.js");
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean nodeAvailable() {
+        try {
+            var process = new ProcessBuilder("node", "--version").redirectErrorStream(true).start();
+            process.getInputStream().readAllBytes();
+            return process.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
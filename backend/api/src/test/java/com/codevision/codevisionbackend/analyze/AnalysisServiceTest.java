@@ -1,6 +1,7 @@
 package com.codevision.codevisionbackend.analyze;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.eq;
@@ -10,6 +11,7 @@ import static org.mockito.Mockito.when;
 import com.codevision.codevisionbackend.analysis.BytecodeEntityScanner;
 import com.codevision.codevisionbackend.analysis.ClasspathBuilder;
 import com.codevision.codevisionbackend.analysis.config.CompiledAnalysisProperties;
+import com.codevision.codevisionbackend.config.AnalysisPipelineProperties;
 import com.codevision.codevisionbackend.analyze.BuildInfo;
 import com.codevision.codevisionbackend.analyze.MetadataDump;
 import com.codevision.codevisionbackend.analyze.ParsedDataResponse;
@@ -31,9 +33,11 @@ import com.codevision.codevisionbackend.analyze.scanner.JavaSourceScanner;
 import com.codevision.codevisionbackend.analyze.scanner.JpaEntityScanner;
 import com.codevision.codevisionbackend.analyze.scanner.LogStatementRecord;
 import com.codevision.codevisionbackend.analyze.scanner.LoggerScanner;
+import com.codevision.codevisionbackend.analyze.scanner.ParsedSourceCache;
 import com.codevision.codevisionbackend.analyze.scanner.GherkinScanner;
 import com.codevision.codevisionbackend.analyze.scanner.PiiPciFindingRecord;
 import com.codevision.codevisionbackend.analyze.scanner.PiiPciInspector;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex;
 import com.codevision.codevisionbackend.analyze.scanner.YamlScanner;
 import com.codevision.codevisionbackend.git.GitCloneService.CloneResult;
 import com.codevision.codevisionbackend.git.GitCloneService;
@@ -67,6 +71,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 @ExtendWith(MockitoExtension.class)
 class AnalysisServiceTest {
@@ -150,33 +155,7 @@ class AnalysisServiceTest {
 
         CloneResult cloneResult = new CloneResult("demo-app", repoDir, "main", "commit-123");
         StubGitCloneService stubGitCloneService = new StubGitCloneService(cloneResult);
-        analysisService = new AnalysisService(
-                stubGitCloneService,
-                buildMetadataExtractor,
-                javaSourceScanner,
-                yamlScanner,
-                apiScanner,
-                assetScanner,
-                jpaEntityScanner,
-                daoAnalysisService,
-                loggerScanner,
-                piiPciInspector,
-                gherkinScanner,
-                projectService,
-                classMetadataRepository,
-                apiEndpointRepository,
-                assetImageRepository,
-                dbEntityRepository,
-                daoOperationRepository,
-                logStatementRepository,
-                piiPciFindingRepository,
-                projectSnapshotService,
-                diagramBuilderService,
-                diagramService,
-                new ObjectMapper(),
-                classpathBuilder,
-                bytecodeEntityScanner,
-                compiledAnalysisProperties);
+        analysisService = newAnalysisService(stubGitCloneService);
 
         BuildInfo buildInfo = new BuildInfo("com.example", "demo-app", "1.0.0", "21");
         BuildMetadata metadata = new BuildMetadata(buildInfo, List.of(repoDir));
@@ -184,7 +163,7 @@ class AnalysisServiceTest {
         Project project = new Project("https://example.com/repo.git", "demo-app", "main", OffsetDateTime.now());
         project.setId(101L);
 
-        when(buildMetadataExtractor.extract(repoDir)).thenReturn(metadata);
+        when(buildMetadataExtractor.extract(Mockito.eq(repoDir), Mockito.any(RepositoryFileIndex.class))).thenReturn(metadata);
         when(projectSnapshotService.findLatestSnapshotEntity(101L)).thenReturn(Optional.empty());
 
         List<ClassMetadataRecord> classRecords = List.of(new ClassMetadataRecord(
@@ -197,19 +176,29 @@ class AnalysisServiceTest {
                 SourceSet.MAIN,
                 "src/main/java/com/example/demo/Controller.java",
                 true));
-        when(javaSourceScanner.scan(Mockito.eq(repoDir), Mockito.anyList())).thenReturn(classRecords);
+        when(javaSourceScanner.scan(
+                        Mockito.eq(repoDir),
+                        Mockito.anyList(),
+                        Mockito.any(RepositoryFileIndex.class),
+                        Mockito.any(ParsedSourceCache.class)))
+                .thenReturn(classRecords);
 
         MetadataDump metadataDump = new MetadataDump(List.of(), List.of(), List.of(), List.of());
-        when(yamlScanner.scan(repoDir)).thenReturn(metadataDump);
+        when(yamlScanner.scan(Mockito.eq(repoDir), Mockito.any(RepositoryFileIndex.class))).thenReturn(metadataDump);
 
         List<ApiEndpointRecord> endpointRecords = List.of(new ApiEndpointRecord(
                 "REST", "GET", "/demo", "com.example.demo.Controller", "getDemo", List.of()));
-        when(apiScanner.scan(Mockito.eq(repoDir), Mockito.anyList(), Mockito.eq(metadataDump)))
+        when(apiScanner.scan(
+                        Mockito.eq(repoDir),
+                        Mockito.anyList(),
+                        Mockito.eq(metadataDump),
+                        Mockito.any(RepositoryFileIndex.class),
+                        Mockito.any(ParsedSourceCache.class)))
                 .thenReturn(endpointRecords);
 
         List<ImageAssetRecord> imageAssets =
                 List.of(new ImageAssetRecord("diagram.png", "docs/diagram.png", 512L, "abc123"));
-        when(assetScanner.scan(repoDir)).thenReturn(imageAssets);
+        when(assetScanner.scan(Mockito.eq(repoDir), Mockito.any(RepositoryFileIndex.class))).thenReturn(imageAssets);
 
         List<DbEntityRecord> entityRecords = List.of(new DbEntityRecord(
                 "Customer",
@@ -218,8 +207,13 @@ class AnalysisServiceTest {
                 List.of("id"),
                 List.of(),
                 List.of()));
-        when(jpaEntityScanner.scan(Mockito.eq(repoDir), Mockito.anyList())).thenReturn(entityRecords);
-        when(gherkinScanner.scan(repoDir)).thenReturn(List.of());
+        when(jpaEntityScanner.scan(
+                        Mockito.eq(repoDir),
+                        Mockito.anyList(),
+                        Mockito.any(RepositoryFileIndex.class),
+                        Mockito.any(ParsedSourceCache.class)))
+                .thenReturn(entityRecords);
+        when(gherkinScanner.scan(Mockito.eq(repoDir), Mockito.any(RepositoryFileIndex.class))).thenReturn(List.of());
 
         DbAnalysisResult daoAnalysisResult = new DbAnalysisResult(
                 entityRecords,
@@ -232,12 +226,17 @@ class AnalysisServiceTest {
                                 "SELECT",
                                 "Customer",
                                 null))));
-        when(daoAnalysisService.analyze(Mockito.eq(repoDir), Mockito.anyList(), Mockito.eq(entityRecords)))
+        when(daoAnalysisService.analyze(
+                        Mockito.eq(repoDir),
+                        Mockito.anyList(),
+                        Mockito.eq(entityRecords),
+                        Mockito.any(RepositoryFileIndex.class),
+                        Mockito.any(ParsedSourceCache.class)))
                 .thenReturn(daoAnalysisResult);
 
         List<PiiPciFindingRecord> piiRecords =
                 List.of(new PiiPciFindingRecord("application.yml", 12, "password: secret", "PII", "MEDIUM", false));
-        when(piiPciInspector.scan(Mockito.eq(repoDir), Mockito.anyList())).thenReturn(piiRecords);
+        when(piiPciInspector.scan(Mockito.eq(repoDir), Mockito.anyList(), Mockito.any(RepositoryFileIndex.class))).thenReturn(piiRecords);
 
         List<LogStatementRecord> logRecords = List.of(new LogStatementRecord(
                 "com.example.demo.Controller",
@@ -248,14 +247,25 @@ class AnalysisServiceTest {
                 List.of("requestId"),
                 false,
                 false));
-        when(loggerScanner.scan(Mockito.eq(repoDir), Mockito.anyList())).thenReturn(logRecords);
+        when(loggerScanner.scan(
+                        Mockito.eq(repoDir),
+                        Mockito.anyList(),
+                        Mockito.any(RepositoryFileIndex.class),
+                        Mockito.any(ParsedSourceCache.class)))
+                .thenReturn(logRecords);
 
         when(projectService.overwriteProject("https://example.com/repo.git", "main", "demo-app", buildInfo))
                 .thenReturn(project);
 
         DiagramGenerationResult diagramResult = new DiagramGenerationResult(List.of(), Map.of());
         when(diagramBuilderService.generate(
-                        eq(repoDir), Mockito.anyList(), Mockito.anyList(), Mockito.any(), Mockito.anyList()))
+                        eq(repoDir),
+                        Mockito.anyList(),
+                        Mockito.anyList(),
+                        Mockito.any(),
+                        Mockito.anyList(),
+                        Mockito.any(RepositoryFileIndex.class),
+                        Mockito.any(ParsedSourceCache.class)))
                 .thenReturn(diagramResult);
         when(diagramService.replaceProjectDiagrams(project, diagramResult.diagrams())).thenReturn(List.of());
 
@@ -308,6 +318,116 @@ class AnalysisServiceTest {
         assertTrue(stubGitCloneService.wasCleanupCalled());
     }
 
+    @Test
+    void analyzeRescansSecurityWhenPreviousSnapshotSkippedIt(@TempDir Path repoDir) throws Exception {
+        Files.createDirectories(repoDir);
+
+        CloneResult cloneResult = new CloneResult("demo-app", repoDir, "main", "commit-123");
+        analysisService = newAnalysisService(new StubGitCloneService(cloneResult));
+
+        BuildInfo buildInfo = new BuildInfo("com.example", "demo-app", "1.0.0", "21");
+        Project project = new Project("https://example.com/repo.git", "demo-app", "main", OffsetDateTime.now());
+        project.setId(101L);
+        when(buildMetadataExtractor.extract(Mockito.eq(repoDir), Mockito.any(RepositoryFileIndex.class)))
+                .thenReturn(new BuildMetadata(buildInfo, List.of(repoDir)));
+        when(projectService.overwriteProject("https://example.com/repo.git", "main", "demo-app", buildInfo))
+                .thenReturn(project);
+
+        // Same commit as the clone, but recorded by a run without the security pass.
+        ProjectSnapshot previousSnapshot = new ProjectSnapshot();
+        previousSnapshot.setId(554L);
+        previousSnapshot.setCommitHash("commit-123");
+        previousSnapshot.setSecurityScanned(false);
+        ParsedDataResponse previousData = new ParsedDataResponse(
+                101L,
+                "demo-app",
+                "https://example.com/repo.git",
+                OffsetDateTime.now(),
+                buildInfo,
+                List.of(),
+                null,
+                null,
+                List.of(),
+                null,
+                List.of(),
+                List.of(),
+                List.of(),
+                Map.of(),
+                List.of());
+        when(projectSnapshotService.findLatestSnapshotEntity(101L)).thenReturn(Optional.of(previousSnapshot));
+        when(projectSnapshotService.hydrateSnapshot(previousSnapshot)).thenReturn(previousData);
+
+        when(yamlScanner.scan(Mockito.eq(repoDir), Mockito.any(RepositoryFileIndex.class)))
+                .thenReturn(new MetadataDump(List.of(), List.of(), List.of(), List.of()));
+        when(daoAnalysisService.analyze(
+                        Mockito.eq(repoDir),
+                        Mockito.anyList(),
+                        Mockito.anyList(),
+                        Mockito.any(RepositoryFileIndex.class),
+                        Mockito.any(ParsedSourceCache.class)))
+                .thenReturn(new DbAnalysisResult(List.of(), Map.of(), Map.of()));
+        List<PiiPciFindingRecord> piiRecords =
+                List.of(new PiiPciFindingRecord("application.yml", 12, "password: secret", "PII", "MEDIUM", false));
+        when(piiPciInspector.scan(Mockito.eq(repoDir), Mockito.anyList(), Mockito.any(RepositoryFileIndex.class)))
+                .thenReturn(piiRecords);
+        DiagramGenerationResult diagramResult = new DiagramGenerationResult(List.of(), Map.of());
+        when(diagramBuilderService.generate(
+                        eq(repoDir),
+                        Mockito.anyList(),
+                        Mockito.anyList(),
+                        Mockito.any(),
+                        Mockito.anyList(),
+                        Mockito.any(RepositoryFileIndex.class),
+                        Mockito.any(ParsedSourceCache.class)))
+                .thenReturn(diagramResult);
+        ProjectSnapshot persistedSnapshot = new ProjectSnapshot();
+        persistedSnapshot.setId(555L);
+        when(projectSnapshotService.saveSnapshot(
+                        Mockito.eq(project), Mockito.any(ParsedDataResponse.class), Mockito.any(SnapshotMetadata.class)))
+                .thenReturn(persistedSnapshot);
+
+        AnalysisOutcome outcome = analysisService.analyze("https://example.com/repo.git", "main", true);
+
+        assertFalse(outcome.reusedSnapshot());
+        assertEquals(555L, outcome.snapshotId());
+        assertEquals(1, outcome.parsedData().piiPciScan().size());
+        verify(piiPciInspector).scan(eq(repoDir), eq(List.of(repoDir)), Mockito.any(RepositoryFileIndex.class));
+        verify(projectSnapshotService).saveSnapshot(
+                eq(project), Mockito.any(ParsedDataResponse.class), Mockito.argThat(SnapshotMetadata::securityScanned));
+    }
+
+    private AnalysisService newAnalysisService(GitCloneService gitCloneService) {
+        return new AnalysisService(
+                gitCloneService,
+                buildMetadataExtractor,
+                javaSourceScanner,
+                yamlScanner,
+                apiScanner,
+                assetScanner,
+                jpaEntityScanner,
+                daoAnalysisService,
+                loggerScanner,
+                piiPciInspector,
+                gherkinScanner,
+                projectService,
+                classMetadataRepository,
+                apiEndpointRepository,
+                assetImageRepository,
+                dbEntityRepository,
+                daoOperationRepository,
+                logStatementRepository,
+                piiPciFindingRepository,
+                projectSnapshotService,
+                diagramBuilderService,
+                diagramService,
+                new ObjectMapper(),
+                classpathBuilder,
+                bytecodeEntityScanner,
+                compiledAnalysisProperties,
+                new AnalysisPipelineProperties(),
+                new SimpleAsyncTaskExecutor("analysis-stage-test-"));
+    }
+
     private static class StubGitCloneService extends GitCloneService {
 
         private final CloneResult cloneResult;
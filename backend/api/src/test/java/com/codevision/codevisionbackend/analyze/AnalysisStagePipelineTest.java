@@ -0,0 +1,77 @@
+package com.codevision.codevisionbackend.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AnalysisStagePipelineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void runsIndependentStagesConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        try (AnalysisStagePipeline pipeline = new AnalysisStagePipeline(executor)) {
+            AnalysisStagePipeline.Stage<Boolean> left = pipeline.stage("left", () -> rendezvous(bothStarted));
+            AnalysisStagePipeline.Stage<Boolean> right = pipeline.stage("right", () -> rendezvous(bothStarted));
+
+            assertThat(left.join()).isTrue();
+            assertThat(right.join()).isTrue();
+        }
+    }
+
+    @Test
+    void startsDependentStagesAfterTheirInputsAndRecordsTimings() {
+        try (AnalysisStagePipeline pipeline = new AnalysisStagePipeline(executor)) {
+            AnalysisStagePipeline.Stage<Integer> source = pipeline.stage("source", () -> 20);
+            AnalysisStagePipeline.Stage<Integer> derived =
+                    pipeline.stage("derived", () -> source.join() + 1, source);
+            AnalysisStagePipeline.Stage<Integer> combined =
+                    pipeline.stage("combined", () -> source.join() + derived.join() + 1, source, derived);
+
+            assertThat(combined.join()).isEqualTo(42);
+            assertThat(pipeline.timings()).containsOnlyKeys("source", "derived", "combined");
+            assertThat(pipeline.timings().keySet()).containsExactly("source", "derived", "combined");
+        }
+    }
+
+    @Test
+    void propagatesTheOriginalFailureAndSkipsDependents() {
+        AtomicBoolean dependentRan = new AtomicBoolean();
+        try (AnalysisStagePipeline pipeline = new AnalysisStagePipeline(executor)) {
+            AnalysisStagePipeline.Stage<String> failing = pipeline.stage("failing", () -> {
+                throw new IllegalArgumentException("boom");
+            });
+            AnalysisStagePipeline.Stage<String> dependent = pipeline.stage("dependent", () -> {
+                dependentRan.set(true);
+                return failing.join();
+            }, failing);
+
+            assertThatThrownBy(failing::join).isInstanceOf(IllegalArgumentException.class).hasMessage("boom");
+            assertThatThrownBy(dependent::join).isInstanceOf(IllegalArgumentException.class).hasMessage("boom");
+        }
+        assertThat(dependentRan).isFalse();
+    }
+
+    private boolean rendezvous(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.codevision.codevisionbackend.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex.IndexedFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IncrementalFileScopeTest {
+
+    private static final String ROOT = "src/main/java/com/example/";
+
+    @Test
+    void rescansChangedSourcesWithTheirDependentsAndDependencies(@TempDir Path repoRoot) throws Exception {
+        write(repoRoot, ROOT + "Order.java", "class Order { }");
+        write(repoRoot, ROOT + "OrderApi.java", "interface OrderApi { Order find(); }");
+        write(repoRoot, ROOT + "OrderController.java", "class OrderController implements OrderApi { }");
+        write(repoRoot, ROOT + "Unrelated.java", "class Unrelated { }");
+        write(repoRoot, "README.md", "docs");
+        RepositoryFileIndex index = RepositoryFileIndex.build(repoRoot);
+        Map<String, String> previous = Map.of(
+                ROOT + "Order.java", "a",
+                ROOT + "OrderApi.java", "b",
+                ROOT + "OrderController.java", "c",
+                ROOT + "Unrelated.java", "d",
+                "README.md", "e");
+        Map<String, String> current = Map.of(
+                ROOT + "Order.java", "a",
+                ROOT + "OrderApi.java", "b",
+                ROOT + "OrderController.java", "c2",
+                ROOT + "Unrelated.java", "d",
+                "README.md", "e");
+
+        IncrementalFileScope scope = IncrementalFileScope.plan(previous, current, index, Map.of());
+
+        assertThat(scope.changedFiles()).containsExactly(ROOT + "OrderController.java");
+        assertThat(scope.rescannedJavaFiles())
+                .containsExactlyInAnyOrder(ROOT + "OrderController.java", ROOT + "OrderApi.java");
+        assertThat(scope.reusesJavaResults(ROOT + "Order.java")).isTrue();
+        assertThat(scope.reusesJavaResults(ROOT + "OrderApi.java")).isFalse();
+        assertThat(scope.isUnchanged(ROOT + "OrderApi.java")).isTrue();
+        assertThat(scope.javaScanIndex().files())
+                .extracting(IndexedFile::relativePath)
+                .containsExactly("README.md", ROOT + "OrderApi.java", ROOT + "OrderController.java");
+        assertThat(scope.changedFileIndex().files())
+                .extracting(IndexedFile::relativePath)
+                .containsExactly(ROOT + "OrderController.java");
+    }
+
+    @Test
+    void deletedTypesPullInTheirFormerCallers(@TempDir Path repoRoot) throws Exception {
+        write(repoRoot, ROOT + "Billing.java", "class Billing { LegacyRates rates; }");
+        write(repoRoot, ROOT + "Invoice.java", "class Invoice { }");
+        write(repoRoot, "config/web.xml", "<web-app/>");
+        RepositoryFileIndex index = RepositoryFileIndex.build(repoRoot);
+        Map<String, String> previous = Map.of(
+                ROOT + "Billing.java", "a",
+                ROOT + "Invoice.java", "b",
+                ROOT + "Rates.java", "c");
+        Map<String, String> current = Map.of(
+                ROOT + "Billing.java", "a",
+                ROOT + "Invoice.java", "b",
+                "config/web.xml", "d");
+
+        IncrementalFileScope scope = IncrementalFileScope.plan(
+                previous, current, index, Map.of(ROOT + "Rates.java", Set.of("LegacyRates")));
+
+        assertThat(scope.rescannedJavaFiles()).containsExactly(ROOT + "Billing.java");
+        assertThat(scope.reusesJavaResults(ROOT + "Invoice.java")).isTrue();
+        assertThat(scope.reusesJavaResults(ROOT + "Rates.java")).isFalse();
+        assertThat(scope.hasChangedFileWithExtension(Set.of(".xml"))).isTrue();
+        assertThat(scope.hasChangedFileWithExtension(Set.of(".wsdl"))).isFalse();
+    }
+
+    private void write(Path root, String relativePath, String content) throws Exception {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,74 @@
+package com.codevision.codevisionbackend.analyze.scanner;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void matchFindsOverlappingKeywords() {
+        KeywordAutomaton automaton = KeywordAutomaton.of(List.of("he", "she", "his", "hers"));
+        BitSet found = new BitSet();
+
+        automaton.match("ushers", 0, 6, found);
+
+        assertThat(found.stream().toArray()).containsExactly(0, 1, 3);
+    }
+
+    @Test
+    void matchIgnoresCaseIncludingNonAsciiCharacters() {
+        KeywordAutomaton automaton = KeywordAutomaton.of(List.of("password", "élève", "straße"));
+        BitSet found = new BitSet();
+
+        automaton.match("PassWord of the ÉLÈVE in the STRAßE", 0, 35, found);
+
+        assertThat(found.stream().toArray()).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void matchOnlyReadsTheGivenRange() {
+        KeywordAutomaton automaton = KeywordAutomaton.of(List.of("secret", "", "token"));
+        BitSet found = new BitSet();
+
+        automaton.match("secret\ntoken", 7, 12, found);
+
+        assertThat(found.stream().toArray()).containsExactly(2);
+    }
+
+    @Test
+    void matchAgreesWithContainsOnRandomText() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<String> keywords = new ArrayList<>();
+            for (int k = 0; k < 1 + random.nextInt(8); k++) {
+                keywords.add(randomText(random, 1 + random.nextInt(4)).toLowerCase(Locale.ROOT));
+            }
+            String text = randomText(random, random.nextInt(60));
+            BitSet found = new BitSet();
+
+            KeywordAutomaton.of(keywords).match(text, 0, text.length(), found);
+
+            String lower = text.toLowerCase(Locale.ROOT);
+            for (int k = 0; k < keywords.size(); k++) {
+                assertThat(found.get(k))
+                        .as("keyword '%s' in '%s'", keywords.get(k), text)
+                        .isEqualTo(lower.contains(keywords.get(k)));
+            }
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        String alphabet = "abAB-é";
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,176 @@
+package com.codevision.codevisionbackend.analyze.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codevision.codevisionbackend.config.SecurityScanProperties;
+import com.github.javaparser.ast.CompilationUnit;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParsedSourceCacheTest {
+
+    @Test
+    void parsesEachFileOnceAndCountsHits(@TempDir Path tempDir) throws Exception {
+        Path source = writeSource(tempDir, "Alpha", "public class Alpha {}");
+        ParsedSourceCache cache = new ParsedSourceCache();
+
+        Optional<CompilationUnit> first = cache.parse(source);
+        Optional<CompilationUnit> second = cache.parse(tempDir.resolve("src/../src/main/java/com/example/Alpha.java"));
+
+        assertThat(first).isPresent();
+        assertThat(second).containsSame(first.get());
+        ParsedSourceCache.Stats stats = cache.stats();
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.entries()).isEqualTo(1);
+        assertThat(stats.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void concurrentLookupsOfTheSameFileShareOneParse(@TempDir Path tempDir) throws Exception {
+        StringBuilder body = new StringBuilder("public class Large {\n");
+        for (int i = 0; i < 2000; i++) {
+            body.append("    int field").append(i).append(" = ").append(i).append(";\n");
+        }
+        Path source = writeSource(tempDir, "Large", body.append("}").toString());
+        ParsedSourceCache cache = new ParsedSourceCache();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Optional<CompilationUnit>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.parse(source);
+                }));
+            }
+            start.countDown();
+            CompilationUnit first = results.get(0).get().orElseThrow();
+            for (Future<Optional<CompilationUnit>> result : results) {
+                assertThat(result.get()).containsSame(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.stats().misses()).isEqualTo(1);
+        assertThat(cache.stats().hits()).isEqualTo(threads - 1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesWhenWeightBudgetIsExceeded(@TempDir Path tempDir) throws Exception {
+        Path alpha = writeSource(tempDir, "Alpha", "public class Alpha {}");
+        Path beta = writeSource(tempDir, "Beta", "public class Beta {}");
+        long budget = Files.size(alpha) + Files.size(beta) - 1;
+        ParsedSourceCache cache = new ParsedSourceCache(budget);
+
+        cache.parse(alpha);
+        cache.parse(beta);
+        cache.parse(beta);
+        cache.parse(alpha);
+
+        ParsedSourceCache.Stats stats = cache.stats();
+        assertThat(stats.evictions()).isEqualTo(2);
+        assertThat(stats.misses()).isEqualTo(3);
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.entries()).isEqualTo(1);
+        assertThat(stats.weightBytes()).isLessThanOrEqualTo(budget);
+    }
+
+    @Test
+    void remembersUnreadableFilesAsEmpty(@TempDir Path tempDir) {
+        ParsedSourceCache cache = new ParsedSourceCache();
+        Path missing = tempDir.resolve("Missing.java");
+
+        assertThat(cache.parse(missing)).isEmpty();
+        assertThat(cache.parse(missing)).isEmpty();
+        assertThat(cache.parse(null)).isEmpty();
+
+        ParsedSourceCache.Stats stats = cache.stats();
+        assertThat(stats.failures()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void scannersSharingACacheParseEachFileOnce(@TempDir Path tempDir) throws Exception {
+        writeSource(tempDir, "Customer", """
+                @jakarta.persistence.Entity
+                public class Customer {
+                    @jakarta.persistence.Id
+                    private Long id;
+                }
+                """);
+        writeSource(tempDir, "CustomerService", """
+                @org.springframework.stereotype.Service
+                public class CustomerService {
+                    private static final org.slf4j.Logger log = null;
+                    void run() { log.info("running {}", 1); }
+                }
+                """);
+        ParsedSourceCache cache = new ParsedSourceCache();
+        RepositoryFileIndex fileIndex = RepositoryFileIndex.build(tempDir);
+
+        List<ClassMetadataRecord> classes = new JavaSourceScanner().scan(tempDir, List.of(tempDir), fileIndex, cache);
+        List<DbEntityRecord> entities = new JpaEntityScanner().scan(tempDir, List.of(tempDir), fileIndex, cache);
+        List<LogStatementRecord> logs = new LoggerScanner(new PiiPciInspector(new SecurityScanProperties()))
+                .scan(tempDir, List.of(tempDir), fileIndex, cache);
+
+        assertThat(classes).hasSize(2);
+        assertThat(entities).extracting(DbEntityRecord::className).containsExactly("Customer");
+        assertThat(logs).hasSize(1);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+        assertThat(cache.stats().hits()).isEqualTo(4);
+    }
+
+    @Test
+    void parallelParsingMatchesSequentialOutputOrder(@TempDir Path tempDir) throws Exception {
+        for (int i = 0; i < 24; i++) {
+            writeSource(tempDir, "Endpoint" + i, """
+                    @org.springframework.web.bind.annotation.RestController
+                    public class %s {
+                        @org.springframework.web.bind.annotation.GetMapping("/items/%d")
+                        public String get() { return "ok"; }
+                    }
+                    """.formatted("Endpoint" + i, i));
+        }
+        RepositoryFileIndex fileIndex = RepositoryFileIndex.build(tempDir);
+        List<Path> modules = List.of(tempDir);
+
+        List<ClassMetadataRecord> sequentialClasses;
+        List<ApiEndpointRecord> sequentialEndpoints;
+        try (ParsedSourceCache sequential = new ParsedSourceCache(ParsedSourceCache.DEFAULT_MAX_WEIGHT_BYTES, 1)) {
+            sequentialClasses = new JavaSourceScanner().scan(tempDir, modules, fileIndex, sequential);
+            sequentialEndpoints = new ApiScanner().scan(tempDir, modules, null, fileIndex, sequential);
+        }
+        try (ParsedSourceCache parallel = new ParsedSourceCache(ParsedSourceCache.DEFAULT_MAX_WEIGHT_BYTES, 4)) {
+            assertThat(new JavaSourceScanner().scan(tempDir, modules, fileIndex, parallel))
+                    .extracting(ClassMetadataRecord::fullyQualifiedName)
+                    .hasSize(24)
+                    .containsExactlyElementsOf(sequentialClasses.stream()
+                            .map(ClassMetadataRecord::fullyQualifiedName)
+                            .toList());
+            assertThat(new ApiScanner().scan(tempDir, modules, null, fileIndex, parallel))
+                    .hasSize(24)
+                    .containsExactlyElementsOf(sequentialEndpoints);
+            assertThat(parallel.stats().misses()).isEqualTo(24);
+        }
+    }
+
+    private Path writeSource(Path root, String className, String body) throws Exception {
+        Path packageDir = root.resolve("src/main/java/com/example");
+        Files.createDirectories(packageDir);
+        Path file = packageDir.resolve(className + ".java");
+        Files.writeString(file, "package com.example;\n\n" + body);
+        return file;
+    }
+}
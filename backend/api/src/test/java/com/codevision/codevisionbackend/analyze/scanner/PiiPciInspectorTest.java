@@ -4,11 +4,17 @@ import com.codevision.codevisionbackend.config.SecurityScanProperties;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 class PiiPciInspectorTest {
 
@@ -57,4 +63,134 @@ class PiiPciInspectorTest {
         assertThat(record.ignored()).isTrue();
         assertThat(record.matchType()).isEqualTo("PII");
     }
+
+    @Test
+    void requiredLiteralKeepsOnlyTextEveryMatchContains() {
+        assertThat(PiiPciInspector.requiredLiteral("SSN\\s*=")).isEqualTo("ssn");
+        assertThat(PiiPciInspector.requiredLiteral("colou?r")).isEqualTo("colo");
+        assertThat(PiiPciInspector.requiredLiteral("a{2,3}bc")).isEqualTo("bc");
+        assertThat(PiiPciInspector.requiredLiteral("[a-z&&[^x]]iban\\.no")).isEqualTo("iban.no");
+        assertThat(PiiPciInspector.requiredLiteral("(?:card)+number")).isEqualTo("number");
+        assertThat(PiiPciInspector.requiredLiteral("password|secret")).isNull();
+        assertThat(PiiPciInspector.requiredLiteral("\\b(?:\\d[ -]?){13,16}\\b")).isNull();
+        assertThat(PiiPciInspector.requiredLiteral("(?x) s s n")).isNull();
+    }
+
+    @Test
+    void requiredLiteralSkipsEveryCharacterAnEscapeConsumes() {
+        assertThat(PiiPciInspector.requiredLiteral("\\x41bc")).isEqualTo("bc");
+        assertThat(PiiPciInspector.requiredLiteral("\\x{41}")).isNull();
+        assertThat(PiiPciInspector.requiredLiteral("\\u00e9tude")).isEqualTo("tude");
+        assertThat(PiiPciInspector.requiredLiteral("\\0101ab")).isEqualTo("ab");
+        assertThat(PiiPciInspector.requiredLiteral("\\cAbc")).isEqualTo("bc");
+        assertThat(PiiPciInspector.requiredLiteral("(?<id>x)\\k<id>yz")).isEqualTo("yz");
+        assertThat(PiiPciInspector.requiredLiteral("\\pLmn")).isEqualTo("mn");
+        assertThat(PiiPciInspector.requiredLiteral("(a)\\12")).isNull();
+        for (String regex : List.of("\\x41bc", "\\u00e9tude", "\\0101ab", "\\cAbc", "(?<id>x)\\k<id>yz")) {
+            String match = Pattern.compile(regex).matcher("Abc étude Aab \u0001bc xxyz").results()
+                    .findFirst().orElseThrow().group();
+            assertThat(match.toLowerCase(Locale.ROOT)).contains(PiiPciInspector.requiredLiteral(regex));
+        }
+    }
+
+    @Test
+    void scanReportsEveryMatchingRulePerLineInRuleOrder(@TempDir Path tempDir) throws IOException {
+        SecurityScanProperties properties = propertiesWith(
+                rule("password", null, "PII", "MEDIUM"),
+                rule(null, "ssn\\s*=\\s*\\d{3}-\\d{2}-\\d{4}", "PII", "HIGH"),
+                rule(null, "\\b(?:\\d[ -]?){13,16}\\b", "PCI", "HIGH"));
+        Files.writeString(tempDir.resolve("app.properties"),
+                "first=1\r\n\r\nPASSWORD=4111 1111 1111 1111\rssn = 123-45-6789\n   \nnothing here");
+
+        List<PiiPciFindingRecord> findings = new PiiPciInspector(properties).scan(tempDir);
+
+        assertThat(findings)
+                .extracting(PiiPciFindingRecord::lineNumber, PiiPciFindingRecord::severity)
+                .containsExactly(
+                        tuple(3, "MEDIUM"),
+                        tuple(3, "HIGH"),
+                        tuple(4, "HIGH"));
+        assertThat(findings.get(0).snippet()).isEqualTo("PASSWORD=4111 1111 1111 1111");
+        assertThat(findings.get(1).matchType()).isEqualTo("PCI");
+    }
+
+    @Test
+    void scanMatchesLineByLineReadingAcrossBufferBoundaries(@TempDir Path tempDir) throws IOException {
+        SecurityScanProperties properties = propertiesWith(
+                rule("secret", null, "PII", "LOW"),
+                rule(null, "token\\s*=\\s*[a-z]+", "PII", "MEDIUM"),
+                rule(null, "\\b\\d{16}\\b", "PCI", "HIGH"));
+        properties.setParallelism(4);
+        StringBuilder content = new StringBuilder();
+        Random random = new Random(7);
+        String[] fragments = {"secret", "SeCrEt", "token = abc", "4111111111111111", "é", "x", " ", "\r\n", "\n", "\r"};
+        while (content.length() < 3 * 1024 * 1024) {
+            content.append(fragments[random.nextInt(fragments.length)]);
+        }
+        content.append("x".repeat(1536 * 1024)).append("secret");
+        Files.writeString(tempDir.resolve("large.log"), content, StandardCharsets.UTF_8);
+        Files.writeString(tempDir.resolve("small.txt"), "token=abc\nplain", StandardCharsets.UTF_8);
+
+        List<PiiPciFindingRecord> findings = new PiiPciInspector(properties).scan(tempDir);
+
+        List<String> expected = new ArrayList<>();
+        expected.addAll(referenceScan("large.log", content.toString(), properties));
+        expected.addAll(referenceScan("small.txt", "token=abc\nplain", properties));
+        assertThat(findings)
+                .extracting(finding -> finding.filePath() + ":" + finding.lineNumber() + ":" + finding.severity())
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void scanKeepsFindingsBeforeMalformedInput(@TempDir Path tempDir) throws IOException {
+        SecurityScanProperties properties = propertiesWith(rule("secret", null, "PII", "LOW"));
+        byte[] prefix = "secret\n".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[prefix.length + 1];
+        System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+        bytes[prefix.length] = (byte) 0xC3;
+        Files.write(tempDir.resolve("broken.txt"), bytes);
+
+        List<PiiPciFindingRecord> findings = new PiiPciInspector(properties).scan(tempDir);
+
+        assertThat(findings).extracting(PiiPciFindingRecord::lineNumber).containsExactly(1);
+    }
+
+    private static List<String> referenceScan(String path, String content, SecurityScanProperties properties) {
+        List<String> findings = new ArrayList<>();
+        String[] lines = content.split("\r\n|\r|\n", -1);
+        int count = content.isEmpty() || content.endsWith("\n") || content.endsWith("\r")
+                ? lines.length - 1
+                : lines.length;
+        for (int i = 0; i < count; i++) {
+            String line = lines[i];
+            if (line.isBlank()) {
+                continue;
+            }
+            for (SecurityScanProperties.Rule rule : properties.getRules()) {
+                boolean keyword = rule.getKeyword() == null
+                        || line.toLowerCase(Locale.ROOT).contains(rule.getKeyword());
+                boolean regex = rule.getRegex() == null
+                        || Pattern.compile(rule.getRegex(), Pattern.CASE_INSENSITIVE).matcher(line).find();
+                if (keyword && regex) {
+                    findings.add(path + ":" + (i + 1) + ":" + rule.getSeverity());
+                }
+            }
+        }
+        return findings;
+    }
+
+    private static SecurityScanProperties propertiesWith(SecurityScanProperties.Rule... rules) {
+        SecurityScanProperties properties = new SecurityScanProperties();
+        properties.setRules(List.of(rules));
+        return properties;
+    }
+
+    private static SecurityScanProperties.Rule rule(String keyword, String regex, String type, String severity) {
+        SecurityScanProperties.Rule rule = new SecurityScanProperties.Rule();
+        rule.setKeyword(keyword);
+        rule.setRegex(regex);
+        rule.setType(type);
+        rule.setSeverity(severity);
+        return rule;
+    }
 }
@@ -0,0 +1,115 @@
+package com.codevision.codevisionbackend.analyze.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex.IndexedFile;
+import com.codevision.codevisionbackend.analyze.scanner.RepositoryFileIndex.SourceSet;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RepositoryFileIndexTest {
+
+    @Test
+    void classifiesFilesAndPrunesToolingDirectories(@TempDir Path repoRoot) throws Exception {
+        write(repoRoot, "src/main/java/com/example/App.java");
+        write(repoRoot, "src/test/java/com/example/AppTest.java");
+        write(repoRoot, "src/main/resources/openapi.YAML");
+        write(repoRoot, "target/classes/openapi.yaml");
+        write(repoRoot, ".git/config.json");
+        write(repoRoot, "node_modules/pkg/readme.md");
+
+        RepositoryFileIndex index = RepositoryFileIndex.build(repoRoot);
+
+        assertThat(index.files())
+                .extracting(IndexedFile::relativePath)
+                .containsExactly(
+                        "src/main/java/com/example/App.java",
+                        "src/main/resources/openapi.YAML",
+                        "src/test/java/com/example/AppTest.java",
+                        "target/classes/openapi.yaml");
+        IndexedFile app = index.files().get(0);
+        assertThat(app.extension()).isEqualTo(".java");
+        assertThat(app.sourceSet()).isEqualTo(SourceSet.MAIN);
+        assertThat(app.excluded()).isFalse();
+        IndexedFile test = index.files().get(2);
+        assertThat(test.sourceSet()).isEqualTo(SourceSet.TEST);
+        assertThat(test.excluded()).isTrue();
+        assertThat(index.withExtension(".yaml"))
+                .extracting(IndexedFile::inBuildOutput)
+                .containsExactly(false, true);
+    }
+
+    @Test
+    void servesJavaSourcesPerModuleWithExclusionsApplied(@TempDir Path repoRoot) throws Exception {
+        write(repoRoot, "core/src/main/java/com/example/build/Builder.java");
+        write(repoRoot, "core/src/main/java/com/example/mock/FakeClient.java");
+        write(repoRoot, "web/src/main/java/com/example/web/Controller.java");
+        write(repoRoot, "web/src/main/resources/Ignored.java");
+
+        RepositoryFileIndex index = RepositoryFileIndex.build(repoRoot);
+        Path core = repoRoot.resolve("core");
+        Path web = repoRoot.resolve("web");
+
+        assertThat(index.mainJavaSources(List.of(web, core, web)))
+                .extracting(IndexedFile::relativePath)
+                .containsExactly(
+                        "web/src/main/java/com/example/web/Controller.java",
+                        "core/src/main/java/com/example/build/Builder.java",
+                        "core/src/main/java/com/example/mock/FakeClient.java");
+        assertThat(index.analyzableJavaSources(List.of(core)))
+                .containsExactly(index.root().resolve("core/src/main/java/com/example/build/Builder.java"));
+    }
+
+    @Test
+    void returnsFilesUnderOverlappingRootsOnce(@TempDir Path repoRoot) throws Exception {
+        write(repoRoot, "core/application.yml");
+        write(repoRoot, "core/nested/notes.md");
+        write(repoRoot, "web/pom.xml");
+
+        RepositoryFileIndex index = RepositoryFileIndex.build(repoRoot);
+
+        assertThat(index.under(List.of(repoRoot.resolve("core"), repoRoot.resolve("core/nested"))))
+                .extracting(IndexedFile::relativePath)
+                .containsExactly("core/application.yml", "core/nested/notes.md");
+        assertThat(index.under(List.of(repoRoot))).hasSize(3);
+        assertThat(index.withExtensions(Set.of(".YML", ".xml")))
+                .extracting(IndexedFile::fileName)
+                .containsExactly("application.yml", "pom.xml");
+        assertThat(index.named("pom.xml")).hasSize(1);
+    }
+
+    @Test
+    void doesNotFollowSymbolicLinksOutOfTheRepository(@TempDir Path tempDir) throws Exception {
+        Path repoRoot = Files.createDirectories(tempDir.resolve("repo"));
+        Path outside = Files.createDirectories(tempDir.resolve("outside"));
+        write(outside, "secrets/credentials.yml");
+        write(repoRoot, "src/main/resources/application.yml");
+        Files.createSymbolicLink(repoRoot.resolve("linked-dir"), outside);
+        Files.createSymbolicLink(
+                repoRoot.resolve("src/main/resources/linked.yml"), outside.resolve("secrets/credentials.yml"));
+
+        RepositoryFileIndex index = RepositoryFileIndex.build(repoRoot);
+
+        assertThat(index.files())
+                .extracting(IndexedFile::relativePath)
+                .containsExactly("src/main/resources/application.yml");
+    }
+
+    @Test
+    void missingRootYieldsEmptyIndex(@TempDir Path tempDir) {
+        RepositoryFileIndex index = RepositoryFileIndex.build(tempDir.resolve("absent"));
+
+        assertThat(index.files()).isEmpty();
+        assertThat(index.mainJavaSources(List.of(tempDir))).isEmpty();
+    }
+
+    private void write(Path root, String relativePath) throws Exception {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "content");
+    }
+}
@@ -0,0 +1,90 @@
+package com.codevision.codevisionbackend.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CompactGraph")
+class CompactGraphTest {
+
+    private static KgNode node(String id) {
+        return new KgNode(id, KgNodeType.CLASS, id, "qual." + id, null, null, "SOURCE", null);
+    }
+
+    private static KgEdge edge(String id, String source, String target) {
+        return new KgEdge(id, KgEdgeType.CALLS, source, target, null, ConfidenceLevel.EXTRACTED, null, Map.of());
+    }
+
+    private static int[] out(CompactGraph compact, String id) {
+        int v = compact.indexOf(id);
+        return Arrays.stream(compact.outTargets(), compact.outOffsets()[v], compact.outOffsets()[v + 1])
+                .mapToObj(compact::id)
+                .sorted()
+                .mapToInt(compact::indexOf)
+                .toArray();
+    }
+
+    @Nested
+    @DisplayName("Given a graph with duplicate, dangling and self edges")
+    class Given_MixedEdges {
+
+        private final KnowledgeGraph graph = new KnowledgeGraph();
+
+        {
+            graph.addNode(node("a"));
+            graph.addNode(node("b"));
+            graph.addNode(node("c"));
+            graph.addEdge(edge("e1", "a", "b"));
+            graph.addEdge(edge("e2", "a", "b"));
+            graph.addEdge(edge("e3", "b", "a"));
+            graph.addEdge(edge("e4", "c", "c"));
+            graph.addEdge(edge("e5", "a", "missing"));
+            graph.addEdge(edge("e6", null, "a"));
+        }
+
+        @Test
+        @DisplayName("Then directed adjacency is de-duplicated and keeps self-loops")
+        void Then_DirectedAdjacencyIsDeduplicated() {
+            CompactGraph compact = graph.compact();
+
+            assertEquals(3, compact.nodeCount());
+            assertEquals(3, compact.edgeCount());
+            assertArrayEquals(new int[] {compact.indexOf("b")}, out(compact, "a"));
+            assertArrayEquals(new int[] {compact.indexOf("c")}, out(compact, "c"));
+            assertEquals(1, compact.inDegree(compact.indexOf("a")));
+            assertEquals(-1, compact.indexOf("missing"));
+        }
+
+        @Test
+        @DisplayName("Then undirected weights count every directed edge except self-loops")
+        void Then_UndirectedWeightsCountEdges() {
+            CompactGraph.WeightedAdjacency undirected = graph.compact().undirected();
+            int a = graph.compact().indexOf("a");
+            int c = graph.compact().indexOf("c");
+
+            assertEquals(3.0, undirected.degree(a));
+            assertEquals(0.0, undirected.degree(c));
+        }
+
+        @Test
+        @DisplayName("Then the compact view is cached until the graph changes")
+        void Then_CompactViewIsCachedUntilMutation() {
+            CompactGraph first = graph.compact();
+            assertSame(first, graph.compact());
+
+            graph.addEdge(edge("e7", "b", "c"));
+
+            CompactGraph second = graph.compact();
+            assertNotSame(first, second);
+            assertEquals(4, second.edgeCount());
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.codevision.codevisionbackend.graph;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
@@ -158,4 +162,56 @@ class KnowledgeGraphBuilderTest {
             assertEquals(builder, returned);
         }
     }
+
+    @Nested
+    @DisplayName("Given a builder with queued nodes and edges")
+    class Given_QueuedElements {
+
+        private KnowledgeGraphBuilder populated() {
+            return new KnowledgeGraphBuilder()
+                    .withNodes(List.of(node("A", KgNodeType.CLASS), node("B", KgNodeType.INTERFACE)))
+                    .withEdges(List.of(
+                            edge("e1", KgEdgeType.IMPLEMENTS, "A", "B"),
+                            edge("e2", KgEdgeType.CALLS, "A", "B")));
+        }
+
+        @Test
+        @DisplayName("Then the frozen graph answers queries like the mutable one")
+        void Then_FrozenGraphMatchesMutableGraph() {
+            KnowledgeGraph mutable = populated().build();
+            KnowledgeGraph frozen = populated().buildFrozen();
+
+            assertTrue(frozen.isFrozen());
+            assertFalse(mutable.isFrozen());
+            assertEquals(mutable.getNodes(), frozen.getNodes());
+            assertEquals(mutable.getEdges(), frozen.getEdges());
+            assertEquals(mutable.getNeighbors("A"), frozen.getNeighbors("A"));
+            assertEquals(mutable.getIncoming("B"), frozen.getIncoming("B"));
+            assertEquals(mutable.nodesOfType(KgNodeType.INTERFACE), frozen.nodesOfType(KgNodeType.INTERFACE));
+            assertEquals(mutable.edgesOfType(KgEdgeType.CALLS), frozen.edgesOfType(KgEdgeType.CALLS));
+        }
+
+        @Test
+        @DisplayName("Then the frozen graph rejects mutation")
+        void Then_FrozenGraphRejectsMutation() {
+            KnowledgeGraph frozen = populated().buildFrozen();
+
+            assertThrows(UnsupportedOperationException.class, () -> frozen.addNode(node("C", KgNodeType.CLASS)));
+            assertThrows(UnsupportedOperationException.class,
+                    () -> frozen.addEdge(edge("e3", KgEdgeType.CALLS, "B", "A")));
+            assertThrows(UnsupportedOperationException.class, () -> frozen.getNeighbors("A").clear());
+        }
+
+        @Test
+        @DisplayName("Then freezing a mutable graph copies it")
+        void Then_FreezeCopiesTheGraph() {
+            KnowledgeGraph mutable = populated().build();
+            KnowledgeGraph frozen = mutable.freeze();
+            mutable.addNode(node("C", KgNodeType.CLASS));
+
+            assertEquals(2, frozen.nodeCount());
+            assertEquals(3, mutable.nodeCount());
+            assertSame(frozen, frozen.freeze());
+        }
+    }
 }
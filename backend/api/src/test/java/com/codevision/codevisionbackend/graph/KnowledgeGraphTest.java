@@ -501,4 +501,33 @@ class KnowledgeGraphTest {
             );
         }
     }
+
+    @Nested
+    @DisplayName("Given two independently built shards")
+    class Given_MergedShards {
+
+        @Test
+        @DisplayName("Then the merged graph matches adding every element in order")
+        void Then_MergedGraphMatchesSequentialAdds() {
+            KnowledgeGraph first = new KnowledgeGraph();
+            first.addNode(node("A", KgNodeType.CLASS));
+            first.addNode(node("B", KgNodeType.CLASS));
+            first.addEdge(edge("e1", KgEdgeType.CALLS, "A", "B"));
+            KnowledgeGraph second = new KnowledgeGraph();
+            second.addNode(node("C", KgNodeType.INTERFACE));
+            second.addEdge(edge("e2", KgEdgeType.IMPLEMENTS, "A", "C"));
+
+            KnowledgeGraph merged = new KnowledgeGraph();
+            merged.merge(first);
+            merged.merge(second);
+
+            assertEquals(3, merged.nodeCount());
+            assertEquals(List.of("e1", "e2"), merged.getEdges().stream().map(KgEdge::id).toList());
+            assertEquals(2, merged.getNeighbors("A").size());
+            assertEquals(1, merged.getIncoming("C").size());
+            assertEquals(Set.of("C"), merged.nodesOfType(KgNodeType.INTERFACE));
+            assertEquals(1, merged.edgesOfType(KgEdgeType.IMPLEMENTS).size());
+            assertEquals(1, first.edgeCount());
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.codevision.codevisionbackend.graph.algorithm;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import java.util.Random;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -77,4 +78,65 @@ class BetweennessCentralityAlgorithmTest {
             }
         }
     }
+
+    @Nested
+    class Given_RandomGraph {
+
+        private KnowledgeGraph randomGraph(int nodes, int edges) {
+            var graph = new KnowledgeGraph();
+            var random = new Random(7);
+            for (int i = 0; i < nodes; i++) {
+                graph.addNode(GraphTestHelper.classNode("n" + i, "N" + i));
+            }
+            for (int i = 0; i < edges; i++) {
+                graph.addEdge(GraphTestHelper.callsEdge("n" + random.nextInt(nodes), "n" + random.nextInt(nodes)));
+            }
+            return graph;
+        }
+
+        @Nested
+        class When_ComputingInParallel {
+
+            @Test
+            void Then_MatchesTheSequentialResult() {
+                var graph = randomGraph(300, 1200);
+                var sequential = algorithm.execute(graph);
+                var parallel = new BetweennessCentralityAlgorithm(4, 0, 0.0).execute(graph);
+
+                assertEquals(sequential.keySet(), parallel.keySet());
+                sequential.forEach((id, score) -> assertEquals(score, parallel.get(id), 1e-6 * Math.max(1.0, score)));
+            }
+
+            @Test
+            void Then_RepeatedRunsAgreeExactly() {
+                var graph = randomGraph(300, 1200);
+                var parallel = new BetweennessCentralityAlgorithm(3, 0, 0.0);
+
+                assertEquals(parallel.execute(graph), parallel.execute(graph));
+            }
+        }
+
+        @Nested
+        class When_SamplingPivots {
+
+            @Test
+            void Then_EstimateStaysCloseToTheExactScores() {
+                var graph = randomGraph(300, 1200);
+                var exact = algorithm.execute(graph);
+                var sampled = new BetweennessCentralityAlgorithm(2, 150, 0.0).execute(graph);
+
+                double maxScore = 300.0 * 298.0;
+                exact.forEach((id, score) -> assertEquals(score, sampled.get(id), 0.05 * maxScore));
+            }
+
+            @Test
+            void Then_ErrorBoundDeterminesThePivotCount() {
+                var sampled = new BetweennessCentralityAlgorithm(1, 10, 0.1);
+                // ln(2 * 10000 / 0.1) / (2 * 0.01) = 610.3
+                assertEquals(611, sampled.pivotCount(10_000));
+                assertEquals(50, sampled.pivotCount(50), "Small graphs fall back to the exact algorithm");
+                assertEquals(500, new BetweennessCentralityAlgorithm(1, 0, 0.0).pivotCount(500));
+            }
+        }
+    }
 }
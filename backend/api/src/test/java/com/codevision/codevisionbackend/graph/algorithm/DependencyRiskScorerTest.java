@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 class DependencyRiskScorerTest {
 
@@ -100,6 +101,51 @@ class DependencyRiskScorerTest {
         }
     }
 
+    @Nested
+    class Given_ChainWithShortcutEdge {
+
+        @Nested
+        class When_Scoring {
+
+            @Test
+            void Then_DepthFollowsTheLongestChain() {
+                // A -> B -> C plus the shortcut A -> C
+                var graph = new KnowledgeGraph();
+                graph.addNode(GraphTestHelper.classNode("a", "A"));
+                graph.addNode(GraphTestHelper.classNode("b", "B"));
+                graph.addNode(GraphTestHelper.classNode("c", "C"));
+                graph.addEdge(GraphTestHelper.callsEdge("a", "b"));
+                graph.addEdge(GraphTestHelper.callsEdge("b", "c"));
+                graph.addEdge(GraphTestHelper.callsEdge("a", "c"));
+
+                Map<String, Double> result = scorer.execute(graph);
+
+                // Depths are A = 2, B = 1, C = 0, so B's depth normalizes to 0.5, not the 1.0 of a BFS depth
+                assertEquals(0.3 + 0.2, result.get("a"), 1e-9);
+                assertEquals(0.3 * 0.5 + 0.3 * 0.5 + 0.2 * 0.5, result.get("b"), 1e-9);
+                assertEquals(0.3, result.get("c"), 1e-9);
+            }
+        }
+    }
+
+    @Nested
+    class Given_AbortedContext {
+
+        @Nested
+        class When_Scoring {
+
+            @Test
+            void Then_ThrowsInsteadOfReturningPartialScores() {
+                var graph = GraphTestHelper.linearChain(5);
+                var context = AlgorithmContext.warmStart(null);
+                context.abort("budget exceeded");
+
+                assertThrows(CancellationException.class,
+                        () -> scorer.execute(graph, new GraphArtifacts(graph), context));
+            }
+        }
+    }
+
     @Nested
     class Given_IsolatedNode {
 
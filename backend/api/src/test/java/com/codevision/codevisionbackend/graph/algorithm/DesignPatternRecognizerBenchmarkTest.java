@@ -0,0 +1,71 @@
+package com.codevision.codevisionbackend.graph.algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.codevision.codevisionbackend.graph.KgEdgeType;
+import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Throughput benchmark for {@link DesignPatternRecognizer}. Run it locally with
+ * {@code mvn test -Dcodevision.benchmark=true -Dtest=DesignPatternRecognizerBenchmarkTest};
+ * {@code -Dcodevision.benchmark.interfaces=N} sets the graph size.
+ */
+@EnabledIfSystemProperty(named = "codevision.benchmark", matches = "true")
+class DesignPatternRecognizerBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    void measurePatternDetectionThroughput() {
+        int interfaces = Integer.getInteger("codevision.benchmark.interfaces", 20_000);
+        var graph = patternGraph(interfaces);
+        var recognizer = new DesignPatternRecognizer();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            recognizer.execute(graph);
+        }
+        long start = System.nanoTime();
+        var result = recognizer.execute(graph);
+        for (int i = 1; i < MEASURED_ROUNDS; i++) {
+            result = recognizer.execute(graph);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9 / MEASURED_ROUNDS;
+
+        assertEquals(interfaces, result.get("STRATEGY").size());
+        assertEquals(interfaces, result.get("FACTORY").size());
+        assertEquals(interfaces, result.get("DECORATOR").size());
+        System.out.printf("design patterns: %d nodes, %d edges, %.1f ms per pass, %.0f edges/s%n",
+                graph.nodeCount(), graph.edgeCount(), seconds * 1e3, graph.edgeCount() / seconds);
+    }
+
+    /**
+     * Per interface: two implementors, a factory constructing both, and a
+     * decorator that extends and uses the first implementor.
+     */
+    static KnowledgeGraph patternGraph(int interfaces) {
+        var graph = new KnowledgeGraph();
+        for (int i = 0; i < interfaces; i++) {
+            String iface = "iface" + i;
+            String first = "impl" + i + "a";
+            String second = "impl" + i + "b";
+            String factory = "factory" + i;
+            String decorator = "decorator" + i;
+            graph.addNode(GraphTestHelper.interfaceNode(iface, "Strategy" + i));
+            graph.addNode(GraphTestHelper.classNode(first, "FirstImpl" + i));
+            graph.addNode(GraphTestHelper.classNode(second, "SecondImpl" + i));
+            graph.addNode(GraphTestHelper.classNode(factory, "Factory" + i));
+            graph.addNode(GraphTestHelper.classNode(decorator, "Decorator" + i));
+            graph.addEdge(GraphTestHelper.implementsEdge(first, iface));
+            graph.addEdge(GraphTestHelper.implementsEdge(second, iface));
+            graph.addEdge(GraphTestHelper.edge(factory, first, KgEdgeType.CONSTRUCTS));
+            graph.addEdge(GraphTestHelper.edge(factory, second, KgEdgeType.INSTANTIATES));
+            graph.addEdge(GraphTestHelper.extendsEdge(decorator, first));
+            graph.addEdge(GraphTestHelper.edge(decorator, first, KgEdgeType.USES));
+            graph.addEdge(GraphTestHelper.callsEdge(decorator, second));
+        }
+        return graph;
+    }
+}
@@ -254,4 +254,25 @@ class DesignPatternRecognizerTest {
             }
         }
     }
+
+    @Nested
+    class Given_ManyPatternInstances {
+
+        @Nested
+        class When_Recognizing {
+
+            @Test
+            void Then_DetectsEveryInstance() {
+                var graph = DesignPatternRecognizerBenchmarkTest.patternGraph(500);
+
+                var result = recognizer.execute(graph);
+
+                assertEquals(500, result.get("STRATEGY").size());
+                assertTrue(result.get("STRATEGY").contains("Strategy0"));
+                assertEquals(500, result.get("FACTORY").size());
+                assertEquals(500, result.get("DECORATOR").size());
+                assertFalse(result.containsKey("SINGLETON"));
+            }
+        }
+    }
 }
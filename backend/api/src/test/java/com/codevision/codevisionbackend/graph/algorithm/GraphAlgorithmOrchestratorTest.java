@@ -5,6 +5,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import com.codevision.codevisionbackend.graph.KnowledgeGraph;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -101,4 +105,181 @@ class GraphAlgorithmOrchestratorTest {
             }
         }
     }
+
+    @Nested
+    class Given_ConcurrentMode {
+
+        private final AtomicInteger artifactBuilds = new AtomicInteger();
+        private final GraphArtifacts.Artifact<Integer> countedArtifact = new GraphArtifacts.Artifact<>(
+                "counted", artifacts -> artifactBuilds.incrementAndGet());
+
+        private GraphAlgorithm<Object> artifactReader(String name) {
+            return new GraphAlgorithm<>() {
+                @Override
+                public String name() { return name; }
+                @Override
+                public Object execute(KnowledgeGraph graph) { return execute(graph, new GraphArtifacts(graph)); }
+                @Override
+                public Set<GraphArtifacts.Artifact<?>> requiredArtifacts() { return Set.of(countedArtifact); }
+                @Override
+                public Object execute(KnowledgeGraph graph, GraphArtifacts artifacts) {
+                    return artifacts.get(countedArtifact);
+                }
+            };
+        }
+
+        @Nested
+        class When_RunningConcurrently {
+
+            @Test
+            void Then_ReportsResultsAndTimingsForEveryAlgorithm() {
+                var orchestrator = new GraphAlgorithmOrchestrator(List.of(
+                        new PageRankAlgorithm(),
+                        new TarjanSccAlgorithm(),
+                        new DependencyRiskScorer()
+                ), new GraphAlgorithmExecutors(0, 3), 60, 0);
+                var graph = GraphTestHelper.linearChain(5);
+
+                var results = orchestrator.runConcurrently(graph);
+
+                assertEquals(orchestrator.runAll(graph).get("dependency-risk"), results.get("dependency-risk"));
+                @SuppressWarnings("unchecked")
+                var timings = (Map<String, Map<String, Object>>) results.get(GraphAlgorithmOrchestrator.TIMINGS_KEY);
+                assertEquals(Set.of("pagerank", "tarjan-scc", "dependency-risk"), timings.keySet());
+                timings.values().forEach(timing -> {
+                    assertEquals("completed", timing.get("status"));
+                    assertTrue((Long) timing.get("elapsedMillis") >= 0);
+                });
+            }
+
+            @Test
+            void Then_HandsEachAlgorithmItsPreviousResult() {
+                var recorder = new GraphAlgorithm<Object>() {
+                    @Override
+                    public String name() { return "recorder"; }
+                    @Override
+                    public Object execute(KnowledgeGraph graph) { return "cold"; }
+                    @Override
+                    public Object execute(KnowledgeGraph graph, GraphArtifacts artifacts, AlgorithmContext context) {
+                        return context.previousResult();
+                    }
+                };
+                var orchestrator = new GraphAlgorithmOrchestrator(List.of(recorder), new GraphAlgorithmExecutors(0, 1), 60, 0);
+                var graph = GraphTestHelper.linearChain(3);
+
+                var results = orchestrator.runConcurrently(
+                        graph, new GraphArtifacts(graph), Map.of("recorder", "earlier"));
+
+                assertEquals("earlier", results.get("recorder"));
+                assertNull(orchestrator.runConcurrently(graph).get("recorder"));
+            }
+
+            @Test
+            void Then_SharedArtifactsAreBuiltOnce() {
+                var orchestrator = new GraphAlgorithmOrchestrator(List.of(
+                        artifactReader("first"),
+                        artifactReader("second")
+                ), new GraphAlgorithmExecutors(0, 2), 60, 0);
+
+                var results = orchestrator.runConcurrently(GraphTestHelper.linearChain(3));
+
+                assertEquals(1, results.get("first"));
+                assertEquals(1, results.get("second"));
+                assertEquals(1, artifactBuilds.get());
+            }
+        }
+
+        @Nested
+        class When_AnAlgorithmExceedsItsTimeBudget {
+
+            @Test
+            void Then_AbortsItAndKeepsTheOthers() {
+                var sleeping = new GraphAlgorithm<Object>() {
+                    @Override
+                    public String name() { return "sleeping"; }
+                    @Override
+                    public Object execute(KnowledgeGraph graph) {
+                        try {
+                            Thread.sleep(30_000);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return "woke up";
+                    }
+                };
+                var orchestrator = new GraphAlgorithmOrchestrator(List.of(
+                        sleeping,
+                        new PageRankAlgorithm()
+                ), new GraphAlgorithmExecutors(0, 2), 1, 0);
+
+                var results = orchestrator.runConcurrently(GraphTestHelper.linearChain(3));
+
+                assertTrue(((Map<?, ?>) results.get("sleeping")).containsKey("error"));
+                assertInstanceOf(Map.class, results.get("pagerank"));
+                @SuppressWarnings("unchecked")
+                var timings = (Map<String, Map<String, Object>>) results.get(GraphAlgorithmOrchestrator.TIMINGS_KEY);
+                assertEquals("aborted", timings.get("sleeping").get("status"));
+                assertEquals("completed", timings.get("pagerank").get("status"));
+            }
+        }
+
+        @Nested
+        class When_AnAbortedAlgorithmKeepsComputing {
+
+            private final CountDownLatch stopped = new CountDownLatch(1);
+            private volatile Object sink;
+
+            /** Runs until aborted, allocating about 1 MB per step on the compute pool. */
+            private GraphAlgorithm<Object> endless(GraphAlgorithmExecutors executors) {
+                return new GraphAlgorithm<>() {
+                    @Override
+                    public String name() { return "endless"; }
+                    @Override
+                    public Object execute(KnowledgeGraph graph) { return execute(graph, null, AlgorithmContext.NONE); }
+                    @Override
+                    public Object execute(KnowledgeGraph graph, GraphArtifacts artifacts, AlgorithmContext context) {
+                        try {
+                            while (true) {
+                                context.checkpoint();
+                                executors.computePool().submit(() -> context.measure(() -> {
+                                    sink = new byte[1 << 20];
+                                    return sink;
+                                })).join();
+                            }
+                        } finally {
+                            stopped.countDown();
+                        }
+                    }
+                };
+            }
+
+            @Test
+            void Then_ItStopsAtItsNextCheckpointOnceOverTime() throws InterruptedException {
+                var executors = new GraphAlgorithmExecutors(2, 2);
+                var orchestrator = new GraphAlgorithmOrchestrator(List.of(endless(executors)), executors, 1, 0);
+
+                var results = orchestrator.runConcurrently(GraphTestHelper.linearChain(3));
+
+                assertTrue(((Map<?, ?>) results.get("endless")).containsKey("error"));
+                assertTrue(stopped.await(5, TimeUnit.SECONDS), "aborted algorithm is still running");
+                executors.shutdown();
+            }
+
+            @Test
+            void Then_TheAllocationBudgetCountsItsComputeWorkers() throws InterruptedException {
+                var executors = new GraphAlgorithmExecutors(2, 2);
+                var orchestrator = new GraphAlgorithmOrchestrator(List.of(endless(executors)), executors, 60, 16);
+
+                var results = orchestrator.runConcurrently(GraphTestHelper.linearChain(3));
+
+                @SuppressWarnings("unchecked")
+                var timing = ((Map<String, Map<String, Object>>) results.get(GraphAlgorithmOrchestrator.TIMINGS_KEY))
+                        .get("endless");
+                assertEquals("aborted", timing.get("status"));
+                assertTrue((Long) timing.get("allocatedBytes") > 16L << 20);
+                assertTrue(stopped.await(5, TimeUnit.SECONDS), "aborted algorithm is still running");
+                executors.shutdown();
+            }
+        }
+    }
 }
@@ -84,4 +84,26 @@ class ImpactAnalyzerTest {
             }
         }
     }
+
+    @Nested
+    class Given_CyclicGraph {
+
+        @Nested
+        class When_AnalyzingEveryNode {
+
+            @Test
+            void Then_MatchesSingleNodeAnalysis() {
+                var graph = GraphTestHelper.linearChain(4);
+                graph.addEdge(GraphTestHelper.callsEdge("n3", "n1"));
+
+                var result = analyzer.execute(graph);
+
+                assertEquals(4, result.size());
+                for (var id : graph.getNodes().keySet()) {
+                    assertEquals(analyzer.analyzeImpact(graph, id), result.get(id));
+                }
+                assertEquals(Set.of("n1", "n2", "n3"), result.get("n2"));
+            }
+        }
+    }
 }
@@ -2,7 +2,11 @@ package com.codevision.codevisionbackend.graph.algorithm;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import com.codevision.codevisionbackend.graph.KnowledgeGraphBuilder;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Random;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -83,4 +87,79 @@ class PageRankAlgorithmTest {
             }
         }
     }
+
+    @Nested
+    class Given_LargeRandomGraph {
+
+        private KnowledgeGraph randomGraph(int nodes, int edges) {
+            var builder = new KnowledgeGraphBuilder();
+            var random = new Random(11);
+            for (int i = 0; i < nodes; i++) {
+                builder.withNode(GraphTestHelper.classNode("n" + i, "N" + i));
+            }
+            for (int i = 0; i < edges; i++) {
+                builder.withEdge(GraphTestHelper.callsEdge("n" + random.nextInt(nodes), "n" + random.nextInt(nodes)));
+            }
+            return builder.buildFrozen();
+        }
+
+        @Nested
+        class When_ComputingInParallel {
+
+            @Test
+            void Then_MatchesTheSequentialResult() {
+                var graph = randomGraph(20_000, PageRankAlgorithm.PARALLEL_EDGE_THRESHOLD + 20_000);
+                var sequential = algorithm.execute(graph);
+                var parallel = new PageRankAlgorithm(4).execute(graph);
+
+                assertEquals(sequential.keySet(), parallel.keySet());
+                sequential.forEach((id, rank) -> assertEquals(rank, parallel.get(id), 1e-12));
+            }
+        }
+
+        @Nested
+        class When_WarmStartingFromPreviousRanks {
+
+            @Test
+            void Then_ConvergesToTheSameRanksInFewerIterations() {
+                var compact = randomGraph(2_000, 10_000).compact();
+                var uniform = new double[compact.nodeCount()];
+                Arrays.fill(uniform, 1.0 / compact.nodeCount());
+
+                var cold = algorithm.run(compact, uniform);
+                var warm = algorithm.run(compact, cold.ranks().clone());
+
+                assertTrue(warm.iterations() < cold.iterations(),
+                        "warm " + warm.iterations() + " vs cold " + cold.iterations());
+                for (int v = 0; v < compact.nodeCount(); v++) {
+                    assertEquals(cold.ranks()[v], warm.ranks()[v], 1e-5);
+                }
+            }
+
+            @Test
+            void Then_NodesWithoutPreviousScoresAreSeededUniformly() {
+                var graph = GraphTestHelper.starGraph(4);
+                var expected = algorithm.execute(graph);
+
+                var warm = algorithm.execute(graph, Map.of("center", 0.5, "unknown", 3.0));
+
+                expected.forEach((id, rank) -> assertEquals(rank, warm.get(id), 1e-5));
+            }
+
+            @Test
+            void Then_OrchestratedRunsStartFromThePreviousResult() {
+                var graph = randomGraph(500, 2_000);
+                var cold = algorithm.execute(graph);
+
+                var warm = algorithm.execute(graph, new GraphArtifacts(graph), AlgorithmContext.warmStart(cold));
+                var ignored = algorithm.execute(graph, new GraphArtifacts(graph),
+                        AlgorithmContext.warmStart(Map.of("error", "time budget exceeded")));
+
+                cold.forEach((id, rank) -> {
+                    assertEquals(rank, warm.get(id), 1e-5);
+                    assertEquals(rank, ignored.get(id), 1e-9);
+                });
+            }
+        }
+    }
 }
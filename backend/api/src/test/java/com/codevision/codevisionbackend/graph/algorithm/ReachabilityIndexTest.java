@@ -0,0 +1,131 @@
+package com.codevision.codevisionbackend.graph.algorithm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ReachabilityIndexTest {
+
+    private static ReachabilityIndex index(KnowledgeGraph graph, long maxWords) {
+        var compact = graph.compact();
+        return ReachabilityIndex.of(compact, TarjanSccAlgorithm.components(compact), maxWords);
+    }
+
+    /** A cycle a -> b -> c -> a entered from d, and leaving through c -> e. */
+    private static KnowledgeGraph cycleWithTail() {
+        var graph = new KnowledgeGraph();
+        for (var id : new String[] {"a", "b", "c", "d", "e"}) {
+            graph.addNode(GraphTestHelper.classNode(id, id.toUpperCase()));
+        }
+        graph.addEdge(GraphTestHelper.callsEdge("a", "b"));
+        graph.addEdge(GraphTestHelper.callsEdge("b", "c"));
+        graph.addEdge(GraphTestHelper.callsEdge("c", "a"));
+        graph.addEdge(GraphTestHelper.callsEdge("d", "a"));
+        graph.addEdge(GraphTestHelper.callsEdge("c", "e"));
+        return graph;
+    }
+
+    private static KnowledgeGraph randomGraph(int nodes, int edges, long seed) {
+        var random = new Random(seed);
+        var graph = new KnowledgeGraph();
+        for (int i = 0; i < nodes; i++) {
+            graph.addNode(GraphTestHelper.classNode("n" + i, "N" + i));
+        }
+        for (int i = 0; i < edges; i++) {
+            graph.addEdge(GraphTestHelper.callsEdge("n" + random.nextInt(nodes), "n" + random.nextInt(nodes)));
+        }
+        return graph;
+    }
+
+    @Nested
+    class Given_CycleWithTail {
+
+        private final ReachabilityIndex index = index(cycleWithTail(), ReachabilityIndex.DEFAULT_MAX_WORDS);
+
+        @Nested
+        class When_Querying {
+
+            @Test
+            void Then_CondensesTheCycle() {
+                assertEquals(3, index.componentCount());
+            }
+
+            @Test
+            void Then_AnswersMembershipAcrossTheCycle() {
+                assertTrue(index.reaches("b", "a"));
+                assertTrue(index.reaches("d", "e"));
+                assertFalse(index.reaches("a", "d"));
+                assertFalse(index.reaches("e", "c"));
+                assertFalse(index.reaches("a", "unknown"));
+            }
+
+            @Test
+            void Then_ReportsImpactSizeAndDepth() {
+                assertEquals(5, index.impactSize("d"));
+                assertEquals(4, index.impactSize("a"));
+                assertEquals(1, index.impactSize("e"));
+                assertEquals(2, index.depth("d"));
+                assertEquals(1, index.depth("b"));
+                assertEquals(0, index.depth("e"));
+            }
+
+            @Test
+            void Then_ReachableSetListsTheNodes() {
+                assertEquals(Set.of("a", "b", "c", "e"), new HashSet<>(index.reachableFrom("c")));
+                assertEquals(Set.of(), index.reachableFrom("unknown"));
+            }
+        }
+    }
+
+    @Nested
+    class Given_MemoryCap {
+
+        @Nested
+        class When_ClosuresAreNotStored {
+
+            @Test
+            void Then_AnswersMatchTheFullIndex() {
+                var graph = randomGraph(300, 450, 7L);
+                var full = index(graph, ReachabilityIndex.DEFAULT_MAX_WORDS);
+                var capped = index(graph, 10);
+
+                for (var from : graph.getNodes().keySet()) {
+                    assertEquals(full.impactSize(from), capped.impactSize(from));
+                    assertEquals(full.depth(from), capped.depth(from));
+                    assertEquals(new HashSet<>(full.reachableFrom(from)), new HashSet<>(capped.reachableFrom(from)));
+                    for (int i = 0; i < 300; i += 37) {
+                        assertEquals(full.reaches(from, "n" + i), capped.reaches(from, "n" + i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Given_RandomGraph {
+
+        @Nested
+        class When_ComparedWithBfs {
+
+            @Test
+            void Then_ClosuresAreIdentical() {
+                var graph = randomGraph(200, 400, 11L);
+                var index = index(graph, ReachabilityIndex.DEFAULT_MAX_WORDS);
+                var analyzer = new ImpactAnalyzer();
+
+                for (var id : graph.getNodes().keySet()) {
+                    var expected = analyzer.analyzeImpact(graph, id);
+                    var actual = index.reachableFrom(id);
+                    assertEquals(expected.size(), actual.size());
+                    assertEquals(expected, new HashSet<>(actual));
+                    assertTrue(actual.containsAll(expected));
+                }
+            }
+        }
+    }
+}
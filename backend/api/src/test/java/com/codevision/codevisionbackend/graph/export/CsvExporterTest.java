@@ -87,4 +87,29 @@ class CsvExporterTest {
             }
         }
     }
+
+    @Nested
+    class Given_OutputStream {
+
+        @Nested
+        class When_Streaming {
+
+            @Test
+            void Then_MatchesByteExportAndLeavesStreamOpen() throws Exception {
+                var graph = buildTestGraph();
+                var closed = new java.util.concurrent.atomic.AtomicBoolean();
+                var out = new java.io.ByteArrayOutputStream() {
+                    @Override
+                    public void close() {
+                        closed.set(true);
+                    }
+                };
+
+                exporter.export(graph, out);
+
+                assertThat(out.toByteArray()).isEqualTo(exporter.export(graph));
+                assertThat(closed).isFalse();
+            }
+        }
+    }
 }
@@ -81,4 +81,43 @@ class JsonExporterTest {
             }
         }
     }
+
+    @Nested
+    class Given_OutputStream {
+
+        @Nested
+        class When_Streaming {
+
+            @Test
+            void Then_WritesTheSameDocumentAsMapSerialization() throws Exception {
+                var graph = buildTestGraph();
+                var out = new java.io.ByteArrayOutputStream();
+
+                exporter.export(graph, out);
+
+                var nodes = graph.getNodes().values().stream().map(node -> {
+                    var map = new java.util.LinkedHashMap<String, Object>();
+                    map.put("id", node.id());
+                    map.put("type", node.type().name());
+                    map.put("name", node.name());
+                    map.put("qualifiedName", node.qualifiedName());
+                    return map;
+                }).toList();
+                var edge = new java.util.LinkedHashMap<String, Object>();
+                edge.put("id", "e1");
+                edge.put("type", "DECLARES");
+                edge.put("source", "c1");
+                edge.put("target", "m1");
+                edge.put("label", "declares");
+                var document = new java.util.LinkedHashMap<String, Object>();
+                document.put("nodes", nodes);
+                document.put("edges", List.of(edge));
+                var expected = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsBytes(document);
+
+                assertThat(out.toByteArray()).isEqualTo(expected);
+                assertThat(exporter.export(graph)).isEqualTo(expected);
+                assertThat(exporter.supportsStreaming()).isTrue();
+            }
+        }
+    }
 }
@@ -0,0 +1,184 @@
+package com.codevision.codevisionbackend.graph.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codevision.codevisionbackend.graph.KnowledgeGraph;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@DisplayName("KnowledgeGraphCache")
+@ExtendWith(MockitoExtension.class)
+class KnowledgeGraphCacheTest {
+
+    @Mock
+    private KnowledgeGraphQueryService queryService;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private KnowledgeGraphCache cache(int maxProjects, Duration ttl) {
+        return new KnowledgeGraphCache(queryService, maxProjects, ttl, clock::get);
+    }
+
+    @Nested
+    class Given_CachedProject {
+
+        @Nested
+        class When_RequestedAgain {
+
+            @Test
+            void Then_ReturnsTheSameHandleWithoutReloading() {
+                when(queryService.loadGraph(1L)).thenAnswer(invocation -> new KnowledgeGraph().freeze());
+                var cache = cache(4, Duration.ofMinutes(10));
+
+                var first = cache.get(1L);
+                var second = cache.get(1L);
+
+                assertThat(second).isSameAs(first);
+                verify(queryService, times(1)).loadGraph(1L);
+            }
+
+            @Test
+            void Then_MemoizesResultsOnTheHandle() {
+                when(queryService.loadGraph(1L)).thenAnswer(invocation -> new KnowledgeGraph().freeze());
+                var cache = cache(4, Duration.ofMinutes(10));
+                var computations = new AtomicInteger();
+
+                cache.get(1L).memoize("metrics", computations::incrementAndGet);
+                var result = cache.get(1L).memoize("metrics", computations::incrementAndGet);
+
+                assertThat(result).isEqualTo(1);
+                assertThat(computations).hasValue(1);
+            }
+        }
+
+        @Nested
+        class When_EvictedOrExpired {
+
+            @Test
+            void Then_ReloadsWithANewGeneration() {
+                when(queryService.loadGraph(1L)).thenAnswer(invocation -> new KnowledgeGraph().freeze());
+                var cache = cache(4, Duration.ofSeconds(60));
+
+                var first = cache.get(1L);
+                cache.evict(1L);
+                var reloaded = cache.get(1L);
+                clock.addAndGet(Duration.ofSeconds(61).toNanos());
+                var expired = cache.get(1L);
+
+                assertThat(reloaded.generation()).isGreaterThan(first.generation());
+                assertThat(expired.generation()).isGreaterThan(reloaded.generation());
+                verify(queryService, times(3)).loadGraph(1L);
+            }
+
+            @Test
+            void Then_TheNextHandleStartsFromThePreviousAlgorithmResults() {
+                when(queryService.loadGraph(1L)).thenAnswer(invocation -> new KnowledgeGraph().freeze());
+                var cache = cache(4, Duration.ofSeconds(60));
+                Map<String, Object> ranks = Map.of("pagerank", Map.of("a", 1.0));
+
+                var first = cache.get(1L);
+                first.memoize(GraphHandle.ALGORITHMS_KEY, () -> ranks);
+                cache.evict(1L);
+                var reloaded = cache.get(1L);
+                clock.addAndGet(Duration.ofSeconds(61).toNanos());
+                var expired = cache.get(1L);
+
+                assertThat(first.previousAlgorithmResults()).isEmpty();
+                assertThat(reloaded.previousAlgorithmResults()).isEqualTo(ranks);
+                assertThat(expired.previousAlgorithmResults())
+                        .as("reloaded never computed results of its own")
+                        .isEmpty();
+            }
+        }
+    }
+
+    @Nested
+    class Given_MoreProjectsThanCapacity {
+
+        @Nested
+        class When_Loading {
+
+            @Test
+            void Then_EvictsTheLeastRecentlyUsed() {
+                when(queryService.loadGraph(anyLong())).thenAnswer(invocation -> new KnowledgeGraph().freeze());
+                var cache = cache(2, Duration.ZERO);
+
+                var one = cache.get(1L);
+                cache.get(2L);
+                cache.get(1L);
+                cache.get(3L);
+
+                assertThat(cache.get(1L)).isSameAs(one);
+                cache.get(2L);
+                verify(queryService, times(2)).loadGraph(2L);
+            }
+        }
+    }
+
+    @Nested
+    class Given_ConcurrentRequests {
+
+        @Nested
+        class When_ProjectIsNotCached {
+
+            @Test
+            void Then_LoadsItOnce() throws Exception {
+                var loading = new CountDownLatch(1);
+                when(queryService.loadGraph(1L)).thenAnswer(invocation -> {
+                    loading.await(5, TimeUnit.SECONDS);
+                    return new KnowledgeGraph().freeze();
+                });
+                var cache = cache(4, Duration.ZERO);
+                var executor = Executors.newFixedThreadPool(4);
+                try {
+                    var futures = java.util.stream.IntStream.range(0, 4)
+                            .mapToObj(i -> executor.submit(() -> cache.get(1L)))
+                            .toList();
+                    loading.countDown();
+                    var first = futures.get(0).get(5, TimeUnit.SECONDS);
+                    for (var future : futures) {
+                        assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(first);
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+                verify(queryService, times(1)).loadGraph(1L);
+            }
+        }
+    }
+
+    @Nested
+    class Given_FailingLoad {
+
+        @Nested
+        class When_RequestedAgain {
+
+            @Test
+            void Then_RetriesTheLoad() {
+                when(queryService.loadGraph(1L))
+                        .thenThrow(new IllegalStateException("database unavailable"))
+                        .thenAnswer(invocation -> new KnowledgeGraph().freeze());
+                var cache = cache(4, Duration.ZERO);
+
+                assertThatThrownBy(() -> cache.get(1L)).hasMessage("database unavailable");
+                assertThat(cache.get(1L).graph().isFrozen()).isTrue();
+            }
+        }
+    }
+}
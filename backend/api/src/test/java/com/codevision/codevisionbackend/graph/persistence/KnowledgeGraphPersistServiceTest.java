@@ -1,6 +1,7 @@
 package com.codevision.codevisionbackend.graph.persistence;
 
 import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -9,7 +10,15 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -20,8 +29,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 import com.codevision.codevisionbackend.graph.ConfidenceLevel;
 import com.codevision.codevisionbackend.graph.KgEdge;
@@ -158,4 +172,167 @@ class KnowledgeGraphPersistServiceTest {
             }
         }
     }
+
+    @Nested
+    @DisplayName("Given a PostgreSQL connection")
+    class Given_PostgresConnection {
+
+        @Mock
+        private Connection connection;
+
+        @Mock
+        private PGConnection pgConnection;
+
+        @Mock
+        private CopyManager copyManager;
+
+        @Mock
+        private CopyIn copyIn;
+
+        @Nested
+        @DisplayName("When persisting")
+        class When_Persisting {
+
+            @Test
+            @DisplayName("Then rows are streamed with COPY instead of batch inserts")
+            @SuppressWarnings("unchecked")
+            void Then_RowsAreStreamedWithCopy() throws Exception {
+                when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                        invocation.getArgument(0, ConnectionCallback.class).doInConnection(connection));
+                when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+                when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+                when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+                when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+                var graph = new KnowledgeGraph();
+                graph.addNode(classNode("n1", "ClassA"));
+                graph.addEdge(edge("e1", KgEdgeType.CALLS, "n1", "n1"));
+
+                persistService.persist(1L, graph);
+
+                verify(copyManager).copyIn(org.mockito.ArgumentMatchers.startsWith("COPY kg_node"));
+                verify(copyManager).copyIn(org.mockito.ArgumentMatchers.startsWith("COPY kg_edge"));
+                verify(jdbcTemplate, never()).batchUpdate(
+                        anyString(), any(java.util.Collection.class), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Given a non-PostgreSQL connection")
+    class Given_NonPostgresConnection {
+
+        @Mock
+        private Connection connection;
+
+        @Nested
+        @DisplayName("When persisting")
+        class When_Persisting {
+
+            @Test
+            @DisplayName("Then batch inserts are used")
+            @SuppressWarnings("unchecked")
+            void Then_BatchInsertsAreUsed() throws Exception {
+                when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                        invocation.getArgument(0, ConnectionCallback.class).doInConnection(connection));
+                when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+                var graph = new KnowledgeGraph();
+                graph.addNode(classNode("n1", "ClassA"));
+
+                persistService.persist(1L, graph);
+
+                verify(jdbcTemplate, atLeastOnce()).batchUpdate(
+                        anyString(), any(java.util.Collection.class), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Given differential mode")
+    class Given_DifferentialMode {
+
+        private final Map<String, Map<String, String>> storedHashes = new HashMap<>();
+        private final Map<String, List<Object>> batches = new HashMap<>();
+        private KnowledgeGraphPersistService differentialService;
+
+        @BeforeEach
+        @SuppressWarnings("unchecked")
+        void setUp() throws Exception {
+            differentialService = new KnowledgeGraphPersistService(jdbcTemplate, new ObjectMapper(), 500, false, true);
+            org.mockito.Mockito.lenient().doAnswer(invocation -> {
+                String sql = invocation.getArgument(0);
+                RowCallbackHandler handler = invocation.getArgument(1);
+                String table = sql.contains("kg_node") ? "kg_node" : "kg_edge";
+                for (Map.Entry<String, String> stored : storedHashes.getOrDefault(table, Map.of()).entrySet()) {
+                    ResultSet rs = org.mockito.Mockito.mock(ResultSet.class);
+                    when(rs.getString(1)).thenReturn(stored.getKey());
+                    when(rs.getString(2)).thenReturn(stored.getValue());
+                    handler.processRow(rs);
+                }
+                return null;
+            }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(1L));
+            org.mockito.Mockito.lenient().doAnswer(invocation -> {
+                batches.computeIfAbsent(invocation.getArgument(0), sql -> new ArrayList<>())
+                        .addAll(invocation.getArgument(1, Collection.class));
+                return new int[0][];
+            }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class));
+        }
+
+        private List<Object> batch(String sqlPrefix) {
+            return batches.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(sqlPrefix))
+                    .flatMap(entry -> entry.getValue().stream())
+                    .toList();
+        }
+
+        @Test
+        @DisplayName("Then only new, changed and removed rows are written")
+        void Then_OnlyChangesAreWritten() {
+            storedHashes.put("kg_node", Map.of("n1", "stale", "n2", "gone"));
+            var graph = new KnowledgeGraph();
+            graph.addNode(classNode("n1", "ClassA"));
+            graph.addNode(classNode("n3", "ClassC"));
+
+            var summary = differentialService.persistChanges(1L, graph);
+
+            assertThat(summary.nodesInserted()).isEqualTo(1);
+            assertThat(summary.nodesUpdated()).isEqualTo(1);
+            assertThat(summary.nodesDeleted()).isEqualTo(1);
+            assertThat(batch("INSERT INTO kg_node")).hasSize(1);
+            assertThat(batch("UPDATE kg_node")).hasSize(1);
+            assertThat(batch("DELETE FROM kg_node")).containsExactly("n2");
+            verify(jdbcTemplate, never()).update(anyString(), eq(1L));
+        }
+
+        @Test
+        @DisplayName("Then an unchanged graph writes nothing")
+        @SuppressWarnings("unchecked")
+        void Then_UnchangedGraphWritesNothing() throws Exception {
+            var graph = new KnowledgeGraph();
+            graph.addNode(classNode("n1", "ClassA"));
+            graph.addEdge(edge("e1", KgEdgeType.CALLS, "n1", "n1"));
+
+            differentialService.persistChanges(1L, graph);
+            var setter = org.mockito.ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+            verify(jdbcTemplate).batchUpdate(
+                    org.mockito.ArgumentMatchers.startsWith("INSERT INTO kg_node"), any(Collection.class), anyInt(),
+                    setter.capture());
+            PreparedStatement ps = org.mockito.Mockito.mock(PreparedStatement.class);
+            setter.getValue().setValues(ps, batch("INSERT INTO kg_node").get(0));
+            var hash = org.mockito.ArgumentCaptor.forClass(String.class);
+            verify(ps).setString(eq(11), hash.capture());
+            storedHashes.put("kg_node", Map.of("n1", hash.getValue()));
+            batches.clear();
+
+            var unchanged = new KnowledgeGraph();
+            unchanged.addNode(classNode("n1", "ClassA"));
+            var summary = differentialService.persistChanges(1L, unchanged);
+
+            assertThat(summary.nodesInserted() + summary.nodesUpdated() + summary.nodesDeleted()).isZero();
+            assertThat(batch("INSERT INTO kg_node")).isEmpty();
+            assertThat(batch("UPDATE kg_node")).isEmpty();
+        }
+    }
 }
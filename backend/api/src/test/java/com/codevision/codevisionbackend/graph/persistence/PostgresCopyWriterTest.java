@@ -0,0 +1,81 @@
+package com.codevision.codevisionbackend.graph.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+@DisplayName("PostgresCopyWriter")
+@ExtendWith(MockitoExtension.class)
+class PostgresCopyWriterTest {
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    @Nested
+    @DisplayName("Given values with quotes, commas and nulls")
+    class Given_SpecialValues {
+
+        @Test
+        @DisplayName("Then rows are encoded as quoted CSV with unquoted nulls")
+        void Then_RowsAreEncodedAsCsv() {
+            StringBuilder buffer = new StringBuilder();
+
+            PostgresCopyWriter.appendRow(buffer, new String[] {"a,b", null, "say \"hi\"", ""});
+
+            assertThat(buffer).hasToString("\"a,b\",,\"say \"\"hi\"\"\",\"\"\n");
+        }
+    }
+
+    @Nested
+    @DisplayName("Given rows to copy")
+    class Given_Rows {
+
+        @Test
+        @DisplayName("Then rows are written to the copy stream and the copy is ended")
+        void Then_RowsAreWrittenAndCopyEnded() throws Exception {
+            when(copyManager.copyIn("COPY t FROM STDIN WITH (FORMAT csv)")).thenReturn(copyIn);
+            when(copyIn.endCopy()).thenReturn(2L);
+
+            long copied = new PostgresCopyWriter(copyManager).copy(
+                    "COPY t FROM STDIN WITH (FORMAT csv)",
+                    List.of("x", "y"),
+                    value -> new String[] {value, "1"});
+
+            ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+            verify(copyIn).writeToCopy(bytes.capture(), eq(0), anyInt());
+            assertThat(new String(bytes.getValue(), StandardCharsets.UTF_8))
+                    .isEqualTo("\"x\",\"1\"\n\"y\",\"1\"\n");
+            assertThat(copied).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("Then an empty collection opens no copy")
+        void Then_EmptyCollectionOpensNoCopy() throws Exception {
+            long copied = new PostgresCopyWriter(copyManager).copy("COPY t FROM STDIN", List.<String>of(),
+                    value -> new String[] {value});
+
+            assertThat(copied).isZero();
+            verify(copyManager, never()).copyIn(any(String.class));
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.codevision.codevisionbackend.graph.*;
 import com.codevision.codevisionbackend.graph.export.ExportException;
 import com.codevision.codevisionbackend.graph.export.GraphExportService;
 import com.codevision.codevisionbackend.graph.export.GraphExporter;
+import com.codevision.codevisionbackend.graph.persistence.GraphHandle;
+import com.codevision.codevisionbackend.graph.persistence.KnowledgeGraphCache;
 import com.codevision.codevisionbackend.config.SecurityProperties;
 import com.codevision.codevisionbackend.security.ApiKeyFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,12 +19,19 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,6 +53,9 @@ class GraphExportControllerTest {
     @MockBean
     private GraphExportService exportService;
 
+    @MockBean
+    private KnowledgeGraphCache graphCache;
+
     @Nested
     class Given_SupportedFormat {
 
@@ -60,10 +72,14 @@ class GraphExportControllerTest {
 
                 var graphJson = objectMapper.writeValueAsString(new KnowledgeGraph());
 
-                mockMvc.perform(post("/api/v1/graph/export/json")
+                var started = mockMvc.perform(post("/api/v1/graph/export/json")
                                 .header("X-API-KEY", API_KEY)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(graphJson))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+                mockMvc.perform(asyncDispatch(started))
                         .andExpect(status().isOk())
                         .andExpect(content().contentType("application/json"))
                         .andExpect(header().string("Content-Disposition",
@@ -89,16 +105,143 @@ class GraphExportControllerTest {
 
                 var graphJson = objectMapper.writeValueAsString(new KnowledgeGraph());
 
-                mockMvc.perform(post("/api/v1/graph/export/csv")
+                var started = mockMvc.perform(post("/api/v1/graph/export/csv")
                                 .header("X-API-KEY", API_KEY)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(graphJson))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+                mockMvc.perform(asyncDispatch(started))
                         .andExpect(status().isOk())
                         .andExpect(content().contentType("text/csv"));
             }
         }
     }
 
+    @Nested
+    class Given_StreamingExporter {
+
+        private GraphExporter streamingExporter() throws Exception {
+            var exporter = mock(GraphExporter.class);
+            when(exporter.supportsStreaming()).thenReturn(true);
+            when(exporter.contentType()).thenReturn("text/csv");
+            when(exporter.fileExtension()).thenReturn(".csv");
+            doAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(1);
+                out.write("id,name\n".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(exporter).export(any(KnowledgeGraph.class), any(OutputStream.class));
+            when(exportService.getExporter("csv")).thenReturn(Optional.of(exporter));
+            return exporter;
+        }
+
+        @Nested
+        class When_ClientDoesNotAcceptGzip {
+
+            @Test
+            void Then_StreamsPlainContent() throws Exception {
+                streamingExporter();
+                var graphJson = objectMapper.writeValueAsString(new KnowledgeGraph());
+
+                var started = mockMvc.perform(post("/api/v1/graph/export/csv")
+                                .header("X-API-KEY", API_KEY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(graphJson))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+                mockMvc.perform(asyncDispatch(started))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType("text/csv"))
+                        .andExpect(header().doesNotExist("Content-Encoding"))
+                        .andExpect(header().string("Vary", "Accept-Encoding"))
+                        .andExpect(content().string("id,name\n"));
+            }
+        }
+
+        @Nested
+        class When_ClientAcceptsGzip {
+
+            @Test
+            void Then_StreamsGzipContent() throws Exception {
+                streamingExporter();
+                var graphJson = objectMapper.writeValueAsString(new KnowledgeGraph());
+
+                var started = mockMvc.perform(post("/api/v1/graph/export/csv")
+                                .header("X-API-KEY", API_KEY)
+                                .header("Accept-Encoding", "br;q=1.0, gzip;q=0.8")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(graphJson))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+                var result = mockMvc.perform(asyncDispatch(started))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Encoding", "gzip"))
+                        .andReturn();
+
+                var compressed = result.getResponse().getContentAsByteArray();
+                try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                    assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,name\n");
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Given_StoredProjectGraph {
+
+        @Nested
+        class When_ExportingByProject {
+
+            @Test
+            void Then_ExportsTheCachedGraphWithoutARequestBody() throws Exception {
+                var graph = new KnowledgeGraph().freeze();
+                when(graphCache.get(7L)).thenReturn(new GraphHandle(7L, 1, graph));
+                var exporter = mock(GraphExporter.class);
+                when(exporter.export(graph)).thenReturn("{\"nodes\":[]}".getBytes());
+                when(exporter.contentType()).thenReturn("application/json");
+                when(exporter.fileExtension()).thenReturn(".json");
+                when(exportService.getExporter("json")).thenReturn(Optional.of(exporter));
+
+                var started = mockMvc.perform(get("/api/v1/graph/export/projects/7/json"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+                mockMvc.perform(asyncDispatch(started))
+                        .andExpect(status().isOk())
+                        .andExpect(content().string("{\"nodes\":[]}"));
+            }
+
+            @Test
+            void Then_RejectsUnknownFormatBeforeLoading() throws Exception {
+                when(exportService.getExporter("unknown")).thenReturn(Optional.empty());
+
+                mockMvc.perform(get("/api/v1/graph/export/projects/7/unknown"))
+                        .andExpect(status().isBadRequest());
+                org.mockito.Mockito.verifyNoInteractions(graphCache);
+            }
+        }
+    }
+
+    @Nested
+    class Given_AcceptEncodingHeader {
+
+        @Nested
+        class When_Negotiating {
+
+            @Test
+            void Then_HonoursGzipAndQualityZero() {
+                assertThat(GraphExportController.acceptsGzip("gzip, deflate")).isTrue();
+                assertThat(GraphExportController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+                assertThat(GraphExportController.acceptsGzip("gzip;q=0")).isFalse();
+                assertThat(GraphExportController.acceptsGzip("identity")).isFalse();
+                assertThat(GraphExportController.acceptsGzip(null)).isFalse();
+            }
+        }
+    }
+
     @Nested
     class Given_UnsupportedFormat {
 
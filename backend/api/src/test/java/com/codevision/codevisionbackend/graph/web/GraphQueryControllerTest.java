@@ -2,9 +2,12 @@ package com.codevision.codevisionbackend.graph.web;
 
 import com.codevision.codevisionbackend.graph.*;
 import com.codevision.codevisionbackend.graph.algorithm.CommunityDetectionAlgorithm;
+import com.codevision.codevisionbackend.graph.algorithm.GraphAlgorithm;
 import com.codevision.codevisionbackend.graph.algorithm.GraphAlgorithmOrchestrator;
 import com.codevision.codevisionbackend.graph.algorithm.ImpactAnalyzer;
 import com.codevision.codevisionbackend.graph.algorithm.PageRankAlgorithm;
+import com.codevision.codevisionbackend.graph.persistence.KnowledgeGraphCache;
+import com.codevision.codevisionbackend.graph.persistence.KnowledgeGraphQueryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,14 +16,20 @@ import org.springframework.http.HttpStatus;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class GraphQueryControllerTest {
 
     private GraphQueryController controller;
     private GraphAlgorithmOrchestrator orchestrator;
+    private KnowledgeGraphQueryService queryService;
 
     @BeforeEach
     void setUp() {
@@ -29,7 +38,8 @@ class GraphQueryControllerTest {
                 new CommunityDetectionAlgorithm(),
                 new ImpactAnalyzer()
         ));
-        controller = new GraphQueryController(orchestrator);
+        queryService = mock(KnowledgeGraphQueryService.class);
+        controller = new GraphQueryController(orchestrator, new KnowledgeGraphCache(queryService, 4, 600));
     }
 
     private KnowledgeGraph buildSampleGraph() {
@@ -344,7 +354,7 @@ class GraphQueryControllerTest {
             @Test
             void Then_ReturnsEmptyCommunities() {
                 var emptyOrchestrator = new GraphAlgorithmOrchestrator(List.of());
-                var ctrl = new GraphQueryController(emptyOrchestrator);
+                var ctrl = new GraphQueryController(emptyOrchestrator, new KnowledgeGraphCache(queryService, 4, 600));
                 var graph = buildSampleGraph();
 
                 var response = ctrl.getCommunities(graph);
@@ -354,4 +364,79 @@ class GraphQueryControllerTest {
             }
         }
     }
+
+    @Nested
+    class Given_StoredProjectGraph {
+
+        @BeforeEach
+        void storeGraph() {
+            when(queryService.loadGraph(7L)).thenAnswer(invocation -> buildSampleGraph().freeze());
+        }
+
+        @Nested
+        class When_QueryingRepeatedly {
+
+            @Test
+            void Then_LoadsOnceAndMemoizesMetrics() {
+                var first = controller.getProjectMetrics(7L).getBody();
+                var second = controller.getProjectMetrics(7L).getBody();
+                var communities = controller.getProjectCommunities(7L).getBody();
+
+                assertNotNull(first);
+                assertSame(first, second);
+                assertEquals(4, first.get("nodeCount"));
+                assertTrue(communities.containsKey("communities"));
+                verify(queryService, times(1)).loadGraph(7L);
+            }
+        }
+
+        @Nested
+        class When_AnAlgorithmFails {
+
+            @Test
+            void Then_MetricsAreRecomputedOnTheNextRequest() {
+                var attempts = new AtomicInteger();
+                var flaky = new GraphAlgorithm<Object>() {
+                    @Override
+                    public String name() { return "flaky"; }
+                    @Override
+                    public Object execute(KnowledgeGraph graph) {
+                        if (attempts.incrementAndGet() == 1) {
+                            throw new IllegalStateException("first attempt fails");
+                        }
+                        return "ok";
+                    }
+                };
+                var ctrl = new GraphQueryController(new GraphAlgorithmOrchestrator(List.of(flaky)),
+                        new KnowledgeGraphCache(queryService, 4, 600));
+
+                var failed = ctrl.getProjectMetrics(7L).getBody();
+                var retried = ctrl.getProjectMetrics(7L).getBody();
+                var memoized = ctrl.getProjectMetrics(7L).getBody();
+
+                assertNotSame(failed, retried);
+                assertEquals("ok", ((Map<?, ?>) retried.get("algorithms")).get("flaky"));
+                assertSame(retried, memoized);
+                assertEquals(2, attempts.get());
+            }
+        }
+
+        @Nested
+        class When_Traversing {
+
+            @Test
+            void Then_AnswersFromTheCachedGraph() {
+                var path = controller.getProjectShortestPath(7L, "ep1", "db1").getBody();
+                var deps = controller.getProjectTransitiveDeps(7L, "cls1").getBody();
+                var subgraph = controller.getProjectSubgraph(7L, Set.of("db1")).getBody();
+                var full = controller.getProjectGraph(7L).getBody();
+
+                assertEquals(List.of("ep1", "cls1", "cls2", "db1"), path.get("path"));
+                assertEquals(List.of("cls2", "db1"), deps.get("dependencies"));
+                assertEquals(4, ((List<?>) subgraph.get("nodes")).size());
+                assertEquals(3, ((List<?>) full.get("edges")).size());
+                verify(queryService, times(1)).loadGraph(7L);
+            }
+        }
+    }
 }
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.when;
 
 import com.codevision.codevisionbackend.analysis.CompiledAnalysisService;
 import com.codevision.codevisionbackend.analysis.ExportedFile;
+import com.codevision.codevisionbackend.analysis.PersistService;
 import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityRepository;
 import com.codevision.codevisionbackend.analysis.persistence.CompiledAnalysisRun;
 import com.codevision.codevisionbackend.analysis.persistence.CompiledAnalysisRunRepository;
@@ -132,9 +133,11 @@ class AnalysisPipelineIT extends AbstractPostgresIntegrationTest {
                 .extracting(ExportedFile::name)
                 .contains("analysis.json", "entities.csv", "endpoints.csv", "dependencies.csv");
 
-        assertThat(analysisEntityRepository.findByClassName("com.codevision.fixtures.domain.FixtureEntity"))
+        assertThat(analysisEntityRepository.findByProjectKeyAndClassName(
+                        PersistService.projectKey(run.getProjectId(), run.getRepoPath()),
+                        "com.codevision.fixtures.domain.FixtureEntity"))
                 .as("compiled entity persisted")
-                .isNotNull();
+                .isPresent();
         assertThat(sequenceRecordRepository.findAll())
                 .extracting(SequenceRecord::getGeneratorName)
                 .contains("fixture_seq");
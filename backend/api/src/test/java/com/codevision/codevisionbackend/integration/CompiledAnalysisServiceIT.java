@@ -6,6 +6,7 @@ import com.codevision.codevisionbackend.analysis.CompiledAnalysisResult;
 import com.codevision.codevisionbackend.analysis.CompiledAnalysisService;
 import com.codevision.codevisionbackend.analysis.CompiledAnalysisService.CompiledAnalysisParameters;
 import com.codevision.codevisionbackend.analysis.ExportedFile;
+import com.codevision.codevisionbackend.analysis.PersistService;
 import com.codevision.codevisionbackend.analysis.persistence.AnalysisEntityRepository;
 import com.codevision.codevisionbackend.analysis.persistence.CompiledAnalysisRunRepository;
 import com.codevision.codevisionbackend.analysis.persistence.CompiledAnalysisRunStatus;
@@ -50,8 +51,10 @@ class CompiledAnalysisServiceIT extends AbstractPostgresIntegrationTest {
         assertThat(result.run().getStatus()).isEqualTo(CompiledAnalysisRunStatus.SUCCEEDED);
         assertThat(compiledAnalysisRunRepository.findById(result.run().getId())).isPresent();
 
-        assertThat(analysisEntityRepository.findByClassName("com.codevision.fixtures.domain.FixtureEntity"))
-                .isNotNull();
+        assertThat(analysisEntityRepository.findByProjectKeyAndClassName(
+                        PersistService.projectKey(result.run().getProjectId(), result.run().getRepoPath()),
+                        "com.codevision.fixtures.domain.FixtureEntity"))
+                .isPresent();
         assertThat(sequenceRecordRepository.findAll())
                 .extracting(SequenceRecord::getGeneratorName)
                 .contains("fixture_seq");
@@ -140,7 +140,7 @@ class ProjectOverviewControllerTest {
         private Optional<ParsedDataResponse> snapshot = Optional.empty();
 
         StubProjectSnapshotService() {
-            super(null, null, null, null, null, new ObjectMapper());
+            super(null, null, null, null, null, null, new ObjectMapper());
         }
 
         void setSnapshot(Optional<ParsedDataResponse> snapshot) {
@@ -152,6 +152,16 @@ class ProjectOverviewControllerTest {
             return snapshot;
         }
 
+        @Override
+        public Optional<List<ApiEndpointSummary>> fetchApiEndpoints(Long projectId) {
+            return snapshot.map(ParsedDataResponse::apiEndpoints);
+        }
+
+        @Override
+        public Optional<DbAnalysisSummary> fetchDbAnalysis(Long projectId) {
+            return snapshot.map(ParsedDataResponse::dbAnalysis);
+        }
+
         @Override
         public ProjectSnapshot saveSnapshot(Project project, ParsedDataResponse parsedData, SnapshotMetadata metadata) {
             this.snapshot = Optional.of(parsedData);
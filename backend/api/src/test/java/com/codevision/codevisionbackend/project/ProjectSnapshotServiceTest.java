@@ -1,9 +1,12 @@
 package com.codevision.codevisionbackend.project;
 
+import com.codevision.codevisionbackend.analyze.ApiEndpointSummary;
 import com.codevision.codevisionbackend.analyze.AssetInventory;
 import com.codevision.codevisionbackend.analyze.BuildInfo;
 import com.codevision.codevisionbackend.analyze.ClassMetadataSummary;
 import com.codevision.codevisionbackend.analyze.DbAnalysisSummary;
+import com.codevision.codevisionbackend.analyze.DbAnalysisSummary.DaoOperationDetails;
+import com.codevision.codevisionbackend.analyze.DiagramSummary;
 import com.codevision.codevisionbackend.analyze.MetadataDump;
 import com.codevision.codevisionbackend.analyze.ParsedDataResponse;
 import com.codevision.codevisionbackend.analyze.PiiPciFindingSummary;
@@ -23,10 +26,12 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -40,6 +45,9 @@ class ProjectSnapshotServiceTest {
     @Autowired
     private ProjectSnapshotRepository projectSnapshotRepository;
 
+    @Autowired
+    private ProjectSnapshotSectionRepository projectSnapshotSectionRepository;
+
     @Autowired
     private ClassMetadataRepository classMetadataRepository;
 
@@ -56,6 +64,7 @@ class ProjectSnapshotServiceTest {
         Mockito.when(diagramService.listProjectDiagrams(Mockito.anyLong())).thenReturn(List.of());
         projectSnapshotService = new ProjectSnapshotService(
                 projectSnapshotRepository,
+                projectSnapshotSectionRepository,
                 projectRepository,
                 classMetadataRepository,
                 diagramService,
@@ -117,6 +126,142 @@ class ProjectSnapshotServiceTest {
         assertThat(summaries.get(1).commitHash()).isEqualTo("one");
     }
 
+    @Test
+    void storesFileFingerprintsAlongsideModuleFingerprints() {
+        Project project = persistProject("https://example.com/repo.git", "fingerprint-project");
+        ParsedDataResponse parsed = sampleParsedData(project, List.of());
+
+        ProjectSnapshot snapshot = projectSnapshotService.saveSnapshot(
+                project,
+                parsed,
+                new SnapshotMetadata("main", "abc", Map.of("/", "tree"), Map.of("src/App.java", "blob")));
+        ProjectSnapshot legacy = projectSnapshotService.saveSnapshot(
+                project, parsed, new SnapshotMetadata("main", "def", Map.of("/", "tree")));
+
+        assertThat(projectSnapshotService.readModuleFingerprints(snapshot)).containsEntry("/", "tree");
+        assertThat(projectSnapshotService.readFileFingerprints(snapshot)).containsExactly(Map.entry("src/App.java", "blob"));
+        assertThat(projectSnapshotService.readFileFingerprints(legacy)).isEmpty();
+    }
+
+    @Test
+    void recordsWhetherTheSecurityPassRan() {
+        Project project = persistProject("https://example.com/repo.git", "security-project");
+        ParsedDataResponse parsed = sampleParsedData(project, List.of());
+
+        ProjectSnapshot scanned = projectSnapshotService.saveSnapshot(
+                project, parsed, new SnapshotMetadata("main", "abc", Map.of(), Map.of(), true));
+        ProjectSnapshot skipped = projectSnapshotService.saveSnapshot(
+                project, parsed, new SnapshotMetadata("main", "def", Map.of()));
+
+        assertThat(projectSnapshotRepository.findById(scanned.getId()).orElseThrow().getSecurityScanned()).isTrue();
+        assertThat(projectSnapshotRepository.findById(skipped.getId()).orElseThrow().getSecurityScanned()).isFalse();
+    }
+
+    @Test
+    void storesSectionsCompressedAndReadsThemIndividually() {
+        Project project = persistProject("https://example.com/repo.git", "sectioned-project");
+        DbAnalysisSummary dbAnalysis = new DbAnalysisSummary(
+                List.of(),
+                Map.of("Customer", List.of("com.example.CustomerRepository")),
+                Map.of());
+        ParsedDataResponse parsed = new ParsedDataResponse(
+                project.getId(),
+                project.getProjectName(),
+                project.getRepoUrl(),
+                project.getLastAnalyzedAt(),
+                BuildInfo.empty(),
+                List.of(),
+                MetadataDump.empty(),
+                dbAnalysis,
+                List.of(new ApiEndpointSummary("REST", "GET", "/customers", "com.example.Api", "list", List.of())),
+                AssetInventory.empty(),
+                List.of(),
+                List.of(),
+                List.of(),
+                Map.of("com.example.Api", List.of("com.example.Service")),
+                List.of());
+
+        ProjectSnapshot snapshot = projectSnapshotService.saveSnapshot(
+                project, parsed, new SnapshotMetadata("main", "abc", Map.of()));
+
+        assertThat(snapshot.getStorageFormat()).isEqualTo(ProjectSnapshotService.SECTIONED_STORAGE_FORMAT);
+        assertThat(snapshot.getSnapshotJson()).doesNotContain("/customers");
+        assertThat(projectSnapshotSectionRepository.findBySnapshotId(snapshot.getId()))
+                .extracting(ProjectSnapshotSection::getSectionName)
+                .contains("apiEndpoints", "dbAnalysis", "callFlows");
+        assertThat(projectSnapshotService.fetchApiEndpoints(project.getId()).orElseThrow())
+                .extracting(ApiEndpointSummary::pathOrOperation)
+                .containsExactly("/customers");
+        assertThat(projectSnapshotService.fetchDbAnalysis(project.getId()).orElseThrow().classesByEntity())
+                .containsKey("Customer");
+        assertThat(projectSnapshotService.fetchSnapshot(project.getId()).orElseThrow().callFlows())
+                .containsKey("com.example.Api");
+    }
+
+    @Test
+    void deletingSnapshotDeletesItsSections() {
+        Project project = persistProject("https://example.com/repo.git", "cascade-project");
+        ProjectSnapshot snapshot = projectSnapshotService.saveSnapshot(
+                project, sampleParsedData(project, List.of()), new SnapshotMetadata("main", "abc", Map.of()));
+        assertThat(projectSnapshotSectionRepository.findBySnapshotId(snapshot.getId())).isNotEmpty();
+
+        projectSnapshotRepository.deleteById(snapshot.getId());
+        projectSnapshotRepository.flush();
+
+        assertThat(projectSnapshotSectionRepository.findBySnapshotId(snapshot.getId())).isEmpty();
+    }
+
+    @Test
+    void rejectsSecondCopyOfSection() {
+        Project project = persistProject("https://example.com/repo.git", "unique-section-project");
+        ProjectSnapshot snapshot = projectSnapshotService.saveSnapshot(
+                project, sampleParsedData(project, List.of()), new SnapshotMetadata("main", "abc", Map.of()));
+
+        ProjectSnapshotSection duplicate = new ProjectSnapshotSection();
+        duplicate.setSnapshot(snapshot);
+        duplicate.setSectionName("classes");
+        duplicate.setUncompressedBytes(2);
+        duplicate.setPayload(new byte[] {1});
+
+        assertThatThrownBy(() -> projectSnapshotSectionRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void readsSnapshotsStoredAsSingleDocument() throws Exception {
+        Project project = persistProject("https://example.com/repo.git", "legacy-project");
+        ParsedDataResponse parsed = new ParsedDataResponse(
+                project.getId(),
+                project.getProjectName(),
+                project.getRepoUrl(),
+                project.getLastAnalyzedAt(),
+                BuildInfo.empty(),
+                List.of(),
+                MetadataDump.empty(),
+                emptyDbAnalysis(),
+                List.of(new ApiEndpointSummary("REST", "POST", "/legacy", "com.example.Api", "create", List.of())),
+                AssetInventory.empty(),
+                List.of(),
+                List.of(),
+                List.of(),
+                Map.of(),
+                List.of());
+        ProjectSnapshot legacy = new ProjectSnapshot();
+        legacy.setProject(project);
+        legacy.setProjectName(project.getProjectName());
+        legacy.setRepoUrl(project.getRepoUrl());
+        legacy.setBranchName("main");
+        legacy.setCommitHash("old");
+        legacy.setSnapshotJson(new ObjectMapper().findAndRegisterModules().writeValueAsString(parsed));
+        legacy.setCreatedAt(OffsetDateTime.now());
+        projectSnapshotRepository.saveAndFlush(legacy);
+
+        assertThat(projectSnapshotService.fetchApiEndpoints(project.getId()).orElseThrow())
+                .extracting(ApiEndpointSummary::pathOrOperation)
+                .containsExactly("/legacy");
+        assertThat(projectSnapshotService.fetchSnapshot(project.getId()).orElseThrow().apiEndpoints()).hasSize(1);
+    }
+
     @Test
     void diffHighlightsNewClasses() {
         Project project = persistProject("https://example.com/repo.git", "diff-project");
@@ -151,6 +296,58 @@ class ProjectSnapshotServiceTest {
         assertThat(diff.removedClasses()).extracting(SnapshotDiff.ClassRef::fullyQualifiedName).containsExactly("com.example.Base");
     }
 
+    @Test
+    void diffReportsChangedDaoOperationsDiagramsAndCallFlowsAcrossStorageFormats() throws Exception {
+        Project project = persistProject("https://example.com/repo.git", "diff-details");
+        ParsedDataResponse base = detailedParsedData(
+                project,
+                Map.of("com.example.OrderRepository", List.of(
+                        new DaoOperationDetails("findAll", "SELECT", "orders", null),
+                        new DaoOperationDetails("deleteById", "DELETE", "orders", null))),
+                List.of(
+                        new DiagramSummary(null, "CLASS", "Domain", "@startuml\nA\n@enduml", null, null, Map.of()),
+                        new DiagramSummary(null, "ERD", "Schema", "@startuml\nT\n@enduml", null, null, Map.of())),
+                Map.of("GET /orders", List.of("OrderController", "OrderService"), "GET /legacy", List.of("Legacy")));
+        ProjectSnapshot legacy = new ProjectSnapshot();
+        legacy.setProject(project);
+        legacy.setProjectName(project.getProjectName());
+        legacy.setRepoUrl(project.getRepoUrl());
+        legacy.setBranchName("main");
+        legacy.setCommitHash("commit-1");
+        legacy.setSnapshotJson(new ObjectMapper().findAndRegisterModules().writeValueAsString(base));
+        legacy.setCreatedAt(OffsetDateTime.now());
+        ProjectSnapshot baseSnapshot = projectSnapshotRepository.saveAndFlush(legacy);
+
+        ParsedDataResponse compare = detailedParsedData(
+                project,
+                Map.of("com.example.OrderRepository", List.of(
+                        new DaoOperationDetails("findAll", "SELECT", "orders_v2", null),
+                        new DaoOperationDetails("save", "INSERT", "orders", null))),
+                List.of(
+                        new DiagramSummary(null, "CLASS", "Domain", "@startuml\nA\nB\n@enduml", null, null, Map.of()),
+                        new DiagramSummary(null, "ERD", "Schema", "@startuml\nT\n@enduml", null, null, Map.of()),
+                        new DiagramSummary(null, "SEQUENCE", "Checkout", "@startuml\n@enduml", null, null, Map.of())),
+                Map.of("GET /orders", List.of("OrderController", "OrderQueryService"), "POST /orders", List.of("X")));
+        ProjectSnapshot compareSnapshot = projectSnapshotService.saveSnapshot(
+                project, compare, new SnapshotMetadata("main", "commit-2", Map.of()));
+
+        SnapshotDiff diff = projectSnapshotService.diff(project.getId(), baseSnapshot.getId(), compareSnapshot.getId());
+
+        assertThat(diff.addedDaoOperations()).extracting(SnapshotDiff.DaoOperationRef::methodName)
+                .containsExactly("save");
+        assertThat(diff.removedDaoOperations()).extracting(SnapshotDiff.DaoOperationRef::methodName)
+                .containsExactly("deleteById");
+        assertThat(diff.changedDaoOperations()).extracting(SnapshotDiff.DaoOperationRef::target)
+                .containsExactly("orders_v2");
+        assertThat(diff.addedDiagrams()).extracting(SnapshotDiff.DiagramRef::title).containsExactly("Checkout");
+        assertThat(diff.removedDiagrams()).isEmpty();
+        assertThat(diff.changedDiagrams()).extracting(SnapshotDiff.DiagramRef::title).containsExactly("Domain");
+        assertThat(diff.addedCallFlows()).containsExactly("POST /orders");
+        assertThat(diff.removedCallFlows()).containsExactly("GET /legacy");
+        assertThat(diff.changedCallFlows()).containsExactly("GET /orders");
+        assertThat(diff.baseCommitHash()).isEqualTo("commit-1");
+    }
+
     private Project persistProject(String repoUrl, String projectName) {
         Project project = new Project(repoUrl, projectName, "main", OffsetDateTime.now());
         return projectRepository.saveAndFlush(project);
@@ -175,6 +372,29 @@ class ProjectSnapshotServiceTest {
                 List.of());
     }
 
+    private ParsedDataResponse detailedParsedData(
+            Project project,
+            Map<String, List<DaoOperationDetails>> operationsByClass,
+            List<DiagramSummary> diagrams,
+            Map<String, List<String>> callFlows) {
+        return new ParsedDataResponse(
+                project.getId(),
+                project.getProjectName(),
+                project.getRepoUrl(),
+                project.getLastAnalyzedAt(),
+                BuildInfo.empty(),
+                List.of(),
+                MetadataDump.empty(),
+                new DbAnalysisSummary(List.of(), Map.of(), operationsByClass),
+                List.of(),
+                AssetInventory.empty(),
+                List.of(),
+                List.of(),
+                List.of(),
+                callFlows,
+                diagrams);
+    }
+
     private DbAnalysisSummary emptyDbAnalysis() {
         return new DbAnalysisSummary(List.of(), Map.of(), Map.of());
     }
@@ -1,11 +1,18 @@
 package com.codevision.codevisionbackend.project.diagram;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.codevision.codevisionbackend.analyze.DiagramSummary;
+import com.codevision.codevisionbackend.analyze.diagram.DiagramDefinition;
 import com.codevision.codevisionbackend.project.Project;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -13,14 +20,47 @@ import org.mockito.Mockito;
 class DiagramServiceTest {
 
     private DiagramService diagramService;
+    private DiagramRepository diagramRepository;
+    private DiagramStorageService storageService;
+    private DiagramSvgCache svgCache;
 
     @BeforeEach
     void setUp() {
-        diagramService = new DiagramService(
-                Mockito.mock(DiagramRepository.class),
-                Mockito.mock(DiagramStorageService.class),
-                Mockito.mock(DiagramSvgRenderer.class),
-                new ObjectMapper());
+        diagramRepository = Mockito.mock(DiagramRepository.class);
+        storageService = Mockito.mock(DiagramStorageService.class);
+        svgCache = Mockito.mock(DiagramSvgCache.class);
+        diagramService = new DiagramService(diagramRepository, storageService, svgCache, new ObjectMapper());
+    }
+
+    @Test
+    void replaceProjectDiagramsPointsAtTheRenderCacheWithoutRendering() {
+        Project project = new Project();
+        project.setId(3L);
+        when(svgCache.isEnabled()).thenReturn(true);
+        when(svgCache.pathFor("@startuml@enduml")).thenReturn("svg-cache/ab/abc.svg");
+        when(diagramRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Diagram> diagrams = diagramService.replaceProjectDiagrams(project, List.of(new DiagramDefinition(
+                DiagramType.CLASS, "Classes", "@startuml@enduml", "classDiagram", Map.of())));
+
+        assertThat(diagrams).extracting(Diagram::getSvgPath).containsExactly("svg-cache/ab/abc.svg");
+        verify(svgCache).prefetch("@startuml@enduml");
+        verify(svgCache, never()).get("@startuml@enduml");
+    }
+
+    @Test
+    void loadSvgRendersCachedDiagramsOnDemandAndReadsLegacyFiles() {
+        Diagram cached = new Diagram();
+        cached.setSvgPath("svg-cache/ab/abc.svg");
+        cached.setPlantumlSource("@startuml@enduml");
+        Diagram legacy = new Diagram();
+        legacy.setSvgPath("project-1/class/diagram-0.svg");
+        when(svgCache.isCachePath("svg-cache/ab/abc.svg")).thenReturn(true);
+        when(svgCache.get("@startuml@enduml")).thenReturn(Optional.of("<svg/>".getBytes()));
+        when(storageService.loadSvg("project-1/class/diagram-0.svg")).thenReturn("<svg>old</svg>".getBytes());
+
+        assertThat(diagramService.loadSvg(cached)).isEqualTo("<svg/>".getBytes());
+        assertThat(diagramService.loadSvg(legacy)).isEqualTo("<svg>old</svg>".getBytes());
     }
 
     @Test
@@ -0,0 +1,128 @@
+package com.codevision.codevisionbackend.project.diagram;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codevision.codevisionbackend.config.DiagramStorageProperties;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiagramSvgCacheTest {
+
+    private static final String SOURCE = "@startuml\nAlice -> Bob\n@enduml";
+
+    @TempDir
+    Path tempDir;
+
+    private DiagramSvgRenderer renderer;
+    private DiagramSvgCache cache;
+
+    @BeforeEach
+    void setUp() {
+        renderer = mock(DiagramSvgRenderer.class);
+        when(renderer.isEnabled()).thenReturn(true);
+        when(renderer.render(anyString()))
+                .thenAnswer(invocation -> Optional.of(("<svg>" + invocation.getArgument(0) + "</svg>")
+                        .getBytes(StandardCharsets.UTF_8)));
+        cache = newCache(1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void getRendersOnceAndServesLaterRequestsFromDisk() {
+        byte[] first = cache.get(SOURCE).orElseThrow();
+        byte[] second = cache.get(SOURCE).orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(tempDir.resolve(cache.pathFor(SOURCE))).exists();
+        assertThat(cache.isCachePath(cache.pathFor(SOURCE))).isTrue();
+        verify(renderer, times(1)).render(SOURCE);
+    }
+
+    @Test
+    void cachedSvgsSurviveARestart() {
+        cache.get(SOURCE);
+        DiagramSvgCache restarted = newCache(1024);
+        try {
+            assertThat(restarted.get(SOURCE)).isPresent();
+        } finally {
+            restarted.shutdown();
+        }
+
+        verify(renderer, times(1)).render(SOURCE);
+    }
+
+    @Test
+    void leastRecentlyUsedSvgIsEvictedOverBudget() {
+        cache.shutdown();
+        cache = newCache(2 * ("<svg>" + SOURCE + "-0</svg>").length());
+
+        cache.get(SOURCE + "-0");
+        cache.get(SOURCE + "-1");
+        cache.get(SOURCE + "-0");
+        cache.get(SOURCE + "-2");
+
+        assertThat(tempDir.resolve(cache.pathFor(SOURCE + "-0"))).exists();
+        assertThat(tempDir.resolve(cache.pathFor(SOURCE + "-1"))).doesNotExist();
+        assertThat(tempDir.resolve(cache.pathFor(SOURCE + "-2"))).exists();
+    }
+
+    @Test
+    void prefetchRendersInTheBackgroundAndGetWaitsForIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(renderer.render(SOURCE)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of("<svg/>".getBytes(StandardCharsets.UTF_8));
+        });
+
+        cache.prefetch(SOURCE);
+        cache.prefetch(SOURCE);
+        release.countDown();
+
+        assertThat(cache.get(SOURCE)).contains("<svg/>".getBytes(StandardCharsets.UTF_8));
+        verify(renderer, times(1)).render(SOURCE);
+    }
+
+    @Test
+    void getRendersOnTheCallingThreadOnceThePoolIsShutDown() {
+        cache.shutdown();
+
+        assertThat(cache.get(SOURCE)).isPresent();
+        assertThat(tempDir.resolve(cache.pathFor(SOURCE))).exists();
+        verify(renderer, times(1)).render(SOURCE);
+    }
+
+    @Test
+    void disabledRendererYieldsNothing() {
+        when(renderer.isEnabled()).thenReturn(false);
+
+        cache.prefetch(SOURCE);
+
+        assertThat(cache.get(SOURCE)).isEmpty();
+        assertThat(Files.exists(tempDir.resolve(DiagramSvgCache.CACHE_DIRECTORY))).isFalse();
+    }
+
+    private DiagramSvgCache newCache(long maxBytes) {
+        DiagramStorageProperties properties = new DiagramStorageProperties();
+        properties.setRoot(tempDir.toString());
+        DiagramSvgCache svgCache = new DiagramSvgCache(renderer, properties, maxBytes, 2);
+        svgCache.loadIndex();
+        return svgCache;
+    }
+}
@@ -13,6 +13,7 @@ DROP TABLE IF EXISTS asset_image;
 DROP TABLE IF EXISTS api_endpoint;
 DROP TABLE IF EXISTS pii_pci_finding;
 DROP TABLE IF EXISTS class_metadata;
+DROP TABLE IF EXISTS project_snapshot_section;
 DROP TABLE IF EXISTS project_snapshot;
 DROP TABLE IF EXISTS analysis_job;
 DROP TABLE IF EXISTS project CASCADE;
@@ -56,12 +57,27 @@ CREATE TABLE project_snapshot (
     branch_name VARCHAR(255) NOT NULL,
     commit_hash VARCHAR(96),
     module_fingerprints_json CLOB,
+    file_fingerprints_json CLOB,
     snapshot_json CLOB NOT NULL,
+    storage_format VARCHAR(32),
+    security_scanned BOOLEAN,
     created_at TIMESTAMP NOT NULL,
     CONSTRAINT fk_project_snapshot_project FOREIGN KEY (project_id)
         REFERENCES project (id) ON DELETE CASCADE
 );
 
+CREATE TABLE project_snapshot_section (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    snapshot_id BIGINT NOT NULL,
+    section_name VARCHAR(64) NOT NULL,
+    uncompressed_bytes BIGINT NOT NULL,
+    payload VARBINARY NOT NULL,
+    CONSTRAINT fk_project_snapshot_section_snapshot FOREIGN KEY (snapshot_id)
+        REFERENCES project_snapshot (id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX uq_project_snapshot_section ON project_snapshot_section (snapshot_id, section_name);
+
 CREATE TABLE class_metadata (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     project_id BIGINT NOT NULL,
@@ -189,20 +205,27 @@ CREATE TABLE compiled_analysis_run (
 
 CREATE TABLE entity (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    class_name VARCHAR(512) NOT NULL UNIQUE,
+    project_key VARCHAR(1024) NOT NULL,
+    run_id UUID,
+    class_name VARCHAR(512) NOT NULL,
     package_name VARCHAR(512) NOT NULL,
     jar_or_dir VARCHAR(1024),
     table_name VARCHAR(512),
     origin VARCHAR(16) NOT NULL,
     scc_id BIGINT,
-    in_cycle BOOLEAN DEFAULT FALSE
+    in_cycle BOOLEAN DEFAULT FALSE,
+    content_hash VARCHAR(64),
+    CONSTRAINT uq_entity_project_class UNIQUE (project_key, class_name)
 );
 
 CREATE TABLE entity_field (
     entity_id BIGINT NOT NULL,
     name VARCHAR(256) NOT NULL,
+    project_key VARCHAR(1024) NOT NULL,
+    run_id UUID,
     type VARCHAR(512),
     is_join BOOLEAN DEFAULT FALSE,
+    content_hash VARCHAR(64),
     PRIMARY KEY (entity_id, name),
     CONSTRAINT fk_entity_field_entity FOREIGN KEY (entity_id)
         REFERENCES entity (id) ON DELETE CASCADE
@@ -210,16 +233,23 @@ CREATE TABLE entity_field (
 
 CREATE TABLE sequence (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    generator_name VARCHAR(512) NOT NULL UNIQUE,
+    project_key VARCHAR(1024) NOT NULL,
+    run_id UUID,
+    generator_name VARCHAR(512) NOT NULL,
     sequence_name VARCHAR(512),
     allocation_size INT,
-    initial_value INT
+    initial_value INT,
+    content_hash VARCHAR(64),
+    CONSTRAINT uq_sequence_project_generator UNIQUE (project_key, generator_name)
 );
 
 CREATE TABLE entity_uses_sequence (
     entity_id BIGINT NOT NULL,
     field_name VARCHAR(256) NOT NULL,
+    project_key VARCHAR(1024) NOT NULL,
+    run_id UUID,
     sequence_id BIGINT NOT NULL,
+    content_hash VARCHAR(64),
     PRIMARY KEY (entity_id, field_name),
     CONSTRAINT fk_entity_sequence_entity FOREIGN KEY (entity_id)
         REFERENCES entity (id) ON DELETE CASCADE,
@@ -228,18 +258,24 @@ CREATE TABLE entity_uses_sequence (
 );
 
 CREATE TABLE class_dep (
+    project_key VARCHAR(1024) NOT NULL,
     caller VARCHAR(512) NOT NULL,
     callee VARCHAR(512) NOT NULL,
+    run_id UUID,
     package_filter VARCHAR(512) NOT NULL,
-    PRIMARY KEY (caller, callee)
+    content_hash VARCHAR(64),
+    PRIMARY KEY (project_key, caller, callee)
 );
 
 CREATE TABLE compiled_endpoint (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    project_key VARCHAR(1024) NOT NULL,
+    run_id UUID,
     endpoint_type VARCHAR(32) NOT NULL,
     http_method VARCHAR(32),
     path VARCHAR(1024),
     controller_class VARCHAR(512),
     controller_method VARCHAR(512),
-    framework VARCHAR(128)
+    framework VARCHAR(128),
+    content_hash VARCHAR(64)
 );
@@ -3,6 +3,7 @@
  * Tree-sitter parse bridge for CodeVision.
  *
  * Usage: node tree-sitter-parse.js <file-path> <language>
+ *        node tree-sitter-parse.js --worker
  *
  * Parses the source file using the tree-sitter grammar for the given language
  * and outputs a JSON AST to stdout in the format expected by ParsedNode.java.
@@ -10,6 +11,18 @@
  * Exit codes:
  *   0 — success (JSON AST on stdout)
  *   1 — error (JSON error object on stdout)
+ *
+ * Worker mode keeps the process alive and serves requests over stdin/stdout.
+ * Every frame is a 4-byte big-endian length followed by that many bytes of
+ * UTF-8 JSON. Requests and their responses:
+ *
+ *   {"id": 1, "ping": true}
+ *     -> {"id": 1, "pong": true}
+ *   {"id": 2, "files": [{"language": "java", "source": "..."}, ...]}
+ *     -> {"id": 2, "results": [{"nodes": [...]} | {"error": "..."}, ...]}
+ *
+ * Results are in request order. Parsers are created once per language and
+ * reused across requests.
  */
 'use strict';
 
@@ -84,8 +97,99 @@ function convertNode(node, sourceLines) {
   };
 }
 
+function loadGrammar(language) {
+  const packageName = GRAMMAR_PACKAGES[language];
+  if (!packageName) {
+    throw new Error('Unsupported language: ' + language);
+  }
+  const grammarModule = require(packageName);
+  // Some grammar packages export the language directly, others have sub-languages
+  // (e.g., tree-sitter-typescript exports .typescript and .tsx)
+  if (language === 'typescript' && grammarModule.typescript) {
+    return grammarModule.typescript;
+  }
+  if (language === 'php' && grammarModule.php) {
+    return grammarModule.php;
+  }
+  return grammarModule;
+}
+
+function toNodes(tree, source) {
+  const sourceLines = source.split('\n');
+  const rootNode = tree.rootNode;
+  const children = [];
+  for (let i = 0; i < rootNode.namedChildCount; i++) {
+    children.push(convertNode(rootNode.namedChild(i), sourceLines));
+  }
+  return children;
+}
+
+function runWorker() {
+  let Parser = null;
+  const parsers = new Map();
+
+  function parserFor(language) {
+    let parser = parsers.get(language);
+    if (!parser) {
+      Parser = Parser || require('tree-sitter');
+      parser = new Parser();
+      parser.setLanguage(loadGrammar(language));
+      parsers.set(language, parser);
+    }
+    return parser;
+  }
+
+  function handle(request) {
+    if (request.ping) {
+      return { id: request.id, pong: true };
+    }
+    const results = (request.files || []).map((file) => {
+      try {
+        const tree = parserFor(file.language).parse(file.source);
+        return { nodes: toNodes(tree, file.source) };
+      } catch (e) {
+        return { error: String(e && e.message ? e.message : e) };
+      }
+    });
+    return { id: request.id, results: results };
+  }
+
+  function send(message) {
+    const payload = Buffer.from(JSON.stringify(message), 'utf8');
+    const header = Buffer.alloc(4);
+    header.writeUInt32BE(payload.length, 0);
+    process.stdout.write(Buffer.concat([header, payload]));
+  }
+
+  let buffered = Buffer.alloc(0);
+  process.stdin.on('data', (chunk) => {
+    buffered = Buffer.concat([buffered, chunk]);
+    while (buffered.length >= 4) {
+      const length = buffered.readUInt32BE(0);
+      if (buffered.length < 4 + length) {
+        break;
+      }
+      const frame = buffered.subarray(4, 4 + length).toString('utf8');
+      buffered = buffered.subarray(4 + length);
+      let request;
+      try {
+        request = JSON.parse(frame);
+      } catch (e) {
+        send({ id: null, error: 'Malformed request: ' + e.message });
+        continue;
+      }
+      send(handle(request));
+    }
+  });
+  process.stdin.on('end', () => process.exit(0));
+}
+
 function main() {
   const args = process.argv.slice(2);
+  if (args[0] === '--worker') {
+    runWorker();
+    return;
+  }
   if (args.length < 2) {
     process.stdout.write(JSON.stringify({
       error: 'Usage: tree-sitter-parse.js <file-path> <language>'